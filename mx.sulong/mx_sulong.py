@@ -129,6 +129,12 @@ def travis1(args=None):
         if t: mx_testsuites.runSuite(['pipe'])
     with Task('TestLLVM', tasks) as t:
         if t: mx_testsuites.runSuite(['llvm'])
+    with Task('TestArenaAllocator', tasks) as t:
+        if t: mx_testsuites.runSuite(['arena'])
+    with Task('TestScannerCache', tasks) as t:
+        if t: mx_testsuites.runSuite(['cache'])
+    with Task('TestParallelParsing', tasks) as t:
+        if t: mx_testsuites.runSuite(['parallel'])
 
 def travis2(args=None):
     """executes the third Travis job (Javac build, NWCC, GCC compilation test cases)"""
@@ -127,6 +127,10 @@ def runParserTortureSuite(vmArgs):
     compileSuite(['parserTorture'])
     return run(vmArgs + ['-Dpolyglot.llvm.parseOnly=true'], "com.oracle.truffle.llvm.test.alpha.ParserTortureSuite")
 
+def runArenaTests(vmArgs):
+    """runs the Sulong test suite with the arena allocator"""
+    return run(vmArgs + ['-Dpolyglot.llvm.allocator=arena'], "com.oracle.truffle.llvm.test.alpha.SulongSuite")
+
 def runPolyglotTests(vmArgs):
     """runs the Polyglot test suite"""
     return run(vmArgs, "com.oracle.truffle.llvm.test.TestPolyglotEngine")
@@ -139,6 +143,14 @@ def runPipeTests(vmArgs):
     """runs the Pipe test suite"""
     return run(vmArgs, "com.oracle.truffle.llvm.test.alpha.CaptureOutputTest")
 
+def runScannerCacheTests(vmArgs):
+    """runs the ScannerCache test suite"""
+    return run(vmArgs, "com.oracle.truffle.llvm.test.alpha.ScannerCacheTest")
+
+def runParallelParsingTests(vmArgs):
+    """runs the ParallelParsing test suite"""
+    return run(vmArgs, "com.oracle.truffle.llvm.test.alpha.ParallelParsingTest")
+
 def compileV38LLVMSuite():
     deleteCachedTests('llvm')
     ensureLLVMSuiteExists()
@@ -236,9 +248,12 @@ testSuites = {
     'shootout' : (compileShootoutSuite, runShootoutSuite),
     'interop' : (compileInteropTests38, runInteropTests38),
     'parserTorture' : (compileParserTurtureSuite, runParserTortureSuite),
+    'arena' : (None, runArenaTests),
     'polyglot' : (None, runPolyglotTests),
     'type' : (None, runTypeTests),
     'pipe' : (None, runPipeTests),
+    'cache' : (None, runScannerCacheTests),
+    'parallel' : (None, runParallelParsingTests),
 }
 
 
@@ -109,6 +109,20 @@ suite = {
       "license" : "BSD-new",
     },
 
+    "com.oracle.truffle.llvm.bench" : {
+      "subDir" : "projects",
+      "sourceDirs" : ["src"],
+      "dependencies" : [
+        "com.oracle.truffle.llvm",
+        "mx:JMH_1_18",
+      ],
+      "checkstyle" : "com.oracle.truffle.llvm.test",
+      "javaCompliance" : "1.8",
+      "annotationProcessors" : ["mx:JMH_1_18"],
+      "workingSets" : "Truffle, LLVM",
+      "license" : "BSD-new",
+    },
+
     "com.oracle.truffle.llvm.runtime" : {
       "subDir" : "projects",
       "sourceDirs" : ["src"],
@@ -327,6 +341,29 @@ suite = {
       "license" : "BSD-new",
     },
 
+    "SULONG_BENCH" : {
+      "path" : "build/sulong_bench.jar",
+      "subDir" : "graal",
+      "sourcesPath" : "build/sulong_bench.src.zip",
+      "dependencies" : [
+        "com.oracle.truffle.llvm.bench",
+      ],
+      "distDependencies" : [
+        "truffle:TRUFFLE_API",
+        "sulong:SULONG",
+        "SULONG_LIBS",
+        "SULONG_TEST_SUITES",
+      ],
+      "javaProperties" : {
+        "sulongbench.bitcode" : "<path:SULONG_LIBS>/libsulong.bc",
+        "sulongbench.calls" : "<path:SULONG_TEST_SUITES>/com.oracle.truffle.llvm.tests.sulong/c/calls/indirectCalls/O1.bc",
+        "sulongbench.strings" : "<path:SULONG_TEST_SUITES>/com.oracle.truffle.llvm.tests.sulong/c/string/stringFunctions/O1.bc",
+        "sulongbench.vectors" : "<path:SULONG_TEST_SUITES>/com.oracle.truffle.llvm.tests.sulong/c/vector/saxpyDot/O1.bc",
+        "sulongbench.exceptions" : "<path:SULONG_TEST_SUITES>/com.oracle.truffle.llvm.tests.sulongcpp/cpp/test054/O0.bc",
+      },
+      "license" : "BSD-new",
+    },
+
     "SULONG_TEST_NATIVE" : {
       "native" : True,
       "platformDependent" : True,
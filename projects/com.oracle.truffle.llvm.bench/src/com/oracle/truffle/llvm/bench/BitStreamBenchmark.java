@@ -0,0 +1,235 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.bench;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Base64;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.oracle.truffle.api.source.Source;
+import com.oracle.truffle.llvm.parser.model.ModelModule;
+import com.oracle.truffle.llvm.parser.scanner.BitStream;
+import com.oracle.truffle.llvm.parser.scanner.LLVMScanner;
+import com.oracle.truffle.llvm.runtime.LLVMLanguage;
+
+/**
+ * Measures how fast bitcode is decoded. Throughput is reported as megabytes of bitcode per second
+ * in the {@code megabytes} counter. The bitcode file defaults to {@code libsulong.bc} and can be
+ * changed with {@code -Dsulongbench.bitcode=<file>}.
+ */
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class BitStreamBenchmark {
+
+    private static final String BITCODE_PROPERTY = "sulongbench.bitcode";
+
+    private static final long FIXED_WIDTH = 4;
+    private static final long VBR_WIDTH = 6;
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Throughput {
+
+        public double megabytes;
+
+        void decoded(long bytes) {
+            megabytes += bytes / (1024.0 * 1024.0);
+        }
+    }
+
+    private interface BitReader {
+
+        long read(long offset, long bits);
+
+        long readVBR(long offset, long width);
+
+        long size();
+    }
+
+    @State(Scope.Benchmark)
+    public static class Bitcode {
+
+        /**
+         * {@code mapped} and {@code heap} use {@link BitStream} over a mapped file and over the
+         * decoded contents of a base64 source, {@code legacy} is the former byte-wise
+         * implementation.
+         */
+        @Param({"mapped", "heap", "legacy"}) public String implementation;
+
+        Source source;
+        BitReader reader;
+        long bytes;
+
+        @Setup
+        public void setup() throws IOException {
+            final File file = new File(System.getProperty(BITCODE_PROPERTY));
+            final byte[] contents = Files.readAllBytes(file.toPath());
+            bytes = contents.length;
+            switch (implementation) {
+                case "mapped":
+                    source = Source.newBuilder(file).mimeType(LLVMLanguage.LLVM_BITCODE_MIME_TYPE).build();
+                    break;
+                case "heap":
+                    final String encoded = Base64.getEncoder().encodeToString(contents);
+                    source = Source.newBuilder(encoded).name(file.getPath()).mimeType(LLVMLanguage.LLVM_BITCODE_BASE64_MIME_TYPE).build();
+                    break;
+                case "legacy":
+                    reader = new LegacyBitStream(contents);
+                    return;
+                default:
+                    throw new IllegalArgumentException(implementation);
+            }
+            final BitStream stream = BitStream.create(source);
+            reader = new BitReader() {
+
+                @Override
+                public long read(long offset, long bits) {
+                    return stream.read(offset, bits);
+                }
+
+                @Override
+                public long readVBR(long offset, long width) {
+                    return stream.readVBR(offset, width);
+                }
+
+                @Override
+                public long size() {
+                    return stream.size();
+                }
+            };
+        }
+    }
+
+    /**
+     * Walks the whole file alternating between fixed-width and VBR fields, the mix that dominates
+     * record operands.
+     */
+    @Benchmark
+    public long decode(Bitcode bitcode, Throughput throughput) {
+        final BitReader reader = bitcode.reader;
+        final long end = reader.size() - Long.SIZE;
+        long offset = 0;
+        long sum = 0;
+        while (offset < end) {
+            sum += reader.read(offset, FIXED_WIDTH);
+            offset += FIXED_WIDTH;
+            final long value = reader.readVBR(offset, VBR_WIDTH);
+            sum += value;
+            offset += BitStream.widthVBR(value, VBR_WIDTH);
+        }
+        throughput.decoded(bitcode.bytes);
+        return sum;
+    }
+
+    /**
+     * Scans the complete module, including the function bodies. Only applies to the
+     * {@link BitStream} based implementations.
+     */
+    @Benchmark
+    public ModelModule scan(Bitcode bitcode, Throughput throughput) {
+        if (bitcode.source == null) {
+            return null;
+        }
+        final ModelModule model = LLVMScanner.parse(bitcode.source, false);
+        throughput.decoded(bitcode.bytes);
+        return model;
+    }
+
+    private static final class LegacyBitStream implements BitReader {
+
+        private static final long BYTE_MASK = 0xffL;
+        private final byte[] bitstream;
+
+        LegacyBitStream(byte[] bitstream) {
+            this.bitstream = bitstream;
+        }
+
+        @Override
+        public long read(long offset, long bits) {
+            final long l = read(offset);
+            if (bits < Long.SIZE) {
+                return l & ((1L << bits) - 1L);
+            } else {
+                return l;
+            }
+        }
+
+        @Override
+        public long readVBR(long offset, long width) {
+            long value = 0;
+            long shift = 0;
+            long datum;
+            long o = offset;
+            long dmask = 1 << (width - 1);
+            do {
+                datum = read(o, width);
+                o += width;
+                value += (datum & (dmask - 1)) << shift;
+                shift += width - 1;
+            } while ((datum & dmask) != 0);
+            return value;
+        }
+
+        @Override
+        public long size() {
+            return bitstream.length * Byte.SIZE;
+        }
+
+        private long read(long offset) {
+            long div = offset / Byte.SIZE;
+            long value = 0;
+            for (int i = 0; i < Byte.SIZE; i++) {
+                value += readAlignedByte(div + i) << (i * Byte.SIZE);
+            }
+            long mod = offset & (Byte.SIZE - 1L);
+            if (mod != 0) {
+                value >>>= mod;
+                value += readAlignedByte(div + Byte.SIZE) << (Long.SIZE - mod);
+            }
+            return value;
+        }
+
+        private long readAlignedByte(long i) {
+            return i < bitstream.length ? bitstream[(int) i] & BYTE_MASK : 0;
+        }
+    }
+}
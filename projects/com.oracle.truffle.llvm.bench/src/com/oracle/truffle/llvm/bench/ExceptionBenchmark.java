@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.bench;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Source;
+import org.graalvm.polyglot.Value;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the throughput of C++ {@code throw}/{@code catch}. Every operation throws and catches
+ * one exception: an {@code int}, one of seven classes caught by a base class reference, or a mix
+ * of values, pointers and classes that is re-thrown once before it is caught. The bitcode file is
+ * the {@code test054} C++ test program and can be changed with
+ * {@code -Dsulongbench.exceptions=<file>}.
+ */
+@Warmup(iterations = 10)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExceptionBenchmark {
+
+    private static final String BITCODE_PROPERTY = "sulongbench.exceptions";
+
+    private static final int EXCEPTIONS_PER_INVOCATION = 1000;
+
+    private Context context;
+    private Value throwCatch;
+    private Value throwCatchPolymorphic;
+    private Value throwCatchMixed;
+
+    @Setup
+    public void setup() throws IOException {
+        context = Context.create();
+        context.eval(Source.newBuilder("llvm", new File(System.getProperty(BITCODE_PROPERTY))).build());
+        throwCatch = context.importSymbol("throwCatch");
+        throwCatchPolymorphic = context.importSymbol("throwCatchPolymorphic");
+        throwCatchMixed = context.importSymbol("throwCatchMixed");
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EXCEPTIONS_PER_INVOCATION)
+    public int throwCatch() {
+        return throwCatch.execute(EXCEPTIONS_PER_INVOCATION).asInt();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EXCEPTIONS_PER_INVOCATION)
+    public int throwCatchPolymorphic() {
+        return throwCatchPolymorphic.execute(EXCEPTIONS_PER_INVOCATION).asInt();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EXCEPTIONS_PER_INVOCATION)
+    public int throwCatchMixed() {
+        return throwCatchMixed.execute(EXCEPTIONS_PER_INVOCATION).asInt();
+    }
+}
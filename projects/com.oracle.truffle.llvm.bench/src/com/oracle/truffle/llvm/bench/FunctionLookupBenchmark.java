@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.oracle.truffle.llvm.runtime.LLVMFunctionDescriptor;
+import com.oracle.truffle.llvm.runtime.LLVMFunctionHandle;
+import com.oracle.truffle.llvm.runtime.LLVMFunctionIndexRegistry;
+
+/**
+ * Resolves function pointers to descriptors from several threads, the way megamorphic indirect
+ * calls do once the inline cache of the dispatch node is exhausted. The {@code synchronized}
+ * variant takes a shared monitor around every lookup, like {@code LLVMContext} used to.
+ */
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class FunctionLookupBenchmark {
+
+    private static final int FUNCTIONS = 4096;
+    private static final int TARGETS = 8;
+
+    @Param({"lockFree", "synchronized"}) public String lookup;
+
+    private LLVMFunctionIndexRegistry registry;
+    private LLVMFunctionHandle[] targets;
+    private boolean synchronizedLookup;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int next;
+
+        int next() {
+            next = (next + 1) % TARGETS;
+            return next;
+        }
+    }
+
+    @Setup
+    public void setup() {
+        registry = new LLVMFunctionIndexRegistry();
+        LLVMFunctionDescriptor[] functions = new LLVMFunctionDescriptor[FUNCTIONS];
+        for (int i = 0; i < FUNCTIONS; i++) {
+            functions[i] = registry.create(index -> LLVMFunctionDescriptor.createDescriptor(null, "f" + index, null, index));
+        }
+        targets = new LLVMFunctionHandle[TARGETS];
+        for (int i = 0; i < TARGETS; i++) {
+            // spread the targets over several chunks of the table
+            targets[i] = LLVMFunctionHandle.createHandle(functions[i * (FUNCTIONS / TARGETS) + i].getFunctionPointer());
+        }
+        synchronizedLookup = "synchronized".equals(lookup);
+    }
+
+    @Benchmark
+    public LLVMFunctionDescriptor resolve(Cursor cursor) {
+        LLVMFunctionHandle handle = targets[cursor.next()];
+        if (synchronizedLookup) {
+            synchronized (this) {
+                return registry.getDescriptor(handle);
+            }
+        }
+        return registry.getDescriptor(handle);
+    }
+}
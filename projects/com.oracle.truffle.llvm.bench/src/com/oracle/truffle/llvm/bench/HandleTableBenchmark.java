@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.bench;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.oracle.truffle.api.interop.ForeignAccess;
+import com.oracle.truffle.api.interop.TruffleObject;
+import com.oracle.truffle.llvm.runtime.LLVMAddress;
+import com.oracle.truffle.llvm.runtime.LLVMHandleTable;
+import com.oracle.truffle.llvm.runtime.memory.LLVMMemory;
+
+/**
+ * Creates, resolves and releases short-lived native handles for managed objects. All threads share
+ * one table; pass {@code -t 1}, {@code -t 8} or {@code -t 32} to compare the throughput for
+ * different numbers of threads. The {@code baseline} implementation is how LLVMContext kept handles
+ * before {@link LLVMHandleTable}: two maps behind one lock and a malloc per handle.
+ */
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HandleTableBenchmark {
+
+    @Param({"table", "baseline"}) public String implementation;
+
+    private Handles handles;
+
+    private interface Handles {
+
+        LLVMAddress getHandle(TruffleObject object);
+
+        TruffleObject getObject(LLVMAddress address);
+
+        TruffleObject release(LLVMAddress address);
+
+        void dispose();
+    }
+
+    private static final class TableHandles implements Handles {
+
+        private final LLVMHandleTable table = new LLVMHandleTable();
+
+        @Override
+        public LLVMAddress getHandle(TruffleObject object) {
+            return table.getHandle(object);
+        }
+
+        @Override
+        public TruffleObject getObject(LLVMAddress address) {
+            return table.getObject(address);
+        }
+
+        @Override
+        public TruffleObject release(LLVMAddress address) {
+            return table.release(address);
+        }
+
+        @Override
+        public void dispose() {
+            table.dispose();
+        }
+    }
+
+    private static final class BaselineHandles implements Handles {
+
+        private final Object handlesLock = new Object();
+        private final IdentityHashMap<TruffleObject, LLVMAddress> toNative = new IdentityHashMap<>();
+        private final HashMap<LLVMAddress, TruffleObject> toManaged = new HashMap<>();
+
+        @Override
+        public LLVMAddress getHandle(TruffleObject object) {
+            synchronized (handlesLock) {
+                return toNative.computeIfAbsent(object, (k) -> {
+                    LLVMAddress allocatedMemory = LLVMMemory.allocateMemory(Long.BYTES);
+                    LLVMMemory.putI64(allocatedMemory, 0xdeadbeef);
+                    toManaged.put(allocatedMemory, object);
+                    return allocatedMemory;
+                });
+            }
+        }
+
+        @Override
+        public TruffleObject getObject(LLVMAddress address) {
+            synchronized (handlesLock) {
+                return toManaged.get(address);
+            }
+        }
+
+        @Override
+        public TruffleObject release(LLVMAddress address) {
+            synchronized (handlesLock) {
+                final TruffleObject object = toManaged.remove(address);
+                if (object != null) {
+                    toNative.remove(object);
+                    LLVMMemory.free(address);
+                }
+                return object;
+            }
+        }
+
+        @Override
+        public void dispose() {
+            for (LLVMAddress address : toManaged.keySet()) {
+                LLVMMemory.free(address);
+            }
+        }
+    }
+
+    private static final class ManagedObject implements TruffleObject {
+        @Override
+        public ForeignAccess getForeignAccess() {
+            return null;
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class LongLivedObject {
+        final TruffleObject object = new ManagedObject();
+    }
+
+    @Setup
+    public void setup() {
+        handles = implementation.equals("baseline") ? new BaselineHandles() : new TableHandles();
+    }
+
+    @TearDown
+    public void tearDown() {
+        handles.dispose();
+    }
+
+    @Benchmark
+    public TruffleObject shortLived() {
+        LLVMAddress handle = handles.getHandle(new ManagedObject());
+        handles.getObject(handle);
+        return handles.release(handle);
+    }
+
+    @Benchmark
+    public TruffleObject existing(LongLivedObject longLived) {
+        return handles.getObject(handles.getHandle(longLived.object));
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.oracle.truffle.llvm.runtime.floating.LLVM80BitFloat;
+
+/**
+ * Accumulates sums, products and quotients of {@code x86_fp80} values. The {@code exact}
+ * implementation uses the software arithmetic of {@link LLVM80BitFloat}, {@code double} rounds
+ * every operation through a {@code double} the way the arithmetic was implemented before and shows
+ * the cost of the additional precision.
+ */
+@Warmup(iterations = 10)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LLVM80BitFloatBenchmark {
+
+    private static final int VALUES = 1024;
+
+    @Param({"exact", "double"})
+    public String implementation;
+
+    private final LLVM80BitFloat[] values = new LLVM80BitFloat[VALUES];
+    private boolean exact;
+
+    @Setup
+    public void setup() {
+        exact = "exact".equals(implementation);
+        for (int i = 0; i < VALUES; i++) {
+            values[i] = LLVM80BitFloat.fromDouble(1.0 + i / 3.0);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUES)
+    public LLVM80BitFloat sum() {
+        LLVM80BitFloat result = LLVM80BitFloat.fromInt(0);
+        for (LLVM80BitFloat value : values) {
+            result = exact ? result.add(value) : LLVM80BitFloat.fromDouble(result.getDoubleValue() + value.getDoubleValue());
+        }
+        return result;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUES)
+    public LLVM80BitFloat product() {
+        LLVM80BitFloat result = LLVM80BitFloat.fromInt(1);
+        for (LLVM80BitFloat value : values) {
+            result = exact ? result.mul(value) : LLVM80BitFloat.fromDouble(result.getDoubleValue() * value.getDoubleValue());
+        }
+        return result;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUES)
+    public LLVM80BitFloat quotient() {
+        LLVM80BitFloat result = LLVM80BitFloat.fromInt(1);
+        for (LLVM80BitFloat value : values) {
+            result = exact ? result.div(value) : LLVM80BitFloat.fromDouble(result.getDoubleValue() / value.getDoubleValue());
+        }
+        return result;
+    }
+}
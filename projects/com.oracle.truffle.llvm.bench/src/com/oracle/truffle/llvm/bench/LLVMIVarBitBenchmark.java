@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.bench;
+
+import java.util.Random;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.oracle.truffle.llvm.runtime.LLVMIVarBit;
+
+/**
+ * Hashes random values with multiply-xorshift rounds on arbitrary width integers. Widths of up to
+ * 128 bits use the two word representation, wider ones use {@link java.math.BigInteger}.
+ */
+@Warmup(iterations = 10)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LLVMIVarBitBenchmark {
+
+    private static final int VALUES = 1024;
+
+    @Param({"128", "256"})
+    public int bits;
+
+    private final LLVMIVarBit[] values = new LLVMIVarBit[VALUES];
+    private LLVMIVarBit multiplier;
+    private LLVMIVarBit shift;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        for (int i = 0; i < VALUES; i++) {
+            values[i] = LLVMIVarBit.fromLong(bits, random.nextLong());
+        }
+        multiplier = LLVMIVarBit.fromLong(bits, 0x9e3779b97f4a7c15L);
+        shift = LLVMIVarBit.fromInt(bits, 64);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUES)
+    public LLVMIVarBit hash() {
+        LLVMIVarBit result = LLVMIVarBit.fromLong(bits, 0);
+        for (LLVMIVarBit value : values) {
+            LLVMIVarBit product = result.add(value).mul(multiplier);
+            result = product.xor(product.logicalRightShift(shift));
+        }
+        return result;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUES)
+    public int compare() {
+        int less = 0;
+        for (int i = 1; i < VALUES; i++) {
+            if (values[i - 1].unsignedCompare(values[i]) < 0) {
+                less++;
+            }
+        }
+        return less;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUES)
+    public LLVMIVarBit divide() {
+        LLVMIVarBit result = LLVMIVarBit.fromLong(bits, -1);
+        for (LLVMIVarBit value : values) {
+            result = result.mul(multiplier).unsignedDiv(value.or(multiplier));
+        }
+        return result;
+    }
+}
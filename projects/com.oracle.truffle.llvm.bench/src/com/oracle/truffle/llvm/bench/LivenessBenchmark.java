@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.bench;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.oracle.truffle.api.source.Source;
+import com.oracle.truffle.llvm.parser.BitcodeParserResult;
+import com.oracle.truffle.llvm.parser.LLVMLivenessAnalysis;
+import com.oracle.truffle.llvm.parser.LLVMLivenessAnalysis.LLVMLivenessAnalysisResult;
+import com.oracle.truffle.llvm.parser.model.functions.FunctionDefinition;
+import com.oracle.truffle.llvm.parser.model.visitors.ModelVisitor;
+import com.oracle.truffle.llvm.runtime.LLVMLanguage;
+
+/**
+ * Runs the liveness analysis on the functions with the most basic blocks. The bitcode files are
+ * given with {@code -Dsulongbench.liveness=<file>:<file>...}, for example the unoptimized bitcode
+ * of the large gcc torture tests ({@code gcc.c-torture/compile/20001226-1.c},
+ * {@code gcc.c-torture/compile/limits-fnargs.c}, ...), and default to {@code sulongbench.bitcode}.
+ * Throughput is reported as analyzed basic blocks per second in the {@code blocks} counter.
+ */
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class LivenessBenchmark {
+
+    private static final String LIVENESS_PROPERTY = "sulongbench.liveness";
+    private static final String BITCODE_PROPERTY = "sulongbench.bitcode";
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Throughput {
+
+        public long blocks;
+    }
+
+    private static final class Function {
+
+        final BitcodeParserResult module;
+        final FunctionDefinition definition;
+
+        Function(BitcodeParserResult module, FunctionDefinition definition) {
+            this.module = module;
+            this.definition = definition;
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Functions {
+
+        @Param({"16"}) public int count;
+
+        Function[] functions;
+
+        @Setup
+        public void setup() throws IOException {
+            final String files = System.getProperty(LIVENESS_PROPERTY, System.getProperty(BITCODE_PROPERTY));
+            final List<Function> all = new ArrayList<>();
+            for (String file : files.split(File.pathSeparator)) {
+                final Source source = Source.newBuilder(new File(file)).mimeType(LLVMLanguage.LLVM_BITCODE_MIME_TYPE).build();
+                final BitcodeParserResult module = BitcodeParserResult.getFromSource(source, false);
+                module.getModel().accept(new ModelVisitor() {
+
+                    @Override
+                    public void visit(FunctionDefinition function) {
+                        all.add(new Function(module, function));
+                    }
+                });
+            }
+            all.sort(Comparator.comparingInt((Function f) -> f.definition.getBlockCount()).reversed());
+            functions = all.subList(0, Math.min(count, all.size())).toArray(new Function[0]);
+        }
+    }
+
+    @Benchmark
+    public LLVMLivenessAnalysisResult analyze(Functions functions, Throughput throughput) {
+        LLVMLivenessAnalysisResult result = null;
+        for (Function function : functions.functions) {
+            result = LLVMLivenessAnalysis.computeLiveness(function.module, function.definition);
+            throughput.blocks += function.definition.getBlockCount();
+        }
+        return result;
+    }
+}
@@ -6,12 +6,13 @@
 //===----------------------------------------------------------------------===//
 
 #include <stdio.h>
+#include <stdlib.h>
 
 
 #if LLVM_VERSION >= 308
 
 #include <typeinfo>
-#include <stdlib.h>
+#include <stddef.h>
 
 #include "unwind.h"
 #include <exception>
@@ -199,6 +200,30 @@ void sulong_eh_setHandlerCount(void *ptr, int value) {
     eh->handlerCount = value;
 }
 
+extern "C"
+int sulong_eh_isPointerType(std::type_info *type) {
+    return dynamic_cast<__cxxabiv1::__pbase_type_info*>(type) != NULL;
+}
+
+// offsets of the exception header fields, relative to the thrown object
+#define SULONG_EH_OFFSET(field) (static_cast<long>(offsetof(__cxa_exception, field)) - static_cast<long>(sizeof(__cxa_exception)))
+
+extern "C"
+long sulong_eh_getFieldOffset(int field) {
+    switch (field) {
+        case 0: return SULONG_EH_OFFSET(referenceCount);
+        case 1: return SULONG_EH_OFFSET(exceptionType);
+        case 2: return SULONG_EH_OFFSET(exceptionDestructor);
+        case 3: return SULONG_EH_OFFSET(unexpectedHandler);
+        case 4: return SULONG_EH_OFFSET(terminateHandler);
+        case 5: return SULONG_EH_OFFSET(handlerCount);
+        case 6: return SULONG_EH_OFFSET(unwindHeader);
+        default:
+            fprintf(stderr, "Unknown field %d in sulong_eh_getFieldOffset(...).\n", field);
+            abort();
+    }
+}
+
 #else // LLVM_VERSION >= 308
 
 extern "C"
@@ -262,4 +287,17 @@ void sulong_eh_setHandlerCount(void *ptr, int value) {
     fprintf(stderr, "Sulong exception handling not supported with LLVM v3.2; use LLVM v3.8 or higher.\n");
 }
 
+extern "C"
+int sulong_eh_isPointerType(void *type) {
+    fprintf(stderr, "Sulong exception handling not supported with LLVM v3.2; use LLVM v3.8 or higher.\n");
+    return 0;
+}
+
+extern "C"
+long sulong_eh_getFieldOffset(int field) {
+    // there is no layout to report, and made up offsets would corrupt the thrown object
+    fprintf(stderr, "Sulong exception handling not supported with LLVM v3.2; use LLVM v3.8 or higher.\n");
+    abort();
+}
+
 #endif // LLVM_VERSION >= 308
@@ -32,11 +32,15 @@ package com.oracle.truffle.llvm.nodes.control;
 import com.oracle.truffle.api.CompilerAsserts;
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
+import com.oracle.truffle.api.Truffle;
 import com.oracle.truffle.api.frame.FrameSlot;
+import com.oracle.truffle.api.frame.FrameUtil;
 import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.api.nodes.ExplodeLoop;
 import com.oracle.truffle.api.nodes.ExplodeLoop.LoopExplosionKind;
 import com.oracle.truffle.api.nodes.LoopNode;
+import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.api.nodes.RepeatingNode;
 import com.oracle.truffle.llvm.nodes.base.LLVMBasicBlockNode;
 import com.oracle.truffle.llvm.nodes.base.LLVMFrameNullerUtil;
 import com.oracle.truffle.llvm.nodes.func.LLVMInvokeNode;
@@ -47,201 +51,364 @@ import com.oracle.truffle.llvm.runtime.nodes.api.LLVMControlFlowNode;
 import com.oracle.truffle.llvm.runtime.nodes.api.LLVMExpressionNode;
 
 public final class LLVMDispatchBasicBlockNode extends LLVMExpressionNode {
-    private final FrameSlot exceptionValueSlot;
-    @Children private final LLVMBasicBlockNode[] bodyNodes;
-    @CompilationFinal(dimensions = 2) private final FrameSlot[][] beforeBlockNuller;
-    @CompilationFinal(dimensions = 2) private final FrameSlot[][] afterBlockNuller;
 
-    public LLVMDispatchBasicBlockNode(FrameSlot exceptionValueSlot, LLVMBasicBlockNode[] bodyNodes, FrameSlot[][] beforeBlockNuller, FrameSlot[][] afterBlockNuller) {
-        this.exceptionValueSlot = exceptionValueSlot;
-        this.bodyNodes = bodyNodes;
-        this.beforeBlockNuller = beforeBlockNuller;
-        this.afterBlockNuller = afterBlockNuller;
+    /**
+     * Number of back edges after which an interpreted activation continues in the OSR loop.
+     */
+    private static final int OSR_BACK_EDGE_THRESHOLD = 10000;
+
+    private static final Object CONTINUE_IN_LOOP = new Object();
+    private static final int OSR_ENTRY = -2;
+
+    @Child private LoopNode osrLoop;
+    private final DispatchLoopBody body;
+
+    public LLVMDispatchBasicBlockNode(FrameSlot exceptionValueSlot, LLVMBasicBlockNode[] bodyNodes, FrameSlot[][] beforeBlockNuller, FrameSlot[][] afterBlockNuller, FrameSlot nextBlockSlot,
+                    FrameSlot returnValueSlot) {
+        this.body = new DispatchLoopBody(exceptionValueSlot, bodyNodes, beforeBlockNuller, afterBlockNuller, nextBlockSlot, returnValueSlot);
+        this.osrLoop = Truffle.getRuntime().createLoopNode(body);
     }
 
     @Override
-    @ExplodeLoop(kind = LoopExplosionKind.MERGE_EXPLODE)
     public Object executeGeneric(VirtualFrame frame) {
-        Object returnValue = null;
+        Object returnValue = body.dispatch(frame, false);
+        if (CompilerDirectives.inInterpreter() && returnValue == CONTINUE_IN_LOOP) {
+            osrLoop.executeLoop(frame);
+            returnValue = body.getReturnValue(frame);
+        }
+        return returnValue;
+    }
 
-        CompilerAsserts.compilationConstant(bodyNodes.length);
-        int basicBlockIndex = 0;
-        int backEdgeCounter = 0;
-        outer: while (basicBlockIndex != LLVMBasicBlockNode.RETURN_FROM_FUNCTION) {
-            CompilerAsserts.partialEvaluationConstant(basicBlockIndex);
-            LLVMBasicBlockNode bb = bodyNodes[basicBlockIndex];
+    /**
+     * The basic blocks of the function, which are also the body of the OSR loop. Each iteration of
+     * the loop executes the blocks from one loop header to the next, so that the loop can be
+     * compiled while an activation is still running in it. The blocks are adopted by the loop node,
+     * so a rewrite of a block invalidates the compiled OSR loop.
+     */
+    private static final class DispatchLoopBody extends Node implements RepeatingNode {
 
-            // execute all statements
-            bb.executeStatements(frame);
+        private final FrameSlot exceptionValueSlot;
+        @Children private final LLVMBasicBlockNode[] bodyNodes;
+        @CompilationFinal(dimensions = 2) private final FrameSlot[][] beforeBlockNuller;
+        @CompilationFinal(dimensions = 2) private final FrameSlot[][] afterBlockNuller;
+        @CompilationFinal(dimensions = 1) private final boolean[] loopHeaders;
+        @CompilationFinal(dimensions = 1) private final int[] loopHeaderIndices;
+        private final FrameSlot nextBlockSlot;
+        private final FrameSlot returnValueSlot;
 
-            // execute control flow node, write phis, null stack frame slots, and dispatch to
-            // the correct successor block
-            LLVMControlFlowNode controlFlowNode = bb.termInstruction;
-            if (controlFlowNode instanceof LLVMConditionalBranchNode) {
-                LLVMConditionalBranchNode conditionalBranchNode = (LLVMConditionalBranchNode) controlFlowNode;
-                boolean condition = conditionalBranchNode.executeCondition(frame);
-                if (CompilerDirectives.injectBranchProbability(bb.getBranchProbability(LLVMConditionalBranchNode.TRUE_SUCCESSOR), condition)) {
-                    if (CompilerDirectives.inInterpreter()) {
-                        bb.increaseBranchProbability(LLVMConditionalBranchNode.TRUE_SUCCESSOR);
-                        if (conditionalBranchNode.getTrueSuccessor() <= basicBlockIndex) {
-                            backEdgeCounter++;
+        DispatchLoopBody(FrameSlot exceptionValueSlot, LLVMBasicBlockNode[] bodyNodes, FrameSlot[][] beforeBlockNuller, FrameSlot[][] afterBlockNuller, FrameSlot nextBlockSlot,
+                        FrameSlot returnValueSlot) {
+            this.exceptionValueSlot = exceptionValueSlot;
+            this.bodyNodes = bodyNodes;
+            this.beforeBlockNuller = beforeBlockNuller;
+            this.afterBlockNuller = afterBlockNuller;
+            this.loopHeaders = findLoopHeaders(bodyNodes);
+            this.loopHeaderIndices = toIndices(loopHeaders);
+            this.nextBlockSlot = nextBlockSlot;
+            this.returnValueSlot = returnValueSlot;
+        }
+
+        @Override
+        public boolean executeRepeating(VirtualFrame frame) {
+            Object returnValue = dispatch(frame, true);
+            if (returnValue == CONTINUE_IN_LOOP) {
+                return true;
+            }
+            frame.setObject(returnValueSlot, returnValue);
+            return false;
+        }
+
+        Object getReturnValue(VirtualFrame frame) {
+            Object returnValue = FrameUtil.getObjectSafe(frame, returnValueSlot);
+            frame.setObject(returnValueSlot, null);
+            return returnValue;
+        }
+
+        /**
+         * Executes the basic blocks of the function. An iteration of the OSR loop starts at the
+         * loop header stored in the frame and stops as soon as it reaches the next loop header.
+         * All loop headers are entered through the same {@link #OSR_ENTRY} state, so the blocks
+         * are only exploded once.
+         */
+        @ExplodeLoop(kind = LoopExplosionKind.MERGE_EXPLODE)
+        Object dispatch(VirtualFrame frame, boolean osr) {
+            Object returnValue = null;
+
+            CompilerAsserts.compilationConstant(bodyNodes.length);
+            int basicBlockIndex = osr ? OSR_ENTRY : 0;
+            int backEdgeCounter = 0;
+            boolean leftLoopHeader = false;
+            outer: while (basicBlockIndex != LLVMBasicBlockNode.RETURN_FROM_FUNCTION) {
+                CompilerAsserts.partialEvaluationConstant(basicBlockIndex);
+                if (basicBlockIndex == OSR_ENTRY) {
+                    int nextBlock = FrameUtil.getIntSafe(frame, nextBlockSlot);
+                    for (int i = 0; i < loopHeaderIndices.length; i++) {
+                        if (loopHeaderIndices[i] == nextBlock) {
+                            basicBlockIndex = loopHeaderIndices[i];
+                            continue outer;
                         }
                     }
-                    executePhis(frame, conditionalBranchNode, LLVMConditionalBranchNode.TRUE_SUCCESSOR);
-                    nullDeadSlots(frame, basicBlockIndex, afterBlockNuller);
-                    basicBlockIndex = conditionalBranchNode.getTrueSuccessor();
-                    nullDeadSlots(frame, basicBlockIndex, beforeBlockNuller);
-                    continue outer;
-                } else {
-                    if (CompilerDirectives.inInterpreter()) {
-                        bb.increaseBranchProbability(LLVMConditionalBranchNode.FALSE_SUCCESSOR);
-                        if (conditionalBranchNode.getFalseSuccessor() <= basicBlockIndex) {
-                            backEdgeCounter++;
-                        }
+                    CompilerDirectives.transferToInterpreter();
+                    throw new IllegalStateException("not a loop header: " + nextBlock);
+                }
+                if (osr) {
+                    if (leftLoopHeader && loopHeaders[basicBlockIndex]) {
+                        frame.setInt(nextBlockSlot, basicBlockIndex);
+                        return CONTINUE_IN_LOOP;
                     }
-                    executePhis(frame, conditionalBranchNode, LLVMConditionalBranchNode.FALSE_SUCCESSOR);
-                    nullDeadSlots(frame, basicBlockIndex, afterBlockNuller);
-                    basicBlockIndex = conditionalBranchNode.getFalseSuccessor();
-                    nullDeadSlots(frame, basicBlockIndex, beforeBlockNuller);
-                    continue outer;
+                    leftLoopHeader = true;
+                } else if (CompilerDirectives.inInterpreter() && backEdgeCounter >= OSR_BACK_EDGE_THRESHOLD && loopHeaders[basicBlockIndex]) {
+                    // this activation spins in a loop, continue in a loop that can be compiled
+                    LoopNode.reportLoopCount(this, backEdgeCounter);
+                    frame.setInt(nextBlockSlot, basicBlockIndex);
+                    return CONTINUE_IN_LOOP;
                 }
-            } else if (controlFlowNode instanceof LLVMSwitchNode) {
-                LLVMSwitchNode switchNode = (LLVMSwitchNode) controlFlowNode;
-                Object condition = switchNode.executeCondition(frame);
-                int[] successors = switchNode.getSuccessors();
-                for (int i = 0; i < successors.length - 1; i++) {
-                    Object caseValue = switchNode.getCase(i).executeGeneric(frame);
-                    assert caseValue.getClass() == condition.getClass() : "must be the same type - otherwise equals might wrongly return false";
-                    if (CompilerDirectives.injectBranchProbability(bb.getBranchProbability(i), condition.equals(caseValue))) {
+                LLVMBasicBlockNode bb = bodyNodes[basicBlockIndex];
+
+                // execute all statements
+                bb.executeStatements(frame);
+
+                // execute control flow node, write phis, null stack frame slots, and dispatch to
+                // the correct successor block
+                LLVMControlFlowNode controlFlowNode = bb.termInstruction;
+                if (controlFlowNode instanceof LLVMConditionalBranchNode) {
+                    LLVMConditionalBranchNode conditionalBranchNode = (LLVMConditionalBranchNode) controlFlowNode;
+                    boolean condition = conditionalBranchNode.executeCondition(frame);
+                    if (CompilerDirectives.injectBranchProbability(bb.getBranchProbability(LLVMConditionalBranchNode.TRUE_SUCCESSOR), condition)) {
                         if (CompilerDirectives.inInterpreter()) {
-                            bb.increaseBranchProbability(i);
-                            if (successors[i] <= basicBlockIndex) {
+                            bb.increaseBranchProbability(LLVMConditionalBranchNode.TRUE_SUCCESSOR);
+                            if (conditionalBranchNode.getTrueSuccessor() <= basicBlockIndex) {
                                 backEdgeCounter++;
                             }
                         }
-                        executePhis(frame, switchNode, i);
+                        executePhis(frame, conditionalBranchNode, LLVMConditionalBranchNode.TRUE_SUCCESSOR);
                         nullDeadSlots(frame, basicBlockIndex, afterBlockNuller);
-                        basicBlockIndex = successors[i];
+                        basicBlockIndex = conditionalBranchNode.getTrueSuccessor();
                         nullDeadSlots(frame, basicBlockIndex, beforeBlockNuller);
                         continue outer;
-                    }
-                }
-
-                int i = successors.length - 1;
-                if (CompilerDirectives.inInterpreter()) {
-                    bb.increaseBranchProbability(i);
-                    if (successors[i] <= basicBlockIndex) {
-                        backEdgeCounter++;
-                    }
-                }
-                executePhis(frame, switchNode, i);
-                nullDeadSlots(frame, basicBlockIndex, afterBlockNuller);
-                basicBlockIndex = successors[i];
-                nullDeadSlots(frame, basicBlockIndex, beforeBlockNuller);
-                continue outer;
-            } else if (controlFlowNode instanceof LLVMIndirectBranchNode) {
-                // TODO (chaeubl): we need a different approach here - this is awfully
-                // inefficient (see GR-3664)
-                LLVMIndirectBranchNode indirectBranchNode = (LLVMIndirectBranchNode) controlFlowNode;
-                int[] successors = indirectBranchNode.getSuccessors();
-                int successorBasicBlockIndex = indirectBranchNode.executeCondition(frame);
-                for (int i = 0; i < successors.length - 1; i++) {
-                    if (CompilerDirectives.injectBranchProbability(bb.getBranchProbability(i), successors[i] == successorBasicBlockIndex)) {
+                    } else {
                         if (CompilerDirectives.inInterpreter()) {
-                            bb.increaseBranchProbability(i);
-                            if (successors[i] <= basicBlockIndex) {
+                            bb.increaseBranchProbability(LLVMConditionalBranchNode.FALSE_SUCCESSOR);
+                            if (conditionalBranchNode.getFalseSuccessor() <= basicBlockIndex) {
                                 backEdgeCounter++;
                             }
                         }
-                        executePhis(frame, indirectBranchNode, i);
+                        executePhis(frame, conditionalBranchNode, LLVMConditionalBranchNode.FALSE_SUCCESSOR);
                         nullDeadSlots(frame, basicBlockIndex, afterBlockNuller);
-                        basicBlockIndex = successors[i];
+                        basicBlockIndex = conditionalBranchNode.getFalseSuccessor();
                         nullDeadSlots(frame, basicBlockIndex, beforeBlockNuller);
                         continue outer;
                     }
-                }
+                } else if (controlFlowNode instanceof LLVMSwitchNode) {
+                    LLVMSwitchNode switchNode = (LLVMSwitchNode) controlFlowNode;
+                    int caseIndex = switchNode.executeCaseIndex(frame);
+                    int[] successors = switchNode.getSuccessors();
+                    for (int i = 0; i < successors.length - 1; i++) {
+                        if (CompilerDirectives.injectBranchProbability(bb.getBranchProbability(i), caseIndex == i)) {
+                            if (CompilerDirectives.inInterpreter()) {
+                                bb.increaseBranchProbability(i);
+                                if (successors[i] <= basicBlockIndex) {
+                                    backEdgeCounter++;
+                                }
+                            }
+                            executePhis(frame, switchNode, i);
+                            nullDeadSlots(frame, basicBlockIndex, afterBlockNuller);
+                            basicBlockIndex = successors[i];
+                            nullDeadSlots(frame, basicBlockIndex, beforeBlockNuller);
+                            continue outer;
+                        }
+                    }
 
-                int i = successors.length - 1;
-                assert successorBasicBlockIndex == successors[i];
-                if (CompilerDirectives.inInterpreter()) {
-                    bb.increaseBranchProbability(i);
-                    if (successors[i] <= basicBlockIndex) {
-                        backEdgeCounter++;
+                    int i = successors.length - 1;
+                    if (CompilerDirectives.inInterpreter()) {
+                        bb.increaseBranchProbability(i);
+                        if (successors[i] <= basicBlockIndex) {
+                            backEdgeCounter++;
+                        }
                     }
-                }
-                executePhis(frame, indirectBranchNode, i);
-                nullDeadSlots(frame, basicBlockIndex, afterBlockNuller);
-                basicBlockIndex = successors[i];
-                nullDeadSlots(frame, basicBlockIndex, beforeBlockNuller);
-                continue outer;
-            } else if (controlFlowNode instanceof LLVMBrUnconditionalNode) {
-                LLVMBrUnconditionalNode unconditionalNode = (LLVMBrUnconditionalNode) controlFlowNode;
-                if (CompilerDirectives.inInterpreter()) {
-                    if (unconditionalNode.getSuccessor() <= basicBlockIndex) {
-                        backEdgeCounter++;
+                    executePhis(frame, switchNode, i);
+                    nullDeadSlots(frame, basicBlockIndex, afterBlockNuller);
+                    basicBlockIndex = successors[i];
+                    nullDeadSlots(frame, basicBlockIndex, beforeBlockNuller);
+                    continue outer;
+                } else if (controlFlowNode instanceof LLVMIndirectBranchNode) {
+                    LLVMIndirectBranchNode indirectBranchNode = (LLVMIndirectBranchNode) controlFlowNode;
+                    int[] successors = indirectBranchNode.getSuccessors();
+                    int successorIndex = indirectBranchNode.getSuccessorIndex(indirectBranchNode.executeCondition(frame));
+                    if (CompilerDirectives.inInterpreter()) {
+                        indirectBranchNode.profileSuccessor(successorIndex);
                     }
-                }
-                unconditionalNode.execute(frame); // required for instrumentation
-                executePhis(frame, unconditionalNode, 0);
-                nullDeadSlots(frame, basicBlockIndex, afterBlockNuller);
-                basicBlockIndex = unconditionalNode.getSuccessor();
-                nullDeadSlots(frame, basicBlockIndex, beforeBlockNuller);
-                continue outer;
-            } else if (controlFlowNode instanceof LLVMInvokeNode) {
-                LLVMInvokeNode invokeNode = (LLVMInvokeNode) controlFlowNode;
-                try {
-                    invokeNode.execute(frame);
+
+                    // the most frequent targets are checked first
+                    int[] hotSuccessors = indirectBranchNode.getHotSuccessors();
+                    for (int h = 0; h < hotSuccessors.length; h++) {
+                        int i = hotSuccessors[h];
+                        if (CompilerDirectives.injectBranchProbability(bb.getBranchProbability(i), successorIndex == i)) {
+                            if (CompilerDirectives.inInterpreter()) {
+                                bb.increaseBranchProbability(i);
+                                if (successors[i] <= basicBlockIndex) {
+                                    backEdgeCounter++;
+                                }
+                            }
+                            executePhis(frame, indirectBranchNode, i);
+                            nullDeadSlots(frame, basicBlockIndex, afterBlockNuller);
+                            basicBlockIndex = successors[i];
+                            nullDeadSlots(frame, basicBlockIndex, beforeBlockNuller);
+                            continue outer;
+                        }
+                    }
+
+                    for (int i = 0; i < successors.length - 1; i++) {
+                        if (CompilerDirectives.injectBranchProbability(bb.getBranchProbability(i), successorIndex == i)) {
+                            if (CompilerDirectives.inInterpreter()) {
+                                bb.increaseBranchProbability(i);
+                                if (successors[i] <= basicBlockIndex) {
+                                    backEdgeCounter++;
+                                }
+                            }
+                            executePhis(frame, indirectBranchNode, i);
+                            nullDeadSlots(frame, basicBlockIndex, afterBlockNuller);
+                            basicBlockIndex = successors[i];
+                            nullDeadSlots(frame, basicBlockIndex, beforeBlockNuller);
+                            continue outer;
+                        }
+                    }
+
+                    int i = successors.length - 1;
+                    assert successorIndex == i;
                     if (CompilerDirectives.inInterpreter()) {
-                        if (invokeNode.getNormalSuccessor() <= basicBlockIndex) {
+                        bb.increaseBranchProbability(i);
+                        if (successors[i] <= basicBlockIndex) {
                             backEdgeCounter++;
                         }
                     }
-                    executePhis(frame, invokeNode, LLVMInvokeNode.NORMAL_SUCCESSOR);
+                    executePhis(frame, indirectBranchNode, i);
                     nullDeadSlots(frame, basicBlockIndex, afterBlockNuller);
-                    basicBlockIndex = invokeNode.getNormalSuccessor();
+                    basicBlockIndex = successors[i];
                     nullDeadSlots(frame, basicBlockIndex, beforeBlockNuller);
                     continue outer;
-                } catch (LLVMException e) {
-                    frame.setObject(exceptionValueSlot, e);
+                } else if (controlFlowNode instanceof LLVMBrUnconditionalNode) {
+                    LLVMBrUnconditionalNode unconditionalNode = (LLVMBrUnconditionalNode) controlFlowNode;
                     if (CompilerDirectives.inInterpreter()) {
-                        if (invokeNode.getUnwindSuccessor() <= basicBlockIndex) {
+                        if (unconditionalNode.getSuccessor() <= basicBlockIndex) {
                             backEdgeCounter++;
                         }
                     }
-                    executePhis(frame, invokeNode, LLVMInvokeNode.UNWIND_SUCCESSOR);
+                    unconditionalNode.execute(frame); // required for instrumentation
+                    executePhis(frame, unconditionalNode, 0);
                     nullDeadSlots(frame, basicBlockIndex, afterBlockNuller);
-                    basicBlockIndex = invokeNode.getUnwindSuccessor();
+                    basicBlockIndex = unconditionalNode.getSuccessor();
                     nullDeadSlots(frame, basicBlockIndex, beforeBlockNuller);
                     continue outer;
+                } else if (controlFlowNode instanceof LLVMInvokeNode) {
+                    LLVMInvokeNode invokeNode = (LLVMInvokeNode) controlFlowNode;
+                    try {
+                        invokeNode.execute(frame);
+                        if (CompilerDirectives.inInterpreter()) {
+                            if (invokeNode.getNormalSuccessor() <= basicBlockIndex) {
+                                backEdgeCounter++;
+                            }
+                        }
+                        executePhis(frame, invokeNode, LLVMInvokeNode.NORMAL_SUCCESSOR);
+                        nullDeadSlots(frame, basicBlockIndex, afterBlockNuller);
+                        basicBlockIndex = invokeNode.getNormalSuccessor();
+                        nullDeadSlots(frame, basicBlockIndex, beforeBlockNuller);
+                        continue outer;
+                    } catch (LLVMException e) {
+                        frame.setObject(exceptionValueSlot, e);
+                        if (CompilerDirectives.inInterpreter()) {
+                            if (invokeNode.getUnwindSuccessor() <= basicBlockIndex) {
+                                backEdgeCounter++;
+                            }
+                        }
+                        executePhis(frame, invokeNode, LLVMInvokeNode.UNWIND_SUCCESSOR);
+                        nullDeadSlots(frame, basicBlockIndex, afterBlockNuller);
+                        basicBlockIndex = invokeNode.getUnwindSuccessor();
+                        nullDeadSlots(frame, basicBlockIndex, beforeBlockNuller);
+                        continue outer;
+                    }
+                } else if (controlFlowNode instanceof LLVMRetNode) {
+                    LLVMRetNode retNode = (LLVMRetNode) controlFlowNode;
+                    returnValue = retNode.execute(frame);
+                    assert noPhisNecessary(retNode);
+                    nullDeadSlots(frame, basicBlockIndex, afterBlockNuller);
+                    basicBlockIndex = retNode.getSuccessor();
+                    continue outer;
+                } else if (controlFlowNode instanceof LLVMResumeNode) {
+                    LLVMResumeNode resumeNode = (LLVMResumeNode) controlFlowNode;
+                    assert noPhisNecessary(resumeNode);
+                    nullDeadSlots(frame, basicBlockIndex, afterBlockNuller);
+                    resumeNode.execute(frame);
+                    CompilerAsserts.neverPartOfCompilation();
+                    throw new IllegalStateException("must not reach here");
+                } else if (controlFlowNode instanceof LLVMUnreachableNode) {
+                    LLVMUnreachableNode unreachableNode = (LLVMUnreachableNode) controlFlowNode;
+                    assert noPhisNecessary(unreachableNode);
+                    unreachableNode.execute();
+                    CompilerAsserts.neverPartOfCompilation();
+                    throw new IllegalStateException("must not reach here");
+                } else {
+                    CompilerAsserts.neverPartOfCompilation();
+                    throw new UnsupportedOperationException("unexpected controlFlowNode type: " + controlFlowNode);
                 }
-            } else if (controlFlowNode instanceof LLVMRetNode) {
-                LLVMRetNode retNode = (LLVMRetNode) controlFlowNode;
-                returnValue = retNode.execute(frame);
-                assert noPhisNecessary(retNode);
-                nullDeadSlots(frame, basicBlockIndex, afterBlockNuller);
-                basicBlockIndex = retNode.getSuccessor();
-                continue outer;
-            } else if (controlFlowNode instanceof LLVMResumeNode) {
-                LLVMResumeNode resumeNode = (LLVMResumeNode) controlFlowNode;
-                assert noPhisNecessary(resumeNode);
-                nullDeadSlots(frame, basicBlockIndex, afterBlockNuller);
-                resumeNode.execute(frame);
-                CompilerAsserts.neverPartOfCompilation();
-                throw new IllegalStateException("must not reach here");
-            } else if (controlFlowNode instanceof LLVMUnreachableNode) {
-                LLVMUnreachableNode unreachableNode = (LLVMUnreachableNode) controlFlowNode;
-                assert noPhisNecessary(unreachableNode);
-                unreachableNode.execute();
-                CompilerAsserts.neverPartOfCompilation();
-                throw new IllegalStateException("must not reach here");
-            } else {
-                CompilerAsserts.neverPartOfCompilation();
-                throw new UnsupportedOperationException("unexpected controlFlowNode type: " + controlFlowNode);
             }
+            if (!osr) {
+                assert backEdgeCounter >= 0;
+                LoopNode.reportLoopCount(this, backEdgeCounter);
+            }
+            return returnValue;
+        }
+
+        private static int[] toIndices(boolean[] flags) {
+            int count = 0;
+            for (boolean flag : flags) {
+                if (flag) {
+                    count++;
+                }
+            }
+            int[] indices = new int[count];
+            int j = 0;
+            for (int i = 0; i < flags.length; i++) {
+                if (flags[i]) {
+                    indices[j++] = i;
+                }
+            }
+            return indices;
+        }
+    }
+
+    /**
+     * A block is a loop header if it is the target of a back edge, i.e., of a branch to a block
+     * with the same or a lower index. Every cycle in the control flow graph contains such a block.
+     */
+    private static boolean[] findLoopHeaders(LLVMBasicBlockNode[] bodyNodes) {
+        boolean[] headers = new boolean[bodyNodes.length];
+        for (int i = 0; i < bodyNodes.length; i++) {
+            for (int successor : getSuccessors(bodyNodes[i].termInstruction)) {
+                if (successor >= 0 && successor <= i) {
+                    headers[successor] = true;
+                }
+            }
+        }
+        return headers;
+    }
+
+    private static int[] getSuccessors(LLVMControlFlowNode controlFlowNode) {
+        if (controlFlowNode instanceof LLVMConditionalBranchNode) {
+            LLVMConditionalBranchNode conditionalBranchNode = (LLVMConditionalBranchNode) controlFlowNode;
+            return new int[]{conditionalBranchNode.getTrueSuccessor(), conditionalBranchNode.getFalseSuccessor()};
+        } else if (controlFlowNode instanceof LLVMSwitchNode) {
+            return ((LLVMSwitchNode) controlFlowNode).getSuccessors();
+        } else if (controlFlowNode instanceof LLVMIndirectBranchNode) {
+            return ((LLVMIndirectBranchNode) controlFlowNode).getSuccessors();
+        } else if (controlFlowNode instanceof LLVMBrUnconditionalNode) {
+            return new int[]{((LLVMBrUnconditionalNode) controlFlowNode).getSuccessor()};
+        } else if (controlFlowNode instanceof LLVMInvokeNode) {
+            LLVMInvokeNode invokeNode = (LLVMInvokeNode) controlFlowNode;
+            return new int[]{invokeNode.getNormalSuccessor(), invokeNode.getUnwindSuccessor()};
+        } else {
+            return new int[0];
         }
-        assert backEdgeCounter >= 0;
-        LoopNode.reportLoopCount(this, backEdgeCounter);
-        return returnValue;
     }
 
     @ExplodeLoop
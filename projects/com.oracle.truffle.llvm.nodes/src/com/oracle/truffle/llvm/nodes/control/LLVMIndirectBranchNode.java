@@ -29,6 +29,9 @@
  */
 package com.oracle.truffle.llvm.nodes.control;
 
+import java.util.Arrays;
+
+import com.oracle.truffle.api.CompilerAsserts;
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
 import com.oracle.truffle.api.frame.VirtualFrame;
@@ -55,11 +58,33 @@ public abstract class LLVMIndirectBranchNode extends LLVMControlFlowNode {
 
     public abstract int[] getSuccessors();
 
+    /**
+     * Maps the address of a basic block, i.e., its index, to the index of the successor.
+     */
+    public abstract int getSuccessorIndex(int blockAddress);
+
+    /**
+     * The indices of the most frequently taken successors, in descending order of frequency. They
+     * are selected after a number of interpreted executions, or when the branch is compiled.
+     */
+    public abstract int[] getHotSuccessors();
+
+    public abstract void profileSuccessor(int successorIndex);
+
     private static final class LLVMIndirectBranchNodeImpl extends LLVMIndirectBranchNode {
 
+        private static final int PROFILED_EXECUTIONS = 1000;
+        private static final int MAX_HOT_SUCCESSORS = 3;
+        private static final int[] NO_SUCCESSORS = new int[0];
+
         @Child private LLVMBranchAddressNode branchAddress;
         @Children private final LLVMExpressionNode[] phiWriteNodes;
         @CompilationFinal(dimensions = 1) private final int[] successors;
+        @CompilationFinal(dimensions = 1) private final int[] successorOfBlock;
+
+        @CompilationFinal(dimensions = 1) private volatile int[] hotSuccessors;
+        private final int[] successorCounts;
+        private int profiledExecutions;
 
         private LLVMIndirectBranchNodeImpl(LLVMBranchAddressNode branchAddress, int[] indices, LLVMExpressionNode[] phiWriteNodes, SourceSection sourceSection) {
             super(sourceSection);
@@ -67,6 +92,84 @@ public abstract class LLVMIndirectBranchNode extends LLVMControlFlowNode {
             this.successors = indices;
             this.branchAddress = branchAddress;
             this.phiWriteNodes = phiWriteNodes;
+            this.successorCounts = new int[indices.length];
+
+            int maxBlock = 0;
+            for (int block : indices) {
+                maxBlock = Math.max(maxBlock, block);
+            }
+            this.successorOfBlock = new int[maxBlock + 1];
+            Arrays.fill(successorOfBlock, -1);
+            for (int i = indices.length - 1; i >= 0; i--) {
+                if (indices[i] >= 0) {
+                    successorOfBlock[indices[i]] = i;
+                }
+            }
+        }
+
+        @Override
+        public int getSuccessorIndex(int blockAddress) {
+            if (blockAddress >= 0 && blockAddress < successorOfBlock.length && successorOfBlock[blockAddress] >= 0) {
+                return successorOfBlock[blockAddress];
+            }
+            // jumping to a block that is not listed as a successor is undefined behavior
+            assert false : "not a successor: " + blockAddress;
+            return successors.length - 1;
+        }
+
+        @Override
+        public int[] getHotSuccessors() {
+            int[] hot = hotSuccessors;
+            if (hot == null) {
+                if (CompilerDirectives.inCompiledCode()) {
+                    CompilerDirectives.transferToInterpreterAndInvalidate();
+                    hot = selectHotSuccessors();
+                } else {
+                    return NO_SUCCESSORS;
+                }
+            }
+            return hot;
+        }
+
+        @Override
+        public void profileSuccessor(int successorIndex) {
+            CompilerAsserts.neverPartOfCompilation();
+            if (hotSuccessors == null) {
+                // the counts are only a profile, so increments that race with other threads may
+                // get lost
+                successorCounts[successorIndex]++;
+                if (++profiledExecutions >= PROFILED_EXECUTIONS) {
+                    selectHotSuccessors();
+                }
+            }
+        }
+
+        private synchronized int[] selectHotSuccessors() {
+            if (hotSuccessors != null) {
+                // another thread was faster
+                return hotSuccessors;
+            }
+            final int[] counts = successorCounts.clone();
+            int hotCount = 0;
+            for (int count : counts) {
+                if (count > 0) {
+                    hotCount++;
+                }
+            }
+            final int[] hot = new int[Math.min(hotCount, MAX_HOT_SUCCESSORS)];
+            final boolean[] selected = new boolean[counts.length];
+            for (int h = 0; h < hot.length; h++) {
+                int best = -1;
+                for (int i = 0; i < counts.length; i++) {
+                    if (!selected[i] && counts[i] > 0 && (best == -1 || counts[i] > counts[best])) {
+                        best = i;
+                    }
+                }
+                selected[best] = true;
+                hot[h] = best;
+            }
+            hotSuccessors = hot;
+            return hot;
         }
 
         @Override
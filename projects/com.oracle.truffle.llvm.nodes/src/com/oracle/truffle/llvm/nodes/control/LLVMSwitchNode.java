@@ -29,6 +29,8 @@
  */
 package com.oracle.truffle.llvm.nodes.control;
 
+import java.util.Arrays;
+
 import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
 import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.api.instrumentation.Instrumentable;
@@ -44,24 +46,95 @@ public abstract class LLVMSwitchNode extends LLVMControlFlowNode {
         super(sourceSection);
     }
 
-    private static class LLVMSwitchNodeImpl extends LLVMSwitchNode {
+    /**
+     * The case values are constants. If they are dense, the case is looked up in a table indexed
+     * by the condition, otherwise by a binary search over the sorted case values.
+     */
+    private abstract static class LLVMSwitchNodeImpl extends LLVMSwitchNode {
+
+        /**
+         * A table is used if it has at most this many entries per case.
+         */
+        private static final int MAX_TABLE_ENTRIES_PER_CASE = 2;
+
         @Children private final LLVMExpressionNode[] phiNodes;
         @Child protected LLVMExpressionNode cond;
-        @Children protected final LLVMExpressionNode[] cases;
         @CompilationFinal(dimensions = 1) private final int[] successors;
 
-        LLVMSwitchNodeImpl(int[] successors, LLVMExpressionNode[] phiNodes, LLVMExpressionNode cond, LLVMExpressionNode[] cases, SourceSection sourceSection) {
+        private final long tableStart;
+        @CompilationFinal(dimensions = 1) private final int[] table;
+
+        @CompilationFinal(dimensions = 1) private final long[] sortedValues;
+        @CompilationFinal(dimensions = 1) private final int[] sortedCaseIndices;
+
+        LLVMSwitchNodeImpl(int[] successors, LLVMExpressionNode[] phiNodes, LLVMExpressionNode cond, long[] caseValues, SourceSection sourceSection) {
             super(sourceSection);
-            assert successors.length == cases.length + 1 : "the last entry of the successors array must be the default case";
+            assert successors.length == caseValues.length + 1 : "the last entry of the successors array must be the default case";
             this.successors = successors;
             this.phiNodes = phiNodes;
             this.cond = cond;
-            this.cases = cases;
+
+            final int defaultIndex = caseValues.length;
+            long min = Long.MAX_VALUE;
+            long max = Long.MIN_VALUE;
+            for (long value : caseValues) {
+                min = Math.min(min, value);
+                max = Math.max(max, value);
+            }
+            final long spread = max - min;
+            if (caseValues.length > 0 && spread >= 0 && spread < (long) caseValues.length * MAX_TABLE_ENTRIES_PER_CASE) {
+                this.tableStart = min;
+                this.table = new int[(int) spread + 1];
+                Arrays.fill(table, defaultIndex);
+                // the first case wins if a value occurs more than once
+                for (int i = caseValues.length - 1; i >= 0; i--) {
+                    table[(int) (caseValues[i] - min)] = i;
+                }
+                this.sortedValues = null;
+                this.sortedCaseIndices = null;
+            } else {
+                this.tableStart = 0;
+                this.table = null;
+                final Integer[] order = new Integer[caseValues.length];
+                for (int i = 0; i < order.length; i++) {
+                    order[i] = i;
+                }
+                Arrays.sort(order, (a, b) -> Long.compare(caseValues[a], caseValues[b]));
+                this.sortedValues = new long[order.length];
+                this.sortedCaseIndices = new int[order.length];
+                for (int i = 0; i < order.length; i++) {
+                    sortedValues[i] = caseValues[order[i]];
+                    sortedCaseIndices[i] = order[i];
+                }
+            }
         }
 
+        protected abstract long executeConditionValue(VirtualFrame frame);
+
         @Override
-        public Object executeCondition(VirtualFrame frame) {
-            return null;
+        public int executeCaseIndex(VirtualFrame frame) {
+            final long value = executeConditionValue(frame);
+            if (table != null) {
+                final long offset = value - tableStart;
+                if (offset >= 0 && offset < table.length) {
+                    return table[(int) offset];
+                }
+                return successors.length - 1;
+            }
+            int low = 0;
+            int high = sortedValues.length - 1;
+            while (low <= high) {
+                final int middle = (low + high) >>> 1;
+                final long middleValue = sortedValues[middle];
+                if (middleValue < value) {
+                    low = middle + 1;
+                } else if (middleValue > value) {
+                    high = middle - 1;
+                } else {
+                    return sortedCaseIndices[middle];
+                }
+            }
+            return successors.length - 1;
         }
 
         @Override
@@ -78,62 +151,59 @@ public abstract class LLVMSwitchNode extends LLVMControlFlowNode {
         public LLVMExpressionNode getPhiNode(int successorIndex) {
             return phiNodes[successorIndex];
         }
-
-        @Override
-        public LLVMExpressionNode getCase(int i) {
-            return cases[i];
-        }
     }
 
-    public abstract Object executeCondition(VirtualFrame frame);
+    /**
+     * Returns the index of the case that matches the condition, or the number of cases if the
+     * default successor is taken.
+     */
+    public abstract int executeCaseIndex(VirtualFrame frame);
 
     public abstract int[] getSuccessors();
 
-    public abstract LLVMExpressionNode getCase(int i);
-
     public static final class LLVMI8SwitchNode extends LLVMSwitchNodeImpl {
-        public LLVMI8SwitchNode(LLVMExpressionNode cond, LLVMExpressionNode[] cases, int[] successors, LLVMExpressionNode[] phiNodes, SourceSection source) {
-            super(successors, phiNodes, cond, cases, source);
+        public LLVMI8SwitchNode(LLVMExpressionNode cond, long[] caseValues, int[] successors, LLVMExpressionNode[] phiNodes, SourceSection source) {
+            super(successors, phiNodes, cond, caseValues, source);
         }
 
         @Override
-        public Object executeCondition(VirtualFrame frame) {
+        protected long executeConditionValue(VirtualFrame frame) {
             return cond.executeI8(frame);
         }
 
     }
 
     public static final class LLVMI16SwitchNode extends LLVMSwitchNodeImpl {
-        public LLVMI16SwitchNode(LLVMExpressionNode cond, LLVMExpressionNode[] cases, int[] successors, LLVMExpressionNode[] phiNodes, SourceSection source) {
-            super(successors, phiNodes, cond, cases, source);
+        public LLVMI16SwitchNode(LLVMExpressionNode cond, long[] caseValues, int[] successors, LLVMExpressionNode[] phiNodes, SourceSection source) {
+            super(successors, phiNodes, cond, caseValues, source);
         }
 
         @Override
-        public Object executeCondition(VirtualFrame frame) {
+        protected long executeConditionValue(VirtualFrame frame) {
             return cond.executeI16(frame);
         }
 
     }
 
     public static final class LLVMI32SwitchNode extends LLVMSwitchNodeImpl {
-        public LLVMI32SwitchNode(LLVMExpressionNode cond, LLVMExpressionNode[] cases, int[] successors, LLVMExpressionNode[] phiNodes, SourceSection source) {
-            super(successors, phiNodes, cond, cases, source);
+        public LLVMI32SwitchNode(LLVMExpressionNode cond, long[] caseValues, int[] successors, LLVMExpressionNode[] phiNodes, SourceSection source) {
+            super(successors, phiNodes, cond, caseValues, source);
         }
 
         @Override
-        public Object executeCondition(VirtualFrame frame) {
+        protected long executeConditionValue(VirtualFrame frame) {
             return cond.executeI32(frame);
         }
 
     }
 
     public static final class LLVMI64SwitchNode extends LLVMSwitchNodeImpl {
-        public LLVMI64SwitchNode(LLVMExpressionNode cond, LLVMExpressionNode[] cases, int[] successors, LLVMExpressionNode[] phiNodes, SourceSection source) {
-            super(successors, phiNodes, cond, cases, source);
+        public LLVMI64SwitchNode(LLVMExpressionNode cond, long[] caseValues, int[] successors, LLVMExpressionNode[] phiNodes, SourceSection source) {
+            super(successors, phiNodes, cond, caseValues, source);
         }
 
         @Override
-        public Object executeCondition(VirtualFrame frame) {
+        protected long executeConditionValue(VirtualFrame frame) {
             return cond.executeI64(frame);
         }
 
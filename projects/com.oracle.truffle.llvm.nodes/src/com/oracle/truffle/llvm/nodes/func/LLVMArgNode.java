@@ -29,6 +29,7 @@
  */
 package com.oracle.truffle.llvm.nodes.func;
 
+import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.dsl.NodeField;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.frame.VirtualFrame;
@@ -45,8 +46,13 @@ public abstract class LLVMArgNode extends LLVMExpressionNode {
         /*
          * Copying the address objects prevents that otherwise virtualized objects that are used in
          * a phi together with a materialized passed address object also have to be materialized.
+         * This only matters for compiled code, the interpreter would just allocate garbage.
          */
-        return ((LLVMAddress) frame.getArguments()[getIndex()]).copy();
+        LLVMAddress address = (LLVMAddress) frame.getArguments()[getIndex()];
+        if (CompilerDirectives.inInterpreter()) {
+            return address;
+        }
+        return address.copy();
     }
 
     public boolean isAddress(VirtualFrame frame) {
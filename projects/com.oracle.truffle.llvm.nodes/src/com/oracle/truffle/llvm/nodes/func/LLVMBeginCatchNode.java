@@ -37,34 +37,27 @@ import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.api.nodes.UnexpectedResultException;
 import com.oracle.truffle.llvm.runtime.LLVMAddress;
-import com.oracle.truffle.llvm.runtime.memory.LLVMNativeFunctions;
+import com.oracle.truffle.llvm.runtime.memory.LLVMExceptionLayout;
 import com.oracle.truffle.llvm.runtime.nodes.api.LLVMExpressionNode;
 
 public final class LLVMBeginCatchNode extends LLVMExpressionNode {
 
     @Child private LLVMExpressionNode exceptionPointer;
-    @Child private LLVMNativeFunctions.SulongGetThrownObjectNode getThrownObject;
-    @Child private LLVMNativeFunctions.SulongIncrementHandlerCountNode handlerCount;
+    @Child private LLVMIsPointerTypeNode isPointerType;
     @CompilationFinal private LinkedList<LLVMAddress> caughtExceptionStack;
+    @CompilationFinal private LLVMExceptionLayout exceptionLayout;
 
     public LLVMBeginCatchNode(LLVMExpressionNode exceptionPointer) {
         this.exceptionPointer = exceptionPointer;
+        this.isPointerType = LLVMIsPointerTypeNodeGen.create();
     }
 
-    public LLVMNativeFunctions.SulongGetThrownObjectNode getGetThrownObject() {
-        if (getThrownObject == null) {
+    public LLVMExceptionLayout getExceptionLayout() {
+        if (exceptionLayout == null) {
             CompilerDirectives.transferToInterpreterAndInvalidate();
-            this.getThrownObject = insert(getContext().getNativeFunctions().createGetThrownObject());
+            this.exceptionLayout = getContext().getNativeFunctions().getExceptionLayout();
         }
-        return getThrownObject;
-    }
-
-    public LLVMNativeFunctions.SulongIncrementHandlerCountNode getHandlerCount() {
-        if (handlerCount == null) {
-            CompilerDirectives.transferToInterpreterAndInvalidate();
-            this.handlerCount = insert(getContext().getNativeFunctions().createIncrementHandlerCount());
-        }
-        return handlerCount;
+        return exceptionLayout;
     }
 
     public LinkedList<LLVMAddress> getCaughtExceptionStack() {
@@ -79,8 +72,9 @@ public final class LLVMBeginCatchNode extends LLVMExpressionNode {
     public Object executeGeneric(VirtualFrame frame) {
         try {
             LLVMAddress ptr = exceptionPointer.executeLLVMAddress(frame);
-            LLVMAddress thrownObj = getGetThrownObject().getThrownObject(ptr);
-            getHandlerCount().inc(ptr);
+            LLVMExceptionLayout layout = getExceptionLayout();
+            LLVMAddress thrownObj = layout.getThrownObject(ptr, isPointerType.executeIsPointerType(layout.getExceptionType(ptr)));
+            layout.setHandlerCount(ptr, layout.getHandlerCount(ptr) + 1);
             pushExceptionToStack(ptr);
             return thrownObj;
         } catch (UnexpectedResultException e) {
@@ -29,14 +29,10 @@
  */
 package com.oracle.truffle.llvm.nodes.func;
 
-import com.oracle.truffle.api.dsl.NodeChild;
-import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.api.instrumentation.StandardTags;
 import com.oracle.truffle.api.nodes.ExplodeLoop;
 import com.oracle.truffle.api.source.SourceSection;
-import com.oracle.truffle.llvm.nodes.func.LLVMCallNodeFactory.ArgumentNodeGen;
-import com.oracle.truffle.llvm.runtime.LLVMAddress;
 import com.oracle.truffle.llvm.runtime.memory.LLVMStack.NeedsStack;
 import com.oracle.truffle.llvm.runtime.nodes.api.LLVMExpressionNode;
 import com.oracle.truffle.llvm.runtime.types.FunctionType;
@@ -48,7 +44,6 @@ public final class LLVMCallNode extends LLVMExpressionNode {
 
     @Child private LLVMExpressionNode functionNode;
     @Children private final LLVMExpressionNode[] argumentNodes;
-    @Children private final ArgumentNode[] prepareArgumentNodes;
     @Child private LLVMLookupDispatchNode dispatchNode;
 
     private final SourceSection sourceSection;
@@ -57,10 +52,6 @@ public final class LLVMCallNode extends LLVMExpressionNode {
         this.functionNode = functionNode;
         this.argumentNodes = argumentNodes;
         this.dispatchNode = LLVMLookupDispatchNodeGen.create(functionType);
-        this.prepareArgumentNodes = new ArgumentNode[argumentNodes.length];
-        for (int i = 0; i < argumentNodes.length; i++) {
-            this.prepareArgumentNodes[i] = ArgumentNodeGen.create(null);
-        }
         this.sourceSection = sourceSection;
     }
 
@@ -68,33 +59,18 @@ public final class LLVMCallNode extends LLVMExpressionNode {
     @Override
     public Object executeGeneric(VirtualFrame frame) {
         Object function = functionNode.executeGeneric(frame);
+        /*
+         * Address arguments are passed as they are. The callee copies them when it reads its
+         * arguments (see LLVMArgNode), so copying them here as well would only cause an additional
+         * allocation per pointer argument whenever the call is not inlined.
+         */
         Object[] argValues = new Object[argumentNodes.length];
         for (int i = 0; i < argumentNodes.length; i++) {
-            argValues[i] = prepareArgumentNodes[i].executeWithTarget(argumentNodes[i].executeGeneric(frame));
+            argValues[i] = argumentNodes[i].executeGeneric(frame);
         }
         return dispatchNode.executeDispatch(frame, function, argValues);
     }
 
-    @NodeChild
-    protected abstract static class ArgumentNode extends LLVMExpressionNode {
-
-        protected abstract Object executeWithTarget(Object value);
-
-        @Specialization
-        LLVMAddress doAddress(LLVMAddress address) {
-            return address.copy();
-        }
-
-        protected static boolean notAddress(Object value) {
-            return !(value instanceof LLVMAddress);
-        }
-
-        @Specialization(guards = "notAddress(value)")
-        Object doOther(Object value) {
-            return value;
-        }
-    }
-
     @Override
     public SourceSection getSourceSection() {
         return sourceSection;
@@ -47,6 +47,7 @@ import com.oracle.truffle.api.nodes.Node;
 import com.oracle.truffle.llvm.runtime.LLVMContext;
 import com.oracle.truffle.llvm.runtime.LLVMFunctionDescriptor;
 import com.oracle.truffle.llvm.runtime.LLVMFunctionDescriptor.Intrinsic;
+import com.oracle.truffle.llvm.runtime.LLVMNativeCallProfiler.CallSite;
 import com.oracle.truffle.llvm.runtime.memory.LLVMThreadingStack;
 import com.oracle.truffle.llvm.runtime.nodes.api.LLVMNode;
 import com.oracle.truffle.llvm.runtime.types.FunctionType;
@@ -140,11 +141,13 @@ public abstract class LLVMDispatchNode extends LLVMNode {
                     @Cached("createNativeCallNode()") Node nativeCall,
                     @Cached("bindSymbol(frame, cachedDescriptor)") TruffleObject cachedBoundFunction,
                     @Cached("getContext()") LLVMContext context,
-                    @Cached("nativeCallStatisticsEnabled(context)") boolean statistics) {
+                    @Cached("nativeCallStatisticsEnabled(context)") boolean statistics,
+                    @Cached("createCallSite(context)") CallSite callSite) {
 
+        long conversionStart = LLVMNativeCallUtils.startProfiling(callSite);
         Object[] nativeArgs = prepareNativeArguments(frame, arguments, toNative);
         getThreadingStack(context).getStack().setStackPointer((long) arguments[0]);
-        Object returnValue = LLVMNativeCallUtils.callNativeFunction(statistics, context, nativeCall, cachedBoundFunction, nativeArgs, cachedDescriptor);
+        Object returnValue = LLVMNativeCallUtils.callNativeFunction(statistics, context, nativeCall, cachedBoundFunction, nativeArgs, cachedDescriptor, callSite, conversionStart);
         getThreadingStack(context).getStack().setStackPointer((long) arguments[0]);
         return fromNative.executeConvert(frame, returnValue);
     }
@@ -152,7 +155,12 @@ public abstract class LLVMDispatchNode extends LLVMNode {
     protected TruffleObject bindSymbol(VirtualFrame frame, LLVMFunctionDescriptor descriptor) {
         CompilerAsserts.neverPartOfCompilation();
         assert descriptor.getNativeFunction() != null : descriptor.getName();
-        return LLVMNativeCallUtils.bindNativeSymbol(LLVMNativeCallUtils.getBindNode(), descriptor.getNativeFunction(), getSignature());
+        String nativeSignature = getSignature();
+        TruffleObject boundSymbol = descriptor.getBoundNativeFunction(nativeSignature);
+        if (boundSymbol == null) {
+            boundSymbol = descriptor.cacheBoundNativeFunction(nativeSignature, LLVMNativeCallUtils.bindNativeSymbol(descriptor.getNativeFunction(), nativeSignature));
+        }
+        return boundSymbol;
     }
 
     @Specialization(replaces = "doCachedNative", guards = "descriptor.isNativeFunction()")
@@ -162,16 +170,34 @@ public abstract class LLVMDispatchNode extends LLVMNode {
                     @Cached("createNativeCallNode()") Node nativeCall,
                     @Cached("getBindNode()") Node bindNode,
                     @Cached("getContext()") LLVMContext context,
-                    @Cached("nativeCallStatisticsEnabled(context)") boolean statistics) {
+                    @Cached("nativeCallStatisticsEnabled(context)") boolean statistics,
+                    @Cached("createCallSite(context)") CallSite callSite) {
 
+        long conversionStart = LLVMNativeCallUtils.startProfiling(callSite);
         Object[] nativeArgs = prepareNativeArguments(frame, arguments, toNative);
-        TruffleObject boundSymbol = LLVMNativeCallUtils.bindNativeSymbol(bindNode, descriptor.getNativeFunction(), getSignature());
+        TruffleObject boundSymbol = getBoundSymbol(descriptor, bindNode, context, statistics);
         getThreadingStack(context).getStack().setStackPointer((long) arguments[0]);
-        Object returnValue = LLVMNativeCallUtils.callNativeFunction(statistics, getContext(), nativeCall, boundSymbol, nativeArgs, descriptor);
+        Object returnValue = LLVMNativeCallUtils.callNativeFunction(statistics, getContext(), nativeCall, boundSymbol, nativeArgs, descriptor, callSite, conversionStart);
         getThreadingStack(context).getStack().setStackPointer((long) arguments[0]);
         return fromNative.executeConvert(frame, returnValue);
     }
 
+    /*
+     * Binding a symbol is expensive, so the bound symbols are cached on the descriptor, per
+     * signature.
+     */
+    private TruffleObject getBoundSymbol(LLVMFunctionDescriptor descriptor, Node bindNode, LLVMContext context, boolean statistics) {
+        String nativeSignature = getSignature();
+        TruffleObject boundSymbol = descriptor.getBoundNativeFunction(nativeSignature);
+        if (statistics) {
+            context.registerBoundSymbolLookup(boundSymbol != null);
+        }
+        if (boundSymbol == null) {
+            boundSymbol = descriptor.cacheBoundNativeFunction(nativeSignature, LLVMNativeCallUtils.bindNativeSymbol(bindNode, descriptor.getNativeFunction(), nativeSignature));
+        }
+        return boundSymbol;
+    }
+
     @ExplodeLoop
     private static Object[] prepareNativeArguments(VirtualFrame frame, Object[] arguments, LLVMNativeConvertNode[] toNative) {
         Object[] nativeArgs = new Object[arguments.length - LLVMCallNode.USER_ARGUMENT_OFFSET];
@@ -205,4 +231,8 @@ public abstract class LLVMDispatchNode extends LLVMNode {
         CompilerAsserts.neverPartOfCompilation();
         return LLVMNativeConvertNode.createFromNative(type.getReturnType());
     }
+
+    protected CallSite createCallSite(LLVMContext context) {
+        return LLVMNativeCallUtils.createCallSite(context, this);
+    }
 }
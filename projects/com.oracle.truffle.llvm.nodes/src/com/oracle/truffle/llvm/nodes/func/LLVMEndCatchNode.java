@@ -38,7 +38,7 @@ import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.llvm.runtime.LLVMAddress;
 import com.oracle.truffle.llvm.runtime.LLVMContext;
 import com.oracle.truffle.llvm.runtime.LLVMFunctionHandle;
-import com.oracle.truffle.llvm.runtime.memory.LLVMNativeFunctions;
+import com.oracle.truffle.llvm.runtime.memory.LLVMExceptionLayout;
 import com.oracle.truffle.llvm.runtime.nodes.api.LLVMExpressionNode;
 import com.oracle.truffle.llvm.runtime.types.FunctionType;
 import com.oracle.truffle.llvm.runtime.types.PointerType;
@@ -49,12 +49,9 @@ public final class LLVMEndCatchNode extends LLVMExpressionNode {
 
     @Child private LLVMExpressionNode stackPointer;
     @Child private LLVMLookupDispatchNode dispatch;
-    @Child private LLVMNativeFunctions.SulongDecrementHandlerCountNode decHandlerCount;
-    @Child private LLVMNativeFunctions.SulongGetHandlerCountNode getHandlerCount;
-    @Child private LLVMNativeFunctions.SulongGetThrownObjectNode getThrownObject;
-    @Child private LLVMNativeFunctions.SulongGetDestructorNode getDestructor;
-    @Child private LLVMNativeFunctions.SulongSetHandlerCountNode setHandlerCount;
+    @Child private LLVMIsPointerTypeNode isPointerType;
     @CompilationFinal private LinkedList<LLVMAddress> caughtExceptionStack;
+    @CompilationFinal private LLVMExceptionLayout exceptionLayout;
     @CompilationFinal private LLVMContext cachedContext;
 
     public LLVMContext getCachedContext() {
@@ -68,6 +65,7 @@ public final class LLVMEndCatchNode extends LLVMExpressionNode {
     public LLVMEndCatchNode(LLVMExpressionNode stackPointer) {
         this.stackPointer = stackPointer;
         this.dispatch = LLVMLookupDispatchNodeGen.create(new FunctionType(VoidType.INSTANCE, new Type[]{new PointerType(null)}, false));
+        this.isPointerType = LLVMIsPointerTypeNodeGen.create();
     }
 
     public LinkedList<LLVMAddress> getCaughtExceptionStack() {
@@ -78,61 +76,31 @@ public final class LLVMEndCatchNode extends LLVMExpressionNode {
         return caughtExceptionStack;
     }
 
-    public LLVMNativeFunctions.SulongDecrementHandlerCountNode getDecHandlerCount() {
-        if (decHandlerCount == null) {
+    public LLVMExceptionLayout getExceptionLayout() {
+        if (exceptionLayout == null) {
             CompilerDirectives.transferToInterpreterAndInvalidate();
-            this.decHandlerCount = insert(getContext().getNativeFunctions().createDecrementHandlerCount());
+            this.exceptionLayout = getContext().getNativeFunctions().getExceptionLayout();
         }
-        return decHandlerCount;
-    }
-
-    public LLVMNativeFunctions.SulongGetHandlerCountNode getGetHandlerCount() {
-        if (getHandlerCount == null) {
-            CompilerDirectives.transferToInterpreterAndInvalidate();
-            this.getHandlerCount = insert(getContext().getNativeFunctions().createGetHandlerCount());
-        }
-        return getHandlerCount;
-    }
-
-    public LLVMNativeFunctions.SulongGetDestructorNode getGetDestructor() {
-        if (getDestructor == null) {
-            CompilerDirectives.transferToInterpreterAndInvalidate();
-            this.getDestructor = insert(getContext().getNativeFunctions().createGetDestructor());
-        }
-        return getDestructor;
-    }
-
-    public LLVMNativeFunctions.SulongGetThrownObjectNode getGetThrownObject() {
-        if (getThrownObject == null) {
-            CompilerDirectives.transferToInterpreterAndInvalidate();
-            this.getThrownObject = insert(getContext().getNativeFunctions().createGetThrownObject());
-        }
-        return getThrownObject;
-    }
-
-    public LLVMNativeFunctions.SulongSetHandlerCountNode getSetHandlerCount() {
-        if (setHandlerCount == null) {
-            CompilerDirectives.transferToInterpreterAndInvalidate();
-            this.setHandlerCount = insert(getContext().getNativeFunctions().createSetHandlerCount());
-        }
-        return setHandlerCount;
+        return exceptionLayout;
     }
 
     @Override
     public Object executeGeneric(VirtualFrame frame) {
         try {
             LLVMAddress ptr = popExceptionToStack();
-            int handlerCount = getGetHandlerCount().get(ptr);
+            LLVMExceptionLayout layout = getExceptionLayout();
+            int handlerCount = layout.getHandlerCount(ptr);
             if (handlerCount == LLVMRethrowNode.RETHROWN_MARKER) {
                 // exception was re-thrown, do nothing but reset marker
-                getSetHandlerCount().set(ptr, 0);
+                layout.setHandlerCount(ptr, 0);
                 return 0;
             }
-            getDecHandlerCount().dec(ptr);
-            LLVMAddress destructorAddress = getGetDestructor().get(ptr);
-            if (getGetHandlerCount().get(ptr) <= 0 && destructorAddress.getVal() != 0) {
+            layout.setHandlerCount(ptr, handlerCount - 1);
+            LLVMAddress destructorAddress = layout.getDestructor(ptr);
+            if (handlerCount - 1 <= 0 && destructorAddress.getVal() != 0) {
                 LLVMFunctionHandle destructor = LLVMFunctionHandle.createHandle(destructorAddress.getVal());
-                dispatch.executeDispatch(frame, destructor, new Object[]{stackPointer.executeI64(frame), getGetThrownObject().getThrownObject(ptr)});
+                LLVMAddress thrownObject = layout.getThrownObject(ptr, isPointerType.executeIsPointerType(layout.getExceptionType(ptr)));
+                dispatch.executeDispatch(frame, destructor, new Object[]{stackPointer.executeI64(frame), thrownObject});
             }
             return null;
         } catch (Throwable e) {
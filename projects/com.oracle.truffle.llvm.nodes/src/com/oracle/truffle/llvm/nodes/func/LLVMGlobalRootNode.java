@@ -77,7 +77,6 @@ public class LLVMGlobalRootNode extends RootNode {
     @Override
     @ExplodeLoop
     public Object execute(VirtualFrame frame) {
-        getContext().getThreadingStack().checkThread();
         long basePointer = getContext().getThreadingStack().getStack().getStackPointer();
         try {
             Object result = null;
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.nodes.func;
+
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.llvm.runtime.LLVMAddress;
+import com.oracle.truffle.llvm.runtime.memory.LLVMNativeFunctions;
+import com.oracle.truffle.llvm.runtime.nodes.api.LLVMNode;
+
+/**
+ * Decides whether a thrown type is a pointer type, in which case the catch block receives the
+ * stored pointer instead of the address of the exception object. The answer is cached per type
+ * info.
+ */
+@SuppressWarnings("unused")
+public abstract class LLVMIsPointerTypeNode extends LLVMNode {
+
+    protected static final int INLINE_CACHE_SIZE = 5;
+
+    @Child private LLVMNativeFunctions.SulongIsPointerTypeNode isPointerType;
+
+    public abstract boolean executeIsPointerType(LLVMAddress thrownType);
+
+    @Specialization(limit = "INLINE_CACHE_SIZE", guards = "thrownType.getVal() == cachedThrownType")
+    protected static boolean doCached(LLVMAddress thrownType,
+                    @Cached("thrownType.getVal()") long cachedThrownType,
+                    @Cached("isPointerType(thrownType)") boolean cachedResult) {
+        return cachedResult;
+    }
+
+    @Specialization(replaces = "doCached")
+    protected boolean doNative(LLVMAddress thrownType) {
+        return isPointerType(thrownType);
+    }
+
+    protected boolean isPointerType(LLVMAddress thrownType) {
+        if (isPointerType == null) {
+            CompilerDirectives.transferToInterpreterAndInvalidate();
+            isPointerType = insert(getContext().getNativeFunctions().createIsPointerType());
+        }
+        return isPointerType.isPointerType(thrownType);
+    }
+}
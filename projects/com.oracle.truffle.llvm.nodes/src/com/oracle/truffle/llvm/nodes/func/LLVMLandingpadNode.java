@@ -30,6 +30,7 @@
 package com.oracle.truffle.llvm.nodes.func;
 
 import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
 import com.oracle.truffle.api.frame.FrameSlot;
 import com.oracle.truffle.api.frame.FrameSlotTypeException;
 import com.oracle.truffle.api.frame.VirtualFrame;
@@ -37,18 +38,17 @@ import com.oracle.truffle.api.nodes.ExplodeLoop;
 import com.oracle.truffle.api.nodes.UnexpectedResultException;
 import com.oracle.truffle.llvm.runtime.LLVMAddress;
 import com.oracle.truffle.llvm.runtime.LLVMException;
+import com.oracle.truffle.llvm.runtime.memory.LLVMExceptionLayout;
 import com.oracle.truffle.llvm.runtime.memory.LLVMMemory;
-import com.oracle.truffle.llvm.runtime.memory.LLVMNativeFunctions;
 import com.oracle.truffle.llvm.runtime.nodes.api.LLVMExpressionNode;
 
 public final class LLVMLandingpadNode extends LLVMExpressionNode {
 
     @Child private LLVMExpressionNode allocateLandingPadValue;
-    @Child private LLVMNativeFunctions.SulongGetUnwindHeaderNode getUnwindHeader;
-    @Child private LLVMNativeFunctions.SulongGetExceptionTypeNode getExceptionType;
     @Children private final LandingpadEntryNode[] entries;
     private final FrameSlot exceptionSlot;
     private final boolean cleanup;
+    @CompilationFinal private LLVMExceptionLayout exceptionLayout;
 
     public LLVMLandingpadNode(LLVMExpressionNode allocateLandingPadValue, FrameSlot exceptionSlot, boolean cleanup,
                     LandingpadEntryNode[] entries) {
@@ -58,20 +58,12 @@ public final class LLVMLandingpadNode extends LLVMExpressionNode {
         this.entries = entries;
     }
 
-    public LLVMNativeFunctions.SulongGetUnwindHeaderNode getGetUnwindHeader() {
-        if (getUnwindHeader == null) {
+    public LLVMExceptionLayout getExceptionLayout() {
+        if (exceptionLayout == null) {
             CompilerDirectives.transferToInterpreterAndInvalidate();
-            this.getUnwindHeader = insert(getContext().getNativeFunctions().createGetUnwindHeader());
+            this.exceptionLayout = getContext().getNativeFunctions().getExceptionLayout();
         }
-        return getUnwindHeader;
-    }
-
-    public LLVMNativeFunctions.SulongGetExceptionTypeNode getGetExceptionType() {
-        if (getExceptionType == null) {
-            CompilerDirectives.transferToInterpreterAndInvalidate();
-            this.getExceptionType = insert(getContext().getNativeFunctions().createGetExceptionType());
-        }
-        return getExceptionType;
+        return exceptionLayout;
     }
 
     @Override
@@ -79,8 +71,8 @@ public final class LLVMLandingpadNode extends LLVMExpressionNode {
         try {
             LLVMException exception = (LLVMException) frame.getObject(exceptionSlot);
             LLVMAddress exceptionInfo = exception.getPointer();
-            LLVMAddress unwindHeader = getGetUnwindHeader().getUnwind(exceptionInfo);
-            LLVMAddress thrownTypeID = getGetExceptionType().get(unwindHeader);
+            LLVMAddress unwindHeader = getExceptionLayout().getUnwindHeader(exceptionInfo);
+            LLVMAddress thrownTypeID = getExceptionLayout().getExceptionType(unwindHeader);
 
             int clauseId = getEntryIdentifier(frame, exceptionInfo, thrownTypeID);
             if (clauseId == 0 && !cleanup) {
@@ -125,19 +117,12 @@ public final class LLVMLandingpadNode extends LLVMExpressionNode {
 
         @Child private LLVMExpressionNode catchType;
         @Child private LLVMForceLLVMAddressNode forceToLLVMcatchType;
-        @Child private LLVMNativeFunctions.SulongCanCatchNode canCatch;
+        @Child private LLVMCanCatchNode canCatch;
 
         public LandingpadCatchEntryNode(LLVMExpressionNode catchType) {
             this.catchType = catchType;
             this.forceToLLVMcatchType = getForceLLVMAddressNode();
-        }
-
-        public LLVMNativeFunctions.SulongCanCatchNode getCanCatch() {
-            if (canCatch == null) {
-                CompilerDirectives.transferToInterpreterAndInvalidate();
-                this.canCatch = insert(getContext().getNativeFunctions().createSulongCanCatch());
-            }
-            return canCatch;
+            this.canCatch = LLVMCanCatchNodeGen.create();
         }
 
         @Override
@@ -150,7 +135,7 @@ public final class LLVMLandingpadNode extends LLVMExpressionNode {
                  */
                 return 1;
             }
-            if (getCanCatch().canCatch(exceptionInfo, thrownTypeID, catchAddress) != 0) {
+            if (canCatch.executeCanCatch(exceptionInfo, thrownTypeID, catchAddress)) {
                 return (int) catchAddress.getVal();
             }
             return 0;
@@ -161,19 +146,15 @@ public final class LLVMLandingpadNode extends LLVMExpressionNode {
 
         @Children private final LLVMExpressionNode[] filterTypes;
         @Children private final LLVMForceLLVMAddressNode[] forceToLLVMfilterTypes;
-        @Child private LLVMNativeFunctions.SulongCanCatchNode canCatch;
+        @Children private final LLVMCanCatchNode[] canCatch;
 
         public LandingpadFilterEntryNode(LLVMExpressionNode[] filterTypes) {
             this.filterTypes = filterTypes;
             this.forceToLLVMfilterTypes = getForceLLVMAddressNodes(filterTypes.length);
-        }
-
-        public LLVMNativeFunctions.SulongCanCatchNode getCanCatch() {
-            if (canCatch == null) {
-                CompilerDirectives.transferToInterpreterAndInvalidate();
-                this.canCatch = insert(getContext().getNativeFunctions().createSulongCanCatch());
+            this.canCatch = new LLVMCanCatchNode[filterTypes.length];
+            for (int i = 0; i < filterTypes.length; i++) {
+                this.canCatch[i] = LLVMCanCatchNodeGen.create();
             }
-            return canCatch;
         }
 
         @Override
@@ -200,7 +181,7 @@ public final class LLVMLandingpadNode extends LLVMExpressionNode {
                      */
                     return true;
                 }
-                if (getCanCatch().canCatch(exceptionInfo, thrownTypeID, filterAddress) != 0) {
+                if (canCatch[i].executeCanCatch(exceptionInfo, thrownTypeID, filterAddress)) {
                     return true;
                 }
             }
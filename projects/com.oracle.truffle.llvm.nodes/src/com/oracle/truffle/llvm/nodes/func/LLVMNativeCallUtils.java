@@ -38,8 +38,12 @@ import com.oracle.truffle.api.interop.ForeignAccess;
 import com.oracle.truffle.api.interop.Message;
 import com.oracle.truffle.api.interop.TruffleObject;
 import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.api.nodes.RootNode;
+import com.oracle.truffle.api.source.SourceSection;
 import com.oracle.truffle.llvm.runtime.LLVMContext;
 import com.oracle.truffle.llvm.runtime.LLVMFunctionDescriptor;
+import com.oracle.truffle.llvm.runtime.LLVMNativeCallProfiler;
+import com.oracle.truffle.llvm.runtime.LLVMNativeCallProfiler.CallSite;
 
 public final class LLVMNativeCallUtils {
 
@@ -57,21 +61,50 @@ public final class LLVMNativeCallUtils {
         }
     }
 
-    static Object callNativeFunction(boolean enabled, LLVMContext context, Node nativeCall, TruffleObject function, Object[] nativeArgs, LLVMFunctionDescriptor descriptor) {
+    static Object callNativeFunction(boolean enabled, LLVMContext context, Node nativeCall, TruffleObject function, Object[] nativeArgs, LLVMFunctionDescriptor descriptor, CallSite callSite,
+                    long conversionStart) {
         CompilerAsserts.partialEvaluationConstant(enabled);
         if (enabled) {
             if (descriptor != null) {
                 traceNativeCall(context, descriptor);
             }
         }
+        long callStart = startProfiling(callSite);
         try {
-            return ForeignAccess.sendExecute(nativeCall, function, nativeArgs);
+            Object result = ForeignAccess.sendExecute(nativeCall, function, nativeArgs);
+            if (callSite != null) {
+                callSite.record(descriptor, callStart - conversionStart, System.nanoTime() - callStart);
+            }
+            return result;
         } catch (Throwable e) {
             CompilerDirectives.transferToInterpreter();
             throw new IllegalStateException(function + Arrays.toString(nativeArgs), e);
         }
     }
 
+    /**
+     * Gets the native call profile of the call site {@code node} belongs to, or {@code null} if
+     * native calls are not profiled.
+     */
+    static CallSite createCallSite(LLVMContext context, Node node) {
+        CompilerAsserts.neverPartOfCompilation();
+        LLVMNativeCallProfiler profiler = context.getNativeCallProfiler();
+        if (profiler == null) {
+            return null;
+        }
+        RootNode rootNode = node.getRootNode();
+        SourceSection sourceSection = node.getEncapsulatingSourceSection();
+        StringBuilder location = new StringBuilder(rootNode == null ? "<unknown>" : rootNode.getName());
+        if (sourceSection != null) {
+            location.append(" (").append(sourceSection.getSource().getName()).append(':').append(sourceSection.getStartLine()).append(')');
+        }
+        return profiler.createCallSite(location.toString());
+    }
+
+    static long startProfiling(CallSite callSite) {
+        return callSite == null ? 0 : System.nanoTime();
+    }
+
     @TruffleBoundary
     private static void traceNativeCall(LLVMContext context, LLVMFunctionDescriptor descriptor) {
         context.registerNativeCall(descriptor);
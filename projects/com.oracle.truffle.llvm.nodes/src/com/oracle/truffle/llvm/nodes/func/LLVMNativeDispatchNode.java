@@ -47,6 +47,7 @@ import com.oracle.truffle.api.nodes.Node;
 import com.oracle.truffle.llvm.runtime.LLVMContext;
 import com.oracle.truffle.llvm.runtime.LLVMFunction;
 import com.oracle.truffle.llvm.runtime.LLVMFunctionHandle;
+import com.oracle.truffle.llvm.runtime.LLVMNativeCallProfiler.CallSite;
 import com.oracle.truffle.llvm.runtime.memory.LLVMThreadingStack;
 import com.oracle.truffle.llvm.runtime.nodes.api.LLVMNode;
 import com.oracle.truffle.llvm.runtime.types.FunctionType;
@@ -107,6 +108,10 @@ public abstract class LLVMNativeDispatchNode extends LLVMNode {
         return LLVMNativeConvertNode.createFromNative(type.getReturnType());
     }
 
+    protected CallSite createCallSite(LLVMContext context) {
+        return LLVMNativeCallUtils.createCallSite(context, this);
+    }
+
     @ExplodeLoop
     private static Object[] prepareNativeArguments(VirtualFrame frame, Object[] arguments, LLVMNativeConvertNode[] toNative) {
         Object[] nativeArgs = new Object[arguments.length - LLVMCallNode.USER_ARGUMENT_OFFSET];
@@ -124,10 +129,12 @@ public abstract class LLVMNativeDispatchNode extends LLVMNode {
                     @Cached("dispatchIdentity(identity, cachedFunction.getFunctionPointer())") TruffleObject nativeFunctionHandle,
                     @Cached("createToNativeNodes()") LLVMNativeConvertNode[] toNative,
                     @Cached("createFromNativeNode()") LLVMNativeConvertNode fromNative,
-                    @Cached("nativeCallStatisticsEnabled(context)") boolean statistics) {
+                    @Cached("nativeCallStatisticsEnabled(context)") boolean statistics,
+                    @Cached("createCallSite(context)") CallSite callSite) {
+        long conversionStart = LLVMNativeCallUtils.startProfiling(callSite);
         Object[] nativeArgs = prepareNativeArguments(frame, arguments, toNative);
         getThreadingStack(context).getStack().setStackPointer((long) arguments[0]);
-        Object returnValue = LLVMNativeCallUtils.callNativeFunction(statistics, context, nativeCallNode, nativeFunctionHandle, nativeArgs, null);
+        Object returnValue = LLVMNativeCallUtils.callNativeFunction(statistics, context, nativeCallNode, nativeFunctionHandle, nativeArgs, null, callSite, conversionStart);
         getThreadingStack(context).getStack().setStackPointer((long) arguments[0]);
         return fromNative.executeConvert(frame, returnValue);
     }
@@ -138,10 +145,12 @@ public abstract class LLVMNativeDispatchNode extends LLVMNode {
                     @Cached("identityFunction()") TruffleObject identity,
                     @Cached("createToNativeNodes()") LLVMNativeConvertNode[] toNative,
                     @Cached("createFromNativeNode()") LLVMNativeConvertNode fromNative,
-                    @Cached("nativeCallStatisticsEnabled(context)") boolean statistics) {
+                    @Cached("nativeCallStatisticsEnabled(context)") boolean statistics,
+                    @Cached("createCallSite(context)") CallSite callSite) {
+        long conversionStart = LLVMNativeCallUtils.startProfiling(callSite);
         Object[] nativeArgs = prepareNativeArguments(frame, arguments, toNative);
         getThreadingStack(context).getStack().setStackPointer((long) arguments[0]);
-        Object returnValue = LLVMNativeCallUtils.callNativeFunction(statistics, context, nativeCallNode, dispatchIdentity(identity, function.getFunctionPointer()), nativeArgs, null);
+        Object returnValue = LLVMNativeCallUtils.callNativeFunction(statistics, context, nativeCallNode, dispatchIdentity(identity, function.getFunctionPointer()), nativeArgs, null, callSite, conversionStart);
         getThreadingStack(context).getStack().setStackPointer((long) arguments[0]);
         return fromNative.executeConvert(frame, returnValue);
     }
@@ -37,7 +37,7 @@ import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.llvm.runtime.LLVMAddress;
 import com.oracle.truffle.llvm.runtime.LLVMException;
-import com.oracle.truffle.llvm.runtime.memory.LLVMNativeFunctions;
+import com.oracle.truffle.llvm.runtime.memory.LLVMExceptionLayout;
 import com.oracle.truffle.llvm.runtime.nodes.api.LLVMExpressionNode;
 
 public final class LLVMRethrowNode extends LLVMExpressionNode {
@@ -45,8 +45,7 @@ public final class LLVMRethrowNode extends LLVMExpressionNode {
     public static final int RETHROWN_MARKER = Integer.MAX_VALUE;
 
     @CompilationFinal private LinkedList<LLVMAddress> caughtExceptionStack;
-    @Child private LLVMNativeFunctions.SulongSetHandlerCountNode setHandlerCount;
-    @Child private LLVMNativeFunctions.SulongGetExceptionPointerNode getExceptionPointer;
+    @CompilationFinal private LLVMExceptionLayout exceptionLayout;
 
     public LinkedList<LLVMAddress> getCaughtExceptionStack() {
         if (caughtExceptionStack == null) {
@@ -56,30 +55,22 @@ public final class LLVMRethrowNode extends LLVMExpressionNode {
         return caughtExceptionStack;
     }
 
-    public LLVMNativeFunctions.SulongSetHandlerCountNode getSetHandlerCount() {
-        if (setHandlerCount == null) {
+    public LLVMExceptionLayout getExceptionLayout() {
+        if (exceptionLayout == null) {
             CompilerDirectives.transferToInterpreterAndInvalidate();
-            setHandlerCount = insert(getContext().getNativeFunctions().createSetHandlerCount());
+            exceptionLayout = getContext().getNativeFunctions().getExceptionLayout();
         }
-        return setHandlerCount;
-    }
-
-    public LLVMNativeFunctions.SulongGetExceptionPointerNode getGetExceptionPointer() {
-        if (getExceptionPointer == null) {
-            CompilerDirectives.transferToInterpreterAndInvalidate();
-            getExceptionPointer = insert(getContext().getNativeFunctions().createGetExceptionPointer());
-        }
-        return getExceptionPointer;
+        return exceptionLayout;
     }
 
     @Override
     public Object executeGeneric(VirtualFrame frame) {
         LLVMAddress ptr = peekExceptionToStack();
-        LLVMAddress exceptionPointer = getGetExceptionPointer().getExceptionPointer(ptr);
+        LLVMAddress exceptionPointer = getExceptionLayout().getExceptionPointer(ptr);
         /*
          * this is not a hack, this is as suggested in the documentation
          */
-        getSetHandlerCount().set(ptr, RETHROWN_MARKER);
+        getExceptionLayout().setHandlerCount(ptr, RETHROWN_MARKER);
         throw new LLVMException(exceptionPointer);
     }
 
@@ -30,10 +30,11 @@
 package com.oracle.truffle.llvm.nodes.func;
 
 import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
 import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.llvm.runtime.LLVMAddress;
 import com.oracle.truffle.llvm.runtime.LLVMException;
-import com.oracle.truffle.llvm.runtime.memory.LLVMNativeFunctions;
+import com.oracle.truffle.llvm.runtime.memory.LLVMExceptionLayout;
 import com.oracle.truffle.llvm.runtime.nodes.api.LLVMExpressionNode;
 
 public final class LLVMThrowExceptionNode extends LLVMExpressionNode {
@@ -44,7 +45,7 @@ public final class LLVMThrowExceptionNode extends LLVMExpressionNode {
     @Child private LLVMForceLLVMAddressNode thrownTypeIDToLLVM;
     @Child private LLVMExpressionNode destructor;
     @Child private LLVMForceLLVMAddressNode destructorToLLVM;
-    @Child private LLVMNativeFunctions.SulongThrowNode exceptionInitializaton;
+    @CompilationFinal private LLVMExceptionLayout exceptionLayout;
 
     public LLVMThrowExceptionNode(LLVMExpressionNode arg1, LLVMExpressionNode arg2, LLVMExpressionNode arg3) {
         this.exceptionInfo = arg1;
@@ -55,12 +56,12 @@ public final class LLVMThrowExceptionNode extends LLVMExpressionNode {
         this.destructorToLLVM = getForceLLVMAddressNode();
     }
 
-    public LLVMNativeFunctions.SulongThrowNode getExceptionInitializaton() {
-        if (exceptionInitializaton == null) {
+    public LLVMExceptionLayout getExceptionLayout() {
+        if (exceptionLayout == null) {
             CompilerDirectives.transferToInterpreterAndInvalidate();
-            this.exceptionInitializaton = insert(getContext().getNativeFunctions().createSulongThrow());
+            this.exceptionLayout = getContext().getNativeFunctions().getExceptionLayout();
         }
-        return exceptionInitializaton;
+        return exceptionLayout;
     }
 
     @Override
@@ -68,7 +69,7 @@ public final class LLVMThrowExceptionNode extends LLVMExpressionNode {
         LLVMAddress thrownObject = exceptionInfoToLLVM.executeWithTarget(exceptionInfo.executeGeneric(frame));
         LLVMAddress thrownType = thrownTypeIDToLLVM.executeWithTarget(thrownTypeID.executeGeneric(frame));
         LLVMAddress dest = destructorToLLVM.executeWithTarget(destructor.executeGeneric(frame));
-        getExceptionInitializaton().throvv(thrownObject, thrownType, dest, LLVMAddress.nullPointer(), LLVMAddress.nullPointer());
+        getExceptionLayout().initialize(thrownObject, thrownType, dest);
         throw new LLVMException(thrownObject);
     }
 
@@ -0,0 +1,466 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.nodes.intrinsics.c;
+
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.NodeChild;
+import com.oracle.truffle.api.dsl.NodeChildren;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.interop.ForeignAccess;
+import com.oracle.truffle.api.interop.InteropException;
+import com.oracle.truffle.api.interop.Message;
+import com.oracle.truffle.api.interop.TruffleObject;
+import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.llvm.nodes.intrinsics.llvm.LLVMIntrinsic;
+import com.oracle.truffle.llvm.runtime.LLVMAddress;
+import com.oracle.truffle.llvm.runtime.LLVMTruffleObject;
+import com.oracle.truffle.llvm.runtime.global.LLVMGlobalVariable;
+import com.oracle.truffle.llvm.runtime.global.LLVMGlobalVariableAccess;
+import com.oracle.truffle.llvm.runtime.interop.convert.ForeignToLLVM;
+import com.oracle.truffle.llvm.runtime.interop.convert.ForeignToLLVM.ForeignToLLVMType;
+import com.oracle.truffle.llvm.runtime.memory.LLVMMemory;
+import com.oracle.truffle.llvm.runtime.nodes.api.LLVMExpressionNode;
+import com.oracle.truffle.llvm.runtime.types.PrimitiveType;
+
+/**
+ * Java implementations of the {@code string.h} functions that are hot in text processing code.
+ * Native strings are processed eight bytes at a time: a word is only read if it does not cross a
+ * page boundary, so scanning for the terminating zero never touches a page that the C
+ * implementation would not touch. Lengths are {@code size_t} values and compared unsigned.
+ * Managed strings ({@link LLVMTruffleObject}) are accessed byte by byte.
+ */
+public final class LLVMStringIntrinsics {
+
+    private static final long ONES = 0x0101010101010101L;
+    private static final long HIGH_BITS = 0x8080808080808080L;
+    private static final long PAGE_SIZE = 4096;
+
+    private LLVMStringIntrinsics() {
+    }
+
+    /**
+     * Returns a word with the high bit set in the lowest byte of {@code word} that is zero. Bytes
+     * above the lowest zero byte may be flagged spuriously, so only the lowest flag is exact.
+     */
+    private static long zeroBytes(long word) {
+        return (word - ONES) & ~word & HIGH_BITS;
+    }
+
+    private static boolean canReadWord(long address) {
+        return (address & (PAGE_SIZE - 1)) <= PAGE_SIZE - Long.BYTES;
+    }
+
+    static long strlen(long s) {
+        long p = s;
+        while (true) {
+            if (canReadWord(p)) {
+                long zeros = zeroBytes(LLVMMemory.getI64(p));
+                if (zeros == 0) {
+                    p += Long.BYTES;
+                    continue;
+                }
+                return p - s + (Long.numberOfTrailingZeros(zeros) >>> 3);
+            }
+            if (LLVMMemory.getI8(p) == 0) {
+                return p - s;
+            }
+            p++;
+        }
+    }
+
+    static int strcmp(long s1, long s2) {
+        return strncmp(s1, s2, -1L);
+    }
+
+    static int memcmp(long s1, long s2, long n) {
+        long i = 0;
+        while (Long.compareUnsigned(n - i, Long.BYTES) >= 0) {
+            long word1 = LLVMMemory.getI64(s1 + i);
+            long word2 = LLVMMemory.getI64(s2 + i);
+            if (word1 != word2) {
+                // memory is little endian, so the lowest differing byte comes first
+                int shift = Long.numberOfTrailingZeros(word1 ^ word2) & ~(Byte.SIZE - 1);
+                return (int) ((word1 >>> shift) & 0xff) - (int) ((word2 >>> shift) & 0xff);
+            }
+            i += Long.BYTES;
+        }
+        for (; Long.compareUnsigned(i, n) < 0; i++) {
+            int c1 = LLVMMemory.getI8(s1 + i) & 0xff;
+            int c2 = LLVMMemory.getI8(s2 + i) & 0xff;
+            if (c1 != c2) {
+                return c1 - c2;
+            }
+        }
+        return 0;
+    }
+
+    static int strncmp(long s1, long s2, long n) {
+        long i = 0;
+        while (Long.compareUnsigned(i, n) < 0) {
+            long end = i + 1;
+            if (Long.compareUnsigned(n - i, Long.BYTES) >= 0 && canReadWord(s1 + i) && canReadWord(s2 + i)) {
+                long word1 = LLVMMemory.getI64(s1 + i);
+                long word2 = LLVMMemory.getI64(s2 + i);
+                if (word1 == word2 && zeroBytes(word1) == 0) {
+                    i += Long.BYTES;
+                    continue;
+                }
+                // the difference or the end of the strings is in this word
+                end = i + Long.BYTES;
+            }
+            for (; i < end; i++) {
+                int c1 = LLVMMemory.getI8(s1 + i) & 0xff;
+                int c2 = LLVMMemory.getI8(s2 + i) & 0xff;
+                if (c1 != c2) {
+                    return c1 - c2;
+                } else if (c1 == 0) {
+                    return 0;
+                }
+            }
+        }
+        return 0;
+    }
+
+    static long strchr(long s, byte c) {
+        long pattern = (c & 0xffL) * ONES;
+        long p = s;
+        while (true) {
+            long end = p + 1;
+            if (canReadWord(p)) {
+                long word = LLVMMemory.getI64(p);
+                if ((zeroBytes(word) | zeroBytes(word ^ pattern)) == 0) {
+                    p += Long.BYTES;
+                    continue;
+                }
+                end = p + Long.BYTES;
+            }
+            for (; p < end; p++) {
+                byte value = LLVMMemory.getI8(p);
+                if (value == c) {
+                    return p;
+                } else if (value == 0) {
+                    return 0;
+                }
+            }
+        }
+    }
+
+    static long memchr(long s, byte c, long n) {
+        long pattern = (c & 0xffL) * ONES;
+        long i = 0;
+        while (Long.compareUnsigned(i, n) < 0) {
+            long end = i + 1;
+            if (Long.compareUnsigned(n - i, Long.BYTES) >= 0 && canReadWord(s + i)) {
+                if (zeroBytes(LLVMMemory.getI64(s + i) ^ pattern) == 0) {
+                    i += Long.BYTES;
+                    continue;
+                }
+                end = i + Long.BYTES;
+            }
+            for (; i < end; i++) {
+                if (LLVMMemory.getI8(s + i) == c) {
+                    return s + i;
+                }
+            }
+        }
+        return 0;
+    }
+
+    static void strcpy(long dest, long src) {
+        long i = 0;
+        while (true) {
+            if (canReadWord(src + i)) {
+                long word = LLVMMemory.getI64(src + i);
+                if (zeroBytes(word) == 0) {
+                    LLVMMemory.putI64(dest + i, word);
+                    i += Long.BYTES;
+                    continue;
+                }
+            }
+            byte value = LLVMMemory.getI8(src + i);
+            LLVMMemory.putI8(dest + i, value);
+            if (value == 0) {
+                return;
+            }
+            i++;
+        }
+    }
+
+    static void strncpy(long dest, long src, long n) {
+        long i = 0;
+        while (Long.compareUnsigned(i, n) < 0) {
+            if (Long.compareUnsigned(n - i, Long.BYTES) >= 0 && canReadWord(src + i)) {
+                long word = LLVMMemory.getI64(src + i);
+                if (zeroBytes(word) == 0) {
+                    LLVMMemory.putI64(dest + i, word);
+                    i += Long.BYTES;
+                    continue;
+                }
+            }
+            byte value = LLVMMemory.getI8(src + i);
+            LLVMMemory.putI8(dest + i, value);
+            i++;
+            if (value == 0) {
+                break;
+            }
+        }
+        if (Long.compareUnsigned(i, n) < 0) {
+            // the rest of the destination is padded with zeros
+            LLVMMemory.memset(dest + i, n - i, (byte) 0);
+        }
+    }
+
+    private static Object offsetPointer(Object pointer, long offset) {
+        if (pointer instanceof LLVMAddress) {
+            return ((LLVMAddress) pointer).increment(offset);
+        } else {
+            LLVMTruffleObject object = (LLVMTruffleObject) pointer;
+            return new LLVMTruffleObject(object.getObject(), object.getOffset() + offset, object.getType());
+        }
+    }
+
+    /**
+     * Normalizes a pointer argument: global variables are resolved to their native location and
+     * foreign objects are wrapped as byte arrays, so the intrinsics only see {@link LLVMAddress}
+     * and {@link LLVMTruffleObject}.
+     */
+    @NodeChild(type = LLVMExpressionNode.class)
+    public abstract static class LLVMStringPointer extends LLVMExpressionNode {
+
+        @Specialization
+        public LLVMAddress executeAddress(LLVMAddress pointer) {
+            return pointer;
+        }
+
+        @Specialization
+        public LLVMAddress executeGlobal(LLVMGlobalVariable pointer, @Cached("createGlobalAccess()") LLVMGlobalVariableAccess globalAccess) {
+            return globalAccess.getNativeLocation(pointer);
+        }
+
+        @Specialization
+        public LLVMTruffleObject executeManaged(LLVMTruffleObject pointer) {
+            return pointer;
+        }
+
+        @Specialization(guards = "notLLVM(pointer)")
+        public LLVMTruffleObject executeForeign(TruffleObject pointer) {
+            return new LLVMTruffleObject(pointer, PrimitiveType.I8);
+        }
+    }
+
+    public abstract static class LLVMReadByte extends Node {
+
+        public abstract byte executeRead(Object pointer, long offset);
+
+        @Specialization
+        public byte executeNative(LLVMAddress pointer, long offset) {
+            return LLVMMemory.getI8(pointer.getVal() + offset);
+        }
+
+        @Child private Node foreignRead = Message.READ.createNode();
+        @Child private ForeignToLLVM toLLVM = ForeignToLLVM.create(ForeignToLLVMType.I8);
+
+        @Specialization
+        public byte executeManaged(LLVMTruffleObject pointer, long offset) {
+            try {
+                Object value = ForeignAccess.sendRead(foreignRead, pointer.getObject(), (int) (pointer.getOffset() + offset));
+                return (byte) toLLVM.executeWithTarget(value);
+            } catch (InteropException e) {
+                CompilerDirectives.transferToInterpreter();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    public abstract static class LLVMWriteByte extends Node {
+
+        public abstract void executeWrite(Object pointer, long offset, byte value);
+
+        @Specialization
+        public void executeNative(LLVMAddress pointer, long offset, byte value) {
+            LLVMMemory.putI8(pointer.getVal() + offset, value);
+        }
+
+        @Child private Node foreignWrite = Message.WRITE.createNode();
+
+        @Specialization
+        public void executeManaged(LLVMTruffleObject pointer, long offset, byte value) {
+            try {
+                ForeignAccess.sendWrite(foreignWrite, pointer.getObject(), (int) (pointer.getOffset() + offset), value);
+            } catch (InteropException e) {
+                CompilerDirectives.transferToInterpreter();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    protected static LLVMReadByte createReadByte() {
+        return LLVMStringIntrinsicsFactory.LLVMReadByteNodeGen.create();
+    }
+
+    protected static LLVMWriteByte createWriteByte() {
+        return LLVMStringIntrinsicsFactory.LLVMWriteByteNodeGen.create();
+    }
+
+    @NodeChildren({@NodeChild(type = LLVMExpressionNode.class), @NodeChild(type = LLVMExpressionNode.class), @NodeChild(type = LLVMExpressionNode.class)})
+    public abstract static class LLVMMemCmp extends LLVMIntrinsic {
+
+        @Specialization
+        public int executeIntrinsic(LLVMAddress s1, LLVMAddress s2, long n) {
+            return memcmp(s1.getVal(), s2.getVal(), n);
+        }
+
+        @Specialization
+        public int executeIntrinsic(Object s1, Object s2, long n, @Cached("createReadByte()") LLVMReadByte read1, @Cached("createReadByte()") LLVMReadByte read2) {
+            for (long i = 0; Long.compareUnsigned(i, n) < 0; i++) {
+                int c1 = read1.executeRead(s1, i) & 0xff;
+                int c2 = read2.executeRead(s2, i) & 0xff;
+                if (c1 != c2) {
+                    return c1 - c2;
+                }
+            }
+            return 0;
+        }
+    }
+
+    @NodeChildren({@NodeChild(type = LLVMExpressionNode.class), @NodeChild(type = LLVMExpressionNode.class), @NodeChild(type = LLVMExpressionNode.class)})
+    public abstract static class LLVMStrNCmp extends LLVMIntrinsic {
+
+        @Specialization
+        public int executeIntrinsic(LLVMAddress s1, LLVMAddress s2, long n) {
+            return strncmp(s1.getVal(), s2.getVal(), n);
+        }
+
+        @Specialization
+        public int executeIntrinsic(Object s1, Object s2, long n, @Cached("createReadByte()") LLVMReadByte read1, @Cached("createReadByte()") LLVMReadByte read2) {
+            for (long i = 0; Long.compareUnsigned(i, n) < 0; i++) {
+                int c1 = read1.executeRead(s1, i) & 0xff;
+                int c2 = read2.executeRead(s2, i) & 0xff;
+                if (c1 != c2) {
+                    return c1 - c2;
+                } else if (c1 == 0) {
+                    return 0;
+                }
+            }
+            return 0;
+        }
+    }
+
+    @NodeChildren({@NodeChild(type = LLVMExpressionNode.class), @NodeChild(type = LLVMExpressionNode.class)})
+    public abstract static class LLVMStrChr extends LLVMIntrinsic {
+
+        @Specialization
+        public LLVMAddress executeIntrinsic(LLVMAddress s, int c) {
+            long result = strchr(s.getVal(), (byte) c);
+            return result == 0 ? LLVMAddress.nullPointer() : LLVMAddress.fromLong(result);
+        }
+
+        @Specialization
+        public Object executeIntrinsic(LLVMTruffleObject s, int c, @Cached("createReadByte()") LLVMReadByte read) {
+            for (long i = 0;; i++) {
+                byte value = read.executeRead(s, i);
+                if (value == (byte) c) {
+                    return offsetPointer(s, i);
+                } else if (value == 0) {
+                    return LLVMAddress.nullPointer();
+                }
+            }
+        }
+    }
+
+    @NodeChildren({@NodeChild(type = LLVMExpressionNode.class), @NodeChild(type = LLVMExpressionNode.class), @NodeChild(type = LLVMExpressionNode.class)})
+    public abstract static class LLVMMemChr extends LLVMIntrinsic {
+
+        @Specialization
+        public LLVMAddress executeIntrinsic(LLVMAddress s, int c, long n) {
+            long result = memchr(s.getVal(), (byte) c, n);
+            return result == 0 ? LLVMAddress.nullPointer() : LLVMAddress.fromLong(result);
+        }
+
+        @Specialization
+        public Object executeIntrinsic(LLVMTruffleObject s, int c, long n, @Cached("createReadByte()") LLVMReadByte read) {
+            for (long i = 0; Long.compareUnsigned(i, n) < 0; i++) {
+                if (read.executeRead(s, i) == (byte) c) {
+                    return offsetPointer(s, i);
+                }
+            }
+            return LLVMAddress.nullPointer();
+        }
+    }
+
+    @NodeChildren({@NodeChild(type = LLVMExpressionNode.class), @NodeChild(type = LLVMExpressionNode.class)})
+    public abstract static class LLVMStrCpy extends LLVMIntrinsic {
+
+        @Specialization
+        public LLVMAddress executeIntrinsic(LLVMAddress dest, LLVMAddress src) {
+            strcpy(dest.getVal(), src.getVal());
+            return dest;
+        }
+
+        @Specialization
+        public Object executeIntrinsic(Object dest, Object src, @Cached("createReadByte()") LLVMReadByte read, @Cached("createWriteByte()") LLVMWriteByte write) {
+            for (long i = 0;; i++) {
+                byte value = read.executeRead(src, i);
+                write.executeWrite(dest, i, value);
+                if (value == 0) {
+                    return dest;
+                }
+            }
+        }
+    }
+
+    @NodeChildren({@NodeChild(type = LLVMExpressionNode.class), @NodeChild(type = LLVMExpressionNode.class), @NodeChild(type = LLVMExpressionNode.class)})
+    public abstract static class LLVMStrNCpy extends LLVMIntrinsic {
+
+        @Specialization
+        public LLVMAddress executeIntrinsic(LLVMAddress dest, LLVMAddress src, long n) {
+            strncpy(dest.getVal(), src.getVal(), n);
+            return dest;
+        }
+
+        @Specialization
+        public Object executeIntrinsic(Object dest, Object src, long n, @Cached("createReadByte()") LLVMReadByte read, @Cached("createWriteByte()") LLVMWriteByte write) {
+            long i = 0;
+            while (Long.compareUnsigned(i, n) < 0) {
+                byte value = read.executeRead(src, i);
+                write.executeWrite(dest, i, value);
+                i++;
+                if (value == 0) {
+                    break;
+                }
+            }
+            for (; Long.compareUnsigned(i, n) < 0; i++) {
+                write.executeWrite(dest, i, (byte) 0);
+            }
+            return dest;
+        }
+    }
+}
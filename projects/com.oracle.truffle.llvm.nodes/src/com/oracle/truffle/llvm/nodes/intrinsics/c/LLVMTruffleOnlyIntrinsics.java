@@ -30,19 +30,16 @@
 package com.oracle.truffle.llvm.nodes.intrinsics.c;
 
 import com.oracle.truffle.api.CompilerDirectives;
-import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.NodeChild;
 import com.oracle.truffle.api.dsl.NodeChildren;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.interop.ForeignAccess;
-import com.oracle.truffle.api.interop.InteropException;
 import com.oracle.truffle.api.interop.Message;
 import com.oracle.truffle.api.interop.TruffleObject;
 import com.oracle.truffle.api.interop.UnsupportedMessageException;
 import com.oracle.truffle.api.nodes.ExplodeLoop;
 import com.oracle.truffle.api.nodes.Node;
-import com.oracle.truffle.llvm.nodes.func.LLVMNativeCallUtils;
 import com.oracle.truffle.llvm.nodes.intrinsics.llvm.LLVMIntrinsic;
 import com.oracle.truffle.llvm.runtime.LLVMAddress;
 import com.oracle.truffle.llvm.runtime.global.LLVMGlobalVariable;
@@ -57,83 +54,17 @@ public final class LLVMTruffleOnlyIntrinsics {
     private LLVMTruffleOnlyIntrinsics() {
     }
 
-    public abstract static class LLVMTruffleOnlyI64Intrinsic extends LLVMIntrinsic {
-
-        @Child private Node foreignExecute;
-
-        protected final TruffleObject nativeFunction;
-
-        public LLVMTruffleOnlyI64Intrinsic(TruffleObject nativeSymbol, String signature, int arity) {
-            nativeFunction = LLVMNativeCallUtils.bindNativeSymbol(nativeSymbol, signature);
-            foreignExecute = Message.createExecute(arity).createNode();
-        }
-
-        protected final long callNative(Object... args) {
-            try {
-                return (long) ForeignAccess.sendExecute(foreignExecute, nativeFunction, args);
-            } catch (InteropException e) {
-                CompilerDirectives.transferToInterpreter();
-                throw new IllegalStateException(e);
-            }
-        }
-    }
-
-    public abstract static class LLVMTruffleOnlyI32Intrinsic extends LLVMIntrinsic {
-
-        @Child private Node foreignExecute;
-
-        protected final TruffleObject nativeFunction;
-
-        public LLVMTruffleOnlyI32Intrinsic(TruffleObject nativeSymbol, String signature, int arity) {
-            nativeFunction = LLVMNativeCallUtils.bindNativeSymbol(nativeSymbol, signature);
-            foreignExecute = Message.createExecute(arity).createNode();
-        }
-
-        protected final int callNative(Object... args) {
-            try {
-                return (int) ForeignAccess.sendExecute(foreignExecute, nativeFunction, args);
-            } catch (InteropException e) {
-                CompilerDirectives.transferToInterpreter();
-                throw new IllegalStateException(e);
-            }
-        }
-    }
-
     @NodeChild(type = LLVMExpressionNode.class)
-    public abstract static class LLVMStrlen extends LLVMTruffleOnlyI64Intrinsic {
-
-        protected static final long MAX_JAVA_LEN = 512;
-
-        public LLVMStrlen(TruffleObject nativeSymbol) {
-            super(nativeSymbol, "(POINTER):SINT64", 1);
-        }
+    public abstract static class LLVMStrlen extends LLVMIntrinsic {
 
         @Specialization
         public long executeIntrinsic(LLVMAddress string) {
-            return strlen(string.getVal());
+            return LLVMStringIntrinsics.strlen(string.getVal());
         }
 
         @Specialization
         public long executeIntrinsic(LLVMGlobalVariable string, @Cached("createGlobalAccess()") LLVMGlobalVariableAccess globalAccess) {
-            return strlen(globalAccess.getNativeLocation(string).getVal());
-        }
-
-        @CompilationFinal private boolean inJava = true;
-
-        protected long strlen(long value) {
-            if (inJava) {
-                long s;
-                for (s = value; CompilerDirectives.injectBranchProbability(CompilerDirectives.LIKELY_PROBABILITY, LLVMMemory.getI8(s) != 0); s++) {
-                }
-                long result = s - value;
-                if (result > MAX_JAVA_LEN) {
-                    CompilerDirectives.transferToInterpreterAndInvalidate();
-                    inJava = false;
-                }
-                return result;
-            } else {
-                return callNative(value);
-            }
+            return LLVMStringIntrinsics.strlen(globalAccess.getNativeLocation(string).getVal());
         }
 
         @Child private Node foreignHasSize = Message.HAS_SIZE.createNode();
@@ -162,31 +93,27 @@ public final class LLVMTruffleOnlyIntrinsics {
     }
 
     @NodeChildren({@NodeChild(type = LLVMExpressionNode.class), @NodeChild(type = LLVMExpressionNode.class)})
-    public abstract static class LLVMStrCmp extends LLVMTruffleOnlyI32Intrinsic {
-
-        public LLVMStrCmp(TruffleObject symbol) {
-            super(symbol, "(POINTER,POINTER):SINT32", 2);
-        }
+    public abstract static class LLVMStrCmp extends LLVMIntrinsic {
 
         @Specialization
         public int executeIntrinsic(LLVMAddress str1, LLVMAddress str2) {
-            return callNative(str1.getVal(), str2.getVal());
+            return LLVMStringIntrinsics.strcmp(str1.getVal(), str2.getVal());
         }
 
         @Specialization
         public int executeIntrinsic(LLVMGlobalVariable str1, LLVMAddress str2, @Cached("createGlobalAccess()") LLVMGlobalVariableAccess globalAccess) {
-            return callNative(globalAccess.getNativeLocation(str1).getVal(), str2.getVal());
+            return LLVMStringIntrinsics.strcmp(globalAccess.getNativeLocation(str1).getVal(), str2.getVal());
         }
 
         @Specialization
         public int executeIntrinsic(LLVMAddress str1, LLVMGlobalVariable str2, @Cached("createGlobalAccess()") LLVMGlobalVariableAccess globalAccess) {
-            return callNative(str1.getVal(), globalAccess.getNativeLocation(str2).getVal());
+            return LLVMStringIntrinsics.strcmp(str1.getVal(), globalAccess.getNativeLocation(str2).getVal());
         }
 
         @Specialization
         public int executeIntrinsic(LLVMGlobalVariable str1, LLVMGlobalVariable str2, @Cached("createGlobalAccess()") LLVMGlobalVariableAccess globalAccess1,
                         @Cached("createGlobalAccess()") LLVMGlobalVariableAccess globalAccess2) {
-            return callNative(globalAccess1.getNativeLocation(str1).getVal(), globalAccess2.getNativeLocation(str2).getVal());
+            return LLVMStringIntrinsics.strcmp(globalAccess1.getNativeLocation(str1).getVal(), globalAccess2.getNativeLocation(str2).getVal());
         }
 
         @Child private Node readStr1 = Message.READ.createNode();
@@ -30,23 +30,34 @@
 package com.oracle.truffle.llvm.nodes.intrinsics.llvm;
 
 import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
 import com.oracle.truffle.api.dsl.NodeChild;
 import com.oracle.truffle.api.dsl.NodeChildren;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.llvm.runtime.LLVMAddress;
-import com.oracle.truffle.llvm.runtime.memory.LLVMMemory;
+import com.oracle.truffle.llvm.runtime.memory.LLVMMemoryAllocator;
 import com.oracle.truffle.llvm.runtime.memory.LLVMProfiledMemSet;
 import com.oracle.truffle.llvm.runtime.nodes.api.LLVMExpressionNode;
 
 public abstract class LLVMMemoryIntrinsic extends LLVMExpressionNode {
 
+    @CompilationFinal private LLVMMemoryAllocator allocator;
+
+    protected LLVMMemoryAllocator getAllocator() {
+        if (allocator == null) {
+            CompilerDirectives.transferToInterpreterAndInvalidate();
+            allocator = getContext().getMemoryAllocator();
+        }
+        return allocator;
+    }
+
     @NodeChildren({@NodeChild(type = LLVMExpressionNode.class)})
     public abstract static class LLVMMalloc extends LLVMMemoryIntrinsic {
 
         @Specialization
         public LLVMAddress executeVoid(int size) {
             try {
-                return LLVMMemory.allocateMemory(size);
+                return getAllocator().allocate(size);
             } catch (OutOfMemoryError e) {
                 CompilerDirectives.transferToInterpreter();
                 return LLVMAddress.nullPointer();
@@ -56,7 +67,7 @@ public abstract class LLVMMemoryIntrinsic extends LLVMExpressionNode {
         @Specialization
         public LLVMAddress executeVoid(long size) {
             try {
-                return LLVMMemory.allocateMemory(size);
+                return getAllocator().allocate(size);
             } catch (OutOfMemoryError e) {
                 CompilerDirectives.transferToInterpreter();
                 return LLVMAddress.nullPointer();
@@ -72,7 +83,7 @@ public abstract class LLVMMemoryIntrinsic extends LLVMExpressionNode {
         public LLVMAddress executeVoid(int n, int size) {
             try {
                 long length = Math.multiplyExact(n, size);
-                LLVMAddress address = LLVMMemory.allocateMemory(length);
+                LLVMAddress address = getAllocator().allocate(length);
                 profiledMemSet.memset(address, (byte) 0, length);
                 return address;
             } catch (OutOfMemoryError | ArithmeticException e) {
@@ -85,7 +96,7 @@ public abstract class LLVMMemoryIntrinsic extends LLVMExpressionNode {
         public LLVMAddress executeVoid(long n, long size) {
             try {
                 long length = Math.multiplyExact(n, size);
-                LLVMAddress address = LLVMMemory.allocateMemory(length);
+                LLVMAddress address = getAllocator().allocate(length);
                 profiledMemSet.memset(address, (byte) 0, length);
                 return address;
             } catch (OutOfMemoryError | ArithmeticException e) {
@@ -101,7 +112,7 @@ public abstract class LLVMMemoryIntrinsic extends LLVMExpressionNode {
         @Specialization
         public LLVMAddress executeVoid(LLVMAddress addr, int size) {
             try {
-                return LLVMMemory.reallocateMemory(addr, size);
+                return getAllocator().reallocate(addr, size);
             } catch (OutOfMemoryError e) {
                 CompilerDirectives.transferToInterpreter();
                 return LLVMAddress.nullPointer();
@@ -111,7 +122,7 @@ public abstract class LLVMMemoryIntrinsic extends LLVMExpressionNode {
         @Specialization
         public LLVMAddress executeVoid(LLVMAddress addr, long size) {
             try {
-                return LLVMMemory.reallocateMemory(addr, size);
+                return getAllocator().reallocate(addr, size);
             } catch (OutOfMemoryError e) {
                 CompilerDirectives.transferToInterpreter();
                 return LLVMAddress.nullPointer();
@@ -124,7 +135,7 @@ public abstract class LLVMMemoryIntrinsic extends LLVMExpressionNode {
 
         @Specialization
         public Object executeVoid(LLVMAddress address) {
-            LLVMMemory.free(address);
+            getAllocator().free(address);
             return null;
         }
     }
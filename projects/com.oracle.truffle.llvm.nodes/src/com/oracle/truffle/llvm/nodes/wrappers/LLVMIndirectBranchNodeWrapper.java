@@ -83,6 +83,21 @@ public class LLVMIndirectBranchNodeWrapper implements InstrumentableFactory<LLVM
             return delegate.getSuccessors();
         }
 
+        @Override
+        public int getSuccessorIndex(int blockAddress) {
+            return delegate.getSuccessorIndex(blockAddress);
+        }
+
+        @Override
+        public int[] getHotSuccessors() {
+            return delegate.getHotSuccessors();
+        }
+
+        @Override
+        public void profileSuccessor(int successorIndex) {
+            delegate.profileSuccessor(successorIndex);
+        }
+
         @Override
         public Node getDelegateNode() {
             return delegate;
@@ -65,10 +65,10 @@ public class LLVMSwitchNodeWrapper implements InstrumentableFactory<LLVMSwitchNo
         }
 
         @Override
-        public Object executeCondition(VirtualFrame frame) {
+        public int executeCaseIndex(VirtualFrame frame) {
             try {
                 probeNode.onEnter(frame);
-                Object result = delegateNode.executeCondition(frame);
+                int result = delegateNode.executeCaseIndex(frame);
                 probeNode.onReturnValue(frame, result);
                 return result;
             } catch (Throwable t) {
@@ -82,11 +82,6 @@ public class LLVMSwitchNodeWrapper implements InstrumentableFactory<LLVMSwitchNo
             return delegateNode.getSuccessors();
         }
 
-        @Override
-        public LLVMExpressionNode getCase(int i) {
-            return delegateNode.getCase(i);
-        }
-
         @Override
         public LLVMSwitchNode getDelegateNode() {
             return delegateNode;
@@ -31,6 +31,7 @@ package com.oracle.truffle.llvm.parser.factories;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
 
 import com.oracle.truffle.api.RootCallTarget;
 import com.oracle.truffle.api.Truffle;
@@ -55,8 +56,8 @@ import com.oracle.truffle.llvm.nodes.control.LLVMSwitchNode.LLVMI64SwitchNode;
 import com.oracle.truffle.llvm.nodes.control.LLVMSwitchNode.LLVMI8SwitchNode;
 import com.oracle.truffle.llvm.nodes.control.LLVMWritePhisNode;
 import com.oracle.truffle.llvm.nodes.func.LLVMArgNodeGen;
-import com.oracle.truffle.llvm.nodes.func.LLVMCallNode;
 import com.oracle.truffle.llvm.nodes.func.LLVMFunctionStartNode;
+import com.oracle.truffle.llvm.nodes.func.LLVMInlineAssemblyCallNode;
 import com.oracle.truffle.llvm.nodes.func.LLVMInlineAssemblyRootNode;
 import com.oracle.truffle.llvm.nodes.func.LLVMLandingpadNode;
 import com.oracle.truffle.llvm.nodes.func.LLVMResumeNode;
@@ -98,8 +99,6 @@ import com.oracle.truffle.llvm.nodes.intrinsics.llvm.bit.CountTrailingZeroesNode
 import com.oracle.truffle.llvm.nodes.intrinsics.llvm.x86.LLVMX86_64BitVACopyNodeGen;
 import com.oracle.truffle.llvm.nodes.intrinsics.llvm.x86.LLVMX86_64BitVAEnd;
 import com.oracle.truffle.llvm.nodes.intrinsics.llvm.x86.LLVMX86_64BitVAStart;
-import com.oracle.truffle.llvm.nodes.literals.LLVMFunctionLiteralNode;
-import com.oracle.truffle.llvm.nodes.literals.LLVMFunctionLiteralNodeGen;
 import com.oracle.truffle.llvm.nodes.literals.LLVMSimpleLiteralNode.LLVMI1LiteralNode;
 import com.oracle.truffle.llvm.nodes.literals.LLVMSimpleLiteralNode.LLVMI32LiteralNode;
 import com.oracle.truffle.llvm.nodes.literals.LLVMSimpleLiteralNode.LLVMI8LiteralNode;
@@ -128,8 +127,6 @@ import com.oracle.truffle.llvm.parser.model.globals.GlobalValueSymbol;
 import com.oracle.truffle.llvm.parser.model.globals.GlobalVariable;
 import com.oracle.truffle.llvm.runtime.LLVMAddress;
 import com.oracle.truffle.llvm.runtime.LLVMContext;
-import com.oracle.truffle.llvm.runtime.LLVMFunctionDescriptor;
-import com.oracle.truffle.llvm.runtime.LLVMFunctionHandle;
 import com.oracle.truffle.llvm.runtime.LLVMLanguage;
 import com.oracle.truffle.llvm.runtime.LLVMUnsupportedException;
 import com.oracle.truffle.llvm.runtime.LLVMUnsupportedException.UnsupportedReason;
@@ -145,7 +142,6 @@ import com.oracle.truffle.llvm.runtime.nodes.api.LLVMExpressionNode;
 import com.oracle.truffle.llvm.runtime.types.AggregateType;
 import com.oracle.truffle.llvm.runtime.types.ArrayType;
 import com.oracle.truffle.llvm.runtime.types.FunctionType;
-import com.oracle.truffle.llvm.runtime.types.MetaType;
 import com.oracle.truffle.llvm.runtime.types.PointerType;
 import com.oracle.truffle.llvm.runtime.types.PrimitiveType;
 import com.oracle.truffle.llvm.runtime.types.StructureType;
@@ -293,21 +289,28 @@ public class BasicNodeFactory implements NodeFactory {
     }
 
     @Override
-    public LLVMControlFlowNode createSwitch(LLVMParserRuntime runtime, LLVMExpressionNode cond, int[] successors, LLVMExpressionNode[] cases,
+    public LLVMControlFlowNode createSwitch(LLVMParserRuntime runtime, LLVMExpressionNode cond, int[] successors, long[] caseValues,
                     PrimitiveType llvmType, LLVMExpressionNode[] phiWriteNodes, SourceSection source) {
+        // case values are compared with the sign-extended condition
+        long[] values = new long[caseValues.length];
         switch (llvmType.getPrimitiveKind()) {
             case I8:
-                LLVMExpressionNode[] i8Cases = Arrays.copyOf(cases, cases.length, LLVMExpressionNode[].class);
-                return new LLVMI8SwitchNode(cond, i8Cases, successors, phiWriteNodes, source);
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = (byte) caseValues[i];
+                }
+                return new LLVMI8SwitchNode(cond, values, successors, phiWriteNodes, source);
             case I16:
-                LLVMExpressionNode[] i16Cases = Arrays.copyOf(cases, cases.length, LLVMExpressionNode[].class);
-                return new LLVMI16SwitchNode(cond, i16Cases, successors, phiWriteNodes, source);
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = (short) caseValues[i];
+                }
+                return new LLVMI16SwitchNode(cond, values, successors, phiWriteNodes, source);
             case I32:
-                LLVMExpressionNode[] i32Cases = Arrays.copyOf(cases, cases.length, LLVMExpressionNode[].class);
-                return new LLVMI32SwitchNode(cond, i32Cases, successors, phiWriteNodes, source);
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = (int) caseValues[i];
+                }
+                return new LLVMI32SwitchNode(cond, values, successors, phiWriteNodes, source);
             case I64:
-                LLVMExpressionNode[] i64Cases = Arrays.copyOf(cases, cases.length, LLVMExpressionNode[].class);
-                return new LLVMI64SwitchNode(cond, i64Cases, successors, phiWriteNodes, source);
+                return new LLVMI64SwitchNode(cond, caseValues.clone(), successors, phiWriteNodes, source);
             default:
                 throw new AssertionError(llvmType);
         }
@@ -383,8 +386,9 @@ public class BasicNodeFactory implements NodeFactory {
 
     @Override
     public LLVMExpressionNode createFunctionBlockNode(LLVMParserRuntime runtime, FrameSlot exceptionValueSlot, List<? extends LLVMExpressionNode> allFunctionNodes,
-                    FrameSlot[][] beforeBlockNuller, FrameSlot[][] afterBlockNuller) {
-        return new LLVMDispatchBasicBlockNode(exceptionValueSlot, allFunctionNodes.toArray(new LLVMBasicBlockNode[allFunctionNodes.size()]), beforeBlockNuller, afterBlockNuller);
+                    FrameSlot[][] beforeBlockNuller, FrameSlot[][] afterBlockNuller, FrameSlot osrNextBlockSlot, FrameSlot osrReturnValueSlot) {
+        return new LLVMDispatchBasicBlockNode(exceptionValueSlot, allFunctionNodes.toArray(new LLVMBasicBlockNode[allFunctionNodes.size()]), beforeBlockNuller, afterBlockNuller, osrNextBlockSlot,
+                        osrReturnValueSlot);
     }
 
     @Override
@@ -398,14 +402,46 @@ public class BasicNodeFactory implements NodeFactory {
     @Override
     public LLVMExpressionNode createInlineAssemblerExpression(LLVMParserRuntime runtime, String asmExpression, String asmFlags, LLVMExpressionNode[] args, Type[] argTypes, Type retType,
                     SourceSection sourceSection) {
-        Parser asmParser = new Parser(asmExpression, asmFlags, args, argTypes, retType);
-        LLVMInlineAssemblyRootNode assemblyRoot = asmParser.Parse();
-        LLVMFunctionDescriptor asm = LLVMFunctionDescriptor.createDescriptor(runtime.getContext(), "<asm>", new FunctionType(MetaType.UNKNOWN, new Type[0], false),
-                        (-1L) & LLVMFunctionHandle.LOWER_MASK);
-        asm.declareInSulong(Truffle.getRuntime().createCallTarget(assemblyRoot), false);
-        LLVMFunctionLiteralNode asmFunction = LLVMFunctionLiteralNodeGen.create(asm);
-
-        return new LLVMCallNode(new FunctionType(MetaType.UNKNOWN, argTypes, false), asmFunction, args, sourceSection);
+        InlineAssemblyKey key = new InlineAssemblyKey(asmExpression, asmFlags, argTypes, retType);
+        RootCallTarget assembly = runtime.getContext().lookupOrCreateInlineAssembly(key, () -> {
+            Parser asmParser = new Parser(asmExpression, asmFlags, args, argTypes, retType);
+            LLVMInlineAssemblyRootNode assemblyRoot = asmParser.Parse();
+            return Truffle.getRuntime().createCallTarget(assemblyRoot);
+        });
+        return new LLVMInlineAssemblyCallNode(assembly, args, sourceSection);
+    }
+
+    /**
+     * Identifies an inline assembly snippet. The parsed snippet only depends on the expression, the
+     * constraints and the operand types, not on the operands themselves.
+     */
+    private static final class InlineAssemblyKey {
+
+        private final String asmExpression;
+        private final String asmFlags;
+        private final Type[] argTypes;
+        private final Type retType;
+
+        InlineAssemblyKey(String asmExpression, String asmFlags, Type[] argTypes, Type retType) {
+            this.asmExpression = asmExpression;
+            this.asmFlags = asmFlags;
+            this.argTypes = argTypes;
+            this.retType = retType;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(asmExpression, asmFlags, Arrays.hashCode(argTypes), retType);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof InlineAssemblyKey)) {
+                return false;
+            }
+            InlineAssemblyKey other = (InlineAssemblyKey) obj;
+            return asmExpression.equals(other.asmExpression) && asmFlags.equals(other.asmFlags) && Arrays.equals(argTypes, other.argTypes) && Objects.equals(retType, other.retType);
+        }
     }
 
     @Override
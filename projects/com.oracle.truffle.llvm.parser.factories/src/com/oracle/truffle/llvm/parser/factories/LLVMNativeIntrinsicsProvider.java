@@ -79,6 +79,13 @@ import com.oracle.truffle.llvm.nodes.intrinsics.c.LLVMCTypeIntrinsicsFactory.LLV
 import com.oracle.truffle.llvm.nodes.intrinsics.c.LLVMCTypeIntrinsicsFactory.LLVMTolowerNodeGen;
 import com.oracle.truffle.llvm.nodes.intrinsics.c.LLVMExitNodeGen;
 import com.oracle.truffle.llvm.nodes.intrinsics.c.LLVMSignalNodeGen;
+import com.oracle.truffle.llvm.nodes.intrinsics.c.LLVMStringIntrinsicsFactory.LLVMMemChrNodeGen;
+import com.oracle.truffle.llvm.nodes.intrinsics.c.LLVMStringIntrinsicsFactory.LLVMMemCmpNodeGen;
+import com.oracle.truffle.llvm.nodes.intrinsics.c.LLVMStringIntrinsicsFactory.LLVMStrChrNodeGen;
+import com.oracle.truffle.llvm.nodes.intrinsics.c.LLVMStringIntrinsicsFactory.LLVMStrCpyNodeGen;
+import com.oracle.truffle.llvm.nodes.intrinsics.c.LLVMStringIntrinsicsFactory.LLVMStrNCmpNodeGen;
+import com.oracle.truffle.llvm.nodes.intrinsics.c.LLVMStringIntrinsicsFactory.LLVMStrNCpyNodeGen;
+import com.oracle.truffle.llvm.nodes.intrinsics.c.LLVMStringIntrinsicsFactory.LLVMStringPointerNodeGen;
 import com.oracle.truffle.llvm.nodes.intrinsics.c.LLVMTruffleOnlyIntrinsicsFactory.LLVMStrCmpNodeGen;
 import com.oracle.truffle.llvm.nodes.intrinsics.c.LLVMTruffleOnlyIntrinsicsFactory.LLVMStrlenNodeGen;
 import com.oracle.truffle.llvm.nodes.intrinsics.c.LLVMTruffleReadBytesNodeGen;
@@ -127,6 +134,7 @@ import com.oracle.truffle.llvm.runtime.NativeIntrinsicProvider;
 import com.oracle.truffle.llvm.runtime.interop.convert.ForeignToLLVM;
 import com.oracle.truffle.llvm.runtime.interop.convert.ForeignToLLVM.ForeignToLLVMType;
 import com.oracle.truffle.llvm.runtime.nodes.api.LLVMExpressionNode;
+import com.oracle.truffle.llvm.runtime.options.SulongEngineOption;
 import com.oracle.truffle.llvm.runtime.types.FunctionType;
 import com.oracle.truffle.llvm.runtime.types.Type;
 
@@ -191,6 +199,9 @@ public class LLVMNativeIntrinsicsProvider implements NativeIntrinsicProvider {
         registerSulongIntrinsics();
         registerAbortIntrinsics();
         registerTruffleOnlyIntrinsics();
+        if (context.getEnv().getOptions().get(SulongEngineOption.STRING_INTRINSICS)) {
+            registerStringFunctionIntrinsics();
+        }
         registerMathFunctionIntrinsics();
         registerMemoryFunctionIntrinsics();
         registerExceptionIntrinsics();
@@ -850,14 +861,59 @@ public class LLVMNativeIntrinsicsProvider implements NativeIntrinsicProvider {
 
             @Override
             protected RootCallTarget generate(FunctionType type) {
-                return wrap("@strlen", LLVMStrlenNodeGen.create(context.getNativeLookup().getNativeFunction("@strlen"), LLVMArgNodeGen.create(1)));
+                return wrap("@strlen", LLVMStrlenNodeGen.create(LLVMArgNodeGen.create(1)));
             }
         });
         factories.put("@strcmp", new LLVMNativeIntrinsicFactory(true, true) {
 
             @Override
             protected RootCallTarget generate(FunctionType type) {
-                return wrap("@strcmp", LLVMStrCmpNodeGen.create(context.getNativeLookup().getNativeFunction("@strcmp"), LLVMArgNodeGen.create(1), LLVMArgNodeGen.create(2)));
+                return wrap("@strcmp", LLVMStrCmpNodeGen.create(LLVMArgNodeGen.create(1), LLVMArgNodeGen.create(2)));
+            }
+        });
+    }
+
+    protected void registerStringFunctionIntrinsics() {
+        factories.put("@memcmp", new LLVMNativeIntrinsicFactory(true, true) {
+
+            @Override
+            protected RootCallTarget generate(FunctionType type) {
+                return wrap("@memcmp", LLVMMemCmpNodeGen.create(LLVMStringPointerNodeGen.create(LLVMArgNodeGen.create(1)), LLVMStringPointerNodeGen.create(LLVMArgNodeGen.create(2)), LLVMArgNodeGen.create(3)));
+            }
+        });
+        factories.put("@memchr", new LLVMNativeIntrinsicFactory(true, true) {
+
+            @Override
+            protected RootCallTarget generate(FunctionType type) {
+                return wrap("@memchr", LLVMMemChrNodeGen.create(LLVMStringPointerNodeGen.create(LLVMArgNodeGen.create(1)), LLVMArgNodeGen.create(2), LLVMArgNodeGen.create(3)));
+            }
+        });
+        factories.put("@strncmp", new LLVMNativeIntrinsicFactory(true, true) {
+
+            @Override
+            protected RootCallTarget generate(FunctionType type) {
+                return wrap("@strncmp", LLVMStrNCmpNodeGen.create(LLVMStringPointerNodeGen.create(LLVMArgNodeGen.create(1)), LLVMStringPointerNodeGen.create(LLVMArgNodeGen.create(2)), LLVMArgNodeGen.create(3)));
+            }
+        });
+        factories.put("@strchr", new LLVMNativeIntrinsicFactory(true, true) {
+
+            @Override
+            protected RootCallTarget generate(FunctionType type) {
+                return wrap("@strchr", LLVMStrChrNodeGen.create(LLVMStringPointerNodeGen.create(LLVMArgNodeGen.create(1)), LLVMArgNodeGen.create(2)));
+            }
+        });
+        factories.put("@strcpy", new LLVMNativeIntrinsicFactory(true, true) {
+
+            @Override
+            protected RootCallTarget generate(FunctionType type) {
+                return wrap("@strcpy", LLVMStrCpyNodeGen.create(LLVMStringPointerNodeGen.create(LLVMArgNodeGen.create(1)), LLVMStringPointerNodeGen.create(LLVMArgNodeGen.create(2))));
+            }
+        });
+        factories.put("@strncpy", new LLVMNativeIntrinsicFactory(true, true) {
+
+            @Override
+            protected RootCallTarget generate(FunctionType type) {
+                return wrap("@strncpy", LLVMStrNCpyNodeGen.create(LLVMStringPointerNodeGen.create(LLVMArgNodeGen.create(1)), LLVMStringPointerNodeGen.create(LLVMArgNodeGen.create(2)), LLVMArgNodeGen.create(3)));
             }
         });
     }
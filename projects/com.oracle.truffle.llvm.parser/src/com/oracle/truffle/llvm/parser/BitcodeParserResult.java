@@ -31,6 +31,7 @@ package com.oracle.truffle.llvm.parser;
 
 import com.oracle.truffle.api.source.Source;
 import com.oracle.truffle.llvm.parser.model.ModelModule;
+import com.oracle.truffle.llvm.parser.scanner.BitStream;
 import com.oracle.truffle.llvm.parser.scanner.LLVMScanner;
 
 public final class BitcodeParserResult {
@@ -62,9 +63,15 @@ public final class BitcodeParserResult {
         return labels;
     }
 
-    public static BitcodeParserResult getFromSource(Source source) {
-        final ModelModule model = LLVMScanner.parse(source);
+    public static BitcodeParserResult getFromSource(Source source, boolean lazyFunctions) {
+        return getFromSource(source, BitStream.create(source), lazyFunctions);
+    }
+
+    public static BitcodeParserResult getFromSource(Source source, BitStream bitstream, boolean lazyFunctions) {
+        return getFromModel(LLVMScanner.parse(source, bitstream, lazyFunctions));
+    }
 
+    public static BitcodeParserResult getFromModel(ModelModule model) {
         final LLVMPhiManager phis = LLVMPhiManager.generate(model);
         final StackAllocation stackAllocation = StackAllocation.generate(model);
         final LLVMLabelList labels = LLVMLabelList.generate(model);
@@ -677,12 +677,16 @@ final class LLVMBitcodeInstructionVisitor implements InstructionVisitor {
         successors[successors.length - 1] = labels.get(zwitch.getDefaultBlock().getName());
 
         Type llvmType = zwitch.getCondition().getType();
-        LLVMExpressionNode[] cases = new LLVMExpressionNode[zwitch.getCaseCount()];
-        for (int i = 0; i < cases.length; i++) {
-            cases[i] = symbols.resolve(zwitch.getCaseValue(i));
+        long[] caseValues = new long[zwitch.getCaseCount()];
+        for (int i = 0; i < caseValues.length; i++) {
+            Symbol caseValue = zwitch.getCaseValue(i);
+            if (!(caseValue instanceof IntegerConstant)) {
+                throw new IllegalStateException("Switch cases must be integer constants: " + caseValue);
+            }
+            caseValues[i] = ((IntegerConstant) caseValue).getValue();
         }
 
-        LLVMControlFlowNode node = nodeFactory.createSwitch(runtime, cond, successors, cases, (PrimitiveType) llvmType, getPhiWriteNodes(zwitch), runtime.getSourceSection(zwitch));
+        LLVMControlFlowNode node = nodeFactory.createSwitch(runtime, cond, successors, caseValues, (PrimitiveType) llvmType, getPhiWriteNodes(zwitch), runtime.getSourceSection(zwitch));
         setControlFlowNode(node);
     }
 
@@ -722,26 +726,12 @@ final class LLVMBitcodeInstructionVisitor implements InstructionVisitor {
         successors[successors.length - 1] = labels.get(zwitch.getDefaultBlock().getName());
 
         final PrimitiveType llvmType = (PrimitiveType) zwitch.getCondition().getType();
-        final LLVMExpressionNode[] cases = new LLVMExpressionNode[zwitch.getCaseCount()];
-        for (int i = 0; i < cases.length; i++) {
-            // the case value is always a long here regardless of the values actual type, implicit
-            // casts to smaller types in the factoryfacade won't work
-            switch (llvmType.getPrimitiveKind()) {
-                case I8:
-                    cases[i] = nodeFactory.createLiteral(runtime, (byte) zwitch.getCaseValue(i), llvmType);
-                    break;
-                case I16:
-                    cases[i] = nodeFactory.createLiteral(runtime, (short) zwitch.getCaseValue(i), llvmType);
-                    break;
-                case I32:
-                    cases[i] = nodeFactory.createLiteral(runtime, (int) zwitch.getCaseValue(i), llvmType);
-                    break;
-                default:
-                    cases[i] = nodeFactory.createLiteral(runtime, zwitch.getCaseValue(i), llvmType);
-            }
+        final long[] caseValues = new long[zwitch.getCaseCount()];
+        for (int i = 0; i < caseValues.length; i++) {
+            caseValues[i] = zwitch.getCaseValue(i);
         }
 
-        LLVMControlFlowNode node = nodeFactory.createSwitch(runtime, cond, successors, cases, llvmType, getPhiWriteNodes(zwitch), runtime.getSourceSection(zwitch));
+        LLVMControlFlowNode node = nodeFactory.createSwitch(runtime, cond, successors, caseValues, llvmType, getPhiWriteNodes(zwitch), runtime.getSourceSection(zwitch));
         setControlFlowNode(node);
     }
 
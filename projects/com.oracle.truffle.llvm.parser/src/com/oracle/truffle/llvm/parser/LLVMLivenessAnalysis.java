@@ -29,7 +29,8 @@
  */
 package com.oracle.truffle.llvm.parser;
 
-import java.util.ArrayDeque;
+import java.io.PrintStream;
+import java.nio.LongBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.BitSet;
@@ -83,113 +84,176 @@ import com.oracle.truffle.llvm.runtime.types.symbols.ValueSymbol;
 
 public final class LLVMLivenessAnalysis {
 
+    /*
+     * The analysis buffers of a thread are reused by its next analysis unless they would hold more
+     * than this many words per set.
+     */
+    private static final int MAX_RETAINED_WORDS = 1 << 18;
+
+    private static final int WORD_SHIFT = 6;
+    private static final int WORD_MASK = Long.SIZE - 1;
+    private static final int VISITING = -2;
+
+    private static final ThreadLocal<Buffers> BUFFERS = ThreadLocal.withInitial(Buffers::new);
+
     private LLVMLivenessAnalysis() {
     }
 
     public static LLVMLivenessAnalysisResult computeLiveness(FrameDescriptor frame, LLVMContext context, Map<InstructionBlock, List<LLVMPhiManager.Phi>> phis, FunctionDefinition functionDefinition) {
+        String statistics = context.getEnv().getOptions().get(SulongEngineOption.PRINT_LIFE_TIME_ANALYSIS_STATS);
+        return computeLiveness(frame, phis, functionDefinition, SulongEngineOption.isTrue(statistics) ? SulongEngineOption.getStream(statistics) : null);
+    }
+
+    /**
+     * Analyzes a function of a parsed module outside of a context, for example in benchmarks.
+     */
+    public static LLVMLivenessAnalysisResult computeLiveness(BitcodeParserResult module, FunctionDefinition functionDefinition) {
+        String name = functionDefinition.getName();
+        return computeLiveness(module.getStackAllocation().getFrame(name), module.getPhis().getPhiMap(name), functionDefinition, null);
+    }
+
+    private static LLVMLivenessAnalysisResult computeLiveness(FrameDescriptor frame, Map<InstructionBlock, List<LLVMPhiManager.Phi>> phis, FunctionDefinition functionDefinition,
+                    PrintStream statistics) {
         List<InstructionBlock> blocks = functionDefinition.getBlocks();
-        BlockInfo[] blockInfos = initializeGenKill(frame, phis, functionDefinition, blocks);
-        ArrayList<InstructionBlock>[] predecessors = computePredecessors(blocks);
-        int processedBlocks = iterateToFixedPoint(blocks, frame, blockInfos, predecessors);
-        boolean printStatistics = SulongEngineOption.isTrue(context.getEnv().getOptions().get(SulongEngineOption.PRINT_LIFE_TIME_ANALYSIS_STATS));
-        if (printStatistics) {
-            printIntermediateResult(context, frame, functionDefinition, blocks, blockInfos, processedBlocks);
+        Buffers buffers = Buffers.get(blocks.size(), frame.getSize());
+        initializeGenKill(buffers, frame, phis, functionDefinition, blocks);
+        computePredecessors(buffers, blocks);
+        computePostOrder(buffers, blocks);
+        int processedBlocks = iterateToFixedPoint(buffers);
+        if (statistics != null) {
+            printIntermediateResult(statistics, frame, functionDefinition, blocks, buffers, processedBlocks);
         }
 
-        LLVMLivenessAnalysisResult result = computeLivenessAnalysisResult(functionDefinition, blocks, frame, blockInfos, predecessors);
-        if (printStatistics) {
-            printResult(context, frame, blocks, result);
+        LLVMLivenessAnalysisResult result = computeLivenessAnalysisResult(functionDefinition, blocks, frame, buffers);
+        if (statistics != null) {
+            printResult(statistics, frame, blocks, result);
         }
         return result;
     }
 
-    private static BlockInfo[] initializeGenKill(FrameDescriptor frame, Map<InstructionBlock, List<LLVMPhiManager.Phi>> phis, FunctionDefinition functionDefinition, List<InstructionBlock> blocks) {
-        BlockInfo[] result = new BlockInfo[blocks.size()];
+    private static void initializeGenKill(Buffers buffers, FrameDescriptor frame, Map<InstructionBlock, List<LLVMPhiManager.Phi>> phis, FunctionDefinition functionDefinition,
+                    List<InstructionBlock> blocks) {
+        LLVMLivenessReadVisitor readVisitor = new LLVMLivenessReadVisitor(frame, buffers);
         for (int i = 0; i < blocks.size(); i++) {
             InstructionBlock block = blocks.get(i);
-            BlockInfo blockInfo = result[i] = new BlockInfo(frame.getSize());
+            int row = buffers.row(i);
+            readVisitor.setRow(row);
             if (i == 0) {
                 // in the first block, the arguments are also always alive
                 for (FunctionParameter param : functionDefinition.getParameters()) {
-                    processRead(blockInfo, frame.findFrameSlot(param.getName()).getIndex());
+                    processRead(buffers, row, frame.findFrameSlot(param.getName()).getIndex());
                 }
             }
 
-            LLVMLivenessReadVisitor readVisitor = new LLVMLivenessReadVisitor(frame, blockInfo);
             for (int j = 0; j < block.getInstructionCount(); j++) {
                 Instruction instruction = block.getInstruction(j);
                 if (instruction instanceof PhiInstruction) {
-                    processPhiWrite(frame, (PhiInstruction) instruction, blockInfo);
+                    processPhiWrite(frame, (PhiInstruction) instruction, buffers, row);
                 } else {
-                    processReads(readVisitor, instruction);
-                    processWrite(frame, instruction, blockInfo);
+                    instruction.accept(readVisitor);
+                    processWrite(frame, instruction, buffers, row);
                 }
             }
 
             List<LLVMPhiManager.Phi> bbPhis = phis.getOrDefault(block, Collections.emptyList());
             for (LLVMPhiManager.Phi phi : bbPhis) {
-                processValueUsedInPhi(frame, phi.getValue(), blockInfo);
+                processValueUsedInPhi(frame, phi.getValue(), buffers, row);
             }
         }
-        return result;
     }
 
-    private static int iterateToFixedPoint(List<InstructionBlock> blocks, FrameDescriptor frame, BlockInfo[] blockInfos, ArrayList<InstructionBlock>[] predecessors) {
-        // by processing the graph bottom-up, we may reach a fixed point more quickly
-        ArrayDeque<InstructionBlock> workList = new ArrayDeque<>(blocks);
-        BitSet blockOnWorkList = new BitSet(blocks.size());
-        blockOnWorkList.set(0, blockOnWorkList.size());
-
-        BitSet newPredecessorOut = new BitSet(frame.getSize());
-        BitSet newIn = new BitSet(frame.getSize());
+    /*
+     * Liveness flows backwards, so blocks are visited in post order (the reverse post order of the
+     * reversed CFG): apart from loop back edges, all successors of a block are processed before
+     * the block itself. The work list is a bit set over the post order positions that is swept in
+     * ascending order, so a predecessor that changes is usually picked up in the same sweep.
+     */
+    private static int iterateToFixedPoint(Buffers buffers) {
+        long[] pending = buffers.pending;
+        int pendingWords = wordCount(buffers.blockCount);
+        // every block is processed at least once
+        Arrays.fill(pending, 0, pendingWords, -1L);
+        if ((buffers.blockCount & WORD_MASK) != 0) {
+            pending[pendingWords - 1] = (1L << buffers.blockCount) - 1;
+        }
 
         int processedBlocks = 0;
-        while (!workList.isEmpty()) {
+        int position = nextPending(pending, pendingWords, 0);
+        while (position >= 0) {
+            pending[position >>> WORD_SHIFT] &= ~(1L << position);
             processedBlocks++;
-            InstructionBlock block = removeBlockFromWorkList(workList, blockOnWorkList);
-            BlockInfo blockInfo = blockInfos[block.getBlockIndex()];
-
-            newIn.clear();
-            newIn.or(blockInfo.out);
-            newIn.andNot(blockInfo.defs);
-            newIn.or(blockInfo.gen);
-            newIn.or(blockInfo.phiDefs);
-
-            blockInfo.in.clear();
-            blockInfo.in.or(newIn);
-
-            for (InstructionBlock predecessor : predecessors[block.getBlockIndex()]) {
-                BlockInfo predecessorBlockInfo = blockInfos[predecessor.getBlockIndex()];
-                newPredecessorOut.clear();
-                newPredecessorOut.or(blockInfo.in);
-                newPredecessorOut.andNot(blockInfo.phiDefs);
-                newPredecessorOut.or(predecessorBlockInfo.phiUses);
-
-                boolean changed = or(predecessorBlockInfo.out, newPredecessorOut);
-                if (changed) {
-                    addBlockToWorkList(workList, blockOnWorkList, predecessor);
+
+            int block = buffers.order[position];
+            computeIn(buffers, block);
+            for (int i = buffers.predecessorStart[block]; i < buffers.predecessorStart[block + 1]; i++) {
+                int predecessor = buffers.predecessors[i];
+                if (propagateToPredecessor(buffers, block, predecessor)) {
+                    int predecessorPosition = buffers.orderIndex[predecessor];
+                    pending[predecessorPosition >>> WORD_SHIFT] |= 1L << predecessorPosition;
                 }
             }
+
+            position = nextPending(pending, pendingWords, position + 1);
+            if (position < 0) {
+                // start the next sweep
+                position = nextPending(pending, pendingWords, 0);
+            }
         }
         return processedBlocks;
     }
 
-    private static LLVMLivenessAnalysisResult computeLivenessAnalysisResult(FunctionDefinition functionDefinition, List<InstructionBlock> blocks, FrameDescriptor frame, BlockInfo[] blockInfos,
-                    ArrayList<InstructionBlock>[] predecessors) {
+    private static int nextPending(long[] pending, int pendingWords, int from) {
+        int wordIndex = from >>> WORD_SHIFT;
+        if (wordIndex >= pendingWords) {
+            return -1;
+        }
+        long word = pending[wordIndex] & (-1L << from);
+        while (word == 0) {
+            if (++wordIndex == pendingWords) {
+                return -1;
+            }
+            word = pending[wordIndex];
+        }
+        return (wordIndex << WORD_SHIFT) + Long.numberOfTrailingZeros(word);
+    }
+
+    private static void computeIn(Buffers buffers, int block) {
+        int row = buffers.row(block);
+        for (int i = row; i < row + buffers.words; i++) {
+            buffers.in[i] = (buffers.out[i] & ~buffers.defs[i]) | buffers.gen[i] | buffers.phiDefs[i];
+        }
+    }
+
+    private static boolean propagateToPredecessor(Buffers buffers, int block, int predecessor) {
+        int row = buffers.row(block);
+        int predecessorRow = buffers.row(predecessor);
+        boolean changed = false;
+        for (int i = 0; i < buffers.words; i++) {
+            long out = buffers.out[predecessorRow + i];
+            long newOut = out | (buffers.in[row + i] & ~buffers.phiDefs[row + i]) | buffers.phiUses[predecessorRow + i];
+            if (newOut != out) {
+                buffers.out[predecessorRow + i] = newOut;
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    private static LLVMLivenessAnalysisResult computeLivenessAnalysisResult(FunctionDefinition functionDefinition, List<InstructionBlock> blocks, FrameDescriptor frame, Buffers buffers) {
         @SuppressWarnings("unchecked")
         ArrayList<NullerInformation>[] nullableWithinBlock = new ArrayList[blocks.size()];
         BitSet[] nullableBeforeBlock = new BitSet[blocks.size()];
         BitSet[] nullableAfterBlock = new BitSet[blocks.size()];
 
-        int[] lastInstructionIndexTouchingLocal = new int[frame.getSize()];
+        int[] lastInstructionIndexTouchingLocal = buffers.lastInstructionIndexTouchingLocal;
         LLVMNullerReadVisitor nullerReadVisitor = new LLVMNullerReadVisitor(frame, lastInstructionIndexTouchingLocal);
         for (int i = 0; i < blocks.size(); i++) {
             ArrayList<NullerInformation> blockNullers = new ArrayList<>();
-            Arrays.fill(lastInstructionIndexTouchingLocal, -1);
-            BlockInfo blockInfo = blockInfos[i];
-            // we destroy the kill and phiDefs bitsets as they are no longer needed anyways
-            blockInfo.kill.clear();
-            blockInfo.phiDefs.clear();
+            Arrays.fill(lastInstructionIndexTouchingLocal, 0, buffers.frameSlots, -1);
+            int row = buffers.row(i);
+            // we reuse the kill and phiDefs sets as they are no longer needed anyways
+            Arrays.fill(buffers.kill, row, row + buffers.words, 0L);
+            Arrays.fill(buffers.phiDefs, row, row + buffers.words, 0L);
 
             if (i == 0) {
                 // as an approximation, we claim that the arguments are used by the first
@@ -223,37 +287,40 @@ public final class LLVMLivenessAnalysis {
                 }
             }
 
-            // compute the values that die in this block. we do that in place, i.e., we destroy the
-            // def bitset that is no longer needed anyways.
-            blockInfo.defs.or(blockInfo.in);
-            blockInfo.defs.andNot(blockInfo.out);
-
+            // compute the values that die in this block
             int terminatingInstructionIndex = block.getInstructionCount() - 1;
-            BitSet valuesThatDieInBlock = blockInfo.defs;
-            int bitIndex = -1;
-            while ((bitIndex = valuesThatDieInBlock.nextSetBit(bitIndex + 1)) >= 0) {
-                assert lastInstructionIndexTouchingLocal[bitIndex] >= 0 : "must have a last usage, otherwise the value would not be alive in this block";
-                if (blockInfo.phiUses.get(bitIndex) || lastInstructionIndexTouchingLocal[bitIndex] == terminatingInstructionIndex) {
-                    // if a value dies that is used in a phi function or in a terminating
-                    // instruction, it dies after the block
-                    blockInfo.phiDefs.set(bitIndex);
-                } else {
-                    blockNullers.add(new NullerInformation(bitIndex, lastInstructionIndexTouchingLocal[bitIndex]));
+            for (int w = 0; w < buffers.words; w++) {
+                long valuesThatDieInBlock = (buffers.defs[row + w] | buffers.in[row + w]) & ~buffers.out[row + w];
+                while (valuesThatDieInBlock != 0) {
+                    int bitIndex = (w << WORD_SHIFT) + Long.numberOfTrailingZeros(valuesThatDieInBlock);
+                    valuesThatDieInBlock &= valuesThatDieInBlock - 1;
+                    assert lastInstructionIndexTouchingLocal[bitIndex] >= 0 : "must have a last usage, otherwise the value would not be alive in this block";
+                    if (get(buffers.phiUses, row, bitIndex) || lastInstructionIndexTouchingLocal[bitIndex] == terminatingInstructionIndex) {
+                        // if a value dies that is used in a phi function or in a terminating
+                        // instruction, it dies after the block
+                        set(buffers.phiDefs, row, bitIndex);
+                    } else {
+                        blockNullers.add(new NullerInformation(bitIndex, lastInstructionIndexTouchingLocal[bitIndex]));
+                    }
                 }
             }
 
             // compute the values that can be nulled out before we enter this block.
-            for (InstructionBlock predecessor : predecessors[i]) {
-                BlockInfo predInfo = blockInfos[predecessor.getBlockIndex()];
-                blockInfo.kill.or(predInfo.out);
+            for (int p = buffers.predecessorStart[i]; p < buffers.predecessorStart[i + 1]; p++) {
+                int predecessorRow = buffers.row(buffers.predecessors[p]);
+                for (int w = 0; w < buffers.words; w++) {
+                    buffers.kill[row + w] |= buffers.out[predecessorRow + w];
+                }
+            }
+            for (int w = 0; w < buffers.words; w++) {
+                buffers.kill[row + w] &= ~buffers.in[row + w];
             }
-            blockInfo.kill.andNot(blockInfo.in);
 
             // collect the results
             Collections.sort(blockNullers);
             nullableWithinBlock[i] = blockNullers;
-            nullableBeforeBlock[i] = blockInfo.kill;
-            nullableAfterBlock[i] = blockInfo.phiDefs;
+            nullableBeforeBlock[i] = buffers.toBitSet(buffers.kill, i);
+            nullableAfterBlock[i] = buffers.toBitSet(buffers.phiDefs, i);
         }
         return new LLVMLivenessAnalysisResult(nullableWithinBlock, nullableBeforeBlock, nullableAfterBlock);
     }
@@ -281,95 +348,98 @@ public final class LLVMLivenessAnalysis {
         }
     }
 
-    private static ArrayList<InstructionBlock>[] computePredecessors(List<InstructionBlock> blocks) {
-        @SuppressWarnings("unchecked")
-        ArrayList<InstructionBlock>[] result = new ArrayList[blocks.size()];
-        for (int i = 0; i < blocks.size(); i++) {
-            result[i] = new ArrayList<>(2);
-        }
-
+    private static void computePredecessors(Buffers buffers, List<InstructionBlock> blocks) {
+        // the predecessors of block i are predecessors[predecessorStart[i]..predecessorStart[i+1]]
+        int[] predecessorStart = buffers.predecessorStart;
+        Arrays.fill(predecessorStart, 0, blocks.size() + 1, 0);
         for (InstructionBlock block : blocks) {
             TerminatingInstruction terminatingInstruction = block.getTerminatingInstruction();
             for (int i = 0; i < terminatingInstruction.getSuccessorCount(); i++) {
-                result[terminatingInstruction.getSuccessor(i).getBlockIndex()].add(block);
+                predecessorStart[terminatingInstruction.getSuccessor(i).getBlockIndex() + 1]++;
             }
         }
-        return result;
-    }
-
-    private static void addBlockToWorkList(ArrayDeque<InstructionBlock> workList, BitSet blockOnWorkList, InstructionBlock predecessorBlock) {
-        boolean predecessorBlockIndex = blockOnWorkList.get(predecessorBlock.getBlockIndex());
-        if (!predecessorBlockIndex) {
-            workList.addLast(predecessorBlock);
-            blockOnWorkList.set(predecessorBlock.getBlockIndex());
+        for (int i = 0; i < blocks.size(); i++) {
+            predecessorStart[i + 1] += predecessorStart[i];
         }
-    }
-
-    private static InstructionBlock removeBlockFromWorkList(ArrayDeque<InstructionBlock> workList, BitSet blockOnWorkList) {
-        InstructionBlock block = workList.removeLast();
-        blockOnWorkList.clear(block.getBlockIndex());
-        return block;
-    }
 
-    private static boolean or(BitSet dest, BitSet source) {
-        assert dest.size() == source.size();
-        if (isChangeForOrNecessary(dest, source)) {
-            dest.or(source);
-            return true;
+        int[] predecessors = buffers.ensurePredecessors(predecessorStart[blocks.size()]);
+        int[] nextPredecessor = buffers.cursor;
+        System.arraycopy(predecessorStart, 0, nextPredecessor, 0, blocks.size());
+        for (InstructionBlock block : blocks) {
+            TerminatingInstruction terminatingInstruction = block.getTerminatingInstruction();
+            for (int i = 0; i < terminatingInstruction.getSuccessorCount(); i++) {
+                predecessors[nextPredecessor[terminatingInstruction.getSuccessor(i).getBlockIndex()]++] = block.getBlockIndex();
+            }
         }
-        return false;
     }
 
-    private static boolean isChangeForOrNecessary(BitSet dest, BitSet source) {
-        // this could be far faster if we had direct access to the words in the BitSet
-        int bitIndex = -1;
-        while ((bitIndex = source.nextSetBit(bitIndex + 1)) >= 0) {
-            if (!dest.get(bitIndex)) {
-                return true;
+    private static void computePostOrder(Buffers buffers, List<InstructionBlock> blocks) {
+        int[] order = buffers.order;
+        int[] orderIndex = buffers.orderIndex;
+        int[] stack = buffers.blockStack;
+        int[] nextSuccessor = buffers.cursor;
+        Arrays.fill(orderIndex, 0, blocks.size(), -1);
+
+        int position = 0;
+        // blocks that are unreachable from the entry block are appended in their own post order
+        for (int root = 0; root < blocks.size(); root++) {
+            if (orderIndex[root] != -1) {
+                continue;
+            }
+            int stackSize = 0;
+            stack[stackSize++] = root;
+            nextSuccessor[root] = 0;
+            orderIndex[root] = VISITING;
+            while (stackSize > 0) {
+                int block = stack[stackSize - 1];
+                TerminatingInstruction terminatingInstruction = blocks.get(block).getTerminatingInstruction();
+                if (nextSuccessor[block] < terminatingInstruction.getSuccessorCount()) {
+                    int successor = terminatingInstruction.getSuccessor(nextSuccessor[block]++).getBlockIndex();
+                    if (orderIndex[successor] == -1) {
+                        orderIndex[successor] = VISITING;
+                        nextSuccessor[successor] = 0;
+                        stack[stackSize++] = successor;
+                    }
+                } else {
+                    stackSize--;
+                    orderIndex[block] = position;
+                    order[position++] = block;
+                }
             }
         }
-        return false;
+        assert position == blocks.size();
     }
 
-    private static void processReads(LLVMLivenessReadVisitor readVisitor, Instruction instruction) {
-        instruction.accept(readVisitor);
-    }
-
-    private static void processWrite(FrameDescriptor frame, Symbol symbol, BlockInfo blockInfo) {
+    private static void processWrite(FrameDescriptor frame, Symbol symbol, Buffers buffers, int row) {
         int frameSlotIndex = resolve(frame, symbol);
         if (frameSlotIndex >= 0) {
-            blockInfo.defs.set(frameSlotIndex);
-            if (!blockInfo.gen.get(frameSlotIndex)) {
-                blockInfo.kill.set(frameSlotIndex);
+            set(buffers.defs, row, frameSlotIndex);
+            if (!get(buffers.gen, row, frameSlotIndex)) {
+                set(buffers.kill, row, frameSlotIndex);
             }
         }
     }
 
-    private static void processRead(FrameDescriptor frame, Symbol symbol, BlockInfo blockInfo) {
-        int frameSlotIndex = resolve(frame, symbol);
-        processRead(blockInfo, frameSlotIndex);
-    }
-
-    private static void processRead(BlockInfo blockInfo, int frameSlotIndex) {
+    private static void processRead(Buffers buffers, int row, int frameSlotIndex) {
         if (frameSlotIndex >= 0) {
-            if (!blockInfo.kill.get(frameSlotIndex)) {
-                blockInfo.gen.set(frameSlotIndex);
+            if (!get(buffers.kill, row, frameSlotIndex)) {
+                set(buffers.gen, row, frameSlotIndex);
             }
         }
     }
 
-    private static void processValueUsedInPhi(FrameDescriptor frame, Symbol symbol, BlockInfo blockInfo) {
+    private static void processValueUsedInPhi(FrameDescriptor frame, Symbol symbol, Buffers buffers, int row) {
         int frameSlotIndex = resolve(frame, symbol);
         if (frameSlotIndex >= 0) {
-            blockInfo.phiUses.set(frameSlotIndex);
+            set(buffers.phiUses, row, frameSlotIndex);
         }
     }
 
-    private static void processPhiWrite(FrameDescriptor frame, PhiInstruction phi, BlockInfo blockInfo) {
+    private static void processPhiWrite(FrameDescriptor frame, PhiInstruction phi, Buffers buffers, int row) {
         int frameSlotIndex = resolve(frame, phi);
         if (frameSlotIndex >= 0) {
-            blockInfo.phiDefs.set(frameSlotIndex);
-            blockInfo.defs.set(frameSlotIndex);
+            set(buffers.phiDefs, row, frameSlotIndex);
+            set(buffers.defs, row, frameSlotIndex);
         }
     }
 
@@ -384,7 +454,19 @@ public final class LLVMLivenessAnalysis {
         return -1;
     }
 
-    private static void printIntermediateResult(LLVMContext context, FrameDescriptor frame, FunctionDefinition functionDefinition, List<InstructionBlock> blocks, BlockInfo[] blockInfos,
+    private static boolean get(long[] matrix, int row, int bitIndex) {
+        return (matrix[row + (bitIndex >>> WORD_SHIFT)] & (1L << bitIndex)) != 0;
+    }
+
+    private static void set(long[] matrix, int row, int bitIndex) {
+        matrix[row + (bitIndex >>> WORD_SHIFT)] |= 1L << bitIndex;
+    }
+
+    private static int wordCount(int bits) {
+        return (bits + WORD_MASK) >>> WORD_SHIFT;
+    }
+
+    private static void printIntermediateResult(PrintStream stream, FrameDescriptor frame, FunctionDefinition functionDefinition, List<InstructionBlock> blocks, Buffers buffers,
                     int processedBlocks) {
         StringBuilder builder = new StringBuilder();
         builder.append(functionDefinition.getName());
@@ -393,8 +475,7 @@ public final class LLVMLivenessAnalysis {
         builder.append(" blocks - CFG has ");
         builder.append(blocks.size());
         builder.append(" blocks)\n");
-        for (int i = 0; i < blockInfos.length; i++) {
-            BlockInfo blockInfo = blockInfos[i];
+        for (int i = 0; i < blocks.size(); i++) {
             builder.append("Basic block ");
             builder.append(i);
             builder.append(" (");
@@ -402,38 +483,38 @@ public final class LLVMLivenessAnalysis {
             builder.append(")\n");
 
             builder.append("  In:      ");
-            builder.append(formatLocals(frame, blockInfo.in));
+            builder.append(formatLocals(frame, buffers.toBitSet(buffers.in, i)));
             builder.append("\n");
 
             builder.append("  Gen:     ");
-            builder.append(formatLocals(frame, blockInfo.gen));
+            builder.append(formatLocals(frame, buffers.toBitSet(buffers.gen, i)));
             builder.append("\n");
 
             builder.append("  Kill:    ");
-            builder.append(formatLocals(frame, blockInfo.kill));
+            builder.append(formatLocals(frame, buffers.toBitSet(buffers.kill, i)));
             builder.append("\n");
 
             builder.append("  Def:     ");
-            builder.append(formatLocals(frame, blockInfo.defs));
+            builder.append(formatLocals(frame, buffers.toBitSet(buffers.defs, i)));
             builder.append("\n");
 
             builder.append("  PhiDefs: ");
-            builder.append(formatLocals(frame, blockInfo.phiDefs));
+            builder.append(formatLocals(frame, buffers.toBitSet(buffers.phiDefs, i)));
             builder.append("\n");
 
             builder.append("  PhiUses: ");
-            builder.append(formatLocals(frame, blockInfo.phiUses));
+            builder.append(formatLocals(frame, buffers.toBitSet(buffers.phiUses, i)));
             builder.append("\n");
 
             builder.append("  Out:     ");
-            builder.append(formatLocals(frame, blockInfo.out));
+            builder.append(formatLocals(frame, buffers.toBitSet(buffers.out, i)));
             builder.append("\n");
         }
 
-        SulongEngineOption.getStream(context.getEnv().getOptions().get(SulongEngineOption.PRINT_LIFE_TIME_ANALYSIS_STATS)).println(builder.toString());
+        stream.println(builder.toString());
     }
 
-    private static void printResult(LLVMContext context, FrameDescriptor frame, List<InstructionBlock> blocks, LLVMLivenessAnalysisResult result) {
+    private static void printResult(PrintStream stream, FrameDescriptor frame, List<InstructionBlock> blocks, LLVMLivenessAnalysisResult result) {
         StringBuilder builder = new StringBuilder();
         for (int i = 0; i < blocks.size(); i++) {
             builder.append("Basic block ");
@@ -455,7 +536,7 @@ public final class LLVMLivenessAnalysis {
             builder.append("\n");
         }
 
-        SulongEngineOption.getStream(context.getEnv().getOptions().get(SulongEngineOption.PRINT_LIFE_TIME_ANALYSIS_STATS)).println(builder.toString());
+        stream.println(builder.toString());
     }
 
     private static String formatLocals(FrameDescriptor frame, BitSet bitSet) {
@@ -483,16 +564,21 @@ public final class LLVMLivenessAnalysis {
 
     private static class LLVMLivenessReadVisitor extends LLVMLocalReadVisitor {
         private final FrameDescriptor frame;
-        private final BlockInfo blockInfo;
+        private final Buffers buffers;
+        private int row;
 
-        LLVMLivenessReadVisitor(FrameDescriptor frame, BlockInfo blockInfo) {
+        LLVMLivenessReadVisitor(FrameDescriptor frame, Buffers buffers) {
             this.frame = frame;
-            this.blockInfo = blockInfo;
+            this.buffers = buffers;
+        }
+
+        public void setRow(int row) {
+            this.row = row;
         }
 
         @Override
         public void visitLocalRead(Symbol symbol) {
-            processRead(frame, symbol, blockInfo);
+            processRead(buffers, row, resolve(frame, symbol));
         }
     }
 
@@ -704,25 +790,88 @@ public final class LLVMLivenessAnalysis {
         protected abstract void visitLocalRead(Symbol symbol);
     }
 
-    private static class BlockInfo {
-        public final BitSet in;
-        public final BitSet out;
-
-        public final BitSet gen;
-        public final BitSet kill;
-        public final BitSet defs;
-        public final BitSet phiDefs;
-        public final BitSet phiUses;
-
-        BlockInfo(int frameSlots) {
-            this.in = new BitSet(frameSlots);
-            this.out = new BitSet(frameSlots);
-
-            this.gen = new BitSet(frameSlots);
-            this.kill = new BitSet(frameSlots);
-            this.defs = new BitSet(frameSlots);
-            this.phiDefs = new BitSet(frameSlots);
-            this.phiUses = new BitSet(frameSlots);
+    /**
+     * The sets of all blocks are dense bit matrices with one row of {@link #words} words per block,
+     * the predecessors are stored in compressed rows. Only the part needed by the current function
+     * is cleared and used.
+     */
+    private static final class Buffers {
+        int blockCount;
+        int frameSlots;
+        int words;
+
+        long[] in = new long[0];
+        long[] out = new long[0];
+
+        long[] gen = new long[0];
+        long[] kill = new long[0];
+        long[] defs = new long[0];
+        long[] phiDefs = new long[0];
+        long[] phiUses = new long[0];
+
+        long[] pending = new long[0];
+        int[] predecessorStart = new int[0];
+        int[] predecessors = new int[0];
+        int[] order = new int[0];
+        int[] orderIndex = new int[0];
+        int[] blockStack = new int[0];
+        int[] cursor = new int[0];
+        int[] lastInstructionIndexTouchingLocal = new int[0];
+
+        static Buffers get(int blockCount, int frameSlots) {
+            Buffers buffers = (long) blockCount * wordCount(frameSlots) <= MAX_RETAINED_WORDS ? BUFFERS.get() : new Buffers();
+            buffers.reset(blockCount, frameSlots);
+            return buffers;
+        }
+
+        private void reset(int newBlockCount, int newFrameSlots) {
+            blockCount = newBlockCount;
+            frameSlots = newFrameSlots;
+            words = wordCount(newFrameSlots);
+
+            int size = newBlockCount * words;
+            in = clear(in, size);
+            out = clear(out, size);
+            gen = clear(gen, size);
+            kill = clear(kill, size);
+            defs = clear(defs, size);
+            phiDefs = clear(phiDefs, size);
+            phiUses = clear(phiUses, size);
+
+            if (pending.length < wordCount(newBlockCount)) {
+                pending = new long[wordCount(newBlockCount)];
+            }
+            predecessorStart = ensure(predecessorStart, newBlockCount + 1);
+            order = ensure(order, newBlockCount);
+            orderIndex = ensure(orderIndex, newBlockCount);
+            blockStack = ensure(blockStack, newBlockCount);
+            cursor = ensure(cursor, newBlockCount);
+            lastInstructionIndexTouchingLocal = ensure(lastInstructionIndexTouchingLocal, newFrameSlots);
+        }
+
+        int[] ensurePredecessors(int count) {
+            predecessors = ensure(predecessors, count);
+            return predecessors;
+        }
+
+        int row(int block) {
+            return block * words;
+        }
+
+        BitSet toBitSet(long[] matrix, int block) {
+            return BitSet.valueOf(LongBuffer.wrap(matrix, row(block), words));
+        }
+
+        private static long[] clear(long[] matrix, int size) {
+            if (matrix.length < size) {
+                return new long[size];
+            }
+            Arrays.fill(matrix, 0, size, 0L);
+            return matrix;
+        }
+
+        private static int[] ensure(int[] array, int size) {
+            return array.length < size ? new int[size] : array;
         }
     }
 
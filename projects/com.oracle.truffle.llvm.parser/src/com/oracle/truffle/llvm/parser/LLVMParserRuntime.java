@@ -29,10 +29,13 @@
  */
 package com.oracle.truffle.llvm.parser;
 
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 import com.oracle.truffle.api.CompilerAsserts;
 import com.oracle.truffle.api.RootCallTarget;
@@ -59,6 +62,8 @@ import com.oracle.truffle.llvm.parser.model.symbols.constants.aggregate.Structur
 import com.oracle.truffle.llvm.parser.model.symbols.instructions.Instruction;
 import com.oracle.truffle.llvm.parser.model.target.TargetDataLayout;
 import com.oracle.truffle.llvm.parser.nodes.LLVMSymbolResolver;
+import com.oracle.truffle.llvm.parser.scanner.BitStream;
+import com.oracle.truffle.llvm.parser.scanner.ScannerCache;
 import com.oracle.truffle.llvm.parser.util.Pair;
 import com.oracle.truffle.llvm.runtime.LLVMContext;
 import com.oracle.truffle.llvm.runtime.LLVMFunctionDescriptor;
@@ -85,8 +90,27 @@ public final class LLVMParserRuntime {
     private static final Comparator<Pair<Integer, ?>> ASCENDING_PRIORITY = (p1, p2) -> p1.getFirst() >= p2.getFirst() ? 1 : -1;
     private static final Comparator<Pair<Integer, ?>> DESCENDING_PRIORITY = (p1, p2) -> p1.getFirst() < p2.getFirst() ? 1 : -1;
 
-    public static LLVMParserResult parse(Source source, LLVMLanguage language, LLVMContext context, NodeFactory nodeFactory) {
-        BitcodeParserResult parserResult = BitcodeParserResult.getFromSource(source);
+    /**
+     * Scans the bitcode in {@code bitstream} into a model. Only the options of {@code context} are
+     * read, so independent modules can be scanned concurrently.
+     */
+    public static BitcodeParserResult scan(Source source, BitStream bitstream, LLVMContext context) {
+        // function bodies are only scanned when they are converted for the first time
+        final boolean lazyParsing = context.getEnv().getOptions().get(SulongEngineOption.LAZY_PARSING);
+        final String cacheDirectory = context.getEnv().getOptions().get(SulongEngineOption.PARSER_CACHE);
+        if (cacheDirectory.isEmpty()) {
+            return BitcodeParserResult.getFromSource(source, bitstream, lazyParsing);
+        } else {
+            final ModelModule model = new ScannerCache(Paths.get(cacheDirectory)).parse(source, bitstream, lazyParsing);
+            return BitcodeParserResult.getFromModel(model);
+        }
+    }
+
+    /**
+     * Converts a module that was already scanned by {@link #scan} and registers its symbols in the
+     * scope of {@code context}. Modules must be passed here in load order.
+     */
+    public static LLVMParserResult parse(Source source, BitcodeParserResult parserResult, LLVMLanguage language, LLVMContext context, NodeFactory nodeFactory) {
         ModelModule model = parserResult.getModel();
         StackAllocation stack = parserResult.getStackAllocation();
         LLVMPhiManager phiManager = parserResult.getPhis();
@@ -113,6 +137,10 @@ public final class LLVMParserRuntime {
         RootCallTarget constructorFunctions = runtime.getConstructors(module.getGlobals());
         RootCallTarget destructorFunctions = runtime.getDestructors(module.getGlobals());
 
+        // all file-local symbols are known now, the global scope is frozen by the caller once all
+        // files of a parse are linked
+        runtime.getScope().freeze();
+
         RootCallTarget mainFunctionCallTarget;
         if (runtime.getScope().functionExists("@main")) {
             LLVMFunctionDescriptor mainDescriptor = runtime.getScope().getFunctionDescriptor(context, "@main");
@@ -153,16 +181,48 @@ public final class LLVMParserRuntime {
     }
 
     private void initializeFunctions(LLVMPhiManager phiManager, LLVMLabelList labels, List<FunctionDefinition> functions) {
+        List<LLVMFunctionDescriptor> definedFunctions = new ArrayList<>(functions.size());
         for (FunctionDefinition function : functions) {
             String functionName = function.getName();
             LLVMFunctionDescriptor functionDescriptor = scope.lookupOrCreateFunction(context, functionName, !Linkage.isFileLocal(function.getLinkage()),
                             index -> LLVMFunctionDescriptor.createDescriptor(context, functionName, function.getType(), index));
-            LazyToTruffleConverterImpl lazyConverter = new LazyToTruffleConverterImpl(this, context, nodeFactory, function, source, stack.getFrame(functionName), phiManager.getPhiMap(functionName),
-                            labels.labels(functionName));
-            if (!context.getEnv().getOptions().get(SulongEngineOption.LAZY_PARSING)) {
-                lazyConverter.convert();
-            }
+            LazyToTruffleConverterImpl lazyConverter = new LazyToTruffleConverterImpl(this, context, nodeFactory, function, source, stack, phiManager, labels);
             functionDescriptor.declareInSulong(lazyConverter, Linkage.isWeak(function.getLinkage()));
+            definedFunctions.add(functionDescriptor);
+        }
+        if (!context.getEnv().getOptions().get(SulongEngineOption.LAZY_PARSING)) {
+            convertFunctions(definedFunctions);
+        }
+    }
+
+    /*
+     * All functions of the module are declared before any of them is converted, so the
+     * conversions are independent of each other: every function has its own FrameDescriptor, the
+     * NodeFactory is stateless, and the state shared between them (scope, stack allocation, phis,
+     * labels, debug information and deallocations) is thread-safe.
+     */
+    private void convertFunctions(List<LLVMFunctionDescriptor> functions) {
+        if (context.getParserThreads() == 1 || functions.size() <= 1) {
+            for (LLVMFunctionDescriptor function : functions) {
+                convertFunction(function);
+            }
+            return;
+        }
+
+        ForkJoinPool pool = context.getParserPool();
+        List<ForkJoinTask<?>> conversions = new ArrayList<>(functions.size());
+        for (LLVMFunctionDescriptor function : functions) {
+            conversions.add(pool.submit(() -> convertFunction(function)));
+        }
+        for (ForkJoinTask<?> conversion : conversions) {
+            conversion.join();
+        }
+    }
+
+    private static void convertFunction(LLVMFunctionDescriptor function) {
+        // a strong definition from another module may have replaced this one
+        if (function.isLLVMIRFunction()) {
+            function.getLLVMIRFunction();
         }
     }
 
@@ -286,7 +346,9 @@ public final class LLVMParserRuntime {
     }
 
     private LLVMExpressionNode[] getDeallocations() {
-        return deallocations.toArray(new LLVMExpressionNode[deallocations.size()]);
+        synchronized (deallocations) {
+            return deallocations.toArray(new LLVMExpressionNode[deallocations.size()]);
+        }
     }
 
     public LLVMExpressionNode allocateFunctionLifetime(Type type, int size, int alignment) {
@@ -318,7 +380,9 @@ public final class LLVMParserRuntime {
     }
 
     public void addDestructor(LLVMExpressionNode destructorNode) {
-        deallocations.add(destructorNode);
+        synchronized (deallocations) {
+            deallocations.add(destructorNode);
+        }
     }
 
     public long getNativeHandle(String name) {
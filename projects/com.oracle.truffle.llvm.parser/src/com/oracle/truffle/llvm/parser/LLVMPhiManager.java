@@ -34,6 +34,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.oracle.truffle.llvm.parser.model.ModelModule;
 import com.oracle.truffle.llvm.parser.model.blocks.InstructionBlock;
@@ -61,18 +62,34 @@ public final class LLVMPhiManager implements ModelVisitor {
         return visitor;
     }
 
-    private final Map<String, Map<InstructionBlock, List<Phi>>> edges = new HashMap<>();
+    private final Map<String, FunctionDefinition> functions = new HashMap<>();
+
+    private final ConcurrentHashMap<String, Map<InstructionBlock, List<Phi>>> edges = new ConcurrentHashMap<>();
 
     private LLVMPhiManager() {
     }
 
+    /**
+     * The phis of a function are only collected on the first request, so that the bodies of
+     * functions that are never converted need not be parsed. Functions are parsed under their own
+     * lock, so threads that convert different functions do not wait for each other.
+     */
     public Map<InstructionBlock, List<Phi>> getPhiMap(String method) {
         Map<InstructionBlock, List<Phi>> references = edges.get(method);
         if (references == null) {
-            return Collections.emptyMap();
-        } else {
-            return references;
+            final FunctionDefinition function = functions.get(method);
+            if (function == null) {
+                return Collections.emptyMap();
+            }
+            LLVMPhiManagerFunctionVisitor visitor = new LLVMPhiManagerFunctionVisitor();
+            function.accept(visitor);
+            references = visitor.getEdges();
+            final Map<InstructionBlock, List<Phi>> existing = edges.putIfAbsent(method, references);
+            if (existing != null) {
+                references = existing;
+            }
         }
+        return references;
     }
 
     @Override
@@ -93,11 +110,7 @@ public final class LLVMPhiManager implements ModelVisitor {
 
     @Override
     public void visit(FunctionDefinition method) {
-        LLVMPhiManagerFunctionVisitor visitor = new LLVMPhiManagerFunctionVisitor();
-
-        method.accept(visitor);
-
-        edges.put(method.getName(), visitor.getEdges());
+        functions.put(method.getName(), method);
     }
 
     @Override
@@ -68,21 +68,20 @@ public class LazyToTruffleConverterImpl implements LazyToTruffleConverter {
     private final NodeFactory nodeFactory;
     private final FunctionDefinition method;
     private final Source source;
-    private final FrameDescriptor frame;
-    private final Map<InstructionBlock, List<Phi>> phis;
-    private final Map<String, Integer> labels;
+    private final StackAllocation stack;
+    private final LLVMPhiManager phiManager;
+    private final LLVMLabelList labelList;
 
-    LazyToTruffleConverterImpl(LLVMParserRuntime runtime, LLVMContext context, NodeFactory nodeFactory, FunctionDefinition method, Source source, FrameDescriptor frame,
-                    Map<InstructionBlock, List<Phi>> phis,
-                    Map<String, Integer> labels) {
+    LazyToTruffleConverterImpl(LLVMParserRuntime runtime, LLVMContext context, NodeFactory nodeFactory, FunctionDefinition method, Source source, StackAllocation stack,
+                    LLVMPhiManager phiManager, LLVMLabelList labelList) {
         this.runtime = runtime;
         this.context = context;
         this.nodeFactory = nodeFactory;
         this.method = method;
         this.source = source;
-        this.frame = frame;
-        this.phis = phis;
-        this.labels = labels;
+        this.stack = stack;
+        this.phiManager = phiManager;
+        this.labelList = labelList;
     }
 
     @Override
@@ -92,15 +91,21 @@ public class LazyToTruffleConverterImpl implements LazyToTruffleConverter {
         // this also precompiles the SourceSections for the contained instructions
         SourceSection sourceSection = runtime.getSourceSection(method);
 
+        // with lazy parsing, the body of the function is only scanned at this point
+        FrameDescriptor frame = stack.getFrame(method.getName());
+        Map<InstructionBlock, List<Phi>> phis = phiManager.getPhiMap(method.getName());
+        Map<String, Integer> labels = labelList.labels(method.getName());
+
         LLVMLivenessAnalysisResult liveness = LLVMLivenessAnalysis.computeLiveness(frame, context, phis, method);
         LLVMBitcodeFunctionVisitor visitor = new LLVMBitcodeFunctionVisitor(runtime, frame, labels, phis, nodeFactory, method.getParameters().size(),
                         new LLVMSymbolResolver(runtime, method, frame, labels), method, liveness);
         method.accept(visitor);
-        FrameSlot[][] nullableBeforeBlock = getNullableFrameSlots(liveness.getNullableBeforeBlock());
-        FrameSlot[][] nullableAfterBlock = getNullableFrameSlots(liveness.getNullableAfterBlock());
-        LLVMExpressionNode body = nodeFactory.createFunctionBlockNode(runtime, frame.findFrameSlot(LLVMException.FRAME_SLOT_ID), visitor.getBlocks(), nullableBeforeBlock, nullableAfterBlock);
+        FrameSlot[][] nullableBeforeBlock = getNullableFrameSlots(frame, liveness.getNullableBeforeBlock());
+        FrameSlot[][] nullableAfterBlock = getNullableFrameSlots(frame, liveness.getNullableAfterBlock());
+        LLVMExpressionNode body = nodeFactory.createFunctionBlockNode(runtime, frame.findFrameSlot(LLVMException.FRAME_SLOT_ID), visitor.getBlocks(), nullableBeforeBlock, nullableAfterBlock,
+                        frame.findFrameSlot(StackAllocation.OSR_NEXT_BLOCK_ID), frame.findFrameSlot(StackAllocation.OSR_RETURN_VALUE_ID));
 
-        List<LLVMExpressionNode> copyArgumentsToFrame = copyArgumentsToFrame();
+        List<LLVMExpressionNode> copyArgumentsToFrame = copyArgumentsToFrame(frame);
         LLVMExpressionNode[] copyArgumentsToFrameArray = copyArgumentsToFrame.toArray(new LLVMExpressionNode[copyArgumentsToFrame.size()]);
         RootNode rootNode = nodeFactory.createFunctionStartNode(runtime, body, copyArgumentsToFrameArray, sourceSection, frame, method, source);
 
@@ -111,7 +116,7 @@ public class LazyToTruffleConverterImpl implements LazyToTruffleConverter {
         return Truffle.getRuntime().createCallTarget(rootNode);
     }
 
-    private FrameSlot[][] getNullableFrameSlots(BitSet[] nullableBeforeBlock) {
+    private static FrameSlot[][] getNullableFrameSlots(FrameDescriptor frame, BitSet[] nullableBeforeBlock) {
         List<? extends FrameSlot> frameSlots = frame.getSlots();
         FrameSlot[][] result = new FrameSlot[nullableBeforeBlock.length][];
         for (int i = 0; i < nullableBeforeBlock.length; i++) {
@@ -128,7 +133,7 @@ public class LazyToTruffleConverterImpl implements LazyToTruffleConverter {
         return result;
     }
 
-    private List<LLVMExpressionNode> copyArgumentsToFrame() {
+    private List<LLVMExpressionNode> copyArgumentsToFrame(FrameDescriptor frame) {
         List<FunctionParameter> parameters = method.getParameters();
         List<LLVMExpressionNode> formalParamInits = new ArrayList<>();
         LLVMExpressionNode stackPointerNode = nodeFactory.createFunctionArgNode(0, PrimitiveType.I64);
@@ -31,6 +31,7 @@ package com.oracle.truffle.llvm.parser;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.oracle.truffle.api.frame.FrameDescriptor;
 import com.oracle.truffle.api.frame.FrameSlotKind;
@@ -49,18 +50,45 @@ import com.oracle.truffle.llvm.runtime.types.Type;
 
 public final class StackAllocation {
 
+    /**
+     * The frame slots of the loop header at which the OSR loop of a function continues and of the
+     * return value of the function when it returns from within the OSR loop.
+     */
+    public static final String OSR_NEXT_BLOCK_ID = "<osr next block>";
+    public static final String OSR_RETURN_VALUE_ID = "<osr return value>";
+
     private final FrameDescriptor rootFrame;
 
-    private final Map<String, FrameDescriptor> frameDescriptors;
+    private final Map<String, FunctionDefinition> functions;
+
+    private final ConcurrentHashMap<String, FrameDescriptor> frameDescriptors;
 
-    private StackAllocation(Map<String, FrameDescriptor> frameDescriptors) {
-        this.frameDescriptors = frameDescriptors;
+    private StackAllocation(Map<String, FunctionDefinition> functions) {
+        this.functions = functions;
+        this.frameDescriptors = new ConcurrentHashMap<>();
         rootFrame = new FrameDescriptor();
         rootFrame.addFrameSlot(LLVMStack.FRAME_ID, PrimitiveType.I64, FrameSlotKind.Long);
     }
 
+    /**
+     * The frame of a function is only allocated on the first request, so that the bodies of
+     * functions that are never converted need not be parsed. If two threads allocate the frame of
+     * the same function, both use the one that was stored first.
+     */
     public FrameDescriptor getFrame(String functionName) {
-        return frameDescriptors.get(functionName);
+        FrameDescriptor frame = frameDescriptors.get(functionName);
+        if (frame == null) {
+            final FunctionDefinition function = functions.get(functionName);
+            if (function == null) {
+                return null;
+            }
+            frame = createFrame(function);
+            final FrameDescriptor existing = frameDescriptors.putIfAbsent(functionName, frame);
+            if (existing != null) {
+                frame = existing;
+            }
+        }
+        return frame;
     }
 
     public FrameDescriptor getRootFrame() {
@@ -70,30 +98,35 @@ public final class StackAllocation {
     static StackAllocation generate(ModelModule model) {
         final StackAllocationModelVisitor modelVisitor = new StackAllocationModelVisitor();
         model.accept(modelVisitor);
-        return new StackAllocation(modelVisitor.getFrames());
+        return new StackAllocation(modelVisitor.getFunctions());
+    }
+
+    private static FrameDescriptor createFrame(FunctionDefinition functionDefinition) {
+        final FrameDescriptor frame = new FrameDescriptor();
+        frame.addFrameSlot(LLVMException.FRAME_SLOT_ID, null, FrameSlotKind.Object);
+        frame.addFrameSlot(LLVMStack.FRAME_ID, PrimitiveType.I64, FrameSlotKind.Long);
+        frame.addFrameSlot(OSR_NEXT_BLOCK_ID, PrimitiveType.I32, FrameSlotKind.Int);
+        frame.addFrameSlot(OSR_RETURN_VALUE_ID, null, FrameSlotKind.Object);
+        for (FunctionParameter parameter : functionDefinition.getParameters()) {
+            frame.addFrameSlot(parameter.getName(), parameter.getType(), Type.getFrameSlotKind(parameter.getType()));
+        }
+
+        final StackAllocationFunctionVisitor functionVisitor = new StackAllocationFunctionVisitor(frame);
+        functionDefinition.accept(functionVisitor);
+        return frame;
     }
 
     private static final class StackAllocationModelVisitor implements ModelVisitor {
 
-        final Map<String, FrameDescriptor> frames = new HashMap<>();
+        final Map<String, FunctionDefinition> functions = new HashMap<>();
 
-        public Map<String, FrameDescriptor> getFrames() {
-            return frames;
+        public Map<String, FunctionDefinition> getFunctions() {
+            return functions;
         }
 
         @Override
         public void visit(FunctionDefinition functionDefinition) {
-            final FrameDescriptor frame = new FrameDescriptor();
-            frame.addFrameSlot(LLVMException.FRAME_SLOT_ID, null, FrameSlotKind.Object);
-            frame.addFrameSlot(LLVMStack.FRAME_ID, PrimitiveType.I64, FrameSlotKind.Long);
-            for (FunctionParameter parameter : functionDefinition.getParameters()) {
-                frame.addFrameSlot(parameter.getName(), parameter.getType(), Type.getFrameSlotKind(parameter.getType()));
-            }
-
-            final StackAllocationFunctionVisitor functionVisitor = new StackAllocationFunctionVisitor(frame);
-            functionDefinition.accept(functionVisitor);
-
-            frames.put(functionDefinition.getName(), frame);
+            functions.put(functionDefinition.getName(), functionDefinition);
         }
     }
 
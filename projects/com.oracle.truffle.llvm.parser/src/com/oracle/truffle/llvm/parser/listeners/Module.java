@@ -43,6 +43,7 @@ import com.oracle.truffle.llvm.parser.model.target.TargetTriple;
 import com.oracle.truffle.llvm.parser.records.ModuleRecord;
 import com.oracle.truffle.llvm.parser.records.Records;
 import com.oracle.truffle.llvm.parser.scanner.Block;
+import com.oracle.truffle.llvm.parser.scanner.LazyScanner;
 import com.oracle.truffle.llvm.runtime.types.FunctionType;
 import com.oracle.truffle.llvm.runtime.types.PointerType;
 import com.oracle.truffle.llvm.runtime.types.Type;
@@ -166,20 +167,8 @@ public final class Module implements ParserListener {
             case CONSTANTS:
                 return new Constants(types, symbols, generator);
 
-            case FUNCTION: {
-                FunctionType function = functions.remove(0);
-
-                FunctionGenerator gen = generator.generateFunction();
-
-                List<Type> sym = new ArrayList<>(symbols);
-
-                for (Type arg : function.getArgumentTypes()) {
-                    gen.createParameter(arg);
-                    sym.add(arg);
-                }
-
-                return new Function(types, sym, gen, mode);
-            }
+            case FUNCTION:
+                return createFunctionParser(generator.generateFunction());
 
             case TYPE:
                 return types;
@@ -196,6 +185,30 @@ public final class Module implements ParserListener {
         }
     }
 
+    @Override
+    public void skip(Block block, LazyScanner lazyScanner) {
+        if (block != Block.FUNCTION) {
+            ParserListener.super.skip(block, lazyScanner);
+            return;
+        }
+        final FunctionGenerator gen = generator.generateFunction();
+        final Function function = createFunctionParser(gen);
+        gen.deferParsing(() -> lazyScanner.scan(function));
+    }
+
+    private Function createFunctionParser(FunctionGenerator gen) {
+        FunctionType function = functions.remove(0);
+
+        List<Type> sym = new ArrayList<>(symbols);
+
+        for (Type arg : function.getArgumentTypes()) {
+            gen.createParameter(arg);
+            sym.add(arg);
+        }
+
+        return new Function(types, sym, gen, mode);
+    }
+
     @Override
     public void exit() {
         generator.exitModule();
@@ -30,6 +30,7 @@
 package com.oracle.truffle.llvm.parser.listeners;
 
 import com.oracle.truffle.llvm.parser.scanner.Block;
+import com.oracle.truffle.llvm.parser.scanner.LazyScanner;
 
 public interface ParserListener {
 
@@ -40,6 +41,10 @@ public interface ParserListener {
     default void exit() {
     }
 
+    default void skip(Block block, @SuppressWarnings("unused") LazyScanner lazyScanner) {
+        throw new IllegalStateException("Cannot defer parsing of block: " + block);
+    }
+
     void record(long id, long[] args);
 
     ParserListener DEFAULT = (id, args) -> {
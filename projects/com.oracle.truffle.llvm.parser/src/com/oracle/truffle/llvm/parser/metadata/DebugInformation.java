@@ -37,8 +37,8 @@ import com.oracle.truffle.llvm.parser.model.symbols.instructions.Instruction;
 import com.oracle.truffle.llvm.parser.model.visitors.FunctionVisitor;
 import com.oracle.truffle.llvm.parser.model.visitors.InstructionVisitorAdapter;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public final class DebugInformation {
 
@@ -46,16 +46,20 @@ public final class DebugInformation {
         return new DebugInformation();
     }
 
-    private final Map<FunctionDefinition, SourceSection> functionSections = new HashMap<>();
+    private final Map<FunctionDefinition, SourceSection> functionSections = new ConcurrentHashMap<>();
 
-    private final Map<Instruction, SourceSection> instructionSections = new HashMap<>();
+    private final Map<Instruction, SourceSection> instructionSections = new ConcurrentHashMap<>();
 
     private final DIVisitor visitor = new DIVisitor();
 
     private DebugInformation() {
     }
 
-    public SourceSection parseAndGetDebugInfo(FunctionDefinition function, Source bcSource) {
+    /**
+     * Functions can be converted concurrently. Parsing is serialized because the visitor and the
+     * source cache are shared, lookups are not.
+     */
+    public synchronized SourceSection parseAndGetDebugInfo(FunctionDefinition function, Source bcSource) {
         visitor.visit(function, bcSource);
         return functionSections.get(function);
     }
@@ -112,7 +116,9 @@ public final class DebugInformation {
             if (instLoc != null && farthestSection.getCharEndIndex() < instLoc.getCharEndIndex()) {
                 farthestSection = instLoc;
             }
-            instructionSections.put(inst, instLoc);
+            if (instLoc != null) {
+                instructionSections.put(inst, instLoc);
+            }
         }
     }
 }
@@ -87,6 +87,9 @@ public final class FunctionDefinition implements Constant, FunctionGenerator, Va
     private final AttributesCodeEntry paramAttr;
     private final Linkage linkage;
 
+    private volatile Runnable deferredParser;
+    private boolean parsing;
+
     public FunctionDefinition(FunctionType type, String name, MetadataList metadata, Linkage linkage, AttributesCodeEntry paramAttr) {
         this.type = type;
         this.metadata = metadata;
@@ -126,11 +129,36 @@ public final class FunctionDefinition implements Constant, FunctionGenerator, Va
     }
 
     public void accept(FunctionVisitor visitor) {
+        ensureParsed();
         for (InstructionBlock block : blocks) {
             visitor.visit(block);
         }
     }
 
+    @Override
+    public void deferParsing(Runnable parser) {
+        deferredParser = parser;
+    }
+
+    private void ensureParsed() {
+        if (deferredParser != null) {
+            parseDeferred();
+        }
+    }
+
+    private synchronized void parseDeferred() {
+        // the parser itself accesses the blocks of this function
+        if (deferredParser != null && !parsing) {
+            parsing = true;
+            try {
+                deferredParser.run();
+            } finally {
+                deferredParser = null;
+                parsing = false;
+            }
+        }
+    }
+
     @Override
     public void allocateBlocks(int count) {
         blocks = new InstructionBlock[count];
@@ -203,26 +231,31 @@ public final class FunctionDefinition implements Constant, FunctionGenerator, Va
 
     public Type getType(String instructionName) {
         CompilerAsserts.neverPartOfCompilation();
+        ensureParsed();
         return namesToTypes.get(instructionName);
     }
 
     public InstructionBlock getBlock(long idx) {
         CompilerAsserts.neverPartOfCompilation();
+        ensureParsed();
         return blocks[(int) idx];
     }
 
     public int getBlockCount() {
         CompilerAsserts.neverPartOfCompilation();
+        ensureParsed();
         return blocks.length;
     }
 
     public List<InstructionBlock> getBlocks() {
         CompilerAsserts.neverPartOfCompilation();
+        ensureParsed();
         return Arrays.asList(blocks);
     }
 
     public List<FunctionParameter> getParameters() {
         CompilerAsserts.neverPartOfCompilation();
+        ensureParsed();
         return parameters;
     }
 
@@ -320,6 +353,7 @@ public final class FunctionDefinition implements Constant, FunctionGenerator, Va
     @Override
     public MetadataList getMetadata() {
         CompilerAsserts.neverPartOfCompilation();
+        ensureParsed();
         return metadata;
     }
 
@@ -41,4 +41,12 @@ public interface FunctionGenerator extends SymbolGenerator {
     void exitFunction();
 
     InstructionBlock generateBlock();
+
+    /**
+     * Defers parsing the body of the function until it is accessed for the first time. Generators
+     * that cannot defer parsing run the parser immediately.
+     */
+    default void deferParsing(Runnable parser) {
+        parser.run();
+    }
 }
@@ -30,32 +30,52 @@
 package com.oracle.truffle.llvm.parser.scanner;
 
 import java.io.IOException;
-import java.nio.file.Files;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.Arrays;
 import java.util.Base64;
 
 import com.oracle.truffle.api.source.Source;
 import com.oracle.truffle.llvm.runtime.LLVMLanguage;
 
+/**
+ * Random access to the bits of a bitcode file. The contents are kept in a little-endian
+ * {@link ByteBuffer}; bitcode files are mapped into memory instead of being copied onto the heap.
+ * All reads are absolute, reads beyond the end of the stream yield zero bits.
+ */
 public final class BitStream {
 
+    private static final int BUFFER_SIZE = 1 << 16;
+
     private static final long BYTE_MASK = 0xffL;
-    private final byte[] bitstream;
+    private static final int WORD_SHIFT = 6;
+    private static final long WORD_MASK = Long.SIZE - 1L;
+
+    private final ByteBuffer bitstream;
+    private final long byteSize;
 
-    private BitStream(byte[] bitstream) {
-        this.bitstream = bitstream;
+    private BitStream(ByteBuffer bitstream) {
+        this.bitstream = bitstream.order(ByteOrder.LITTLE_ENDIAN);
+        this.byteSize = bitstream.limit();
     }
 
     public static BitStream create(Source source) {
-        byte[] bytes;
+        ByteBuffer bytes;
         switch (source.getMimeType()) {
             case "x-unknown":
             case LLVMLanguage.LLVM_BITCODE_MIME_TYPE:
-                bytes = read(source.getPath());
+                bytes = source.getPath() != null ? map(source.getPath()) : read(source.getURI());
                 break;
 
             case LLVMLanguage.LLVM_BITCODE_BASE64_MIME_TYPE:
-                bytes = Base64.getDecoder().decode(source.getCode());
+                bytes = ByteBuffer.wrap(Base64.getDecoder().decode(source.getCode()));
                 break;
 
             default:
@@ -64,23 +84,49 @@ public final class BitStream {
         return new BitStream(bytes);
     }
 
+    /**
+     * Creates a stream over the remaining bytes of {@code bytes} without copying them.
+     */
+    public static BitStream create(ByteBuffer bytes) {
+        return new BitStream(bytes.slice());
+    }
+
     public static BitStream createFromBlob(long[] args, int blobStartIndex) {
-        final byte[] blob = new byte[(args.length - 2) * Long.BYTES];
-        int to = 0;
+        final ByteBuffer blob = ByteBuffer.allocate((args.length - blobStartIndex) * Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
         for (int from = blobStartIndex; from < args.length; from++) {
-            final long l = args[from];
-            for (int i = 0; i < Long.BYTES; i++) {
-                blob[to++] = (byte) ((l >> (Byte.SIZE * i)) & BYTE_MASK);
-            }
+            blob.putLong(args[from]);
         }
         return new BitStream(blob);
     }
 
-    private static byte[] read(String filename) {
-        try {
-            return Files.readAllBytes(Paths.get(filename));
+    private static ByteBuffer map(String filename) {
+        // the mapping stays valid after the channel is closed and is released once the buffer
+        // becomes unreachable
+        try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)) {
+            return channel.map(MapMode.READ_ONLY, 0, channel.size());
         } catch (IOException ignore) {
-            return new byte[0];
+            return ByteBuffer.allocate(0);
+        }
+    }
+
+    /**
+     * Reads bitcode that is not a file of its own, e.g., a module of a library archive, which is
+     * named by a {@code jar:} URI.
+     */
+    private static ByteBuffer read(URI uri) {
+        try (InputStream in = uri.toURL().openStream()) {
+            byte[] bytes = new byte[BUFFER_SIZE];
+            int length = 0;
+            int read;
+            while ((read = in.read(bytes, length, bytes.length - length)) != -1) {
+                length += read;
+                if (length == bytes.length) {
+                    bytes = Arrays.copyOf(bytes, bytes.length * 2);
+                }
+            }
+            return ByteBuffer.wrap(bytes, 0, length);
+        } catch (IOException | IllegalArgumentException ignore) {
+            return ByteBuffer.allocate(0);
         }
     }
 
@@ -95,21 +141,32 @@ public final class BitStream {
     }
 
     public long read(long offset, long bits) {
-        final long l = read(offset);
+        final long word = offset >>> WORD_SHIFT;
+        final long shift = offset & WORD_MASK;
+        long value = readAlignedWord(word) >>> shift;
+        if (shift != 0 && shift + bits > Long.SIZE) {
+            // the field straddles two words
+            value |= readAlignedWord(word + 1) << (Long.SIZE - shift);
+        }
         if (bits < Long.SIZE) {
             // shifting 1L << 64 would cause an overflow
-            return l & ((1L << bits) - 1L);
+            return value & ((1L << bits) - 1L);
         } else {
-            return l;
+            return value;
         }
     }
 
     public long readVBR(long offset, long width) {
-        long value = 0;
-        long shift = 0;
-        long datum;
-        long o = offset;
-        long dmask = 1 << (width - 1);
+        final long dmask = 1L << (width - 1);
+        long datum = read(offset, width);
+        if ((datum & dmask) == 0) {
+            // most values fit into a single chunk
+            return datum;
+        }
+
+        long value = datum & (dmask - 1);
+        long shift = width - 1;
+        long o = offset + width;
         do {
             datum = read(o, width);
             o += width;
@@ -119,25 +176,28 @@ public final class BitStream {
         return value;
     }
 
+    void digest(MessageDigest digest) {
+        digest.update(bitstream.duplicate());
+    }
+
     public long size() {
-        return bitstream.length * Byte.SIZE;
+        return byteSize * Byte.SIZE;
     }
 
-    private long read(long offset) {
-        long div = offset / Byte.SIZE;
-        long value = 0;
-        for (int i = 0; i < Byte.SIZE; i++) {
-            value += readAlignedByte(div + i) << (i * Byte.SIZE);
-        }
-        long mod = offset & (Byte.SIZE - 1L);
-        if (mod != 0) {
-            value >>>= mod;
-            value += readAlignedByte(div + Byte.SIZE) << (Long.SIZE - mod);
+    private long readAlignedWord(long word) {
+        final long byteOffset = word * Long.BYTES;
+        if (byteOffset + Long.BYTES <= byteSize) {
+            return bitstream.getLong((int) byteOffset);
+        } else {
+            return readPartialWord(byteOffset);
         }
-        return value;
     }
 
-    private long readAlignedByte(long i) {
-        return i < bitstream.length ? bitstream[(int) i] & BYTE_MASK : 0;
+    private long readPartialWord(long byteOffset) {
+        long value = 0;
+        for (int i = 0; i < Long.BYTES && byteOffset + i < byteSize; i++) {
+            value |= (bitstream.get((int) (byteOffset + i)) & BYTE_MASK) << (i * Byte.SIZE);
+        }
+        return value;
     }
 }
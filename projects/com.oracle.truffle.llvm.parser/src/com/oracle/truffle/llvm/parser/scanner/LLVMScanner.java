@@ -57,7 +57,7 @@ public final class LLVMScanner {
 
     private final BitStream bitstream;
 
-    private final Map<Block, List<List<AbbreviatedRecord>>> defaultAbbreviations = new HashMap<>();
+    private final Map<Block, List<List<AbbreviatedRecord>>> defaultAbbreviations;
 
     private final Deque<ScannerState> parents = new ArrayDeque<>(MAX_BLOCK_DEPTH);
 
@@ -71,18 +71,42 @@ public final class LLVMScanner {
 
     private long offset;
 
-    private LLVMScanner(BitStream bitstream, ParserListener listener) {
+    private final boolean lazyFunctions;
+
+    private LLVMScanner(BitStream bitstream, ParserListener listener, boolean lazyFunctions) {
+        this(bitstream, listener, lazyFunctions, new HashMap<>());
+    }
+
+    private LLVMScanner(BitStream bitstream, ParserListener listener, boolean lazyFunctions, Map<Block, List<List<AbbreviatedRecord>>> defaultAbbreviations) {
         this.bitstream = bitstream;
+        this.defaultAbbreviations = defaultAbbreviations;
         this.parser = listener;
         this.block = Block.ROOT;
         this.idSize = DEFAULT_ID_SIZE;
         this.offset = 0;
+        this.lazyFunctions = lazyFunctions;
     }
 
-    public static ModelModule parse(Source source) {
-        final BitStream bitstream = BitStream.create(source);
+    /**
+     * Parses the module contained in {@code source}. If {@code lazyFunctions} is set, the bodies
+     * of function blocks are skipped and handed to the listener as a {@link LazyScanner} that
+     * decodes them on demand.
+     */
+    public static ModelModule parse(Source source, boolean lazyFunctions) {
+        return parse(source, BitStream.create(source), lazyFunctions);
+    }
+
+    /**
+     * Parses the module contained in {@code bitstream}, {@code source} only identifies the module.
+     */
+    public static ModelModule parse(Source source, BitStream bitstream, boolean lazyFunctions) {
         final ModelModule model = new ModelModule();
-        final LLVMScanner scanner = new LLVMScanner(bitstream, new Module(model));
+        scan(source, bitstream, new Module(model), lazyFunctions);
+        return model;
+    }
+
+    static void scan(Source source, BitStream bitstream, ParserListener listener, boolean lazyFunctions) {
+        final LLVMScanner scanner = new LLVMScanner(bitstream, listener, lazyFunctions);
 
         final StreamInformation bcStreamInfo = StreamInformation.getStreamInformation(bitstream, scanner);
         scanner.setOffset(bcStreamInfo.getOffset());
@@ -95,8 +119,6 @@ public final class LLVMScanner {
         while (scanner.offset < bcStreamInfo.totalStreamSize()) {
             scanner.scanNext();
         }
-
-        return model;
     }
 
     private static <V> List<V> subList(List<V> original, int from) {
@@ -273,6 +295,11 @@ public final class LLVMScanner {
         if (subBlock == null) {
             offset += numWords * Integer.SIZE;
 
+        } else if (subBlock == Block.FUNCTION && lazyFunctions) {
+            final LazyScanner lazyScanner = new DeferredBlock(subBlock, offset, (int) newIdSize);
+            offset += numWords * Integer.SIZE;
+            parser.skip(subBlock, lazyScanner);
+
         } else {
             final int localAbbreviationDefinitionsOffset = defaultAbbreviations.getOrDefault(block, Collections.emptyList()).size();
             parents.push(new ScannerState(subList(abbreviationDefinitions, localAbbreviationDefinitionsOffset), block, idSize, parser));
@@ -339,6 +366,51 @@ public final class LLVMScanner {
         parser = parentState.getParser();
     }
 
+    private void scanDeferredBlock(Block deferredBlock, long blockOffset, int blockIdSize, ParserListener listener) {
+        // the sentinel state is restored when the scanner exits the deferred block
+        final int depth = parents.size();
+        parents.push(new ScannerState(Collections.emptyList(), block, idSize, parser));
+        abbreviationDefinitions.clear();
+        abbreviationDefinitions.addAll(defaultAbbreviations.getOrDefault(deferredBlock, Collections.emptyList()));
+        block = deferredBlock;
+        idSize = blockIdSize;
+        parser = listener;
+        offset = blockOffset;
+
+        while (parents.size() > depth) {
+            scanNext();
+        }
+    }
+
+    /**
+     * The position of a block that was skipped during the initial scan. The abbreviations defined
+     * in the BLOCKINFO block of the module remain available, so the block can be decoded at any
+     * later point in time. Each scan uses a scanner of its own, and the {@link BitStream} is read
+     * at absolute positions, so deferred blocks can be decoded concurrently.
+     */
+    private final class DeferredBlock implements LazyScanner {
+
+        private final Block lazyBlock;
+        private final long blockOffset;
+        private final int blockIdSize;
+
+        private DeferredBlock(Block lazyBlock, long blockOffset, int blockIdSize) {
+            this.lazyBlock = lazyBlock;
+            this.blockOffset = blockOffset;
+            this.blockIdSize = blockIdSize;
+        }
+
+        @Override
+        public void scan(ParserListener listener) {
+            final Map<Block, List<List<AbbreviatedRecord>>> abbreviations = new HashMap<>();
+            for (Map.Entry<Block, List<List<AbbreviatedRecord>>> entry : defaultAbbreviations.entrySet()) {
+                abbreviations.put(entry.getKey(), new ArrayList<>(entry.getValue()));
+            }
+            final LLVMScanner scanner = new LLVMScanner(bitstream, listener, false, abbreviations);
+            scanner.scanDeferredBlock(lazyBlock, blockOffset, blockIdSize, listener);
+        }
+    }
+
     private void passRecordToParser() {
         parser.record(recordBuffer.getId(), recordBuffer.getOps());
         recordBuffer.invalidate();
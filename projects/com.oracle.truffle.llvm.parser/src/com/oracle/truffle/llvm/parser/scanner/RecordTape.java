@@ -0,0 +1,302 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.parser.scanner;
+
+import java.util.Arrays;
+
+import com.oracle.truffle.llvm.parser.listeners.ParserListener;
+
+/**
+ * The sequence of blocks and records that the {@link LLVMScanner} passes to its listener, in a
+ * compact binary form that can be replayed without decoding the bitstream again.
+ *
+ * A block is stored as its tag, the ordinal of the {@link Block}, the length of its contents as a
+ * fixed 32-bit value and the contents themselves. A record is stored as its tag, its id, the
+ * number of operands and the operands. All other numbers are unsigned LEB128.
+ */
+final class RecordTape {
+
+    private static final byte BLOCK = 0;
+    private static final byte RECORD = 1;
+
+    private static final int INITIAL_SIZE = 1 << 16;
+
+    private byte[] data;
+    private int size;
+
+    private RecordTape(byte[] data, int size) {
+        this.data = data;
+        this.size = size;
+    }
+
+    static RecordTape create() {
+        return new RecordTape(new byte[INITIAL_SIZE], 0);
+    }
+
+    static RecordTape wrap(byte[] data) {
+        return new RecordTape(data, data.length);
+    }
+
+    byte[] getData() {
+        return data;
+    }
+
+    int getSize() {
+        return size;
+    }
+
+    /**
+     * Returns a listener that appends everything passed to it to this tape before forwarding it to
+     * {@code listener}. If {@code lazyFunctions} is set, function blocks are recorded but handed to
+     * {@code listener} as {@link LazyScanner}s that replay them from this tape.
+     */
+    ParserListener record(ParserListener listener, boolean lazyFunctions) {
+        return new Recorder(listener, lazyFunctions, -1);
+    }
+
+    /**
+     * Passes the contents of this tape to {@code listener}. If {@code lazyFunctions} is set,
+     * function blocks are handed to {@code listener} as {@link LazyScanner}s.
+     */
+    void replay(ParserListener listener, boolean lazyFunctions) {
+        replay(0, size, listener, lazyFunctions);
+    }
+
+    /**
+     * Checks that every block and record on this tape lies within its enclosing block, so that a
+     * damaged tape is detected before anything is replayed from it.
+     */
+    boolean isWellFormed() {
+        return isWellFormed(0, size);
+    }
+
+    private boolean isWellFormed(int start, int end) {
+        final int[] position = {start};
+        while (position[0] < end) {
+            final byte tag = data[position[0]++];
+            if (tag == BLOCK) {
+                if (!isLEB128(position[0], end)) {
+                    return false;
+                }
+                final long ordinal = readLEB128(position);
+                if (ordinal < 0 || ordinal >= Block.values().length || end - position[0] < Integer.BYTES) {
+                    return false;
+                }
+                final int length = readInt(position[0]);
+                final int contentStart = position[0] + Integer.BYTES;
+                if (length < 0 || length > end - contentStart || !isWellFormed(contentStart, contentStart + length)) {
+                    return false;
+                }
+                position[0] = contentStart + length;
+            } else if (tag == RECORD) {
+                if (!isLEB128(position[0], end)) {
+                    return false;
+                }
+                readLEB128(position);
+                if (!isLEB128(position[0], end)) {
+                    return false;
+                }
+                final long count = readLEB128(position);
+                // every operand takes at least one byte
+                if (count < 0 || count > end - position[0]) {
+                    return false;
+                }
+                for (long i = 0; i < count; i++) {
+                    if (!isLEB128(position[0], end)) {
+                        return false;
+                    }
+                    readLEB128(position);
+                }
+            } else {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void replay(int start, int end, ParserListener listener, boolean lazyFunctions) {
+        final int[] position = {start};
+        while (position[0] < end) {
+            final byte tag = data[position[0]++];
+            if (tag == BLOCK) {
+                final int blockStart = position[0] - 1;
+                final Block block = Block.values()[(int) readLEB128(position)];
+                final int length = readInt(position[0]);
+                final int contentStart = position[0] + Integer.BYTES;
+                position[0] = contentStart + length;
+                if (block == Block.FUNCTION && lazyFunctions) {
+                    listener.skip(block, new TapeBlock(blockStart));
+                } else {
+                    final ParserListener child = listener.enter(block);
+                    replay(contentStart, contentStart + length, child, lazyFunctions);
+                    child.exit();
+                }
+            } else if (tag == RECORD) {
+                final long id = readLEB128(position);
+                final long[] args = new long[(int) readLEB128(position)];
+                for (int i = 0; i < args.length; i++) {
+                    args[i] = readLEB128(position);
+                }
+                listener.record(id, args);
+            } else {
+                throw new IllegalStateException("Corrupt record tape at " + (position[0] - 1));
+            }
+        }
+    }
+
+    private final class TapeBlock implements LazyScanner {
+
+        private final int blockStart;
+
+        private TapeBlock(int blockStart) {
+            this.blockStart = blockStart;
+        }
+
+        @Override
+        public void scan(ParserListener listener) {
+            final int[] position = {blockStart + 1};
+            readLEB128(position);
+            final int length = readInt(position[0]);
+            final int contentStart = position[0] + Integer.BYTES;
+            replay(contentStart, contentStart + length, listener, false);
+            listener.exit();
+        }
+    }
+
+    private final class Recorder implements ParserListener {
+
+        private final ParserListener listener;
+        private final boolean lazyFunctions;
+        private final int lengthPosition;
+
+        private Recorder(ParserListener listener, boolean lazyFunctions, int lengthPosition) {
+            this.listener = listener;
+            this.lazyFunctions = lazyFunctions;
+            this.lengthPosition = lengthPosition;
+        }
+
+        @Override
+        public ParserListener enter(Block block) {
+            final int blockStart = size;
+            writeByte(BLOCK);
+            writeLEB128(block.ordinal());
+            final int childLengthPosition = size;
+            writeInt(0);
+            if (block == Block.FUNCTION && lazyFunctions) {
+                // the block is complete on the tape by the time it is replayed
+                listener.skip(block, new TapeBlock(blockStart));
+                return new Recorder(ParserListener.DEFAULT, false, childLengthPosition);
+            } else {
+                return new Recorder(listener.enter(block), lazyFunctions, childLengthPosition);
+            }
+        }
+
+        @Override
+        public void exit() {
+            patchInt(lengthPosition, size - lengthPosition - Integer.BYTES);
+            listener.exit();
+        }
+
+        @Override
+        public void record(long id, long[] args) {
+            writeByte(RECORD);
+            writeLEB128(id);
+            writeLEB128(args.length);
+            for (long arg : args) {
+                writeLEB128(arg);
+            }
+            listener.record(id, args);
+        }
+    }
+
+    private void ensureCapacity(int additional) {
+        if (size + additional > data.length) {
+            data = Arrays.copyOf(data, Math.max(data.length * 2, size + additional));
+        }
+    }
+
+    private void writeByte(byte value) {
+        ensureCapacity(1);
+        data[size++] = value;
+    }
+
+    private void writeLEB128(long value) {
+        ensureCapacity(Long.BYTES + 2);
+        long v = value;
+        while ((v & ~0x7fL) != 0) {
+            data[size++] = (byte) ((v & 0x7f) | 0x80);
+            v >>>= 7;
+        }
+        data[size++] = (byte) v;
+    }
+
+    private void writeInt(int value) {
+        ensureCapacity(Integer.BYTES);
+        patchInt(size, value);
+        size += Integer.BYTES;
+    }
+
+    private void patchInt(int position, int value) {
+        for (int i = 0; i < Integer.BYTES; i++) {
+            data[position + i] = (byte) (value >>> (i * Byte.SIZE));
+        }
+    }
+
+    private int readInt(int position) {
+        int value = 0;
+        for (int i = 0; i < Integer.BYTES; i++) {
+            value |= (data[position + i] & 0xff) << (i * Byte.SIZE);
+        }
+        return value;
+    }
+
+    private boolean isLEB128(int position, int end) {
+        // a long takes at most ten bytes
+        final int limit = Math.min(end, position + 10);
+        for (int i = position; i < limit; i++) {
+            if ((data[i] & 0x80) == 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private long readLEB128(int[] position) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = data[position[0]++];
+            value |= (b & 0x7fL) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.parser.scanner;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.zip.CRC32;
+
+import com.oracle.truffle.api.source.Source;
+import com.oracle.truffle.llvm.parser.listeners.Module;
+import com.oracle.truffle.llvm.parser.listeners.ParserListener;
+import com.oracle.truffle.llvm.parser.model.ModelModule;
+
+/**
+ * Persists the scanned contents of bitcode modules across runs. Each module is stored as a
+ * {@link RecordTape} in a file named after the SHA-256 of its bitcode, later runs replay the tape
+ * into a new model instead of decoding the bitcode again. Entries written by a different build of
+ * the scanner, and entries whose checksum or structure does not match, are ignored and replaced
+ * before anything is replayed from them.
+ */
+public final class ScannerCache {
+
+    private static final long MAGIC_WORD = 0x53554c4f4e474243L; // 'SULONGBC'
+
+    private static final int FORMAT_VERSION = 2;
+
+    private static final String FILE_SUFFIX = ".records";
+
+    // the classes whose code determines what is written to and read from an entry
+    private static final String[] VERSIONED_CLASSES = {"LLVMScanner", "LLVMScanner$DeferredBlock", "RecordTape", "RecordTape$TapeBlock", "RecordTape$Recorder", "ScannerCache",
+                    "AbbrevRecordId", "AbbreviatedRecord", "Block", "BuiltinIDs", "Primitive", "RecordBuffer", "ScannerState"};
+
+    private static final String IMPLEMENTATION_VERSION = getImplementationVersion();
+
+    private final Path directory;
+
+    public ScannerCache(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Parses the module contained in {@code bitstream} like
+     * {@link LLVMScanner#parse(Source, BitStream, boolean)}, but reuses the result of an earlier
+     * run if the same bitcode has been seen before.
+     */
+    public ModelModule parse(Source source, BitStream bitstream, boolean lazyFunctions) {
+        final ModelModule model = new ModelModule();
+        scan(source, bitstream, new Module(model), lazyFunctions);
+        return model;
+    }
+
+    /**
+     * Passes the blocks and records of the module contained in {@code bitstream} to
+     * {@code listener}, either from a cache entry or by decoding the bitstream.
+     */
+    public void scan(Source source, BitStream bitstream, ParserListener listener, boolean lazyFunctions) {
+        if (IMPLEMENTATION_VERSION == null) {
+            LLVMScanner.scan(source, bitstream, listener, lazyFunctions);
+            return;
+        }
+        final Path file = directory.resolve(hash(bitstream) + FILE_SUFFIX);
+
+        final RecordTape cached = load(file);
+        if (cached != null) {
+            cached.replay(listener, lazyFunctions);
+            return;
+        }
+
+        final RecordTape tape = RecordTape.create();
+        // the tape needs all function bodies, the listener can still materialize them lazily
+        LLVMScanner.scan(source, bitstream, tape.record(listener, lazyFunctions), false);
+        store(file, tape);
+    }
+
+    private static RecordTape load(Path file) {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readLong() != MAGIC_WORD || in.readInt() != FORMAT_VERSION || !in.readUTF().equals(IMPLEMENTATION_VERSION)) {
+                return null;
+            }
+            final int length = in.readInt();
+            final long checksum = in.readLong();
+            if (length < 0 || length > Files.size(file)) {
+                return null;
+            }
+            final byte[] data = new byte[length];
+            in.readFully(data);
+            if (in.read() != -1 || checksum(data, length) != checksum) {
+                return null;
+            }
+            final RecordTape tape = RecordTape.wrap(data);
+            return tape.isWellFormed() ? tape : null;
+        } catch (IOException ignore) {
+            // a damaged entry is simply replaced
+            return null;
+        }
+    }
+
+    private void store(Path file, RecordTape tape) {
+        try {
+            Files.createDirectories(directory);
+            // other processes either see the complete entry or none at all
+            final Path tmp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                out.writeLong(MAGIC_WORD);
+                out.writeInt(FORMAT_VERSION);
+                out.writeUTF(IMPLEMENTATION_VERSION);
+                out.writeInt(tape.getSize());
+                out.writeLong(checksum(tape.getData(), tape.getSize()));
+                out.write(tape.getData(), 0, tape.getSize());
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ignore) {
+            // the cache is an optimization only, the module was parsed regardless
+        }
+    }
+
+    private static long checksum(byte[] data, int length) {
+        final CRC32 crc = new CRC32();
+        crc.update(data, 0, length);
+        return crc.getValue();
+    }
+
+    private static String hash(BitStream bitstream) {
+        final MessageDigest digest = newDigest();
+        bitstream.digest(digest);
+        return toHex(digest.digest());
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        final StringBuilder builder = new StringBuilder();
+        for (byte b : bytes) {
+            builder.append(String.format("%02x", b));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Identifies the build of the scanner and of the tape format by the bytes of the classes that
+     * write and read the entries. Class directories keep their size and modification time when
+     * the classes inside them are rebuilt, so the location of the code is not enough. Returns
+     * {@code null} if the class files cannot be read, in which case nothing is cached.
+     */
+    private static String getImplementationVersion() {
+        final MessageDigest digest = newDigest();
+        final byte[] buffer = new byte[8192];
+        for (String name : VERSIONED_CLASSES) {
+            try (InputStream in = ScannerCache.class.getResourceAsStream(name + ".class")) {
+                if (in == null) {
+                    return null;
+                }
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    digest.update(buffer, 0, read);
+                }
+            } catch (IOException e) {
+                return null;
+            }
+        }
+        return FORMAT_VERSION + ":" + toHex(digest.digest());
+    }
+}
@@ -29,16 +29,19 @@
  */
 package com.oracle.truffle.llvm.runtime;
 
+import java.io.PrintStream;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Deque;
 import java.util.HashMap;
-import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
@@ -47,7 +50,7 @@ import com.oracle.truffle.api.RootCallTarget;
 import com.oracle.truffle.api.TruffleLanguage.Env;
 import com.oracle.truffle.api.interop.TruffleObject;
 import com.oracle.truffle.api.source.Source;
-import com.oracle.truffle.llvm.runtime.memory.LLVMMemory;
+import com.oracle.truffle.llvm.runtime.memory.LLVMMemoryAllocator;
 import com.oracle.truffle.llvm.runtime.memory.LLVMNativeFunctions;
 import com.oracle.truffle.llvm.runtime.memory.LLVMThreadingStack;
 import com.oracle.truffle.llvm.runtime.options.SulongEngineOption;
@@ -65,6 +68,8 @@ public final class LLVMContext {
     private final NativeLookup nativeLookup;
     private final LLVMNativeFunctions nativeFunctions;
     private final LLVMThreadingStack threadingStack;
+    private final LLVMMemoryAllocator memoryAllocator;
+    private final String allocatorStatistics;
     private Object[] mainArguments;
     private Source mainSourceFile;
     private boolean bcLibrariesLoaded;
@@ -72,14 +77,17 @@ public final class LLVMContext {
     private final LinkedList<LLVMAddress> caughtExceptionStack = new LinkedList<>();
     private final LinkedList<DestructorStackElement> destructorStack = new LinkedList<>();
     private final HashMap<String, Integer> nativeCallStatistics;
-    private final Object handlesLock;
-    private final IdentityHashMap<TruffleObject, LLVMAddress> toNative;
-    private final HashMap<LLVMAddress, TruffleObject> toManaged;
+    private final LongAdder boundSymbolCacheHits = new LongAdder();
+    private final LongAdder boundSymbolCacheMisses = new LongAdder();
+    private final LLVMNativeCallProfiler nativeCallProfiler;
+    private final LLVMHandleTable handles;
+    private ForkJoinPool parserPool;
 
     private final Env env;
     private final LLVMScope globalScope;
     private final LLVMFunctionIndexRegistry functionIndexRegistry;
     private final LLVMTypeRegistry typeRegistry;
+    private final Map<Object, RootCallTarget> inlineAssemblies = new ConcurrentHashMap<>();
 
     // #define SIG_DFL ((__sighandler_t) 0) /* Default action. */
     private final LLVMFunction sigDfl;
@@ -108,25 +116,6 @@ public final class LLVMContext {
         }
     }
 
-    private static final class LLVMFunctionIndexRegistry {
-        private int currentFunctionIndex = 0;
-        private final List<LLVMFunctionDescriptor> functionDescriptors = new ArrayList<>();
-
-        LLVMFunctionDescriptor getDescriptor(LLVMFunctionHandle handle) {
-            return functionDescriptors.get(handle.getSulongFunctionIndex());
-        }
-
-        LLVMFunctionDescriptor create(FunctionFactory factory) {
-            LLVMFunctionDescriptor function = factory.create(currentFunctionIndex++);
-            functionDescriptors.add(function);
-
-            assert LLVMFunction.getSulongFunctionIndex(function.getFunctionPointer()) == currentFunctionIndex - 1;
-            assert functionDescriptors.get(currentFunctionIndex - 1) == function;
-            return function;
-        }
-
-    }
-
     private static final class LLVMTypeRegistry {
         private final Map<String, Object> types = new HashMap<>();
 
@@ -163,14 +152,15 @@ public final class LLVMContext {
         this.env = env;
         this.nativeLookup = env.getOptions().get(SulongEngineOption.DISABLE_NFI) ? null : new NativeLookup(env);
         this.nativeCallStatistics = SulongEngineOption.isTrue(env.getOptions().get(SulongEngineOption.NATIVE_CALL_STATS)) ? new HashMap<>() : null;
+        this.nativeCallProfiler = SulongEngineOption.isTrue(env.getOptions().get(SulongEngineOption.NATIVE_CALL_PROFILE)) ? new LLVMNativeCallProfiler() : null;
         this.threadingStack = new LLVMThreadingStack(env.getOptions().get(SulongEngineOption.STACK_SIZE_KB));
+        this.allocatorStatistics = env.getOptions().get(SulongEngineOption.ALLOCATOR_STATS);
+        this.memoryAllocator = LLVMMemoryAllocator.create(env.getOptions().get(SulongEngineOption.ALLOCATOR), SulongEngineOption.isTrue(allocatorStatistics));
         this.nativeFunctions = new LLVMNativeFunctionsImpl(nativeLookup);
         this.sigDfl = LLVMFunctionHandle.createHandle(0);
         this.sigIgn = LLVMFunctionHandle.createHandle(1);
         this.sigErr = LLVMFunctionHandle.createHandle((-1) & LLVMFunction.LOWER_MASK);
-        this.toNative = new IdentityHashMap<>();
-        this.toManaged = new HashMap<>();
-        this.handlesLock = new Object();
+        this.handles = new LLVMHandleTable();
         this.functionIndexRegistry = new LLVMFunctionIndexRegistry();
         this.typeRegistry = new LLVMTypeRegistry();
         this.globalScope = LLVMScope.createGlobalScope(this);
@@ -202,14 +192,31 @@ public final class LLVMContext {
         return typeRegistry.lookupOrCreate(type, generator);
     }
 
+    /**
+     * Returns the call target of the inline assembly snippet identified by {@code key}. The
+     * generator is only used for the first call site of each snippet, concurrent parsers may both
+     * create the call target but all call sites get the same one.
+     */
     @TruffleBoundary
-    public synchronized LLVMFunctionDescriptor getFunctionDescriptor(LLVMFunctionHandle handle) {
+    public RootCallTarget lookupOrCreateInlineAssembly(Object key, Supplier<RootCallTarget> generator) {
+        RootCallTarget cached = inlineAssemblies.get(key);
+        if (cached == null) {
+            RootCallTarget created = generator.get();
+            cached = inlineAssemblies.putIfAbsent(key, created);
+            if (cached == null) {
+                return created;
+            }
+        }
+        return cached;
+    }
+
+    public LLVMFunctionDescriptor getFunctionDescriptor(LLVMFunctionHandle handle) {
         assert handle.isSulong();
         return functionIndexRegistry.getDescriptor(handle);
     }
 
     @TruffleBoundary
-    public synchronized LLVMFunctionDescriptor createFunctionDescriptor(FunctionFactory factory) {
+    public LLVMFunctionDescriptor createFunctionDescriptor(FunctionFactory factory) {
         return functionIndexRegistry.create(factory);
     }
 
@@ -235,41 +242,53 @@ public final class LLVMContext {
 
     @TruffleBoundary
     public TruffleObject getManagedObjectForHandle(LLVMAddress address) {
-        synchronized (handlesLock) {
-            final TruffleObject object = toManaged.get(address);
-
-            if (object == null) {
-                throw new UnsupportedOperationException("Cannot resolve native handle: " + address);
-            }
+        final TruffleObject object = handles.getObject(address);
 
-            return object;
+        if (object == null) {
+            throw new UnsupportedOperationException("Cannot resolve native handle: " + address);
         }
+
+        return object;
     }
 
     @TruffleBoundary
     public void releaseHandle(LLVMAddress address) {
-        synchronized (handlesLock) {
-            final TruffleObject object = toManaged.get(address);
-
-            if (object == null) {
-                throw new UnsupportedOperationException("Cannot resolve native handle: " + address);
-            }
+        final TruffleObject object = handles.release(address);
 
-            toManaged.remove(address);
-            toNative.remove(object);
-            LLVMMemory.free(address);
+        if (object == null) {
+            throw new UnsupportedOperationException("Cannot resolve native handle: " + address);
         }
     }
 
     @TruffleBoundary
     public LLVMAddress getHandleForManagedObject(TruffleObject object) {
-        synchronized (handlesLock) {
-            return toNative.computeIfAbsent(object, (k) -> {
-                LLVMAddress allocatedMemory = LLVMMemory.allocateMemory(Long.BYTES);
-                LLVMMemory.putI64(allocatedMemory, 0xdeadbeef);
-                toManaged.put(allocatedMemory, object);
-                return allocatedMemory;
-            });
+        return handles.getHandle(object);
+    }
+
+    public void freeHandles() {
+        handles.dispose();
+    }
+
+    public int getParserThreads() {
+        int threads = env.getOptions().get(SulongEngineOption.PARSER_THREADS);
+        return threads <= 0 ? Runtime.getRuntime().availableProcessors() : threads;
+    }
+
+    /**
+     * Returns the pool that converts the functions of parsed modules in parallel. It is created
+     * when it is first needed and shared by all modules of this context.
+     */
+    public synchronized ForkJoinPool getParserPool() {
+        if (parserPool == null) {
+            parserPool = new ForkJoinPool(getParserThreads());
+        }
+        return parserPool;
+    }
+
+    public synchronized void shutdownParserPool() {
+        if (parserPool != null) {
+            parserPool.shutdown();
+            parserPool = null;
         }
     }
 
@@ -286,19 +305,52 @@ public final class LLVMContext {
         }
     }
 
+    @TruffleBoundary
+    public void registerBoundSymbolLookup(boolean hit) {
+        if (nativeCallStatistics != null) {
+            if (hit) {
+                boundSymbolCacheHits.increment();
+            } else {
+                boundSymbolCacheMisses.increment();
+            }
+        }
+    }
+
     public void printNativeCallStatistic() {
         if (nativeCallStatistics != null) {
+            PrintStream out = SulongEngineOption.getStream(env.getOptions().get(SulongEngineOption.NATIVE_CALL_STATS));
+            long hits = boundSymbolCacheHits.sum();
+            long misses = boundSymbolCacheMisses.sum();
+            if (hits + misses > 0) {
+                out.println(String.format("Bound symbol cache \t hits: %d \t misses: %d \t hit rate: %.2f%%", hits, misses, 100.0 * hits / (hits + misses)));
+            }
             LinkedHashMap<String, Integer> sorted = nativeCallStatistics.entrySet().stream().sorted(Map.Entry.comparingByValue()).collect(Collectors.toMap(
                             Map.Entry::getKey,
                             Map.Entry::getValue,
                             (e1, e2) -> e1,
                             LinkedHashMap::new));
             for (String s : sorted.keySet()) {
-                System.err.println(String.format("Function %s \t count: %d", s, sorted.get(s)));
+                out.println(String.format("Function %s \t count: %d", s, sorted.get(s)));
             }
         }
     }
 
+    public LLVMNativeCallProfiler getNativeCallProfiler() {
+        return nativeCallProfiler;
+    }
+
+    public void printNativeCallProfile() {
+        if (nativeCallProfiler != null) {
+            nativeCallProfiler.printJSON(SulongEngineOption.getStream(env.getOptions().get(SulongEngineOption.NATIVE_CALL_PROFILE)));
+        }
+    }
+
+    public void printAllocatorStatistic() {
+        if (SulongEngineOption.isTrue(allocatorStatistics)) {
+            memoryAllocator.printStatistics(SulongEngineOption.getStream(allocatorStatistics));
+        }
+    }
+
     public LLVMNativeFunctions getNativeFunctions() {
         return nativeFunctions;
     }
@@ -319,6 +371,10 @@ public final class LLVMContext {
         return threadingStack;
     }
 
+    public LLVMMemoryAllocator getMemoryAllocator() {
+        return memoryAllocator;
+    }
+
     public void setMainArguments(Object[] mainArguments) {
         this.mainArguments = mainArguments;
     }
@@ -31,6 +31,7 @@ package com.oracle.truffle.llvm.runtime;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.oracle.truffle.api.Assumption;
 import com.oracle.truffle.api.CompilerAsserts;
@@ -186,10 +187,12 @@ public final class LLVMFunctionDescriptor implements LLVMFunction, TruffleObject
 
     static final class NativeFunction extends Function {
         private final TruffleObject nativeFunction;
+        private final ConcurrentHashMap<String, TruffleObject> boundFunctions;
 
         NativeFunction(TruffleObject nativeFunction) {
             super(false);
             this.nativeFunction = nativeFunction;
+            this.boundFunctions = new ConcurrentHashMap<>();
         }
     }
 
@@ -311,6 +314,29 @@ public final class LLVMFunctionDescriptor implements LLVMFunction, TruffleObject
         return ((NativeFunction) getFunction()).nativeFunction;
     }
 
+    /**
+     * Gets the native function bound to {@code signature}, or {@code null} if it has not been bound
+     * to that signature yet.
+     */
+    @TruffleBoundary
+    public TruffleObject getBoundNativeFunction(String signature) {
+        getFunction().resolve(this);
+        assert getFunction() instanceof NativeFunction;
+        return ((NativeFunction) getFunction()).boundFunctions.get(signature);
+    }
+
+    /**
+     * Remembers the native function bound to {@code signature}. If another thread bound the function
+     * to the same signature in the meantime, its result is returned instead.
+     */
+    @TruffleBoundary
+    public TruffleObject cacheBoundNativeFunction(String signature, TruffleObject boundFunction) {
+        getFunction().resolve(this);
+        assert getFunction() instanceof NativeFunction;
+        TruffleObject existing = ((NativeFunction) getFunction()).boundFunctions.putIfAbsent(signature, boundFunction);
+        return existing == null ? boundFunction : existing;
+    }
+
     public String getName() {
         return functionName;
     }
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.runtime;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import com.oracle.truffle.llvm.runtime.LLVMContext.FunctionFactory;
+
+/**
+ * Append-only table of all function descriptors, indexed by their Sulong function index. The
+ * table is organized in chunks that never move once allocated. Descriptors are published with
+ * volatile writes, so that lookups need neither a lock nor a boundary.
+ */
+public final class LLVMFunctionIndexRegistry {
+    private static final int CHUNK_BITS = 10;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private int currentFunctionIndex = 0;
+    private volatile FunctionDescriptorChunk[] chunks = new FunctionDescriptorChunk[0];
+
+    private static final class FunctionDescriptorChunk extends AtomicReferenceArray<LLVMFunctionDescriptor> {
+        private static final long serialVersionUID = 1L;
+
+        FunctionDescriptorChunk() {
+            super(CHUNK_SIZE);
+        }
+    }
+
+    public LLVMFunctionDescriptor getDescriptor(LLVMFunctionHandle handle) {
+        int index = handle.getSulongFunctionIndex();
+        return chunks[index >>> CHUNK_BITS].get(index & CHUNK_MASK);
+    }
+
+    public synchronized LLVMFunctionDescriptor create(FunctionFactory factory) {
+        int index = currentFunctionIndex++;
+        LLVMFunctionDescriptor function = factory.create(index);
+        FunctionDescriptorChunk[] currentChunks = chunks;
+        int chunk = index >>> CHUNK_BITS;
+        if (chunk == currentChunks.length) {
+            currentChunks = Arrays.copyOf(currentChunks, chunk + 1);
+            currentChunks[chunk] = new FunctionDescriptorChunk();
+            chunks = currentChunks;
+        }
+        currentChunks[chunk].set(index & CHUNK_MASK, function);
+
+        assert LLVMFunction.getSulongFunctionIndex(function.getFunctionPointer()) == index;
+        assert getDescriptor(LLVMFunctionHandle.createHandle(function.getFunctionPointer())) == function;
+        return function;
+    }
+
+}
@@ -0,0 +1,261 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.runtime;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import com.oracle.truffle.api.interop.TruffleObject;
+import com.oracle.truffle.llvm.runtime.memory.LLVMMemory;
+
+/**
+ * Native handles for managed objects. The table is a directory of fixed-size chunks, and each
+ * chunk reserves a segment of native memory when it is added. A handle is an address in the
+ * segment of its chunk, and the offset in that segment is the position of the object in the
+ * chunk. The directory is replaced as a whole when it grows, so looking up the object of a handle
+ * is lock-free.
+ *
+ * Handles are created and released under the lock of one of several stripes, chosen by the
+ * identity hash code of the object. Each stripe recycles the indices of the handles released
+ * through it, surplus indices are handed over to the other stripes in batches.
+ */
+public final class LLVMHandleTable {
+
+    private static final int STRIPES = 16;
+    private static final int CHUNK_BITS = 12;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final long SEGMENT_SIZE = (long) CHUNK_SIZE * Long.BYTES;
+    private static final int BATCH_SIZE = 256;
+
+    private static final class Stripe {
+        private final IdentityHashMap<TruffleObject, Integer> indices = new IdentityHashMap<>();
+        private final int[] freeIndices = new int[2 * BATCH_SIZE];
+        private int freeCount;
+    }
+
+    private static final class HandleChunk extends AtomicReferenceArray<TruffleObject> {
+        private static final long serialVersionUID = 1L;
+
+        // pages of the segment that are never touched are never committed
+        private final long base = LLVMMemory.allocateMemory(SEGMENT_SIZE).getVal();
+
+        HandleChunk() {
+            super(CHUNK_SIZE);
+        }
+    }
+
+    private static final class Directory {
+        private final HandleChunk[] chunks;
+        // the segment bases in ascending order, and the number of the chunk of each segment
+        private final long[] bases;
+        private final int[] chunkNumbers;
+
+        Directory(HandleChunk[] chunks, long[] bases, int[] chunkNumbers) {
+            this.chunks = chunks;
+            this.bases = bases;
+            this.chunkNumbers = chunkNumbers;
+        }
+
+        /**
+         * Returns the index of the handle at {@code address}, or -1 if it is not a handle.
+         */
+        int toIndex(long address) {
+            int low = 0;
+            int high = bases.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                long offset = address - bases[mid];
+                if (Long.compareUnsigned(bases[mid], address) > 0) {
+                    high = mid - 1;
+                } else if (Long.compareUnsigned(offset, SEGMENT_SIZE) >= 0) {
+                    low = mid + 1;
+                } else if ((offset & (Long.BYTES - 1)) != 0) {
+                    return -1;
+                } else {
+                    return (chunkNumbers[mid] << CHUNK_BITS) | (int) (offset / Long.BYTES);
+                }
+            }
+            return -1;
+        }
+
+        Directory add(HandleChunk chunk) {
+            HandleChunk[] newChunks = Arrays.copyOf(chunks, chunks.length + 1);
+            newChunks[chunks.length] = chunk;
+            int position = 0;
+            while (position < bases.length && Long.compareUnsigned(bases[position], chunk.base) < 0) {
+                position++;
+            }
+            long[] newBases = new long[bases.length + 1];
+            int[] newChunkNumbers = new int[bases.length + 1];
+            System.arraycopy(bases, 0, newBases, 0, position);
+            System.arraycopy(chunkNumbers, 0, newChunkNumbers, 0, position);
+            newBases[position] = chunk.base;
+            newChunkNumbers[position] = chunks.length;
+            System.arraycopy(bases, position, newBases, position + 1, bases.length - position);
+            System.arraycopy(chunkNumbers, position, newChunkNumbers, position + 1, bases.length - position);
+            return new Directory(newChunks, newBases, newChunkNumbers);
+        }
+    }
+
+    private final Stripe[] stripes;
+    private final AtomicInteger nextIndex = new AtomicInteger();
+    private final ConcurrentLinkedQueue<int[]> releasedBatches = new ConcurrentLinkedQueue<>();
+
+    private volatile Directory directory = new Directory(new HandleChunk[0], new long[0], new int[0]);
+
+    public LLVMHandleTable() {
+        this.stripes = new Stripe[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    public LLVMAddress getHandle(TruffleObject object) {
+        Stripe stripe = getStripe(object);
+        int index;
+        HandleChunk chunk;
+        synchronized (stripe) {
+            Integer existing = stripe.indices.get(object);
+            if (existing != null) {
+                return toAddress(directory.chunks[existing >>> CHUNK_BITS], existing);
+            }
+            index = allocateIndex(stripe);
+            chunk = getChunk(index);
+            chunk.set(index & CHUNK_MASK, object);
+            stripe.indices.put(object, index);
+        }
+        return toAddress(chunk, index);
+    }
+
+    /**
+     * Gets the object of a handle, or {@code null} if {@code address} is not a handle.
+     */
+    public TruffleObject getObject(LLVMAddress address) {
+        Directory currentDirectory = directory;
+        int index = currentDirectory.toIndex(address.getVal());
+        if (index < 0) {
+            return null;
+        }
+        return currentDirectory.chunks[index >>> CHUNK_BITS].get(index & CHUNK_MASK);
+    }
+
+    /**
+     * Releases a handle, and returns its object or {@code null} if {@code address} is not a handle.
+     */
+    public TruffleObject release(LLVMAddress address) {
+        Directory currentDirectory = directory;
+        int index = currentDirectory.toIndex(address.getVal());
+        if (index < 0) {
+            return null;
+        }
+        HandleChunk chunk = currentDirectory.chunks[index >>> CHUNK_BITS];
+        TruffleObject object = chunk.get(index & CHUNK_MASK);
+        if (object == null) {
+            return null;
+        }
+        Stripe stripe = getStripe(object);
+        synchronized (stripe) {
+            if (!stripe.indices.remove(object, index)) {
+                // released concurrently
+                return null;
+            }
+            chunk.set(index & CHUNK_MASK, null);
+            releaseIndex(stripe, index);
+        }
+        return object;
+    }
+
+    /**
+     * Gives the native segments back. No handle must be used afterwards.
+     */
+    public synchronized void dispose() {
+        for (HandleChunk chunk : directory.chunks) {
+            LLVMMemory.free(chunk.base);
+        }
+        directory = new Directory(new HandleChunk[0], new long[0], new int[0]);
+    }
+
+    private Stripe getStripe(TruffleObject object) {
+        return stripes[System.identityHashCode(object) & (STRIPES - 1)];
+    }
+
+    private int allocateIndex(Stripe stripe) {
+        if (stripe.freeCount == 0) {
+            int[] batch = releasedBatches.poll();
+            if (batch != null) {
+                System.arraycopy(batch, 0, stripe.freeIndices, 0, batch.length);
+                stripe.freeCount = batch.length;
+            }
+        }
+        if (stripe.freeCount > 0) {
+            return stripe.freeIndices[--stripe.freeCount];
+        }
+        int index = nextIndex.getAndIncrement();
+        if (index < 0) {
+            nextIndex.set(Integer.MIN_VALUE);
+            throw new IllegalStateException("Cannot create more than " + Integer.MAX_VALUE + " native handles.");
+        }
+        return index;
+    }
+
+    private void releaseIndex(Stripe stripe, int index) {
+        if (stripe.freeCount == stripe.freeIndices.length) {
+            stripe.freeCount -= BATCH_SIZE;
+            releasedBatches.add(Arrays.copyOfRange(stripe.freeIndices, stripe.freeCount, stripe.freeCount + BATCH_SIZE));
+        }
+        stripe.freeIndices[stripe.freeCount++] = index;
+    }
+
+    private HandleChunk getChunk(int index) {
+        HandleChunk[] currentChunks = directory.chunks;
+        int chunk = index >>> CHUNK_BITS;
+        if (chunk < currentChunks.length) {
+            return currentChunks[chunk];
+        }
+        return addChunks(chunk);
+    }
+
+    private synchronized HandleChunk addChunks(int chunk) {
+        Directory currentDirectory = directory;
+        while (chunk >= currentDirectory.chunks.length) {
+            currentDirectory = currentDirectory.add(new HandleChunk());
+        }
+        directory = currentDirectory;
+        return currentDirectory.chunks[chunk];
+    }
+
+    private static LLVMAddress toAddress(HandleChunk chunk, int index) {
+        return LLVMAddress.fromLong(chunk.base + (long) (index & CHUNK_MASK) * Long.BYTES);
+    }
+}
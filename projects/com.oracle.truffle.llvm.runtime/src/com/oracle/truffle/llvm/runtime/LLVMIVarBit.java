@@ -38,29 +38,71 @@ import java.util.BitSet;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.CompilerDirectives.ValueType;
 
+/**
+ * An integer of arbitrary bit width. Values of up to {@link #MAX_WORD_BITS} bits, e.g.
+ * {@code i128}, are kept in two longs, zero extended above the bit width, and all operations on them
+ * are done on these words. Wider values are kept as big-endian bytes and use {@link BigInteger}.
+ */
 // see https://bugs.chromium.org/p/nativeclient/issues/detail?id=3360 for use cases where variable ints arise
 @ValueType
 public final class LLVMIVarBit {
 
+    private static final int MAX_WORD_BITS = 2 * Long.SIZE;
+    private static final long BYTE_MASK = 0xffL;
+    private static final long INT_MASK = 0xffffffffL;
+
     private final int bits;
 
+    // the value of types with at most MAX_WORD_BITS bits, arr is null for them
+    private final long lo;
+    private final long hi;
+
     private final byte[] arr;
 
     private LLVMIVarBit() {
         this.bits = 0;
+        this.lo = 0;
+        this.hi = 0;
+        this.arr = null;
+    }
+
+    private LLVMIVarBit(int bits, long lo, long hi) {
+        assert bits <= MAX_WORD_BITS;
+        this.bits = bits;
+        this.lo = lo & loMask(bits);
+        this.hi = hi & hiMask(bits);
         this.arr = null;
     }
 
     private LLVMIVarBit(int bits, byte[] arr) {
         this.bits = bits;
-        // TODO: what about sign extension?
-        this.arr = new byte[getByteSize()];
-        if (getByteSize() >= arr.length) {
-            System.arraycopy(arr, 0, this.arr, getByteSize() - arr.length, arr.length);
+        if (bits <= MAX_WORD_BITS) {
+            long newLo = 0;
+            long newHi = 0;
+            int count = Math.min(arr.length, getByteSize());
+            for (int i = 0; i < count; i++) {
+                long b = arr[arr.length - 1 - i] & BYTE_MASK;
+                if (i < Long.BYTES) {
+                    newLo |= b << (i * Byte.SIZE);
+                } else {
+                    newHi |= b << ((i - Long.BYTES) * Byte.SIZE);
+                }
+            }
+            this.lo = newLo & loMask(bits);
+            this.hi = newHi & hiMask(bits);
+            this.arr = null;
         } else {
-            System.arraycopy(arr, arr.length - getByteSize(), this.arr, 0, this.arr.length);
+            this.lo = 0;
+            this.hi = 0;
+            // TODO: what about sign extension?
+            this.arr = new byte[getByteSize()];
+            if (getByteSize() >= arr.length) {
+                System.arraycopy(arr, 0, this.arr, getByteSize() - arr.length, arr.length);
+            } else {
+                System.arraycopy(arr, arr.length - getByteSize(), this.arr, 0, this.arr.length);
+            }
+            assert this.arr.length == getByteSize();
         }
-        assert this.arr.length == getByteSize();
     }
 
     public static LLVMIVarBit create(int bitWidth, byte[] loadedBytes) {
@@ -72,11 +114,11 @@ public final class LLVMIVarBit {
     }
 
     public static LLVMIVarBit createZeroExt(int bits, int from) {
-        return create(bits, ByteBuffer.allocate(Integer.BYTES).putInt(from).array());
+        return fromInt(bits, from);
     }
 
     public static LLVMIVarBit createZeroExt(int bits, long from) {
-        return create(bits, ByteBuffer.allocate(Long.BYTES).putLong(from).array());
+        return fromLong(bits, from);
     }
 
     public static LLVMIVarBit fromBigInteger(int bits, BigInteger from) {
@@ -84,19 +126,70 @@ public final class LLVMIVarBit {
     }
 
     public static LLVMIVarBit fromByte(int bits, byte from) {
-        return new LLVMIVarBit(bits, ByteBuffer.allocate(Byte.BYTES).put(from).array());
+        return fromLong(bits, from & BYTE_MASK, Byte.BYTES);
     }
 
     public static LLVMIVarBit fromShort(int bits, short from) {
-        return new LLVMIVarBit(bits, ByteBuffer.allocate(Short.BYTES).putShort(from).array());
+        return fromLong(bits, from & 0xffffL, Short.BYTES);
     }
 
     public static LLVMIVarBit fromInt(int bits, int from) {
-        return new LLVMIVarBit(bits, ByteBuffer.allocate(Integer.BYTES).putInt(from).array());
+        return fromLong(bits, from & INT_MASK, Integer.BYTES);
     }
 
     public static LLVMIVarBit fromLong(int bits, long from) {
-        return create(bits, ByteBuffer.allocate(Long.BYTES).putLong(from).array());
+        return fromLong(bits, from, Long.BYTES);
+    }
+
+    private static LLVMIVarBit fromLong(int bits, long from, int bytes) {
+        if (bits <= MAX_WORD_BITS) {
+            return new LLVMIVarBit(bits, from, 0);
+        } else {
+            return createFromLong(bits, from, bytes);
+        }
+    }
+
+    @TruffleBoundary
+    private static LLVMIVarBit createFromLong(int bits, long from, int bytes) {
+        ByteBuffer bb = ByteBuffer.allocate(Long.BYTES).putLong(from);
+        return new LLVMIVarBit(bits, Arrays.copyOfRange(bb.array(), Long.BYTES - bytes, Long.BYTES));
+    }
+
+    private static long loMask(int bits) {
+        return bits >= Long.SIZE ? -1L : (1L << bits) - 1;
+    }
+
+    private static long hiMask(int bits) {
+        if (bits <= Long.SIZE) {
+            return 0;
+        }
+        return bits >= MAX_WORD_BITS ? -1L : (1L << (bits - Long.SIZE)) - 1;
+    }
+
+    private boolean isWide() {
+        return bits > MAX_WORD_BITS;
+    }
+
+    /**
+     * The low word of the value sign extended from the bit width.
+     */
+    private long signedLo() {
+        if (bits >= Long.SIZE) {
+            return lo;
+        }
+        int shift = Long.SIZE - bits;
+        return (lo << shift) >> shift;
+    }
+
+    /**
+     * The high word of the value sign extended from the bit width.
+     */
+    private long signedHi() {
+        if (bits <= Long.SIZE) {
+            return signedLo() >> (Long.SIZE - 1);
+        }
+        int shift = MAX_WORD_BITS - bits;
+        return (hi << shift) >> shift;
     }
 
     private int getByteSize() {
@@ -187,83 +280,266 @@ public final class LLVMIVarBit {
         return ((selectedByte >> selectedBitPos) & 1) == 1;
     }
 
-    @TruffleBoundary
     public byte getByteValue() {
-        return getByteBuffer(Byte.BYTES, true).get();
+        if (isWide()) {
+            return getByteBuffer(Byte.BYTES, true).get();
+        }
+        return (byte) signedLo();
     }
 
-    @TruffleBoundary
     public short getShortValue() {
-        return getByteBuffer(Short.BYTES, true).getShort();
+        if (isWide()) {
+            return getByteBuffer(Short.BYTES, true).getShort();
+        }
+        return (short) signedLo();
     }
 
-    @TruffleBoundary
     public int getIntValue() {
-        ByteBuffer byteBuffer = getByteBuffer(Integer.BYTES, true);
-        return byteBuffer.getInt();
+        if (isWide()) {
+            return getByteBuffer(Integer.BYTES, true).getInt();
+        }
+        return (int) signedLo();
     }
 
-    @TruffleBoundary
     public int getZeroExtendedIntValue() {
-        return getByteBuffer(Integer.BYTES, false).getInt();
+        if (isWide()) {
+            return getByteBuffer(Integer.BYTES, false).getInt();
+        }
+        return (int) lo;
     }
 
-    @TruffleBoundary
     public long getLongValue() {
-        return getByteBuffer(Long.BYTES, true).getLong();
+        if (isWide()) {
+            return getByteBuffer(Long.BYTES, true).getLong();
+        }
+        return signedLo();
     }
 
-    @TruffleBoundary
     public long getZeroExtendedLongValue() {
-        return getByteBuffer(Long.BYTES, false).getLong();
+        if (isWide()) {
+            return getByteBuffer(Long.BYTES, false).getLong();
+        }
+        return lo;
     }
 
     public byte[] getBytes() {
-        assert arr.length == getByteSize() : arr.length + " " + getByteSize();
-        return arr;
+        if (isWide()) {
+            assert arr.length == getByteSize() : arr.length + " " + getByteSize();
+            return arr;
+        }
+        return toBytes(lo, hi, getByteSize());
+    }
+
+    private static byte[] toBytes(long lo, long hi, int byteSize) {
+        byte[] bytes = new byte[byteSize];
+        for (int i = 0; i < byteSize; i++) {
+            long word = i < Long.BYTES ? lo : hi;
+            bytes[byteSize - 1 - i] = (byte) (word >>> ((i % Long.BYTES) * Byte.SIZE));
+        }
+        return bytes;
     }
 
+    /**
+     * Values of up to {@link #MAX_WORD_BITS} bits are returned sign extended to
+     * {@link #MAX_WORD_BITS} bits.
+     */
     @TruffleBoundary
     public byte[] getSignExtendedBytes() {
-        return getByteBuffer(getByteValue(), true).array();
+        if (isWide()) {
+            return getByteBuffer(getByteValue(), true).array();
+        }
+        return toBytes(signedLo(), signedHi(), MAX_WORD_BITS / Byte.SIZE);
     }
 
-    @TruffleBoundary
     public LLVMIVarBit add(LLVMIVarBit right) {
-        return asIVar(bigInt().add(bigInt(right)));
+        if (isWide()) {
+            return addWide(right);
+        }
+        long resultLo = lo + right.lo;
+        long carry = ((lo & right.lo) | ((lo | right.lo) & ~resultLo)) >>> (Long.SIZE - 1);
+        return new LLVMIVarBit(bits, resultLo, hi + right.hi + carry);
     }
 
     @TruffleBoundary
+    private LLVMIVarBit addWide(LLVMIVarBit right) {
+        return asIVar(bigInt().add(bigInt(right)));
+    }
+
     public LLVMIVarBit mul(LLVMIVarBit right) {
-        return asIVar(bigInt().multiply(bigInt(right)));
+        if (isWide()) {
+            return mulWide(right);
+        }
+        long resultHi = multiplyHighUnsigned(lo, right.lo) + lo * right.hi + hi * right.lo;
+        return new LLVMIVarBit(bits, lo * right.lo, resultHi);
     }
 
     @TruffleBoundary
+    private LLVMIVarBit mulWide(LLVMIVarBit right) {
+        return asIVar(bigInt().multiply(bigInt(right)));
+    }
+
     public LLVMIVarBit sub(LLVMIVarBit right) {
-        return asIVar(bigInt().subtract(bigInt(right)));
+        if (isWide()) {
+            return subWide(right);
+        }
+        long resultLo = lo - right.lo;
+        long borrow = ((~lo & right.lo) | (~(lo ^ right.lo) & resultLo)) >>> (Long.SIZE - 1);
+        return new LLVMIVarBit(bits, resultLo, hi - right.hi - borrow);
     }
 
     @TruffleBoundary
+    private LLVMIVarBit subWide(LLVMIVarBit right) {
+        return asIVar(bigInt().subtract(bigInt(right)));
+    }
+
     public LLVMIVarBit div(LLVMIVarBit right) {
-        return asIVar(bigInt().divide(bigInt(right)));
+        if (isWide()) {
+            return divWide(right);
+        }
+        return signedDivRem(right, false);
     }
 
     @TruffleBoundary
+    private LLVMIVarBit divWide(LLVMIVarBit right) {
+        return asIVar(bigInt().divide(bigInt(right)));
+    }
+
     public LLVMIVarBit rem(LLVMIVarBit right) {
-        return asIVar(bigInt().remainder(bigInt(right)));
+        if (isWide()) {
+            return remWide(right);
+        }
+        return signedDivRem(right, true);
     }
 
     @TruffleBoundary
+    private LLVMIVarBit remWide(LLVMIVarBit right) {
+        return asIVar(bigInt().remainder(bigInt(right)));
+    }
+
     public LLVMIVarBit unsignedRem(LLVMIVarBit right) {
-        return asIVar(unsignedBigInt().remainder(bigInt(right)));
+        if (isWide()) {
+            return unsignedRemWide(right);
+        }
+        return unsignedDivRem(bits, lo, hi, right.lo, right.hi, true);
     }
 
     @TruffleBoundary
+    private LLVMIVarBit unsignedRemWide(LLVMIVarBit right) {
+        return asIVar(unsignedBigInt().remainder(right.unsignedBigInt()));
+    }
+
     public LLVMIVarBit unsignedDiv(LLVMIVarBit right) {
-        return asIVar(unsignedBigInt().divide(bigInt(right)));
+        if (isWide()) {
+            return unsignedDivWide(right);
+        }
+        return unsignedDivRem(bits, lo, hi, right.lo, right.hi, false);
     }
 
+    @TruffleBoundary
+    private LLVMIVarBit unsignedDivWide(LLVMIVarBit right) {
+        return asIVar(unsignedBigInt().divide(right.unsignedBigInt()));
+    }
+
+    private LLVMIVarBit signedDivRem(LLVMIVarBit right, boolean remainder) {
+        long leftHi = signedHi();
+        long leftLo = signedLo();
+        long rightHi = right.signedHi();
+        long rightLo = right.signedLo();
+        boolean negativeLeft = leftHi < 0;
+        boolean negativeRight = rightHi < 0;
+        if (negativeLeft) {
+            leftHi = negateHi(leftLo, leftHi);
+            leftLo = -leftLo;
+        }
+        if (negativeRight) {
+            rightHi = negateHi(rightLo, rightHi);
+            rightLo = -rightLo;
+        }
+        LLVMIVarBit result = unsignedDivRem(MAX_WORD_BITS, leftLo, leftHi, rightLo, rightHi, remainder);
+        // the remainder has the sign of the dividend, the quotient is negative for different signs
+        boolean negate = remainder ? negativeLeft : negativeLeft != negativeRight;
+        if (negate) {
+            return new LLVMIVarBit(bits, -result.lo, negateHi(result.lo, result.hi));
+        } else {
+            return new LLVMIVarBit(bits, result.lo, result.hi);
+        }
+    }
+
+    private static long negateHi(long lo, long hi) {
+        return lo == 0 ? -hi : ~hi;
+    }
+
+    private static LLVMIVarBit unsignedDivRem(int bits, long leftLo, long leftHi, long rightLo, long rightHi, boolean remainder) {
+        if (rightLo == 0 && rightHi == 0) {
+            throw new ArithmeticException("division by zero");
+        }
+        if (leftHi == 0 && rightHi == 0) {
+            // both values fit into a long
+            long result = remainder ? Long.remainderUnsigned(leftLo, rightLo) : Long.divideUnsigned(leftLo, rightLo);
+            return new LLVMIVarBit(bits, result, 0);
+        }
+        if (compareUnsigned(leftLo, leftHi, rightLo, rightHi) < 0) {
+            return remainder ? new LLVMIVarBit(bits, leftLo, leftHi) : new LLVMIVarBit(bits, 0, 0);
+        }
+
+        // shift-subtract division, starting at the highest bit where the divisor fits
+        int shift = numberOfLeadingZeros(rightLo, rightHi) - numberOfLeadingZeros(leftLo, leftHi);
+        long divisorLo = shiftLeftLo(rightLo, shift);
+        long divisorHi = shiftLeftHi(rightLo, rightHi, shift);
+        long remLo = leftLo;
+        long remHi = leftHi;
+        long quotientLo = 0;
+        long quotientHi = 0;
+        for (int i = shift; i >= 0; i--) {
+            if (compareUnsigned(remLo, remHi, divisorLo, divisorHi) >= 0) {
+                long newLo = remLo - divisorLo;
+                remHi = remHi - divisorHi - (Long.compareUnsigned(remLo, divisorLo) < 0 ? 1 : 0);
+                remLo = newLo;
+                if (i >= Long.SIZE) {
+                    quotientHi |= 1L << (i - Long.SIZE);
+                } else {
+                    quotientLo |= 1L << i;
+                }
+            }
+            divisorLo = (divisorLo >>> 1) | (divisorHi << (Long.SIZE - 1));
+            divisorHi >>>= 1;
+        }
+        return remainder ? new LLVMIVarBit(bits, remLo, remHi) : new LLVMIVarBit(bits, quotientLo, quotientHi);
+    }
+
+    private static int numberOfLeadingZeros(long lo, long hi) {
+        return hi != 0 ? Long.numberOfLeadingZeros(hi) : Long.SIZE + Long.numberOfLeadingZeros(lo);
+    }
+
+    private static int compareUnsigned(long leftLo, long leftHi, long rightLo, long rightHi) {
+        int result = Long.compareUnsigned(leftHi, rightHi);
+        return result != 0 ? result : Long.compareUnsigned(leftLo, rightLo);
+    }
+
+    private static long multiplyHighUnsigned(long a, long b) {
+        long aLow = a & INT_MASK;
+        long aHigh = a >>> Integer.SIZE;
+        long bLow = b & INT_MASK;
+        long bHigh = b >>> Integer.SIZE;
+        long lowLow = aLow * bLow;
+        long lowHigh = aLow * bHigh;
+        long highLow = aHigh * bLow;
+        long middle = (lowLow >>> Integer.SIZE) + (lowHigh & INT_MASK) + (highLow & INT_MASK);
+        return aHigh * bHigh + (lowHigh >>> Integer.SIZE) + (highLow >>> Integer.SIZE) + (middle >>> Integer.SIZE);
+    }
+
+    /**
+     * Compares the bit patterns of two values of the same type. The result is only meaningful as
+     * equal or not equal for wide values.
+     */
     public int compare(LLVMIVarBit other) {
+        if (isWide()) {
+            return compareWide(other);
+        }
+        return compareUnsigned(lo, hi, other.lo, other.hi);
+    }
+
+    private int compareWide(LLVMIVarBit other) {
         for (int i = 0; i < getByteSize(); i++) {
             int diff = arr[i] - other.getBytes()[i];
             if (diff != 0) {
@@ -288,23 +564,74 @@ public final class LLVMIVarBit {
         return new LLVMIVarBit(bits, newArr);
     }
 
-    @TruffleBoundary
     public LLVMIVarBit and(LLVMIVarBit right) {
-        return performOp(right, (byte a, byte b) -> (byte) (a & b));
+        if (isWide()) {
+            return andWide(right);
+        }
+        return new LLVMIVarBit(bits, lo & right.lo, hi & right.hi);
     }
 
     @TruffleBoundary
+    private LLVMIVarBit andWide(LLVMIVarBit right) {
+        return performOp(right, (byte a, byte b) -> (byte) (a & b));
+    }
+
     public LLVMIVarBit or(LLVMIVarBit right) {
-        return performOp(right, (byte a, byte b) -> (byte) (a | b));
+        if (isWide()) {
+            return orWide(right);
+        }
+        return new LLVMIVarBit(bits, lo | right.lo, hi | right.hi);
     }
 
     @TruffleBoundary
+    private LLVMIVarBit orWide(LLVMIVarBit right) {
+        return performOp(right, (byte a, byte b) -> (byte) (a | b));
+    }
+
     public LLVMIVarBit xor(LLVMIVarBit right) {
-        return performOp(right, (byte a, byte b) -> (byte) (a ^ b));
+        if (isWide()) {
+            return xorWide(right);
+        }
+        return new LLVMIVarBit(bits, lo ^ right.lo, hi ^ right.hi);
     }
 
     @TruffleBoundary
+    private LLVMIVarBit xorWide(LLVMIVarBit right) {
+        return performOp(right, (byte a, byte b) -> (byte) (a ^ b));
+    }
+
+    /**
+     * The shift amount of word sized values, amounts beyond the bit width shift out all bits.
+     */
+    private int shiftAmount(LLVMIVarBit right) {
+        long amount = right.lo;
+        return right.hi != 0 || Long.compareUnsigned(amount, bits) >= 0 ? MAX_WORD_BITS : (int) amount;
+    }
+
+    private static long shiftLeftLo(long lo, int shift) {
+        return shift >= Long.SIZE ? 0 : lo << shift;
+    }
+
+    private static long shiftLeftHi(long lo, long hi, int shift) {
+        if (shift == 0) {
+            return hi;
+        } else if (shift < Long.SIZE) {
+            return (hi << shift) | (lo >>> (Long.SIZE - shift));
+        } else {
+            return shift >= MAX_WORD_BITS ? 0 : lo << (shift - Long.SIZE);
+        }
+    }
+
     public LLVMIVarBit leftShift(LLVMIVarBit right) {
+        if (isWide()) {
+            return leftShiftWide(right);
+        }
+        int shift = shiftAmount(right);
+        return new LLVMIVarBit(bits, shiftLeftLo(lo, shift), shiftLeftHi(lo, hi, shift));
+    }
+
+    @TruffleBoundary
+    private LLVMIVarBit leftShiftWide(LLVMIVarBit right) {
         BigInteger result = bigInt().shiftLeft(right.getIntValue());
         return asIVar(bits, result);
     }
@@ -315,6 +642,9 @@ public final class LLVMIVarBit {
     }
 
     private static LLVMIVarBit asIVar(int bitSize, BigInteger result) {
+        if (bitSize <= MAX_WORD_BITS) {
+            return new LLVMIVarBit(bitSize, result.longValue(), result.shiftRight(Long.SIZE).longValue());
+        }
         int destSize = Math.max(Byte.BYTES, bitSize / Byte.SIZE);
         byte[] newArr = new byte[destSize];
         byte[] bigIntArr = result.toByteArray();
@@ -336,23 +666,78 @@ public final class LLVMIVarBit {
         return new LLVMIVarBit(bitSize, newArr);
     }
 
-    @TruffleBoundary
     public LLVMIVarBit logicalRightShift(LLVMIVarBit right) {
+        if (isWide()) {
+            return logicalRightShiftWide(right);
+        }
+        return shiftRight(lo, hi, 0, shiftAmount(right));
+    }
+
+    @TruffleBoundary
+    private LLVMIVarBit logicalRightShiftWide(LLVMIVarBit right) {
         int shiftAmount = right.getIntValue();
         BigInteger mask = BigInteger.valueOf(-1).shiftLeft(bits - shiftAmount).not();
         BigInteger result = new BigInteger(arr).shiftRight(shiftAmount).and(mask);
         return asIVar(result);
     }
 
-    @TruffleBoundary
     public LLVMIVarBit arithmeticRightShift(LLVMIVarBit right) {
+        if (isWide()) {
+            return arithmeticRightShiftWide(right);
+        }
+        long valueHi = signedHi();
+        return shiftRight(signedLo(), valueHi, valueHi >> (Long.SIZE - 1), shiftAmount(right));
+    }
+
+    @TruffleBoundary
+    private LLVMIVarBit arithmeticRightShiftWide(LLVMIVarBit right) {
         BigInteger result = bigInt().shiftRight(right.getIntValue());
         return asIVar(result);
     }
 
-    @TruffleBoundary
+    /**
+     * Shifts the words right, the bits shifted in are taken from {@code fill}, which is zero for a
+     * logical shift and the sign of the sign extended words for an arithmetic shift.
+     */
+    private LLVMIVarBit shiftRight(long valueLo, long valueHi, long fill, int shift) {
+        if (shift == 0) {
+            return new LLVMIVarBit(bits, valueLo, valueHi);
+        } else if (shift < Long.SIZE) {
+            long resultLo = (valueLo >>> shift) | (valueHi << (Long.SIZE - shift));
+            return new LLVMIVarBit(bits, resultLo, (valueHi >>> shift) | (fill << (Long.SIZE - shift)));
+        } else if (shift == Long.SIZE) {
+            return new LLVMIVarBit(bits, valueHi, fill);
+        } else if (shift < MAX_WORD_BITS) {
+            long resultLo = (valueHi >>> (shift - Long.SIZE)) | (fill << (MAX_WORD_BITS - shift));
+            return new LLVMIVarBit(bits, resultLo, fill);
+        } else {
+            return new LLVMIVarBit(bits, fill, fill);
+        }
+    }
+
     public int signedCompare(LLVMIVarBit other) {
+        if (isWide()) {
+            return signedCompareWide(other);
+        }
+        int result = Long.compare(signedHi(), other.signedHi());
+        return result != 0 ? result : Long.compareUnsigned(lo, other.lo);
+    }
+
+    @TruffleBoundary
+    private int signedCompareWide(LLVMIVarBit other) {
         return bigInt().compareTo(other.bigInt());
     }
 
+    public int unsignedCompare(LLVMIVarBit other) {
+        if (isWide()) {
+            return unsignedCompareWide(other);
+        }
+        return compareUnsigned(lo, hi, other.lo, other.hi);
+    }
+
+    @TruffleBoundary
+    private int unsignedCompareWide(LLVMIVarBit other) {
+        return unsignedBigInt().compareTo(other.unsignedBigInt());
+    }
+
 }
@@ -0,0 +1,218 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.runtime;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+
+/**
+ * Profiles native calls per call site and callee. Every thread records into its own buffer, so
+ * recording does not synchronize with other threads. The buffers are only merged when the profile
+ * is dumped, which must not happen while native calls are still being recorded.
+ *
+ * Latencies are kept in log-linear histograms: values are grouped by their highest set bit, and
+ * each such group is split into {@value LatencyHistogram#SUB_BUCKETS} buckets, which bounds the
+ * relative error of a percentile to 12.5%.
+ */
+public final class LLVMNativeCallProfiler {
+
+    private final ThreadLocal<ThreadBuffer> buffers = ThreadLocal.withInitial(this::createBuffer);
+    private final ConcurrentLinkedQueue<ThreadBuffer> allBuffers = new ConcurrentLinkedQueue<>();
+
+    public final class CallSite {
+        private final String location;
+
+        private CallSite(String location) {
+            this.location = location;
+        }
+
+        @TruffleBoundary
+        public void record(LLVMFunctionDescriptor callee, long conversionNanos, long callNanos) {
+            String function = callee == null ? "<native function pointer>" : callee.getName();
+            buffers.get().getProfile(this, function).record(conversionNanos, callNanos);
+        }
+    }
+
+    public CallSite createCallSite(String location) {
+        return new CallSite(location);
+    }
+
+    private ThreadBuffer createBuffer() {
+        ThreadBuffer buffer = new ThreadBuffer();
+        allBuffers.add(buffer);
+        return buffer;
+    }
+
+    private static final class ThreadBuffer {
+        private final Map<CallSite, Map<String, CallProfile>> profiles = new HashMap<>();
+
+        CallProfile getProfile(CallSite site, String function) {
+            return profiles.computeIfAbsent(site, s -> new HashMap<>()).computeIfAbsent(function, f -> new CallProfile(site.location, f));
+        }
+    }
+
+    private static final class CallProfile {
+        private final String location;
+        private final String function;
+        private final LatencyHistogram conversion = new LatencyHistogram();
+        private final LatencyHistogram call = new LatencyHistogram();
+
+        CallProfile(String location, String function) {
+            this.location = location;
+            this.function = function;
+        }
+
+        void record(long conversionNanos, long callNanos) {
+            conversion.record(conversionNanos);
+            call.record(callNanos);
+        }
+
+        void add(CallProfile other) {
+            conversion.add(other.conversion);
+            call.add(other.call);
+        }
+    }
+
+    static final class LatencyHistogram {
+        static final int SUB_BUCKETS = 8;
+        private static final int SUB_BUCKET_BITS = 3;
+        private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+        private final long[] counts = new long[BUCKETS];
+        private long count;
+        private long total;
+        private long max;
+
+        void record(long nanos) {
+            long value = Math.max(nanos, 0);
+            counts[bucket(value)]++;
+            count++;
+            total += value;
+            max = Math.max(max, value);
+        }
+
+        void add(LatencyHistogram other) {
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] += other.counts[i];
+            }
+            count += other.count;
+            total += other.total;
+            max = Math.max(max, other.max);
+        }
+
+        static int bucket(long value) {
+            if (value < SUB_BUCKETS) {
+                return (int) value;
+            }
+            int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+            int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+            return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+        }
+
+        static long lowerBound(int bucket) {
+            if (bucket < SUB_BUCKETS) {
+                return bucket;
+            }
+            int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+            return (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << (exponent - SUB_BUCKET_BITS);
+        }
+
+        long percentile(double percentile) {
+            long threshold = (long) Math.ceil(count * percentile / 100);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts[i];
+                if (seen >= threshold && seen > 0) {
+                    return Math.min(lowerBound(i), max);
+                }
+            }
+            return max;
+        }
+
+        void printJSON(PrintStream out) {
+            out.printf("{\"totalNanos\": %d, \"meanNanos\": %d, \"p50Nanos\": %d, \"p90Nanos\": %d, \"p99Nanos\": %d, \"maxNanos\": %d}", total, count == 0 ? 0 : total / count, percentile(50),
+                            percentile(90), percentile(99), max);
+        }
+    }
+
+    /**
+     * Prints the merged profiles as JSON, call sites with the most time spent in native code first.
+     */
+    public void printJSON(PrintStream out) {
+        Map<CallSite, Map<String, CallProfile>> merged = new HashMap<>();
+        List<CallProfile> profiles = new ArrayList<>();
+        for (ThreadBuffer buffer : allBuffers) {
+            for (Map.Entry<CallSite, Map<String, CallProfile>> site : buffer.profiles.entrySet()) {
+                for (CallProfile profile : site.getValue().values()) {
+                    CallProfile sum = merged.computeIfAbsent(site.getKey(), s -> new HashMap<>()).computeIfAbsent(profile.function, f -> {
+                        CallProfile p = new CallProfile(profile.location, f);
+                        profiles.add(p);
+                        return p;
+                    });
+                    sum.add(profile);
+                }
+            }
+        }
+        profiles.sort((a, b) -> Long.compare(b.call.total, a.call.total));
+
+        out.println("{\"nativeCalls\": [");
+        for (int i = 0; i < profiles.size(); i++) {
+            CallProfile profile = profiles.get(i);
+            out.printf("  {\"function\": \"%s\", \"callSite\": \"%s\", \"calls\": %d, \"call\": ", escape(profile.function), escape(profile.location), profile.call.count);
+            profile.call.printJSON(out);
+            out.print(", \"argumentConversion\": ");
+            profile.conversion.printJSON(out);
+            out.println(i == profiles.size() - 1 ? "}" : "},");
+        }
+        out.println("]}");
+        out.flush();
+    }
+
+    private static String escape(String s) {
+        StringBuilder sb = new StringBuilder(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c < 0x20) {
+                sb.append(String.format("\\u%04x", (int) c));
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
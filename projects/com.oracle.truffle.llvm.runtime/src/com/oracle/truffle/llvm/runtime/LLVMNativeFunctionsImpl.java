@@ -30,45 +30,34 @@
 package com.oracle.truffle.llvm.runtime;
 
 import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.interop.ForeignAccess;
+import com.oracle.truffle.api.interop.InteropException;
 import com.oracle.truffle.api.interop.Message;
 import com.oracle.truffle.api.interop.TruffleObject;
 import com.oracle.truffle.api.interop.UnsupportedMessageException;
 import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.llvm.runtime.memory.LLVMExceptionLayout;
 import com.oracle.truffle.llvm.runtime.memory.LLVMNativeFunctions;
 
 final class LLVMNativeFunctionsImpl extends LLVMNativeFunctions {
 
     private final TruffleObject dynamicCast;
     private final TruffleObject sulongCanCatch;
-    private final TruffleObject sulongThrow;
-    private final TruffleObject getThrownObject;
-    private final TruffleObject getExceptionPointer;
-    private final TruffleObject getUnwindHeader;
-    private final TruffleObject getDestructor;
     private final TruffleObject freeException;
-    private final TruffleObject incrementHandlerCount;
-    private final TruffleObject decrementHandlerCount;
-    private final TruffleObject getHandlerCount;
-    private final TruffleObject setHandlerCount;
-    private final TruffleObject getExceptionType;
+    private final TruffleObject isPointerType;
+    private final TruffleObject getFieldOffset;
 
     private final TruffleObject nullPointer;
 
+    private LLVMExceptionLayout exceptionLayout;
+
     LLVMNativeFunctionsImpl(NativeLookup nativeLookup) {
         dynamicCast = nativeLookup == null ? null : nativeLookup.getNativeFunction("@__dynamic_cast", "(POINTER,POINTER,POINTER,UINT64):POINTER");
         sulongCanCatch = nativeLookup == null ? null : nativeLookup.getNativeFunction("@sulong_eh_canCatch", "(POINTER,POINTER,POINTER):UINT32");
-        sulongThrow = nativeLookup == null ? null : nativeLookup.getNativeFunction("@sulong_eh_throw", "(POINTER,POINTER,POINTER,POINTER,POINTER):VOID");
-        getThrownObject = nativeLookup == null ? null : nativeLookup.getNativeFunction("@sulong_eh_getThrownObject", "(POINTER):POINTER");
-        getExceptionPointer = nativeLookup == null ? null : nativeLookup.getNativeFunction("@sulong_eh_getExceptionPointer", "(POINTER):POINTER");
-        getUnwindHeader = nativeLookup == null ? null : nativeLookup.getNativeFunction("@sulong_eh_unwindHeader", "(POINTER):POINTER");
-        getDestructor = nativeLookup == null ? null : nativeLookup.getNativeFunction("@sulong_eh_getDestructor", "(POINTER):POINTER");
         freeException = nativeLookup == null ? null : nativeLookup.getNativeFunction("@__cxa_free_exception", "(POINTER):VOID");
-        incrementHandlerCount = nativeLookup == null ? null : nativeLookup.getNativeFunction("@sulong_eh_incrementHandlerCount", "(POINTER):VOID");
-        decrementHandlerCount = nativeLookup == null ? null : nativeLookup.getNativeFunction("@sulong_eh_decrementHandlerCount", "(POINTER):VOID");
-        getHandlerCount = nativeLookup == null ? null : nativeLookup.getNativeFunction("@sulong_eh_getHandlerCount", "(POINTER):SINT32");
-        setHandlerCount = nativeLookup == null ? null : nativeLookup.getNativeFunction("@sulong_eh_setHandlerCount", "(POINTER,SINT32):VOID");
-        getExceptionType = nativeLookup == null ? null : nativeLookup.getNativeFunction("@sulong_eh_getType", "(POINTER):POINTER");
+        isPointerType = nativeLookup == null ? null : nativeLookup.getNativeFunction("@sulong_eh_isPointerType", "(POINTER):SINT32");
+        getFieldOffset = nativeLookup == null ? null : nativeLookup.getNativeFunction("@sulong_eh_getFieldOffset", "(SINT32):SINT64");
 
         nullPointer = nativeLookup == null ? null : nativeLookup.getNativeFunction("@getNullPointer", "():POINTER");
     }
@@ -88,154 +77,42 @@ final class LLVMNativeFunctionsImpl extends LLVMNativeFunctions {
         return new SulongCanCatchNodeImpl(sulongCanCatch);
     }
 
-    @Override
-    public SulongThrowNode createSulongThrow() {
-        return new SulongThrowNodeImpl(sulongThrow);
-    }
-
-    @Override
-    public SulongGetThrownObjectNode createGetThrownObject() {
-        return new SulongGetThrownObjectNodeImpl(getThrownObject);
-    }
-
-    @Override
-    public SulongGetExceptionPointerNode createGetExceptionPointer() {
-        return new SulongGetExceptionPointerNodeImpl(getExceptionPointer);
-    }
-
-    @Override
-    public SulongGetUnwindHeaderNode createGetUnwindHeader() {
-        return new SulongGetUnwindHeaderNodeImpl(getUnwindHeader);
-    }
-
     @Override
     public SulongFreeExceptionNode createFreeException() {
         return new SulongFreeExceptionNodeImpl(freeException);
     }
 
     @Override
-    public SulongGetDestructorNode createGetDestructor() {
-        return new SulongGetDestructorNodeImpl(getDestructor);
-    }
-
-    @Override
-    public SulongGetExceptionTypeNode createGetExceptionType() {
-        return new SulongGetExceptionTypeNodeImpl(getExceptionType);
-    }
-
-    @Override
-    public SulongDecrementHandlerCountNode createDecrementHandlerCount() {
-        return new SulongDecrementHandlerCountNodeImpl(decrementHandlerCount);
-    }
-
-    @Override
-    public SulongIncrementHandlerCountNode createIncrementHandlerCount() {
-        return new SulongIncrementHandlerCountNodeImpl(incrementHandlerCount);
+    public SulongIsPointerTypeNode createIsPointerType() {
+        return new SulongIsPointerTypeNodeImpl(isPointerType);
     }
 
     @Override
-    public SulongGetHandlerCountNode createGetHandlerCount() {
-        return new SulongGetHandlerCountNodeImpl(getHandlerCount);
-    }
-
-    @Override
-    public SulongSetHandlerCountNode createSetHandlerCount() {
-        return new SulongSetHandlerCountNodeImpl(setHandlerCount);
-    }
-
-    private static class SulongGetThrownObjectNodeImpl extends SulongGetThrownObjectNode {
-
-        @Child private Node asPointer = Message.AS_POINTER.createNode();
-
-        SulongGetThrownObjectNodeImpl(TruffleObject function) {
-            super(function, 1);
-        }
-
-        @Override
-        public LLVMAddress getThrownObject(LLVMAddress ptr) {
-            try {
-                return LLVMAddress.fromLong(ForeignAccess.sendAsPointer(asPointer, (TruffleObject) execute(ptr.getVal())));
-            } catch (UnsupportedMessageException e) {
-                CompilerDirectives.transferToInterpreter();
-                throw new IllegalStateException(e);
-            }
+    public LLVMExceptionLayout getExceptionLayout() {
+        if (exceptionLayout == null) {
+            exceptionLayout = createExceptionLayout();
         }
+        return exceptionLayout;
     }
 
-    private static class SulongGetExceptionPointerNodeImpl extends SulongGetExceptionPointerNode {
-
-        @Child private Node asPointer = Message.AS_POINTER.createNode();
-
-        SulongGetExceptionPointerNodeImpl(TruffleObject function) {
-            super(function, 1);
-        }
-
-        @Override
-        public LLVMAddress getExceptionPointer(LLVMAddress ptr) {
+    @TruffleBoundary
+    private LLVMExceptionLayout createExceptionLayout() {
+        Node execute = Message.createExecute(1).createNode();
+        long[] offsets = new long[LLVMExceptionLayout.FIELD_COUNT];
+        boolean hasLayout = false;
+        for (int i = 0; i < offsets.length; i++) {
             try {
-                return LLVMAddress.fromLong(ForeignAccess.sendAsPointer(asPointer, (TruffleObject) execute(ptr.getVal())));
-            } catch (UnsupportedMessageException e) {
-                CompilerDirectives.transferToInterpreter();
-                throw new IllegalStateException(e);
+                offsets[i] = ((Number) ForeignAccess.sendExecute(execute, getFieldOffset, i)).longValue();
+            } catch (InteropException e) {
+                throw new AssertionError(e);
             }
+            hasLayout |= offsets[i] != 0;
         }
-    }
-
-    private static class SulongGetDestructorNodeImpl extends SulongGetDestructorNode {
-
-        @Child private Node asPointer = Message.AS_POINTER.createNode();
-
-        SulongGetDestructorNodeImpl(TruffleObject function) {
-            super(function, 1);
-        }
-
-        @Override
-        public LLVMAddress get(LLVMAddress ptr) {
-            try {
-                return LLVMAddress.fromLong(ForeignAccess.sendAsPointer(asPointer, (TruffleObject) execute(ptr.getVal())));
-            } catch (UnsupportedMessageException e) {
-                CompilerDirectives.transferToInterpreter();
-                throw new IllegalStateException(e);
-            }
-        }
-    }
-
-    private static class SulongGetExceptionTypeNodeImpl extends SulongGetExceptionTypeNode {
-
-        @Child private Node asPointer = Message.AS_POINTER.createNode();
-
-        SulongGetExceptionTypeNodeImpl(TruffleObject function) {
-            super(function, 1);
-        }
-
-        @Override
-        public LLVMAddress get(LLVMAddress ptr) {
-            try {
-                return LLVMAddress.fromLong(ForeignAccess.sendAsPointer(asPointer, (TruffleObject) execute(ptr.getVal())));
-            } catch (UnsupportedMessageException e) {
-                CompilerDirectives.transferToInterpreter();
-                throw new IllegalStateException(e);
-            }
-        }
-    }
-
-    private static class SulongGetUnwindHeaderNodeImpl extends SulongGetUnwindHeaderNode {
-
-        @Child private Node asPointer = Message.AS_POINTER.createNode();
-
-        SulongGetUnwindHeaderNodeImpl(TruffleObject function) {
-            super(function, 1);
-        }
-
-        @Override
-        public LLVMAddress getUnwind(LLVMAddress ptr) {
-            try {
-                return LLVMAddress.fromLong(ForeignAccess.sendAsPointer(asPointer, (TruffleObject) execute(ptr.getVal())));
-            } catch (UnsupportedMessageException e) {
-                CompilerDirectives.transferToInterpreter();
-                throw new IllegalStateException(e);
-            }
+        if (!hasLayout) {
+            // the fields cannot all share one offset, the native library was built without support
+            throw new UnsupportedOperationException("The native Sulong library does not support exception handling; build it with LLVM v3.8 or higher.");
         }
+        return new LLVMExceptionLayout(offsets);
     }
 
     private static class DynamicCastNodeImpl extends DynamicCastNode {
@@ -257,76 +134,27 @@ final class LLVMNativeFunctionsImpl extends LLVMNativeFunctions {
         }
     }
 
-    private static class SulongCanCatchNodeImpl extends SulongCanCatchNode {
+    private static class SulongIsPointerTypeNodeImpl extends SulongIsPointerTypeNode {
 
-        SulongCanCatchNodeImpl(TruffleObject function) {
-            super(function, 3);
-        }
-
-        @Override
-        public int canCatch(LLVMAddress adjustedPtr, LLVMAddress excpType, LLVMAddress catchType) {
-            return (int) execute(adjustedPtr.getVal(), excpType.getVal(), catchType.getVal());
-        }
-    }
-
-    private static class SulongThrowNodeImpl extends SulongThrowNode {
-
-        SulongThrowNodeImpl(TruffleObject function) {
-            super(function, 5);
-        }
-
-        @Override
-        public void throvv(LLVMAddress ptr, LLVMAddress type, LLVMAddress destructor, LLVMAddress unexpectedHandler, LLVMAddress terminateHandler) {
-            execute(ptr.getVal(), type.getVal(), destructor == null ? 0 : destructor.getVal(), unexpectedHandler == null ? 0 : unexpectedHandler.getVal(),
-                            terminateHandler == null ? 0 : terminateHandler.getVal());
-        }
-    }
-
-    private static class SulongIncrementHandlerCountNodeImpl extends SulongIncrementHandlerCountNode {
-
-        SulongIncrementHandlerCountNodeImpl(TruffleObject function) {
+        SulongIsPointerTypeNodeImpl(TruffleObject function) {
             super(function, 1);
         }
 
         @Override
-        public void inc(LLVMAddress ptr) {
-            execute(ptr.getVal());
+        public boolean isPointerType(LLVMAddress type) {
+            return (int) execute(type.getVal()) != 0;
         }
     }
 
-    private static class SulongDecrementHandlerCountNodeImpl extends SulongDecrementHandlerCountNode {
-
-        SulongDecrementHandlerCountNodeImpl(TruffleObject function) {
-            super(function, 1);
-        }
-
-        @Override
-        public void dec(LLVMAddress ptr) {
-            execute(ptr.getVal());
-        }
-    }
-
-    private static class SulongGetHandlerCountNodeImpl extends SulongGetHandlerCountNode {
-
-        SulongGetHandlerCountNodeImpl(TruffleObject function) {
-            super(function, 1);
-        }
-
-        @Override
-        public int get(LLVMAddress ptr) {
-            return (int) execute(ptr.getVal());
-        }
-    }
-
-    private static class SulongSetHandlerCountNodeImpl extends SulongSetHandlerCountNode {
+    private static class SulongCanCatchNodeImpl extends SulongCanCatchNode {
 
-        SulongSetHandlerCountNodeImpl(TruffleObject function) {
-            super(function, 2);
+        SulongCanCatchNodeImpl(TruffleObject function) {
+            super(function, 3);
         }
 
         @Override
-        public void set(LLVMAddress ptr, int value) {
-            execute(ptr.getVal(), value);
+        public int canCatch(LLVMAddress adjustedPtr, LLVMAddress excpType, LLVMAddress catchType) {
+            return (int) execute(adjustedPtr.getVal(), excpType.getVal(), catchType.getVal());
         }
     }
 
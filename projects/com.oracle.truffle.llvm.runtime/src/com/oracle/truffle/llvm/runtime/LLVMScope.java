@@ -30,7 +30,6 @@
 package com.oracle.truffle.llvm.runtime;
 
 import java.util.HashMap;
-import java.util.Map;
 import java.util.function.Supplier;
 
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
@@ -39,11 +38,35 @@ import com.oracle.truffle.llvm.runtime.types.FunctionType;
 import com.oracle.truffle.llvm.runtime.types.MetaType;
 import com.oracle.truffle.llvm.runtime.types.Type;
 
+/**
+ * The functions and global variables of a file, or of the whole program for the global scope.
+ *
+ * While modules are loaded, the scope is guarded by its lock. Once loading is done, {@link #freeze}
+ * publishes an immutable snapshot, which answers lookups without locking. Symbols that are added
+ * later, e.g., by late-loaded libraries, go to copies of the maps; lookups take the lock again
+ * until the scope is frozen the next time.
+ */
 public final class LLVMScope {
 
-    private final HashMap<String, LLVMFunctionHandle> functions;
+    private static final class Snapshot {
+        private final HashMap<String, LLVMFunctionHandle> functions;
+        private final HashMap<String, Object> globals;
+
+        Snapshot(HashMap<String, LLVMFunctionHandle> functions, HashMap<String, Object> globals) {
+            this.functions = functions;
+            this.globals = globals;
+        }
+    }
+
     private final LLVMScope parent;
-    private final LLVMGlobalVariableRegistry globalVariableRegistry;
+
+    // guarded by the lock of this scope
+    private HashMap<String, LLVMFunctionHandle> functions;
+    private HashMap<String, Object> globals;
+    private boolean shared;
+
+    // null if the snapshot is stale
+    private volatile Snapshot snapshot;
 
     public static synchronized LLVMScope createFileScope(LLVMContext context) {
         return new LLVMScope(context.getGlobalScope());
@@ -59,35 +82,46 @@ public final class LLVMScope {
 
     private LLVMScope(LLVMScope parent) {
         this.functions = new HashMap<>();
+        this.globals = new HashMap<>();
         this.parent = parent;
-        this.globalVariableRegistry = new LLVMGlobalVariableRegistry();
+    }
+
+    /**
+     * Publishes the current symbols for lock-free lookups.
+     */
+    public synchronized void freeze() {
+        if (snapshot == null) {
+            snapshot = new Snapshot(functions, globals);
+            shared = true;
+        }
     }
 
     @TruffleBoundary
-    public synchronized LLVMFunctionDescriptor getFunctionDescriptor(LLVMContext context, String name) {
-        LLVMFunctionHandle functionHandle = functions.get(name);
+    public LLVMFunctionDescriptor getFunctionDescriptor(LLVMContext context, String name) {
+        LLVMFunctionHandle functionHandle = getFunction(name);
         if (functionHandle != null) {
             return context.getFunctionDescriptor(functionHandle);
-        } else if (functionHandle == null && parent != null) {
+        } else if (parent != null) {
             return parent.getFunctionDescriptor(context, name);
         }
         throw new IllegalStateException("Unknown function: " + name);
     }
 
     @TruffleBoundary
-    public synchronized boolean functionExists(String name) {
-        return functions.containsKey(name) || (parent != null && parent.functionExists(name));
+    public boolean functionExists(String name) {
+        return getFunction(name) != null || (parent != null && parent.functionExists(name));
     }
 
     @TruffleBoundary
-    public synchronized boolean globalExists(String name) {
-        return globalVariableRegistry.exists(name) || (parent != null && parent.globalExists(name));
+    public boolean globalExists(String name) {
+        return getGlobal(name) != null || (parent != null && parent.globalExists(name));
     }
 
     @TruffleBoundary
-    public synchronized Object getGlobalVariable(String name) {
-        if (globalVariableRegistry.exists(name)) {
-            return globalVariableRegistry.lookup(name);
+    public Object getGlobalVariable(String name) {
+        Object global = getGlobal(name);
+        if (global != null) {
+            return global;
         } else if (parent != null) {
             return parent.getGlobalVariable(name);
         } else {
@@ -99,11 +133,17 @@ public final class LLVMScope {
     public synchronized Object lookupOrCreateGlobal(String name, boolean global, Supplier<Object> generator) {
         if (global && parent != null) {
             // insert non-file-internal (global) variables in the top level (global) scope
-            assert !globalVariableRegistry.exists(name) : "Global is already defined in file-local scope";
+            assert !globals.containsKey(name) : "Global is already defined in file-local scope";
             return parent.lookupOrCreateGlobal(name, global, generator);
         }
         assert global || parent != null;
-        return globalVariableRegistry.lookupOrCreate(name, generator);
+        Object variable = globals.get(name);
+        if (variable == null) {
+            variable = generator.get();
+            beforeUpdate();
+            globals.put(name, variable);
+        }
+        return variable;
     }
 
     @TruffleBoundary
@@ -118,40 +158,42 @@ public final class LLVMScope {
             return context.getFunctionDescriptor(functions.get(name));
         } else {
             LLVMFunctionDescriptor functionDescriptor = context.createFunctionDescriptor(generator);
+            beforeUpdate();
             functions.put(name, LLVMFunctionHandle.createHandle(functionDescriptor.getFunctionPointer()));
             return functionDescriptor;
         }
     }
 
-    private static final class LLVMGlobalVariableRegistry {
-        private final Map<String, Object> globals = new HashMap<>();
-
-        synchronized boolean exists(String name) {
-            return globals.containsKey(name);
+    private LLVMFunctionHandle getFunction(String name) {
+        Snapshot current = snapshot;
+        if (current != null) {
+            return current.functions.get(name);
         }
-
-        synchronized void add(String name, Object global) {
-            if (exists(name)) {
-                throw new IllegalStateException("Global " + name + " already added.");
-            }
-            globals.put(name, global);
+        synchronized (this) {
+            return functions.get(name);
         }
+    }
 
-        synchronized Object lookup(String name) {
-            if (exists(name)) {
-                return globals.get(name);
-            }
-            throw new IllegalStateException("Global " + name + " does not exist.");
+    private Object getGlobal(String name) {
+        Snapshot current = snapshot;
+        if (current != null) {
+            return current.globals.get(name);
         }
+        synchronized (this) {
+            return globals.get(name);
+        }
+    }
 
-        synchronized Object lookupOrCreate(String name, Supplier<Object> generator) {
-            if (exists(name)) {
-                return lookup(name);
-            } else {
-                Object variable = generator.get();
-                add(name, variable);
-                return variable;
-            }
+    /**
+     * Invalidates the snapshot and makes sure the maps can be modified.
+     */
+    private void beforeUpdate() {
+        assert Thread.holdsLock(this);
+        snapshot = null;
+        if (shared) {
+            functions = new HashMap<>(functions);
+            globals = new HashMap<>(globals);
+            shared = false;
         }
     }
 
@@ -29,15 +29,15 @@
  */
 package com.oracle.truffle.llvm.runtime.floating;
 
-import java.nio.ByteBuffer;
-import java.util.Arrays;
-
-import javax.xml.bind.DatatypeConverter;
-
 import com.oracle.truffle.api.CompilerAsserts;
 import com.oracle.truffle.api.CompilerDirectives.ValueType;
 import com.oracle.truffle.api.nodes.ExplodeLoop;
 
+/**
+ * An x86 extended precision ({@code X86_FP80}) value: a sign bit, a 15 bit exponent and a 64 bit
+ * significand with an explicit integer bit. Arithmetic is implemented in software on the raw bits
+ * and rounds to nearest, ties to even, like the x87 FPU in its default 64 bit precision mode.
+ */
 @ValueType
 public final class LLVM80BitFloat {
 
@@ -95,32 +95,33 @@ public final class LLVM80BitFloat {
     private static final LLVM80BitFloat POSITIVE_INFINITY = new LLVM80BitFloat(false, ALL_ONE_EXPONENT, bit(63L));
     private static final LLVM80BitFloat NEGATIVE_INFINITY = new LLVM80BitFloat(true, ALL_ONE_EXPONENT, bit(63L));
 
+    // the "real indefinite" QNaN that the x87 FPU returns for invalid operations
+    private static final LLVM80BitFloat INDEFINITE = new LLVM80BitFloat(true, ALL_ONE_EXPONENT, 0xc000000000000000L);
+
     private static final int EXPLICIT_LEADING_ONE_BITS = 1;
     private static final int EXPONENT_BIAS = 16383;
     private static final int FLOAT_EXPONENT_BIAS = 127;
 
-    private final boolean sign;
-    private final int biasedExponent; // 15 bit
+    private static final int SIGN_BIT = 0x8000;
+    private static final long INTEGER_BIT = 0x8000000000000000L;
+    private static final long QUIET_BIT = 0x4000000000000000L;
+    private static final long LOWER_HALF_MASK = 0xffffffffL;
+
+    private final short signAndExponent; // 1 bit sign, 15 bit exponent
     private final long fraction; // 64 bit
 
     public LLVM80BitFloat(boolean sign, int exponent, long fraction) {
-        this.sign = sign;
-        this.biasedExponent = exponent;
+        this.signAndExponent = (short) ((sign ? SIGN_BIT : 0) | (exponent & ALL_ONE_EXPONENT));
         this.fraction = fraction;
     }
 
     private LLVM80BitFloat(LLVM80BitFloat value) {
-        this.sign = value.sign;
-        this.biasedExponent = value.biasedExponent;
+        this.signAndExponent = value.signAndExponent;
         this.fraction = value.fraction;
     }
 
     private int getUnbiasedExponent() {
-        return biasedExponent - EXPONENT_BIAS;
-    }
-
-    private static long bit(int i) {
-        return 1 << i;
+        return getExponent() - EXPONENT_BIAS;
     }
 
     public static long bit(long i) {
@@ -181,11 +182,6 @@ public final class LLVM80BitFloat {
         return new LLVM80BitFloat(sign, exponent, fraction);
     }
 
-    private static boolean getBit(int position, long posVal) {
-        long l = posVal >>> position;
-        return (l & 1) != 0;
-    }
-
     public boolean isZero() {
         return isPositiveZero() || isNegativeZero();
     }
@@ -250,71 +246,188 @@ public final class LLVM80BitFloat {
         return fraction >>> (FRACTION_BIT_WIDTH - getUnbiasedExponent() - EXPLICIT_LEADING_ONE_BITS);
     }
 
-    private long compareNoSign(LLVM80BitFloat val) {
-        if (getExponent() != val.getExponent()) {
-            return getExponent() - val.getExponent();
-        } else {
-            return (getFraction() - val.getFraction());
+    private boolean isNaN() {
+        return getExponent() == ALL_ONE_EXPONENT && (fraction << 1) != 0;
+    }
+
+    private boolean isInfinite() {
+        return getExponent() == ALL_ONE_EXPONENT && (fraction << 1) == 0;
+    }
+
+    private boolean isZeroValue() {
+        return fraction == 0 && getExponent() != ALL_ONE_EXPONENT;
+    }
+
+    /**
+     * The exponent of the significand after shifting its leading one into bit 63. Denormals have
+     * the same scale as the smallest normal exponent, so their exponent can get smaller than 1.
+     */
+    private int getNormalizedExponent() {
+        return Math.max(getExponent(), 1) - Long.numberOfLeadingZeros(fraction);
+    }
+
+    private long getNormalizedFraction() {
+        return fraction << Long.numberOfLeadingZeros(fraction);
+    }
+
+    private static LLVM80BitFloat quiet(LLVM80BitFloat nan) {
+        return new LLVM80BitFloat(nan.getSign(), ALL_ONE_EXPONENT, nan.fraction | QUIET_BIT);
+    }
+
+    private static LLVM80BitFloat propagateNaN(LLVM80BitFloat left, LLVM80BitFloat right) {
+        return quiet(left.isNaN() ? left : right);
+    }
+
+    private static LLVM80BitFloat infinity(boolean sign) {
+        return new LLVM80BitFloat(sign, ALL_ONE_EXPONENT, INTEGER_BIT);
+    }
+
+    private static LLVM80BitFloat zero(boolean sign) {
+        return new LLVM80BitFloat(sign, 0, 0);
+    }
+
+    /**
+     * Rounds the 128 bit significand {@code high:low} to 64 bits. {@code high} must be normalized,
+     * i.e., have its bit 63 set, and {@code exponent} is the biased exponent of {@code high}.
+     * Results below the normal range are denormalized before rounding, results above it overflow
+     * to infinity.
+     */
+    private static LLVM80BitFloat round(boolean sign, int exponent, long high, long low) {
+        assert high < 0;
+        int exp = exponent;
+        long significand = high;
+        long rest = low;
+        if (exp <= 0) {
+            // the bits shifted out are collected in the lowest (sticky) bit of rest
+            int shift = 1 - exp;
+            if (shift < Long.SIZE) {
+                rest = (significand << (Long.SIZE - shift)) | (rest >>> shift) | ((rest << (Long.SIZE - shift)) != 0 ? 1 : 0);
+                significand >>>= shift;
+            } else if (shift == Long.SIZE) {
+                rest = significand | (rest != 0 ? 1 : 0);
+                significand = 0;
+            } else if (shift < 2 * Long.SIZE) {
+                long lost = rest | (significand << (2 * Long.SIZE - shift));
+                rest = (significand >>> (shift - Long.SIZE)) | (lost != 0 ? 1 : 0);
+                significand = 0;
+            } else {
+                rest = 1;
+                significand = 0;
+            }
+            exp = 0;
         }
+        // round to nearest, ties to even
+        if (rest < 0 && ((rest << 1) != 0 || (significand & 1) != 0)) {
+            significand++;
+            if (significand == 0) {
+                significand = INTEGER_BIT;
+                exp++;
+            } else if (exp == 0 && significand < 0) {
+                // a denormal was rounded up to the smallest normal number
+                exp = 1;
+            }
+        }
+        if (exp >= ALL_ONE_EXPONENT) {
+            return infinity(sign);
+        }
+        return new LLVM80BitFloat(sign, exp, significand);
+    }
+
+    private static long multiplyHighUnsigned(long a, long b) {
+        long aLow = a & LOWER_HALF_MASK;
+        long aHigh = a >>> Integer.SIZE;
+        long bLow = b & LOWER_HALF_MASK;
+        long bHigh = b >>> Integer.SIZE;
+        long lowLow = aLow * bLow;
+        long lowHigh = aLow * bHigh;
+        long highLow = aHigh * bLow;
+        long middle = (lowLow >>> Integer.SIZE) + (lowHigh & LOWER_HALF_MASK) + (highLow & LOWER_HALF_MASK);
+        return aHigh * bHigh + (lowHigh >>> Integer.SIZE) + (highLow >>> Integer.SIZE) + (middle >>> Integer.SIZE);
     }
 
     public LLVM80BitFloat add(LLVM80BitFloat right) {
-        double doubleValue = getDoubleValue();
-        double doubleValue2 = right.getDoubleValue();
-        return fromDouble(doubleValue + doubleValue2);
-    }
-
-    @SuppressWarnings("unused")
-    private LLVM80BitFloat add2(LLVM80BitFloat right) {
-        int leftExponent = getExponent();
-        int rightExponent = right.getExponent();
-        long leftFraction = getFraction();
-        long rightFraction = right.getFraction();
-
-        int shiftAmount = Math.abs(leftExponent - rightExponent);
-        if (leftExponent < rightExponent) {
-            leftFraction >>>= shiftAmount;
-            leftExponent = rightExponent;
-        } else {
-            rightFraction >>>= shiftAmount;
-            rightExponent = leftExponent;
+        if (isNaN() || right.isNaN()) {
+            return propagateNaN(this, right);
+        } else if (isInfinite()) {
+            return right.isInfinite() && getSign() != right.getSign() ? INDEFINITE : this;
+        } else if (right.isInfinite()) {
+            return right;
+        } else if (isZeroValue()) {
+            return right.isZeroValue() ? zero(getSign() && right.getSign()) : right;
+        } else if (right.isZeroValue()) {
+            return this;
         }
-        boolean newSign;
-        if (getSign() == right.getSign()) {
-            newSign = getSign();
-        } else {
-            newSign = compareNoSign(right) < 0 ? right.getSign() : getSign();
-        }
-        boolean addition = getSign() == right.getSign();
-        long resultLo;
-        long resultHi;
-        long leftFractionLowerPart = leftFraction & BinaryHelper.getBitMask(Integer.SIZE);
-        long rightFractionLowerPart = rightFraction & BinaryHelper.getBitMask(Integer.SIZE);
-        long leftFractionHigherPart = leftFraction >>> Integer.SIZE;
-        long rightFractionHigherPart = rightFraction >>> Integer.SIZE;
-        if (addition) {
-            resultLo = -leftFractionLowerPart + rightFractionLowerPart;
-            long overFlowLowerPart = resultLo >>> Integer.SIZE;
-            resultHi = leftFractionHigherPart + rightFractionHigherPart + overFlowLowerPart;
-        } else if (getSign()) { // left is negative
-            resultLo = -leftFractionLowerPart + rightFractionLowerPart;
-            long overFlowLowerPart = resultLo >>> Integer.SIZE;
-            resultHi = -leftFractionHigherPart - rightFractionHigherPart - overFlowLowerPart;
+
+        LLVM80BitFloat larger = this;
+        LLVM80BitFloat smaller = right;
+        int largerExponent = getNormalizedExponent();
+        int smallerExponent = right.getNormalizedExponent();
+        long largerFraction = getNormalizedFraction();
+        long smallerFraction = right.getNormalizedFraction();
+        if (largerExponent < smallerExponent || (largerExponent == smallerExponent && Long.compareUnsigned(largerFraction, smallerFraction) < 0)) {
+            larger = right;
+            smaller = this;
+            int exponent = largerExponent;
+            largerExponent = smallerExponent;
+            smallerExponent = exponent;
+            long fractionValue = largerFraction;
+            largerFraction = smallerFraction;
+            smallerFraction = fractionValue;
+        }
+
+        // align the smaller significand to the larger one, in 128 bits
+        int shift = largerExponent - smallerExponent;
+        long alignedHigh;
+        long alignedLow;
+        if (shift == 0) {
+            alignedHigh = smallerFraction;
+            alignedLow = 0;
+        } else if (shift < Long.SIZE) {
+            alignedHigh = smallerFraction >>> shift;
+            alignedLow = smallerFraction << (Long.SIZE - shift);
+        } else if (shift == Long.SIZE) {
+            alignedHigh = 0;
+            alignedLow = smallerFraction;
+        } else if (shift < 2 * Long.SIZE) {
+            alignedHigh = 0;
+            alignedLow = (smallerFraction >>> (shift - Long.SIZE)) | ((smallerFraction << (2 * Long.SIZE - shift)) != 0 ? 1 : 0);
         } else {
-            resultLo = leftFractionLowerPart - rightFractionLowerPart;
-            long overFlowLowerPart = resultLo >>> Integer.SIZE;
-            resultHi = leftFractionHigherPart - rightFractionHigherPart - overFlowLowerPart;
+            alignedHigh = 0;
+            alignedLow = 1;
         }
-        int overFlow = (int) (resultHi >>> Integer.SIZE);
-        if (overFlow > 0) {
-            resultHi = resultHi >>> overFlow;
-            long lostBits = resultHi & overFlow;
-            long shiftedLostBits = lostBits << Integer.SIZE - overFlow;
-            resultLo = resultLo >>> overFlow | shiftedLostBits;
+
+        boolean sign = larger.getSign();
+        int exponent = largerExponent;
+        long high;
+        long low;
+        if (larger.getSign() == smaller.getSign()) {
+            low = alignedLow;
+            high = largerFraction + alignedHigh;
+            if (Long.compareUnsigned(high, largerFraction) < 0) {
+                // carry out of bit 63
+                low = (low >>> 1) | (high << (Long.SIZE - 1)) | (low & 1);
+                high = (high >>> 1) | INTEGER_BIT;
+                exponent++;
+            }
+        } else {
+            low = -alignedLow;
+            high = largerFraction - alignedHigh - (alignedLow != 0 ? 1 : 0);
+            if (high == 0 && low == 0) {
+                return zero(false);
+            }
+            if (high == 0) {
+                high = low;
+                low = 0;
+                exponent -= Long.SIZE;
+            }
+            int leadingZeros = Long.numberOfLeadingZeros(high);
+            if (leadingZeros != 0) {
+                high = (high << leadingZeros) | (low >>> (Long.SIZE - leadingZeros));
+                low <<= leadingZeros;
+                exponent -= leadingZeros;
+            }
         }
-        int newExponent = leftExponent + overFlow;
-        long newFraction = resultLo + resultHi << Integer.SIZE;
-        return LLVM80BitFloat.fromRawValues(newSign, newExponent, newFraction);
+        return round(sign, exponent, high, low);
     }
 
     public LLVM80BitFloat sub(LLVM80BitFloat right) {
@@ -322,15 +435,110 @@ public final class LLVM80BitFloat {
     }
 
     public LLVM80BitFloat mul(LLVM80BitFloat right) {
-        return fromDouble(getDoubleValue() * right.getDoubleValue());
+        boolean sign = getSign() != right.getSign();
+        if (isNaN() || right.isNaN()) {
+            return propagateNaN(this, right);
+        } else if (isInfinite() || right.isInfinite()) {
+            return isZeroValue() || right.isZeroValue() ? INDEFINITE : infinity(sign);
+        } else if (isZeroValue() || right.isZeroValue()) {
+            return zero(sign);
+        }
+
+        long leftFraction = getNormalizedFraction();
+        long rightFraction = right.getNormalizedFraction();
+        long high = multiplyHighUnsigned(leftFraction, rightFraction);
+        long low = leftFraction * rightFraction;
+        int exponent = getNormalizedExponent() + right.getNormalizedExponent() - EXPONENT_BIAS + 1;
+        if (high >= 0) {
+            high = (high << 1) | (low >>> (Long.SIZE - 1));
+            low <<= 1;
+            exponent--;
+        }
+        return round(sign, exponent, high, low);
     }
 
     public LLVM80BitFloat div(LLVM80BitFloat right) {
-        return fromDouble(getDoubleValue() / right.getDoubleValue());
+        boolean sign = getSign() != right.getSign();
+        if (isNaN() || right.isNaN()) {
+            return propagateNaN(this, right);
+        } else if (isInfinite()) {
+            return right.isInfinite() ? INDEFINITE : infinity(sign);
+        } else if (right.isInfinite()) {
+            return zero(sign);
+        } else if (right.isZeroValue()) {
+            return isZeroValue() ? INDEFINITE : infinity(sign);
+        } else if (isZeroValue()) {
+            return zero(sign);
+        }
+
+        long dividend = getNormalizedFraction();
+        long divisor = right.getNormalizedFraction();
+        int exponent = getNormalizedExponent() - right.getNormalizedExponent() + EXPONENT_BIAS;
+        // the remainder has 65 bits, carry is its highest bit
+        long remainder = dividend;
+        boolean carry = false;
+        if (Long.compareUnsigned(dividend, divisor) < 0) {
+            carry = remainder < 0;
+            remainder <<= 1;
+            exponent--;
+        }
+        long quotient = 0;
+        for (int i = 0; i < Long.SIZE; i++) {
+            quotient <<= 1;
+            if (carry || Long.compareUnsigned(remainder, divisor) >= 0) {
+                remainder -= divisor;
+                quotient |= 1;
+            }
+            carry = remainder < 0;
+            remainder <<= 1;
+        }
+        long low = 0;
+        if (carry || Long.compareUnsigned(remainder, divisor) >= 0) {
+            remainder -= divisor;
+            low = INTEGER_BIT;
+        }
+        if (remainder != 0) {
+            low |= 1;
+        }
+        return round(sign, exponent, quotient, low);
     }
 
+    /**
+     * The remainder of a division with a truncated quotient, like {@code fmod}. The result is
+     * exact and has the sign of the dividend.
+     */
     public LLVM80BitFloat rem(LLVM80BitFloat right) {
-        return fromDouble(getDoubleValue() % right.getDoubleValue());
+        if (isNaN() || right.isNaN()) {
+            return propagateNaN(this, right);
+        } else if (isInfinite() || right.isZeroValue()) {
+            return INDEFINITE;
+        } else if (right.isInfinite() || isZeroValue()) {
+            return this;
+        }
+
+        int exponent = getNormalizedExponent();
+        int divisorExponent = right.getNormalizedExponent();
+        long remainder = getNormalizedFraction();
+        long divisor = right.getNormalizedFraction();
+        if (exponent < divisorExponent || (exponent == divisorExponent && Long.compareUnsigned(remainder, divisor) < 0)) {
+            return this;
+        }
+        boolean carry = false;
+        for (int i = exponent - divisorExponent;; i--) {
+            if (carry || Long.compareUnsigned(remainder, divisor) >= 0) {
+                remainder -= divisor;
+            }
+            if (i == 0) {
+                break;
+            }
+            carry = remainder < 0;
+            remainder <<= 1;
+        }
+        if (remainder == 0) {
+            return zero(getSign());
+        }
+        int leadingZeros = Long.numberOfLeadingZeros(remainder);
+        return round(getSign(), divisorExponent - leadingZeros, remainder << leadingZeros, 0);
     }
 
     public LLVM80BitFloat pow(int right) {
@@ -354,16 +562,7 @@ public final class LLVM80BitFloat {
     }
 
     public boolean isQNaN() {
-        // Checkstyle: stop magic number name check
-        if (getExponent() == ALL_ONE_EXPONENT) {
-            if (!getBit(63, getFraction())) {
-                if (getBit(62, getFraction())) {
-                    return true;
-                }
-            }
-        }
-        // Checkstyle: resume magic number name check
-        return false;
+        return isNaN();
     }
 
     public boolean isOrdered() {
@@ -409,7 +608,7 @@ public final class LLVM80BitFloat {
     }
 
     public short getExponent() {
-        return (short) biasedExponent;
+        return (short) (signAndExponent & ALL_ONE_EXPONENT);
     }
 
     public long getFraction() {
@@ -421,7 +620,7 @@ public final class LLVM80BitFloat {
     }
 
     public boolean getSign() {
-        return sign;
+        return signAndExponent < 0;
     }
 
     @Override
@@ -435,27 +634,27 @@ public final class LLVM80BitFloat {
 
     @Override
     public int hashCode() {
-        return Arrays.hashCode(getBytes());
+        return 31 * signAndExponent + Long.hashCode(fraction);
     }
 
     public byte[] getBytes() {
-        ByteBuffer bb = ByteBuffer.allocate(BYTE_WIDTH);
-        short signWithExponent = getExponent();
-        short signBit = sign ? (short) bit(Short.SIZE - 1) : 0;
-        signWithExponent |= signBit;
-        bb.putShort(signWithExponent);
-        bb.putLong(getFraction());
-        return bb.array();
+        byte[] bytes = new byte[BYTE_WIDTH];
+        bytes[0] = (byte) (signAndExponent >>> Byte.SIZE);
+        bytes[1] = (byte) signAndExponent;
+        for (int i = 0; i < Long.BYTES; i++) {
+            bytes[BYTE_WIDTH - 1 - i] = (byte) (fraction >>> (i * Byte.SIZE));
+        }
+        return bytes;
     }
 
     public static LLVM80BitFloat fromBytes(byte[] bytes) {
         assert bytes.length == BYTE_WIDTH;
-        ByteBuffer bb = ByteBuffer.wrap(bytes);
-        short readShort = bb.getShort();
-        int exponent = readShort & BinaryHelper.getBitMask(EXPONENT_BIT_WIDTH);
-        long fraction = bb.getLong();
-        boolean signSet = getBit(Short.SIZE, readShort);
-        return LLVM80BitFloat.fromRawValues(signSet, exponent, fraction);
+        int signWithExponent = (bytes[0] & 0xff) << Byte.SIZE | (bytes[1] & 0xff);
+        long fraction = 0;
+        for (int i = 2; i < BYTE_WIDTH; i++) {
+            fraction = (fraction << Byte.SIZE) | (bytes[i] & 0xff);
+        }
+        return LLVM80BitFloat.fromRawValues((signWithExponent & SIGN_BIT) != 0, signWithExponent, fraction);
     }
 
     // get value
@@ -465,7 +664,7 @@ public final class LLVM80BitFloat {
             return UNDEFINED_FLOAT_TO_BYTE_VALUE;
         } else {
             long value = getFractionAsLong();
-            return (byte) (sign ? -value : value);
+            return (byte) (getSign() ? -value : value);
         }
     }
 
@@ -474,7 +673,7 @@ public final class LLVM80BitFloat {
             return UNDEFINED_FLOAT_TO_SHORT_VALUE;
         } else {
             long value = getFractionAsLong();
-            return (short) (sign ? -value : value);
+            return (short) (getSign() ? -value : value);
         }
     }
 
@@ -483,7 +682,7 @@ public final class LLVM80BitFloat {
             return UNDEFINED_FLOAT_TO_INT_VALUE;
         }
         int value = (int) getFractionAsLong();
-        return sign ? -value : value;
+        return getSign() ? -value : value;
     }
 
     public long getLongValue() {
@@ -491,7 +690,7 @@ public final class LLVM80BitFloat {
             return UNDEFINED_FLOAT_TO_LONG_VALUE;
         } else {
             long value = getFractionAsLong();
-            return sign ? -value : value;
+            return getSign() ? -value : value;
         }
     }
 
@@ -577,7 +776,21 @@ public final class LLVM80BitFloat {
         if (stringValue.length() != HEX_WIDTH) {
             throw new IllegalArgumentException("unexpected length of input string!");
         }
-        return fromBytes(DatatypeConverter.parseHexBinary(stringValue));
+        int signWithExponent = (int) parseHex(stringValue, 0, HEX_WIDTH - HEX_DIGITS_FRACTION);
+        long fraction = parseHex(stringValue, HEX_WIDTH - HEX_DIGITS_FRACTION, HEX_WIDTH);
+        return LLVM80BitFloat.fromRawValues((signWithExponent & SIGN_BIT) != 0, signWithExponent, fraction);
+    }
+
+    private static long parseHex(String stringValue, int start, int end) {
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            int digit = Character.digit(stringValue.charAt(i), 16);
+            if (digit < 0) {
+                throw new IllegalArgumentException("illegal hex digit in " + stringValue);
+            }
+            value = (value << BIT_TO_HEX_FACTOR) | digit;
+        }
+        return value;
     }
 
 }
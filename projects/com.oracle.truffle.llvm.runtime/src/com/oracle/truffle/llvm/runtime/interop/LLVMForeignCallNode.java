@@ -134,7 +134,6 @@ abstract class LLVMForeignCallNode extends LLVMNode {
         assert !(function.getType().getReturnType() instanceof StructureType);
         Object result;
         if (needsStackPointer) {
-            getThreadingStack(context).checkThread();
             long stackPointer = getThreadingStack(context).getStack().getStackPointer();
             result = callNode.call(packNode.pack(arguments, stackPointer));
             getThreadingStack(context).getStack().setStackPointer(stackPointer);
@@ -148,7 +147,6 @@ abstract class LLVMForeignCallNode extends LLVMNode {
     public Object callIndirect(LLVMFunctionDescriptor function, Object[] arguments,
                     @Cached("create()") IndirectCallNode callNode, @Cached("createSlowPackArguments()") SlowPackForeignArgumentsNode slowPack) {
         assert !(function.getType().getReturnType() instanceof StructureType);
-        function.getContext().getThreadingStack().checkThread();
         long stackPointer = function.getContext().getThreadingStack().getStack().getStackPointer();
         Object result = callNode.call(getCallTarget(function), slowPack.pack(function, arguments, stackPointer));
         function.getContext().getThreadingStack().getStack().setStackPointer(stackPointer);
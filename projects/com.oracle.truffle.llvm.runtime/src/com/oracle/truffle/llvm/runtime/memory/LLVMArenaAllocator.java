@@ -0,0 +1,344 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.runtime.memory;
+
+import java.io.PrintStream;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.llvm.runtime.LLVMAddress;
+
+/**
+ * Serves small requests from thread-local slabs that are carved into power of two size classes.
+ * Each slab only holds chunks of a single size class. Freed chunks are put on a free list of the
+ * freeing thread and are reused by later allocations of the same size class. Requests that exceed
+ * the largest size class are forwarded to {@link LLVMMemory#allocateMemory}.
+ *
+ * The allocator remembers the address ranges of its slabs and large chunks, so that {@link #free}
+ * and {@link #reallocate} can also deal with memory that was allocated natively without ever
+ * reading it. Memory returned by this allocator must not be passed to the native {@code free}.
+ */
+final class LLVMArenaAllocator extends LLVMMemoryAllocator {
+
+    private static final int MIN_CLASS_SHIFT = 4;
+    private static final int MAX_CLASS_SHIFT = 12;
+    private static final int SIZE_CLASSES = MAX_CLASS_SHIFT - MIN_CLASS_SHIFT + 1;
+    private static final long MAX_CLASS_SIZE = 1L << MAX_CLASS_SHIFT;
+
+    // statistics index of allocations that bypass the size classes
+    private static final int LARGE = SIZE_CLASSES;
+
+    private static final long SLAB_SIZE = 64 * 1024;
+
+    private final ThreadLocal<ThreadCache> threadCaches = ThreadLocal.withInitial(() -> registerThreadCache());
+
+    // guarded by this; the caches of threads that have terminated are reclaimed before a new slab is
+    // allocated
+    private final List<ThreadCache> caches = new ArrayList<>();
+
+    // copy on write, sorted by base address and only replaced while holding this
+    private volatile Slabs slabs = new Slabs(new long[0], new byte[0]);
+
+    private final Map<Long, Long> largeChunks = new ConcurrentHashMap<>();
+
+    private final AtomicLongArray liveBytes;
+    private final AtomicLongArray peakBytes;
+
+    LLVMArenaAllocator(boolean collectStatistics) {
+        this.liveBytes = collectStatistics ? new AtomicLongArray(SIZE_CLASSES + 1) : null;
+        this.peakBytes = collectStatistics ? new AtomicLongArray(SIZE_CLASSES + 1) : null;
+    }
+
+    private static final class Slabs {
+        private final long[] bases;
+        private final byte[] sizeClasses;
+
+        Slabs(long[] bases, byte[] sizeClasses) {
+            this.bases = bases;
+            this.sizeClasses = sizeClasses;
+        }
+
+        /**
+         * Returns the size class of the slab that contains {@code address}, or -1 if no slab does.
+         */
+        int find(long address) {
+            int low = 0;
+            int high = bases.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (Long.compareUnsigned(bases[mid], address) > 0) {
+                    high = mid - 1;
+                } else if (Long.compareUnsigned(address - bases[mid], SLAB_SIZE) >= 0) {
+                    low = mid + 1;
+                } else {
+                    return sizeClasses[mid];
+                }
+            }
+            return -1;
+        }
+
+        Slabs insert(long base, int sizeClass) {
+            int index = 0;
+            while (index < bases.length && Long.compareUnsigned(bases[index], base) < 0) {
+                index++;
+            }
+            long[] newBases = new long[bases.length + 1];
+            byte[] newSizeClasses = new byte[bases.length + 1];
+            System.arraycopy(bases, 0, newBases, 0, index);
+            System.arraycopy(sizeClasses, 0, newSizeClasses, 0, index);
+            newBases[index] = base;
+            newSizeClasses[index] = (byte) sizeClass;
+            System.arraycopy(bases, index, newBases, index + 1, bases.length - index);
+            System.arraycopy(sizeClasses, index, newSizeClasses, index + 1, bases.length - index);
+            return new Slabs(newBases, newSizeClasses);
+        }
+    }
+
+    private final class ThreadCache {
+        private final WeakReference<Thread> owner = new WeakReference<>(Thread.currentThread());
+        private final long[] freeLists = new long[SIZE_CLASSES];
+        private final long[] slabTops = new long[SIZE_CLASSES];
+        private final long[] slabEnds = new long[SIZE_CLASSES];
+
+        long allocate(int sizeClass) {
+            long classSize = getClassSize(sizeClass);
+            long chunk = freeLists[sizeClass];
+            if (chunk == 0 && slabEnds[sizeClass] - slabTops[sizeClass] < classSize) {
+                reclaimOrphanedCaches(this);
+                chunk = freeLists[sizeClass];
+                if (chunk == 0) {
+                    slabTops[sizeClass] = allocateSlab(sizeClass);
+                    slabEnds[sizeClass] = slabTops[sizeClass] + SLAB_SIZE;
+                }
+            }
+            if (chunk != 0) {
+                // the first word of a free chunk links to the next free chunk
+                freeLists[sizeClass] = LLVMMemory.getI64(chunk);
+                return chunk;
+            }
+
+            chunk = slabTops[sizeClass];
+            slabTops[sizeClass] += classSize;
+            return chunk;
+        }
+
+        void free(int sizeClass, long chunk) {
+            LLVMMemory.putI64(chunk, freeLists[sizeClass]);
+            freeLists[sizeClass] = chunk;
+        }
+
+        boolean isOrphaned() {
+            Thread thread = owner.get();
+            return thread == null || !thread.isAlive();
+        }
+
+        /**
+         * Moves the free chunks and the unused slab space of a terminated thread into this cache.
+         */
+        void adopt(ThreadCache orphan) {
+            for (int sizeClass = 0; sizeClass < SIZE_CLASSES; sizeClass++) {
+                long classSize = getClassSize(sizeClass);
+                for (long chunk = orphan.slabTops[sizeClass]; orphan.slabEnds[sizeClass] - chunk >= classSize; chunk += classSize) {
+                    free(sizeClass, chunk);
+                }
+                long chunk = orphan.freeLists[sizeClass];
+                while (chunk != 0) {
+                    long next = LLVMMemory.getI64(chunk);
+                    free(sizeClass, chunk);
+                    chunk = next;
+                }
+            }
+        }
+    }
+
+    @Override
+    @TruffleBoundary
+    public LLVMAddress allocate(long size) {
+        if (Long.compareUnsigned(size, MAX_CLASS_SIZE) > 0) {
+            return allocateLarge(size);
+        }
+        int sizeClass = getSizeClass(size);
+        long chunk = threadCaches.get().allocate(sizeClass);
+        recordAllocation(sizeClass, getClassSize(sizeClass));
+        return LLVMAddress.fromLong(chunk);
+    }
+
+    @Override
+    @TruffleBoundary
+    public LLVMAddress reallocate(LLVMAddress address, long size) {
+        long chunk = address.getVal();
+        if (chunk == 0) {
+            return allocate(size);
+        }
+
+        long oldSize;
+        int sizeClass = slabs.find(chunk);
+        if (sizeClass >= 0) {
+            oldSize = getClassSize(sizeClass);
+            if (Long.compareUnsigned(size, MAX_CLASS_SIZE) <= 0 && getSizeClass(size) == sizeClass) {
+                return address;
+            }
+        } else {
+            Long largeSize = largeChunks.get(chunk);
+            if (largeSize == null) {
+                return LLVMMemory.reallocateMemory(address, size);
+            }
+            oldSize = largeSize;
+            if (Long.compareUnsigned(size, MAX_CLASS_SIZE) > 0) {
+                LLVMAddress newAddress = LLVMMemory.reallocateMemory(address, size);
+                largeChunks.remove(chunk);
+                largeChunks.put(newAddress.getVal(), size);
+                recordFree(LARGE, oldSize);
+                recordAllocation(LARGE, size);
+                return newAddress;
+            }
+        }
+
+        LLVMAddress newAddress = allocate(size);
+        copy(chunk, newAddress.getVal(), Math.min(oldSize, size));
+        free(address);
+        return newAddress;
+    }
+
+    @Override
+    @TruffleBoundary
+    public void free(LLVMAddress address) {
+        long chunk = address.getVal();
+        if (chunk == 0) {
+            return;
+        }
+
+        int sizeClass = slabs.find(chunk);
+        if (sizeClass >= 0) {
+            recordFree(sizeClass, getClassSize(sizeClass));
+            threadCaches.get().free(sizeClass, chunk);
+            return;
+        }
+        Long largeSize = largeChunks.remove(chunk);
+        if (largeSize != null) {
+            recordFree(LARGE, largeSize);
+        }
+        LLVMMemory.free(chunk);
+    }
+
+    @Override
+    public void printStatistics(PrintStream stream) {
+        if (liveBytes == null) {
+            return;
+        }
+        for (int i = 0; i < SIZE_CLASSES; i++) {
+            stream.println(String.format("Size class %d \t live bytes: %d \t peak bytes: %d", getClassSize(i), liveBytes.get(i), peakBytes.get(i)));
+        }
+        stream.println(String.format("Size class >%d \t live bytes: %d \t peak bytes: %d", MAX_CLASS_SIZE, liveBytes.get(LARGE), peakBytes.get(LARGE)));
+    }
+
+    @Override
+    public synchronized void dispose() {
+        for (long slab : slabs.bases) {
+            LLVMMemory.free(slab);
+        }
+        slabs = new Slabs(new long[0], new byte[0]);
+        caches.clear();
+        for (Iterator<Long> iterator = largeChunks.keySet().iterator(); iterator.hasNext();) {
+            LLVMMemory.free(iterator.next());
+            iterator.remove();
+        }
+    }
+
+    private LLVMAddress allocateLarge(long size) {
+        if (size < 0) {
+            throw new OutOfMemoryError();
+        }
+        LLVMAddress address = LLVMMemory.allocateMemory(size);
+        largeChunks.put(address.getVal(), size);
+        recordAllocation(LARGE, size);
+        return address;
+    }
+
+    private synchronized ThreadCache registerThreadCache() {
+        ThreadCache cache = new ThreadCache();
+        caches.add(cache);
+        return cache;
+    }
+
+    private synchronized void reclaimOrphanedCaches(ThreadCache cache) {
+        for (Iterator<ThreadCache> iterator = caches.iterator(); iterator.hasNext();) {
+            ThreadCache other = iterator.next();
+            if (other != cache && other.isOrphaned()) {
+                cache.adopt(other);
+                iterator.remove();
+            }
+        }
+    }
+
+    private synchronized long allocateSlab(int sizeClass) {
+        long slab = LLVMMemory.allocateMemory(SLAB_SIZE).getVal();
+        slabs = slabs.insert(slab, sizeClass);
+        return slab;
+    }
+
+    private void recordAllocation(int sizeClass, long bytes) {
+        if (liveBytes != null) {
+            long live = liveBytes.addAndGet(sizeClass, bytes);
+            long peak;
+            do {
+                peak = peakBytes.get(sizeClass);
+            } while (live > peak && !peakBytes.compareAndSet(sizeClass, peak, live));
+        }
+    }
+
+    private void recordFree(int sizeClass, long bytes) {
+        if (liveBytes != null) {
+            liveBytes.addAndGet(sizeClass, -bytes);
+        }
+    }
+
+    private static int getSizeClass(long size) {
+        if (size <= (1L << MIN_CLASS_SHIFT)) {
+            return 0;
+        }
+        return Long.SIZE - Long.numberOfLeadingZeros(size - 1) - MIN_CLASS_SHIFT;
+    }
+
+    private static long getClassSize(int sizeClass) {
+        return 1L << (sizeClass + MIN_CLASS_SHIFT);
+    }
+
+    @SuppressWarnings("deprecation")
+    private static void copy(long source, long target, long length) {
+        LLVMMemory.copyMemory(source, target, length);
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.runtime.memory;
+
+import com.oracle.truffle.llvm.runtime.LLVMAddress;
+
+/**
+ * Field offsets of the C++ ABI exception header ({@code __cxa_exception}) that precedes every
+ * thrown object. The offsets are queried from {@code libsulong} once per context, afterwards the
+ * exception handling nodes access the header fields directly instead of calling into native code.
+ * All offsets are relative to the thrown object and therefore negative.
+ */
+public final class LLVMExceptionLayout {
+
+    private static final int REFERENCE_COUNT = 0;
+    private static final int EXCEPTION_TYPE = 1;
+    private static final int DESTRUCTOR = 2;
+    private static final int UNEXPECTED_HANDLER = 3;
+    private static final int TERMINATE_HANDLER = 4;
+    private static final int HANDLER_COUNT = 5;
+    private static final int UNWIND_HEADER = 6;
+    public static final int FIELD_COUNT = 7;
+
+    // clangs exception class: "CLNGC++\0"
+    private static final long EXCEPTION_CLASS = 0x434C4E47432B2B00L;
+
+    private final long referenceCount;
+    private final long exceptionType;
+    private final long destructor;
+    private final long unexpectedHandler;
+    private final long terminateHandler;
+    private final long handlerCount;
+    private final long unwindHeader;
+
+    public LLVMExceptionLayout(long[] offsets) {
+        assert offsets.length == FIELD_COUNT;
+        this.referenceCount = offsets[REFERENCE_COUNT];
+        this.exceptionType = offsets[EXCEPTION_TYPE];
+        this.destructor = offsets[DESTRUCTOR];
+        this.unexpectedHandler = offsets[UNEXPECTED_HANDLER];
+        this.terminateHandler = offsets[TERMINATE_HANDLER];
+        this.handlerCount = offsets[HANDLER_COUNT];
+        this.unwindHeader = offsets[UNWIND_HEADER];
+    }
+
+    /**
+     * Fills in the header of a freshly allocated exception, see {@code sulong_eh_throw}.
+     */
+    public void initialize(LLVMAddress thrownObject, LLVMAddress type, LLVMAddress destructorFunction) {
+        long ptr = thrownObject.getVal();
+        LLVMMemory.putAddress(ptr + unexpectedHandler, 0);
+        LLVMMemory.putAddress(ptr + terminateHandler, 0);
+        LLVMMemory.putAddress(ptr + exceptionType, type);
+        LLVMMemory.putAddress(ptr + destructor, destructorFunction);
+        LLVMMemory.putI64(ptr + unwindHeader, EXCEPTION_CLASS);
+        LLVMMemory.putI64(ptr + referenceCount, 1);
+        LLVMMemory.putI32(ptr + handlerCount, 0);
+    }
+
+    public LLVMAddress getUnwindHeader(LLVMAddress thrownObject) {
+        return thrownObject.increment(unwindHeader);
+    }
+
+    public LLVMAddress getExceptionPointer(LLVMAddress unwind) {
+        return unwind.increment(-unwindHeader);
+    }
+
+    public LLVMAddress getExceptionType(LLVMAddress unwind) {
+        return LLVMMemory.getAddress(unwind.getVal() - unwindHeader + exceptionType);
+    }
+
+    public LLVMAddress getDestructor(LLVMAddress unwind) {
+        return LLVMMemory.getAddress(unwind.getVal() - unwindHeader + destructor);
+    }
+
+    public int getHandlerCount(LLVMAddress unwind) {
+        return LLVMMemory.getI32(unwind.getVal() - unwindHeader + handlerCount);
+    }
+
+    public void setHandlerCount(LLVMAddress unwind, int value) {
+        LLVMMemory.putI32(unwind.getVal() - unwindHeader + handlerCount, value);
+    }
+
+    /**
+     * Returns the object that is passed to the catch block, see {@code sulong_eh_getThrownObject}.
+     * Pointers are thrown by storing them in the exception, so they are passed on by value.
+     */
+    public LLVMAddress getThrownObject(LLVMAddress unwind, boolean isPointerType) {
+        LLVMAddress exceptionPointer = getExceptionPointer(unwind);
+        return isPointerType ? LLVMMemory.getAddress(exceptionPointer) : exceptionPointer;
+    }
+}
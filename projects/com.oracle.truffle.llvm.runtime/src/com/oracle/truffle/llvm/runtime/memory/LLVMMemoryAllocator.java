@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.runtime.memory;
+
+import java.io.PrintStream;
+
+import com.oracle.truffle.llvm.runtime.LLVMAddress;
+
+/**
+ * Backs the {@code malloc}, {@code calloc}, {@code realloc} and {@code free} intrinsics. The
+ * implementation is selected with the {@code llvm.allocator} option.
+ */
+public abstract class LLVMMemoryAllocator {
+
+    public static final String DIRECT = "direct";
+    public static final String ARENA = "arena";
+
+    public static LLVMMemoryAllocator create(String name, boolean collectStatistics) {
+        if (DIRECT.equals(name)) {
+            return new LLVMDirectAllocator();
+        } else if (ARENA.equals(name)) {
+            return new LLVMArenaAllocator(collectStatistics);
+        } else {
+            throw new IllegalArgumentException("Unknown allocator: " + name);
+        }
+    }
+
+    /**
+     * Allocates {@code size} bytes. Throws an {@link OutOfMemoryError} if the memory cannot be
+     * provided.
+     */
+    public abstract LLVMAddress allocate(long size);
+
+    /**
+     * Resizes the allocation at {@code address}, which may be the null pointer, and returns the
+     * (possibly moved) allocation.
+     */
+    public abstract LLVMAddress reallocate(LLVMAddress address, long size);
+
+    public abstract void free(LLVMAddress address);
+
+    public abstract void printStatistics(PrintStream stream);
+
+    /**
+     * Releases all memory that is still owned by this allocator. Must only be called when the
+     * context is disposed.
+     */
+    public abstract void dispose();
+
+    private static final class LLVMDirectAllocator extends LLVMMemoryAllocator {
+
+        @Override
+        public LLVMAddress allocate(long size) {
+            return LLVMMemory.allocateMemory(size);
+        }
+
+        @Override
+        public LLVMAddress reallocate(LLVMAddress address, long size) {
+            return LLVMMemory.reallocateMemory(address, size);
+        }
+
+        @Override
+        public void free(LLVMAddress address) {
+            LLVMMemory.free(address);
+        }
+
+        @Override
+        public void printStatistics(PrintStream stream) {
+            stream.println("The direct allocator does not collect statistics.");
+        }
+
+        @Override
+        public void dispose() {
+            // every allocation is owned by the program
+        }
+    }
+}
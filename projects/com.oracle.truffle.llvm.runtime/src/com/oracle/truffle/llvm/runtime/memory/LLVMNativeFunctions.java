@@ -44,27 +44,11 @@ public abstract class LLVMNativeFunctions {
 
     public abstract SulongCanCatchNode createSulongCanCatch();
 
-    public abstract SulongThrowNode createSulongThrow();
-
-    public abstract SulongGetUnwindHeaderNode createGetUnwindHeader();
-
-    public abstract SulongGetThrownObjectNode createGetThrownObject();
-
-    public abstract SulongGetExceptionPointerNode createGetExceptionPointer();
-
     public abstract SulongFreeExceptionNode createFreeException();
 
-    public abstract SulongGetDestructorNode createGetDestructor();
-
-    public abstract SulongIncrementHandlerCountNode createIncrementHandlerCount();
-
-    public abstract SulongDecrementHandlerCountNode createDecrementHandlerCount();
-
-    public abstract SulongGetHandlerCountNode createGetHandlerCount();
+    public abstract SulongIsPointerTypeNode createIsPointerType();
 
-    public abstract SulongSetHandlerCountNode createSetHandlerCount();
-
-    public abstract SulongGetExceptionTypeNode createGetExceptionType();
+    public abstract LLVMExceptionLayout getExceptionLayout();
 
     protected static class HeapFunctionNode extends Node {
 
@@ -85,38 +69,6 @@ public abstract class LLVMNativeFunctions {
         }
     }
 
-    public abstract static class SulongIncrementHandlerCountNode extends HeapFunctionNode {
-        protected SulongIncrementHandlerCountNode(TruffleObject function, int argCount) {
-            super(function, argCount);
-        }
-
-        public abstract void inc(LLVMAddress ptr);
-    }
-
-    public abstract static class SulongDecrementHandlerCountNode extends HeapFunctionNode {
-        protected SulongDecrementHandlerCountNode(TruffleObject function, int argCount) {
-            super(function, argCount);
-        }
-
-        public abstract void dec(LLVMAddress ptr);
-    }
-
-    public abstract static class SulongGetHandlerCountNode extends HeapFunctionNode {
-        protected SulongGetHandlerCountNode(TruffleObject function, int argCount) {
-            super(function, argCount);
-        }
-
-        public abstract int get(LLVMAddress ptr);
-    }
-
-    public abstract static class SulongSetHandlerCountNode extends HeapFunctionNode {
-        protected SulongSetHandlerCountNode(TruffleObject function, int argCount) {
-            super(function, argCount);
-        }
-
-        public abstract void set(LLVMAddress ptr, int value);
-    }
-
     public abstract static class SulongFreeExceptionNode extends HeapFunctionNode {
         protected SulongFreeExceptionNode(TruffleObject function, int argCount) {
             super(function, argCount);
@@ -125,44 +77,12 @@ public abstract class LLVMNativeFunctions {
         public abstract void free(LLVMAddress ptr);
     }
 
-    public abstract static class SulongGetDestructorNode extends HeapFunctionNode {
-        protected SulongGetDestructorNode(TruffleObject function, int argCount) {
-            super(function, argCount);
-        }
-
-        public abstract LLVMAddress get(LLVMAddress ptr);
-    }
-
-    public abstract static class SulongGetExceptionTypeNode extends HeapFunctionNode {
-        protected SulongGetExceptionTypeNode(TruffleObject function, int argCount) {
-            super(function, argCount);
-        }
-
-        public abstract LLVMAddress get(LLVMAddress ptr);
-    }
-
-    public abstract static class SulongGetUnwindHeaderNode extends HeapFunctionNode {
-        protected SulongGetUnwindHeaderNode(TruffleObject function, int argCount) {
-            super(function, argCount);
-        }
-
-        public abstract LLVMAddress getUnwind(LLVMAddress ptr);
-    }
-
-    public abstract static class SulongGetThrownObjectNode extends HeapFunctionNode {
-        protected SulongGetThrownObjectNode(TruffleObject function, int argCount) {
+    public abstract static class SulongIsPointerTypeNode extends HeapFunctionNode {
+        protected SulongIsPointerTypeNode(TruffleObject function, int argCount) {
             super(function, argCount);
         }
 
-        public abstract LLVMAddress getThrownObject(LLVMAddress ptr);
-    }
-
-    public abstract static class SulongGetExceptionPointerNode extends HeapFunctionNode {
-        protected SulongGetExceptionPointerNode(TruffleObject function, int argCount) {
-            super(function, argCount);
-        }
-
-        public abstract LLVMAddress getExceptionPointer(LLVMAddress ptr);
+        public abstract boolean isPointerType(LLVMAddress type);
     }
 
     public abstract static class SulongCanCatchNode extends HeapFunctionNode {
@@ -175,16 +95,6 @@ public abstract class LLVMNativeFunctions {
         public abstract int canCatch(LLVMAddress adjustedPtr, LLVMAddress excpType, LLVMAddress catchType);
     }
 
-    public abstract static class SulongThrowNode extends HeapFunctionNode {
-        protected SulongThrowNode(TruffleObject function, int argCount) {
-            super(function, argCount);
-        }
-
-        // void sulong_eh_throw(void *ptr, std::type_info *type, void (*destructor)(void *), void
-        // (*unexpectedHandler)(void *), void (*terminateHandler)(void *))
-        public abstract void throvv(LLVMAddress ptr, LLVMAddress type, LLVMAddress destructor, LLVMAddress unexpectedHandler, LLVMAddress terminateHandler);
-    }
-
     public abstract static class DynamicCastNode extends HeapFunctionNode {
 
         protected DynamicCastNode(TruffleObject function, int argCount) {
@@ -33,33 +33,41 @@ import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
 import com.oracle.truffle.llvm.runtime.LLVMAddress;
 
+/**
+ * Copies memory in Java for small lengths and with {@code Unsafe.copyMemory} for large ones. Each
+ * size bucket is profiled separately, so a call site that copies both small and large blocks keeps
+ * both paths instead of switching to native copies for good after the first large one.
+ */
 public class LLVMProfiledMemMove {
     protected static final long MAX_JAVA_LEN = 256;
 
-    @CompilationFinal private boolean inJava = true;
+    @CompilationFinal private boolean seenSmall;
+    @CompilationFinal private boolean seenLarge;
 
     public void memmove(LLVMAddress target, LLVMAddress source, long length) {
-        if (inJava) {
-            if (length <= MAX_JAVA_LEN) {
-                long targetPointer = target.getVal();
-                long sourcePointer = source.getVal();
+        if (length <= MAX_JAVA_LEN) {
+            if (!seenSmall) {
+                CompilerDirectives.transferToInterpreterAndInvalidate();
+                seenSmall = true;
+            }
+            long targetPointer = target.getVal();
+            long sourcePointer = source.getVal();
 
-                assert targetPointer >= 0 && sourcePointer >= 0;
-                if (CompilerDirectives.injectBranchProbability(CompilerDirectives.UNLIKELY_PROBABILITY, targetPointer == sourcePointer)) {
-                    // nothing todo
-                } else if (CompilerDirectives.injectBranchProbability(CompilerDirectives.LIKELY_PROBABILITY, Long.compareUnsigned(targetPointer - sourcePointer, length) >= 0)) {
-                    copyForward(targetPointer, sourcePointer, length);
-                } else {
-                    copyBackward(targetPointer, sourcePointer, length);
-                }
-                return;
+            assert targetPointer >= 0 && sourcePointer >= 0;
+            if (CompilerDirectives.injectBranchProbability(CompilerDirectives.UNLIKELY_PROBABILITY, targetPointer == sourcePointer)) {
+                // nothing todo
+            } else if (CompilerDirectives.injectBranchProbability(CompilerDirectives.LIKELY_PROBABILITY, Long.compareUnsigned(targetPointer - sourcePointer, length) >= 0)) {
+                copyForward(targetPointer, sourcePointer, length);
             } else {
+                copyBackward(targetPointer, sourcePointer, length);
+            }
+        } else {
+            if (!seenLarge) {
                 CompilerDirectives.transferToInterpreterAndInvalidate();
-                inJava = false;
+                seenLarge = true;
             }
+            nativeMemCopy(target, source, length);
         }
-
-        nativeMemCopy(target, source, length);
     }
 
     private static void copyForward(long target, long source, long length) {
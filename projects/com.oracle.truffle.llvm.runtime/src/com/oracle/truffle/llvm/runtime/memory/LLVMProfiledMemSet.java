@@ -33,40 +33,47 @@ import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
 import com.oracle.truffle.llvm.runtime.LLVMAddress;
 
+/**
+ * Sets memory in Java for small lengths and with {@code Unsafe.setMemory} for large ones. Like
+ * {@link LLVMProfiledMemMove}, the two size buckets are profiled independently.
+ */
 public class LLVMProfiledMemSet {
     protected static final long MAX_JAVA_LEN = 256;
 
-    @CompilationFinal private boolean inJava = true;
+    @CompilationFinal private boolean seenSmall;
+    @CompilationFinal private boolean seenLarge;
 
     public void memset(LLVMAddress address, byte value, long length) {
-        if (inJava) {
-            if (length <= MAX_JAVA_LEN) {
-                long current = address.getVal();
-                long i64ValuesToWrite = length >> 3;
-                if (CompilerDirectives.injectBranchProbability(CompilerDirectives.LIKELY_PROBABILITY, i64ValuesToWrite > 0)) {
-                    long v16 = ((long) value) << 8 | ((long) value & 0xFF);
-                    long v32 = v16 << 16 | v16;
-                    long v64 = v32 << 32 | v32;
+        if (length <= MAX_JAVA_LEN) {
+            if (!seenSmall) {
+                CompilerDirectives.transferToInterpreterAndInvalidate();
+                seenSmall = true;
+            }
+            long current = address.getVal();
+            long i64ValuesToWrite = length >> 3;
+            if (CompilerDirectives.injectBranchProbability(CompilerDirectives.LIKELY_PROBABILITY, i64ValuesToWrite > 0)) {
+                long v16 = ((long) value) << 8 | ((long) value & 0xFF);
+                long v32 = v16 << 16 | v16;
+                long v64 = v32 << 32 | v32;
 
-                    for (long i = 0; CompilerDirectives.injectBranchProbability(CompilerDirectives.LIKELY_PROBABILITY, i < i64ValuesToWrite); i++) {
-                        LLVMMemory.putI64(current, v64);
-                        current += 8;
-                    }
+                for (long i = 0; CompilerDirectives.injectBranchProbability(CompilerDirectives.LIKELY_PROBABILITY, i < i64ValuesToWrite); i++) {
+                    LLVMMemory.putI64(current, v64);
+                    current += 8;
                 }
+            }
 
-                long i8ValuesToWrite = length & 0x07;
-                for (long i = 0; CompilerDirectives.injectBranchProbability(CompilerDirectives.LIKELY_PROBABILITY, i < i8ValuesToWrite); i++) {
-                    LLVMMemory.putI8(current, value);
-                    current++;
-                }
-                return;
-            } else {
+            long i8ValuesToWrite = length & 0x07;
+            for (long i = 0; CompilerDirectives.injectBranchProbability(CompilerDirectives.LIKELY_PROBABILITY, i < i8ValuesToWrite); i++) {
+                LLVMMemory.putI8(current, value);
+                current++;
+            }
+        } else {
+            if (!seenLarge) {
                 CompilerDirectives.transferToInterpreterAndInvalidate();
-                inJava = false;
+                seenLarge = true;
             }
+            nativeMemSet(address, value, length);
         }
-
-        nativeMemSet(address, value, length);
     }
 
     @SuppressWarnings("deprecation")
@@ -36,7 +36,7 @@ import java.lang.annotation.Target;
 import java.lang.reflect.Field;
 
 import com.oracle.truffle.api.CompilerAsserts;
-import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
+import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.frame.FrameSlot;
 import com.oracle.truffle.api.frame.FrameUtil;
@@ -75,25 +75,32 @@ public final class LLVMStack {
         }
     }
 
-    @CompilationFinal private long lowerBounds;
-    @CompilationFinal private long upperBounds;
-    private boolean isFreed = true;
+    private final int stackSize;
+
+    private long lowerBounds;
+    private long upperBounds;
+    private boolean isAllocated;
+    private boolean isFreed;
 
     private long stackPointer;
 
+    /**
+     * Creates a stack of {@code stackSize} KB. The memory is only reserved once the stack is used
+     * for the first time, so that a context or a thread that never runs code does not pay for it.
+     */
     public LLVMStack(int stackSize) {
-        allocate(stackSize);
+        this.stackSize = stackSize;
     }
 
     @TruffleBoundary
-    private void allocate(final int stackSize) {
-        if (!isFreed) {
-            throw new AssertionError("previously not deallocated");
+    private void allocate() {
+        if (isFreed) {
+            throw new AssertionError("already freed");
         }
-        final long stackAllocation = UNSAFE.allocateMemory(stackSize * 1024);
+        final long stackAllocation = UNSAFE.allocateMemory(stackSize * 1024L);
         lowerBounds = stackAllocation;
-        upperBounds = stackAllocation + stackSize * 1024;
-        isFreed = false;
+        upperBounds = stackAllocation + stackSize * 1024L;
+        isAllocated = true;
         stackPointer = upperBounds;
     }
 
@@ -101,7 +108,14 @@ public final class LLVMStack {
         return isFreed;
     }
 
+    /**
+     * Only called when entering Sulong (e.g., global root or foreign call), not per allocation, so
+     * the check whether the memory is reserved yet stays off the hot paths.
+     */
     public long getStackPointer() {
+        if (CompilerDirectives.injectBranchProbability(CompilerDirectives.SLOWPATH_PROBABILITY, !isAllocated)) {
+            allocate();
+        }
         long sp = this.stackPointer;
         assert assertStackPointer();
         return sp;
@@ -117,15 +131,26 @@ public final class LLVMStack {
         this.stackPointer = pointer;
     }
 
+    /**
+     * Prepares the stack for being used by another thread. The memory is kept.
+     */
+    void reset() {
+        CompilerAsserts.neverPartOfCompilation();
+        stackPointer = upperBounds;
+    }
+
     @TruffleBoundary
     public void free() {
         if (isFreed) {
             throw new AssertionError("already freed");
         }
-        UNSAFE.freeMemory(lowerBounds);
+        if (isAllocated) {
+            UNSAFE.freeMemory(lowerBounds);
+        }
         lowerBounds = 0;
         upperBounds = 0;
         stackPointer = 0;
+        isAllocated = false;
         isFreed = true;
     }
 
@@ -149,7 +174,7 @@ public final class LLVMStack {
     @Override
     protected void finalize() throws Throwable {
         super.finalize();
-        if (!isFreed) {
+        if (isAllocated) {
             throw new AssertionError("Did not free stack memory!");
         }
     }
@@ -31,22 +31,31 @@ package com.oracle.truffle.llvm.runtime.memory;
 
 import java.lang.ref.ReferenceQueue;
 import java.lang.ref.WeakReference;
-import java.util.HashMap;
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.Set;
 
-import com.oracle.truffle.api.Assumption;
 import com.oracle.truffle.api.CompilerAsserts;
 import com.oracle.truffle.api.CompilerDirectives;
-import com.oracle.truffle.api.Truffle;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 
+/**
+ * Manages the stacks of all threads that call into Sulong. The thread that created the context
+ * uses a dedicated stack, all other threads find their stack in a thread local. Stacks of
+ * terminated threads are reused for new threads.
+ */
 public final class LLVMThreadingStack {
 
-    private final Assumption singleThreading = Truffle.getRuntime().createAssumption();
+    private static final int MAX_POOLED_STACKS = 16;
+
     private final Thread defaultThread;
     private final LLVMStack defaultStack;
 
-    private final HashMap<Long, LLVMStack> threadToStack = new HashMap<>();
+    private final ThreadLocal<LLVMStack> threadStack = new ThreadLocal<>();
 
+    // only accessed while holding the lock of this object
+    private final Set<ThreadStackReference> threadStacks = new HashSet<>();
+    private final ArrayDeque<LLVMStack> pooledStacks = new ArrayDeque<>();
     private final ReferenceQueue<Thread> threadsQueue = new ReferenceQueue<>();
 
     private final int stackSize;
@@ -57,102 +66,103 @@ public final class LLVMThreadingStack {
         this.defaultStack = new LLVMStack(stackSize);
     }
 
-    private class ReferenceWithCleanup extends WeakReference<Thread> {
-        private final long threadID;
+    private final class ThreadStackReference extends WeakReference<Thread> {
+        private final LLVMStack stack;
 
-        ReferenceWithCleanup(Thread thread) {
+        ThreadStackReference(Thread thread, LLVMStack stack) {
             super(thread, threadsQueue);
-            this.threadID = thread.getId();
-        }
-
-        public void cleanUp() {
-            LLVMStack stack = threadToStack.get(threadID);
-            stack.free();
-            threadToStack.remove(threadID);
+            this.stack = stack;
         }
     }
 
-    private class StackGCThread implements Runnable {
-        @Override
-        public void run() {
-            while (true) {
-                try {
-                    ReferenceWithCleanup ref = (ReferenceWithCleanup) threadsQueue.remove();
-                    ref.cleanUp();
-                } catch (InterruptedException ex) {
-                    // ignore
-                }
+    public LLVMStack getStack() {
+        Thread currentThread = Thread.currentThread();
+        if (currentThread == defaultThread) {
+            if (CompilerDirectives.inInterpreter()) {
+                pollTerminatedThreads();
             }
+            return defaultStack;
         }
+        return getThreadStack(currentThread);
     }
 
-    public void checkThread() {
-        if (singleThreading.isValid()) {
-            Thread currentThread = Thread.currentThread();
-            if (currentThread != defaultThread) {
-                CompilerDirectives.transferToInterpreterAndInvalidate();
-                synchronized (this) {
-                    // recheck under lock as a race condition can still happen
-                    if (singleThreading.isValid()) {
-                        singleThreading.invalidate();
-
-                        Thread stackGC = new Thread(new StackGCThread(), "sulongStackGC");
-                        stackGC.setDaemon(true);
-                        stackGC.start();
-                    }
-                }
-            }
+    @TruffleBoundary
+    private LLVMStack getThreadStack(Thread currentThread) {
+        LLVMStack stack = threadStack.get();
+        if (stack == null) {
+            stack = addNewThread(currentThread);
+            threadStack.set(stack);
+        } else {
+            pollTerminatedThreads();
         }
+        return stack;
     }
 
-    public LLVMStack getStack() {
-        if (singleThreading.isValid()) {
-            assert Thread.currentThread() == defaultThread;
-            return defaultStack;
-        } else {
-            Thread currentThread = Thread.currentThread();
-            if (currentThread == defaultThread) {
-                return defaultStack;
-            } else {
-                synchronized (this) {
-                    if (isKnownThread(currentThread)) {
-                        return getKnownThread(currentThread);
-                    } else {
-                        return addNewThread(currentThread);
-                    }
-                }
+    /**
+     * Reclaims the stacks of terminated threads also when no new thread calls into Sulong. Polling
+     * an empty reference queue does not take a lock.
+     */
+    @TruffleBoundary
+    private void pollTerminatedThreads() {
+        ThreadStackReference ref = (ThreadStackReference) threadsQueue.poll();
+        if (ref != null) {
+            synchronized (this) {
+                reclaimStack(ref);
+                reclaimStacks();
             }
         }
     }
 
-    @SuppressWarnings("unused")
-    @TruffleBoundary
-    private LLVMStack addNewThread(Thread currentThread) {
-        LLVMStack newStack = new LLVMStack(stackSize);
-        threadToStack.put(currentThread.getId(), newStack);
-        new ReferenceWithCleanup(currentThread);
-        return newStack;
+    private synchronized LLVMStack addNewThread(Thread currentThread) {
+        reclaimStacks();
+        LLVMStack stack = pooledStacks.poll();
+        if (stack == null) {
+            stack = new LLVMStack(stackSize);
+        }
+        threadStacks.add(new ThreadStackReference(currentThread, stack));
+        return stack;
     }
 
-    @TruffleBoundary
-    private LLVMStack getKnownThread(Thread currentThread) {
-        return threadToStack.get(currentThread.getId());
+    /**
+     * Returns the stacks of terminated threads to the pool.
+     */
+    private void reclaimStacks() {
+        assert Thread.holdsLock(this);
+        ThreadStackReference ref;
+        while ((ref = (ThreadStackReference) threadsQueue.poll()) != null) {
+            reclaimStack(ref);
+        }
     }
 
-    @TruffleBoundary
-    private boolean isKnownThread(Thread currentThread) {
-        return threadToStack.containsKey(currentThread.getId());
+    private void reclaimStack(ThreadStackReference ref) {
+        assert Thread.holdsLock(this);
+        if (!threadStacks.remove(ref)) {
+            // the stack was already freed with the context
+            return;
+        }
+        if (pooledStacks.size() < MAX_POOLED_STACKS) {
+            ref.stack.reset();
+            pooledStacks.push(ref.stack);
+        } else {
+            ref.stack.free();
+        }
     }
 
     public void freeStacks() {
         CompilerAsserts.neverPartOfCompilation();
         synchronized (this) {
+            reclaimStacks();
             defaultStack.free();
-            for (LLVMStack s : threadToStack.values()) {
-                if (!s.isFreed()) {
-                    s.free();
+            for (ThreadStackReference ref : threadStacks) {
+                if (!ref.stack.isFreed()) {
+                    ref.stack.free();
                 }
             }
+            for (LLVMStack s : pooledStacks) {
+                s.free();
+            }
+            threadStacks.clear();
+            pooledStacks.clear();
         }
     }
 
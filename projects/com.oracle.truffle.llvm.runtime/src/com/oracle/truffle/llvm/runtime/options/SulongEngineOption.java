@@ -73,6 +73,14 @@ public final class SulongEngineOption {
     public static final String LAZY_PARSING_NAME = "llvm.lazyParsing";
     public static final String LAZY_PARSING_INFO = "Transforms LLVM IR functions to Sulong ASTs lazily.";
 
+    public static final OptionKey<Integer> PARSER_THREADS = new OptionKey<>(0);
+    public static final String PARSER_THREADS_NAME = "llvm.parserThreads";
+    public static final String PARSER_THREADS_INFO = "The number of threads that transform LLVM IR functions to Sulong ASTs if llvm.lazyParsing is disabled. Uses one thread per core if 0.";
+
+    public static final OptionKey<String> PARSER_CACHE = new OptionKey<>("");
+    public static final String PARSER_CACHE_NAME = "llvm.parserCache";
+    public static final String PARSER_CACHE_INFO = "Directory in which scanned bitcode modules are cached across runs, keyed by the SHA-256 of the bitcode. Caching is disabled if empty.";
+
     public static final OptionKey<String> DEBUG = new OptionKey<>(String.valueOf(false));
     public static final String DEBUG_NAME = "llvm.debug";
     public static final String DEBUG_INFO = "Turns debugging on/off. Can be \'true\', \'false\', \'stdout\', \'stderr\' or a filepath.";
@@ -85,6 +93,22 @@ public final class SulongEngineOption {
     public static final String NATIVE_CALL_STATS_NAME = "llvm.printNativeCallStats";
     public static final String NATIVE_CALL_STATS_INFO = "Outputs stats about native call site frequencies. Can be \'true\', \'false\', \'stdout\', \'stderr\' or a filepath.";
 
+    public static final OptionKey<String> NATIVE_CALL_PROFILE = new OptionKey<>(String.valueOf(false));
+    public static final String NATIVE_CALL_PROFILE_NAME = "llvm.nativeCallProfile";
+    public static final String NATIVE_CALL_PROFILE_INFO = "Profiles the time spent in native calls and in converting their arguments, per call site, and prints it as JSON when the context is disposed. Can be \'true\', \'false\', \'stdout\' or \'stderr\'.";
+
+    public static final OptionKey<Boolean> STRING_INTRINSICS = new OptionKey<>(true);
+    public static final String STRING_INTRINSICS_NAME = "llvm.stringIntrinsics";
+    public static final String STRING_INTRINSICS_INFO = "Executes memcmp, memchr, strncmp, strchr, strcpy and strncpy in Java instead of calling the native implementations.";
+
+    public static final OptionKey<String> ALLOCATOR = new OptionKey<>("direct");
+    public static final String ALLOCATOR_NAME = "llvm.allocator";
+    public static final String ALLOCATOR_INFO = "The allocator used for malloc, calloc, realloc and free. Can be \'direct\' (default) or \'arena\' (size-class free lists on thread-local slabs).";
+
+    public static final OptionKey<String> ALLOCATOR_STATS = new OptionKey<>(String.valueOf(false));
+    public static final String ALLOCATOR_STATS_NAME = "llvm.printAllocatorStats";
+    public static final String ALLOCATOR_STATS_INFO = "Prints the live and peak bytes per size class of the arena allocator. Can be \'true\', \'false\', \'stdout\' or \'stderr\'.";
+
     public static final OptionKey<String> PRINT_LIFE_TIME_ANALYSIS_STATS = new OptionKey<>(String.valueOf(false));
     public static final String PRINT_LIFE_TIME_ANALYSIS_STATS_NAME = "llvm.printLifetimeAnalysisStats";
     public static final String PRINT_LIFE_TIME_ANALYSIS_STATS_INFO = "Prints the results of the lifetime analysis. Can be \'true\', \'false\', \'stdout\', \'stderr\' or a filepath.";
@@ -107,12 +131,24 @@ public final class SulongEngineOption {
                         OptionCategory.USER).build());
         options.add(OptionDescriptor.newBuilder(SulongEngineOption.LAZY_PARSING, SulongEngineOption.LAZY_PARSING_NAME).help(SulongEngineOption.LAZY_PARSING_INFO).category(
                         OptionCategory.USER).build());
+        options.add(OptionDescriptor.newBuilder(SulongEngineOption.PARSER_THREADS, SulongEngineOption.PARSER_THREADS_NAME).help(SulongEngineOption.PARSER_THREADS_INFO).category(
+                        OptionCategory.USER).build());
+        options.add(OptionDescriptor.newBuilder(SulongEngineOption.PARSER_CACHE, SulongEngineOption.PARSER_CACHE_NAME).help(SulongEngineOption.PARSER_CACHE_INFO).category(
+                        OptionCategory.EXPERT).build());
         options.add(OptionDescriptor.newBuilder(SulongEngineOption.DEBUG, SulongEngineOption.DEBUG_NAME).help(SulongEngineOption.DEBUG_INFO).category(
                         OptionCategory.USER).build());
         options.add(OptionDescriptor.newBuilder(SulongEngineOption.PRINT_FUNCTION_ASTS, SulongEngineOption.PRINT_FUNCTION_ASTS_NAME).help(SulongEngineOption.PRINT_FUNCTION_ASTS_INFO).category(
                         OptionCategory.USER).build());
         options.add(OptionDescriptor.newBuilder(SulongEngineOption.NATIVE_CALL_STATS, SulongEngineOption.NATIVE_CALL_STATS_NAME).help(SulongEngineOption.NATIVE_CALL_STATS_INFO).category(
                         OptionCategory.USER).build());
+        options.add(OptionDescriptor.newBuilder(SulongEngineOption.NATIVE_CALL_PROFILE, SulongEngineOption.NATIVE_CALL_PROFILE_NAME).help(SulongEngineOption.NATIVE_CALL_PROFILE_INFO).category(
+                        OptionCategory.USER).build());
+        options.add(OptionDescriptor.newBuilder(SulongEngineOption.STRING_INTRINSICS, SulongEngineOption.STRING_INTRINSICS_NAME).help(SulongEngineOption.STRING_INTRINSICS_INFO).category(
+                        OptionCategory.EXPERT).build());
+        options.add(OptionDescriptor.newBuilder(SulongEngineOption.ALLOCATOR, SulongEngineOption.ALLOCATOR_NAME).help(SulongEngineOption.ALLOCATOR_INFO).category(
+                        OptionCategory.EXPERT).build());
+        options.add(OptionDescriptor.newBuilder(SulongEngineOption.ALLOCATOR_STATS, SulongEngineOption.ALLOCATOR_STATS_NAME).help(SulongEngineOption.ALLOCATOR_STATS_INFO).category(
+                        OptionCategory.EXPERT).build());
         options.add(OptionDescriptor.newBuilder(SulongEngineOption.PRINT_LIFE_TIME_ANALYSIS_STATS, SulongEngineOption.PRINT_LIFE_TIME_ANALYSIS_STATS_NAME).help(
                         SulongEngineOption.PRINT_LIFE_TIME_ANALYSIS_STATS_INFO).category(
                                         OptionCategory.USER).build());
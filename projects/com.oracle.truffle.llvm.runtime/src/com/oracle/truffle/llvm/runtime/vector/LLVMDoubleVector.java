@@ -32,6 +32,7 @@ package com.oracle.truffle.llvm.runtime.vector;
 import java.util.Arrays;
 
 import com.oracle.truffle.api.CompilerDirectives.ValueType;
+import com.oracle.truffle.api.nodes.ExplodeLoop;
 import com.oracle.truffle.llvm.runtime.LLVMAddress;
 import com.oracle.truffle.llvm.runtime.memory.LLVMMemory;
 
@@ -50,19 +51,76 @@ public final class LLVMDoubleVector {
     }
 
     public static LLVMDoubleVector readVectorFromMemory(LLVMAddress address, int size) {
-        double[] vector = new double[size];
         long currentPtr = address.getVal();
+        switch (size) {
+            case 2:
+                return create(readVectorFromMemory(currentPtr, 2));
+            case 4:
+                return create(readVectorFromMemory(currentPtr, 4));
+            case 8:
+                return create(readVectorFromMemory(currentPtr, 8));
+            case 16:
+                return create(readVectorFromMemory(currentPtr, 16));
+            default:
+                return create(readVectorFromMemoryLoop(currentPtr, size));
+        }
+    }
+
+    @ExplodeLoop
+    private static double[] readVectorFromMemory(long address, int lanes) {
+        double[] vector = new double[lanes];
+        long currentPtr = address;
+        for (int i = 0; i < lanes; i++) {
+            vector[i] = LLVMMemory.getDouble(currentPtr);
+            currentPtr += DOUBLE_SIZE;
+        }
+        return vector;
+    }
+
+    private static double[] readVectorFromMemoryLoop(long address, int size) {
+        double[] vector = new double[size];
+        long currentPtr = address;
         for (int i = 0; i < size; i++) {
             vector[i] = LLVMMemory.getDouble(currentPtr);
             currentPtr += DOUBLE_SIZE;
         }
-        return create(vector);
+        return vector;
     }
 
     public static void writeVectorToMemory(LLVMAddress address, LLVMDoubleVector vector) {
         long currentPtr = address.getVal();
-        for (int i = 0; i < vector.getLength(); i++) {
-            LLVMMemory.putDouble(currentPtr, vector.getValue(i));
+        switch (vector.getLength()) {
+            case 2:
+                writeVectorToMemory(currentPtr, vector.vector, 2);
+                break;
+            case 4:
+                writeVectorToMemory(currentPtr, vector.vector, 4);
+                break;
+            case 8:
+                writeVectorToMemory(currentPtr, vector.vector, 8);
+                break;
+            case 16:
+                writeVectorToMemory(currentPtr, vector.vector, 16);
+                break;
+            default:
+                writeVectorToMemoryLoop(currentPtr, vector.vector);
+                break;
+        }
+    }
+
+    @ExplodeLoop
+    private static void writeVectorToMemory(long address, double[] vector, int lanes) {
+        long currentPtr = address;
+        for (int i = 0; i < lanes; i++) {
+            LLVMMemory.putDouble(currentPtr, vector[i]);
+            currentPtr += DOUBLE_SIZE;
+        }
+    }
+
+    private static void writeVectorToMemoryLoop(long address, double[] vector) {
+        long currentPtr = address;
+        for (int i = 0; i < vector.length; i++) {
+            LLVMMemory.putDouble(currentPtr, vector[i]);
             currentPtr += DOUBLE_SIZE;
         }
     }
@@ -72,6 +130,41 @@ public final class LLVMDoubleVector {
         double eval(double a, double b);
     }
 
+    private static final Operation ADD = new Operation() {
+        @Override
+        public double eval(double a, double b) {
+            return a + b;
+        }
+    };
+
+    private static final Operation MUL = new Operation() {
+        @Override
+        public double eval(double a, double b) {
+            return a * b;
+        }
+    };
+
+    private static final Operation SUB = new Operation() {
+        @Override
+        public double eval(double a, double b) {
+            return a - b;
+        }
+    };
+
+    private static final Operation DIV = new Operation() {
+        @Override
+        public double eval(double a, double b) {
+            return a / b;
+        }
+    };
+
+    private static final Operation REM = new Operation() {
+        @Override
+        public double eval(double a, double b) {
+            return a % b;
+        }
+    };
+
     private static LLVMDoubleVector doOperation(LLVMDoubleVector lhs, LLVMDoubleVector rhs, Operation op) {
         double[] left = lhs.vector;
         double[] right = rhs.vector;
@@ -80,57 +173,55 @@ public final class LLVMDoubleVector {
         // this implementation however assumes it
         assert left.length == right.length;
 
-        double[] result = new double[left.length];
+        switch (left.length) {
+            case 2:
+                return create(doOperation(left, right, op, 2));
+            case 4:
+                return create(doOperation(left, right, op, 4));
+            case 8:
+                return create(doOperation(left, right, op, 8));
+            case 16:
+                return create(doOperation(left, right, op, 16));
+            default:
+                return create(doOperationLoop(left, right, op));
+        }
+    }
 
+    @ExplodeLoop
+    private static double[] doOperation(double[] left, double[] right, Operation op, int lanes) {
+        double[] result = new double[lanes];
+        for (int i = 0; i < lanes; i++) {
+            result[i] = op.eval(left[i], right[i]);
+        }
+        return result;
+    }
+
+    private static double[] doOperationLoop(double[] left, double[] right, Operation op) {
+        double[] result = new double[left.length];
         for (int i = 0; i < left.length; i++) {
             result[i] = op.eval(left[i], right[i]);
         }
-        return create(result);
+        return result;
     }
 
     public LLVMDoubleVector add(LLVMDoubleVector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public double eval(double a, double b) {
-                return a + b;
-            }
-        });
+        return doOperation(this, rightValue, ADD);
     }
 
     public LLVMDoubleVector mul(LLVMDoubleVector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public double eval(double a, double b) {
-                return a * b;
-            }
-        });
+        return doOperation(this, rightValue, MUL);
     }
 
     public LLVMDoubleVector sub(LLVMDoubleVector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public double eval(double a, double b) {
-                return a - b;
-            }
-        });
+        return doOperation(this, rightValue, SUB);
     }
 
     public LLVMDoubleVector div(LLVMDoubleVector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public double eval(double a, double b) {
-                return a / b;
-            }
-        });
+        return doOperation(this, rightValue, DIV);
     }
 
     public LLVMDoubleVector rem(LLVMDoubleVector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public double eval(double a, double b) {
-                return a % b;
-            }
-        });
+        return doOperation(this, rightValue, REM);
     }
 
     public double[] getValues() {
@@ -30,6 +30,7 @@
 package com.oracle.truffle.llvm.runtime.vector;
 
 import com.oracle.truffle.api.CompilerDirectives.ValueType;
+import com.oracle.truffle.api.nodes.ExplodeLoop;
 import com.oracle.truffle.llvm.runtime.LLVMAddress;
 import com.oracle.truffle.llvm.runtime.memory.LLVMMemory;
 
@@ -50,19 +51,76 @@ public final class LLVMFloatVector {
     }
 
     public static LLVMFloatVector readVectorFromMemory(LLVMAddress address, int size) {
-        float[] vector = new float[size];
         long currentPtr = address.getVal();
+        switch (size) {
+            case 2:
+                return create(readVectorFromMemory(currentPtr, 2));
+            case 4:
+                return create(readVectorFromMemory(currentPtr, 4));
+            case 8:
+                return create(readVectorFromMemory(currentPtr, 8));
+            case 16:
+                return create(readVectorFromMemory(currentPtr, 16));
+            default:
+                return create(readVectorFromMemoryLoop(currentPtr, size));
+        }
+    }
+
+    @ExplodeLoop
+    private static float[] readVectorFromMemory(long address, int lanes) {
+        float[] vector = new float[lanes];
+        long currentPtr = address;
+        for (int i = 0; i < lanes; i++) {
+            vector[i] = LLVMMemory.getFloat(currentPtr);
+            currentPtr += FLOAT_SIZE;
+        }
+        return vector;
+    }
+
+    private static float[] readVectorFromMemoryLoop(long address, int size) {
+        float[] vector = new float[size];
+        long currentPtr = address;
         for (int i = 0; i < size; i++) {
             vector[i] = LLVMMemory.getFloat(currentPtr);
             currentPtr += FLOAT_SIZE;
         }
-        return create(vector);
+        return vector;
     }
 
     public static void writeVectorToMemory(LLVMAddress address, LLVMFloatVector vector) {
         long currentPtr = address.getVal();
-        for (int i = 0; i < vector.getLength(); i++) {
-            LLVMMemory.putFloat(currentPtr, vector.getValue(i));
+        switch (vector.getLength()) {
+            case 2:
+                writeVectorToMemory(currentPtr, vector.vector, 2);
+                break;
+            case 4:
+                writeVectorToMemory(currentPtr, vector.vector, 4);
+                break;
+            case 8:
+                writeVectorToMemory(currentPtr, vector.vector, 8);
+                break;
+            case 16:
+                writeVectorToMemory(currentPtr, vector.vector, 16);
+                break;
+            default:
+                writeVectorToMemoryLoop(currentPtr, vector.vector);
+                break;
+        }
+    }
+
+    @ExplodeLoop
+    private static void writeVectorToMemory(long address, float[] vector, int lanes) {
+        long currentPtr = address;
+        for (int i = 0; i < lanes; i++) {
+            LLVMMemory.putFloat(currentPtr, vector[i]);
+            currentPtr += FLOAT_SIZE;
+        }
+    }
+
+    private static void writeVectorToMemoryLoop(long address, float[] vector) {
+        long currentPtr = address;
+        for (int i = 0; i < vector.length; i++) {
+            LLVMMemory.putFloat(currentPtr, vector[i]);
             currentPtr += FLOAT_SIZE;
         }
     }
@@ -72,6 +130,41 @@ public final class LLVMFloatVector {
         float eval(float a, float b);
     }
 
+    private static final Operation ADD = new Operation() {
+        @Override
+        public float eval(float a, float b) {
+            return a + b;
+        }
+    };
+
+    private static final Operation MUL = new Operation() {
+        @Override
+        public float eval(float a, float b) {
+            return a * b;
+        }
+    };
+
+    private static final Operation SUB = new Operation() {
+        @Override
+        public float eval(float a, float b) {
+            return a - b;
+        }
+    };
+
+    private static final Operation DIV = new Operation() {
+        @Override
+        public float eval(float a, float b) {
+            return a / b;
+        }
+    };
+
+    private static final Operation REM = new Operation() {
+        @Override
+        public float eval(float a, float b) {
+            return a % b;
+        }
+    };
+
     private static LLVMFloatVector doOperation(LLVMFloatVector lhs, LLVMFloatVector rhs, Operation op) {
         float[] left = lhs.vector;
         float[] right = rhs.vector;
@@ -80,57 +173,55 @@ public final class LLVMFloatVector {
         // this implementation however assumes it
         assert left.length == right.length;
 
-        float[] result = new float[left.length];
+        switch (left.length) {
+            case 2:
+                return create(doOperation(left, right, op, 2));
+            case 4:
+                return create(doOperation(left, right, op, 4));
+            case 8:
+                return create(doOperation(left, right, op, 8));
+            case 16:
+                return create(doOperation(left, right, op, 16));
+            default:
+                return create(doOperationLoop(left, right, op));
+        }
+    }
 
+    @ExplodeLoop
+    private static float[] doOperation(float[] left, float[] right, Operation op, int lanes) {
+        float[] result = new float[lanes];
+        for (int i = 0; i < lanes; i++) {
+            result[i] = op.eval(left[i], right[i]);
+        }
+        return result;
+    }
+
+    private static float[] doOperationLoop(float[] left, float[] right, Operation op) {
+        float[] result = new float[left.length];
         for (int i = 0; i < left.length; i++) {
             result[i] = op.eval(left[i], right[i]);
         }
-        return create(result);
+        return result;
     }
 
     public LLVMFloatVector add(LLVMFloatVector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public float eval(float a, float b) {
-                return a + b;
-            }
-        });
+        return doOperation(this, rightValue, ADD);
     }
 
     public LLVMFloatVector mul(LLVMFloatVector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public float eval(float a, float b) {
-                return a * b;
-            }
-        });
+        return doOperation(this, rightValue, MUL);
     }
 
     public LLVMFloatVector sub(LLVMFloatVector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public float eval(float a, float b) {
-                return a - b;
-            }
-        });
+        return doOperation(this, rightValue, SUB);
     }
 
     public LLVMFloatVector div(LLVMFloatVector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public float eval(float a, float b) {
-                return a / b;
-            }
-        });
+        return doOperation(this, rightValue, DIV);
     }
 
     public LLVMFloatVector rem(LLVMFloatVector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public float eval(float a, float b) {
-                return a % b;
-            }
-        });
+        return doOperation(this, rightValue, REM);
     }
 
     public float[] getValues() {
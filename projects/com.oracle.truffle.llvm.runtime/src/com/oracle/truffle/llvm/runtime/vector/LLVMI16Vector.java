@@ -30,6 +30,7 @@
 package com.oracle.truffle.llvm.runtime.vector;
 
 import com.oracle.truffle.api.CompilerDirectives.ValueType;
+import com.oracle.truffle.api.nodes.ExplodeLoop;
 import com.oracle.truffle.llvm.runtime.LLVMAddress;
 import com.oracle.truffle.llvm.runtime.memory.LLVMMemory;
 
@@ -52,19 +53,76 @@ public final class LLVMI16Vector {
     }
 
     public static LLVMI16Vector readVectorFromMemory(LLVMAddress address, int size) {
-        short[] vector = new short[size];
         long currentPtr = address.getVal();
+        switch (size) {
+            case 2:
+                return create(readVectorFromMemory(currentPtr, 2));
+            case 4:
+                return create(readVectorFromMemory(currentPtr, 4));
+            case 8:
+                return create(readVectorFromMemory(currentPtr, 8));
+            case 16:
+                return create(readVectorFromMemory(currentPtr, 16));
+            default:
+                return create(readVectorFromMemoryLoop(currentPtr, size));
+        }
+    }
+
+    @ExplodeLoop
+    private static short[] readVectorFromMemory(long address, int lanes) {
+        short[] vector = new short[lanes];
+        long currentPtr = address;
+        for (int i = 0; i < lanes; i++) {
+            vector[i] = LLVMMemory.getI16(currentPtr);
+            currentPtr += I16_SIZE;
+        }
+        return vector;
+    }
+
+    private static short[] readVectorFromMemoryLoop(long address, int size) {
+        short[] vector = new short[size];
+        long currentPtr = address;
         for (int i = 0; i < size; i++) {
             vector[i] = LLVMMemory.getI16(currentPtr);
             currentPtr += I16_SIZE;
         }
-        return create(vector);
+        return vector;
     }
 
     public static void writeVectorToMemory(LLVMAddress address, LLVMI16Vector vector) {
         long currentPtr = address.getVal();
-        for (int i = 0; i < vector.getLength(); i++) {
-            LLVMMemory.putI16(currentPtr, vector.getValue(i));
+        switch (vector.getLength()) {
+            case 2:
+                writeVectorToMemory(currentPtr, vector.vector, 2);
+                break;
+            case 4:
+                writeVectorToMemory(currentPtr, vector.vector, 4);
+                break;
+            case 8:
+                writeVectorToMemory(currentPtr, vector.vector, 8);
+                break;
+            case 16:
+                writeVectorToMemory(currentPtr, vector.vector, 16);
+                break;
+            default:
+                writeVectorToMemoryLoop(currentPtr, vector.vector);
+                break;
+        }
+    }
+
+    @ExplodeLoop
+    private static void writeVectorToMemory(long address, short[] vector, int lanes) {
+        long currentPtr = address;
+        for (int i = 0; i < lanes; i++) {
+            LLVMMemory.putI16(currentPtr, vector[i]);
+            currentPtr += I16_SIZE;
+        }
+    }
+
+    private static void writeVectorToMemoryLoop(long address, short[] vector) {
+        long currentPtr = address;
+        for (int i = 0; i < vector.length; i++) {
+            LLVMMemory.putI16(currentPtr, vector[i]);
             currentPtr += I16_SIZE;
         }
     }
@@ -74,6 +132,97 @@ public final class LLVMI16Vector {
         short eval(short a, short b);
     }
 
+    private static final Operation ADD = new Operation() {
+        @Override
+        public short eval(short a, short b) {
+            return (short) (a + b);
+        }
+    };
+
+    private static final Operation MUL = new Operation() {
+        @Override
+        public short eval(short a, short b) {
+            return (short) (a * b);
+        }
+    };
+
+    private static final Operation SUB = new Operation() {
+        @Override
+        public short eval(short a, short b) {
+            return (short) (a - b);
+        }
+    };
+
+    private static final Operation DIV = new Operation() {
+        @Override
+        public short eval(short a, short b) {
+            return (short) (a / b);
+        }
+    };
+
+    private static final Operation DIV_UNSIGNED = new Operation() {
+        @Override
+        public short eval(short a, short b) {
+            return (short) ((a & MASK) / (b & MASK));
+        }
+    };
+
+    private static final Operation REM = new Operation() {
+        @Override
+        public short eval(short a, short b) {
+            return (short) (a % b);
+        }
+    };
+
+    private static final Operation REM_UNSIGNED = new Operation() {
+        @Override
+        public short eval(short a, short b) {
+            return (short) ((a & MASK) % (b & MASK));
+        }
+    };
+
+    private static final Operation AND = new Operation() {
+        @Override
+        public short eval(short a, short b) {
+            return (short) (a & b);
+        }
+    };
+
+    private static final Operation OR = new Operation() {
+        @Override
+        public short eval(short a, short b) {
+            return (short) (a | b);
+        }
+    };
+
+    private static final Operation LEFT_SHIFT = new Operation() {
+        @Override
+        public short eval(short a, short b) {
+            return (short) (a << b);
+        }
+    };
+
+    private static final Operation LOGICAL_RIGHT_SHIFT = new Operation() {
+        @Override
+        public short eval(short a, short b) {
+            return (short) (a >>> b);
+        }
+    };
+
+    private static final Operation ARITHMETIC_RIGHT_SHIFT = new Operation() {
+        @Override
+        public short eval(short a, short b) {
+            return (short) (a >> b);
+        }
+    };
+
+    private static final Operation XOR = new Operation() {
+        @Override
+        public short eval(short a, short b) {
+            return (short) (a ^ b);
+        }
+    };
+
     private static LLVMI16Vector doOperation(LLVMI16Vector lhs, LLVMI16Vector rhs, Operation op) {
         short[] left = lhs.vector;
         short[] right = rhs.vector;
@@ -82,129 +231,87 @@ public final class LLVMI16Vector {
         // this implementation however assumes it
         assert left.length == right.length;
 
-        short[] result = new short[left.length];
+        switch (left.length) {
+            case 2:
+                return create(doOperation(left, right, op, 2));
+            case 4:
+                return create(doOperation(left, right, op, 4));
+            case 8:
+                return create(doOperation(left, right, op, 8));
+            case 16:
+                return create(doOperation(left, right, op, 16));
+            default:
+                return create(doOperationLoop(left, right, op));
+        }
+    }
+
+    @ExplodeLoop
+    private static short[] doOperation(short[] left, short[] right, Operation op, int lanes) {
+        short[] result = new short[lanes];
+        for (int i = 0; i < lanes; i++) {
+            result[i] = op.eval(left[i], right[i]);
+        }
+        return result;
+    }
 
+    private static short[] doOperationLoop(short[] left, short[] right, Operation op) {
+        short[] result = new short[left.length];
         for (int i = 0; i < left.length; i++) {
             result[i] = op.eval(left[i], right[i]);
         }
-        return create(result);
+        return result;
     }
 
     public LLVMI16Vector add(LLVMI16Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public short eval(short a, short b) {
-                return (short) (a + b);
-            }
-        });
+        return doOperation(this, rightValue, ADD);
     }
 
     public LLVMI16Vector mul(LLVMI16Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public short eval(short a, short b) {
-                return (short) (a * b);
-            }
-        });
+        return doOperation(this, rightValue, MUL);
     }
 
     public LLVMI16Vector sub(LLVMI16Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public short eval(short a, short b) {
-                return (short) (a - b);
-            }
-        });
+        return doOperation(this, rightValue, SUB);
     }
 
     public LLVMI16Vector div(LLVMI16Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public short eval(short a, short b) {
-                return (short) (a / b);
-            }
-        });
+        return doOperation(this, rightValue, DIV);
     }
 
     public LLVMI16Vector divUnsigned(LLVMI16Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public short eval(short a, short b) {
-                return (short) ((a & MASK) / (b & MASK));
-            }
-        });
+        return doOperation(this, rightValue, DIV_UNSIGNED);
     }
 
     public LLVMI16Vector rem(LLVMI16Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public short eval(short a, short b) {
-                return (short) (a % b);
-            }
-        });
+        return doOperation(this, rightValue, REM);
     }
 
     public LLVMI16Vector remUnsigned(LLVMI16Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public short eval(short a, short b) {
-                return (short) ((a & MASK) % (b & MASK));
-            }
-        });
+        return doOperation(this, rightValue, REM_UNSIGNED);
     }
 
     public LLVMI16Vector and(LLVMI16Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public short eval(short a, short b) {
-                return (short) (a & b);
-            }
-        });
+        return doOperation(this, rightValue, AND);
     }
 
     public LLVMI16Vector or(LLVMI16Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public short eval(short a, short b) {
-                return (short) (a | b);
-            }
-        });
+        return doOperation(this, rightValue, OR);
     }
 
     public LLVMI16Vector leftShift(LLVMI16Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public short eval(short a, short b) {
-                return (short) (a << b);
-            }
-        });
+        return doOperation(this, rightValue, LEFT_SHIFT);
     }
 
     public LLVMI16Vector logicalRightShift(LLVMI16Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public short eval(short a, short b) {
-                return (short) (a >>> b);
-            }
-        });
+        return doOperation(this, rightValue, LOGICAL_RIGHT_SHIFT);
     }
 
     public LLVMI16Vector arithmeticRightShift(LLVMI16Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public short eval(short a, short b) {
-                return (short) (a >> b);
-            }
-        });
+        return doOperation(this, rightValue, ARITHMETIC_RIGHT_SHIFT);
     }
 
     public LLVMI16Vector xor(LLVMI16Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public short eval(short a, short b) {
-                return (short) (a ^ b);
-            }
-        });
+        return doOperation(this, rightValue, XOR);
     }
 
     public short[] getValues() {
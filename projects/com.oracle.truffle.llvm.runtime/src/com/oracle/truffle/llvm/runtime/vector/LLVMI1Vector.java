@@ -31,6 +31,7 @@ package com.oracle.truffle.llvm.runtime.vector;
 
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.CompilerDirectives.ValueType;
+import com.oracle.truffle.api.nodes.ExplodeLoop;
 import com.oracle.truffle.llvm.runtime.LLVMAddress;
 import com.oracle.truffle.llvm.runtime.memory.LLVMMemory;
 
@@ -51,19 +52,76 @@ public final class LLVMI1Vector {
     }
 
     public static LLVMI1Vector readVectorFromMemory(LLVMAddress address, int size) {
-        boolean[] vector = new boolean[size];
         long currentPtr = address.getVal();
+        switch (size) {
+            case 2:
+                return create(readVectorFromMemory(currentPtr, 2));
+            case 4:
+                return create(readVectorFromMemory(currentPtr, 4));
+            case 8:
+                return create(readVectorFromMemory(currentPtr, 8));
+            case 16:
+                return create(readVectorFromMemory(currentPtr, 16));
+            default:
+                return create(readVectorFromMemoryLoop(currentPtr, size));
+        }
+    }
+
+    @ExplodeLoop
+    private static boolean[] readVectorFromMemory(long address, int lanes) {
+        boolean[] vector = new boolean[lanes];
+        long currentPtr = address;
+        for (int i = 0; i < lanes; i++) {
+            vector[i] = LLVMMemory.getI1(currentPtr);
+            currentPtr += I1_SIZE;
+        }
+        return vector;
+    }
+
+    private static boolean[] readVectorFromMemoryLoop(long address, int size) {
+        boolean[] vector = new boolean[size];
+        long currentPtr = address;
         for (int i = 0; i < size; i++) {
             vector[i] = LLVMMemory.getI1(currentPtr);
             currentPtr += I1_SIZE;
         }
-        return create(vector);
+        return vector;
     }
 
     public static void writeVectorToMemory(LLVMAddress address, LLVMI1Vector vector) {
         long currentPtr = address.getVal();
-        for (int i = 0; i < vector.getLength(); i++) {
-            LLVMMemory.putI1(currentPtr, vector.getValue(i));
+        switch (vector.getLength()) {
+            case 2:
+                writeVectorToMemory(currentPtr, vector.vector, 2);
+                break;
+            case 4:
+                writeVectorToMemory(currentPtr, vector.vector, 4);
+                break;
+            case 8:
+                writeVectorToMemory(currentPtr, vector.vector, 8);
+                break;
+            case 16:
+                writeVectorToMemory(currentPtr, vector.vector, 16);
+                break;
+            default:
+                writeVectorToMemoryLoop(currentPtr, vector.vector);
+                break;
+        }
+    }
+
+    @ExplodeLoop
+    private static void writeVectorToMemory(long address, boolean[] vector, int lanes) {
+        long currentPtr = address;
+        for (int i = 0; i < lanes; i++) {
+            LLVMMemory.putI1(currentPtr, vector[i]);
+            currentPtr += I1_SIZE;
+        }
+    }
+
+    private static void writeVectorToMemoryLoop(long address, boolean[] vector) {
+        long currentPtr = address;
+        for (int i = 0; i < vector.length; i++) {
+            LLVMMemory.putI1(currentPtr, vector[i]);
             currentPtr += I1_SIZE;
         }
     }
@@ -73,6 +131,113 @@ public final class LLVMI1Vector {
         boolean eval(boolean a, boolean b);
     }
 
+    private static final Operation ADD = new Operation() {
+        @Override
+        public boolean eval(boolean a, boolean b) {
+            return a ^ b;
+        }
+    };
+
+    private static final Operation MUL = new Operation() {
+        @Override
+        public boolean eval(boolean a, boolean b) {
+            return a & b;
+        }
+    };
+
+    private static final Operation SUB = new Operation() {
+        @Override
+        public boolean eval(boolean a, boolean b) {
+            return a ^ b;
+        }
+    };
+
+    private static final Operation DIV = new Operation() {
+        @Override
+        public boolean eval(boolean a, boolean b) {
+            if (!b) {
+                CompilerDirectives.transferToInterpreter();
+                throw new ArithmeticException("Division by zero!");
+            }
+            return a;
+        }
+    };
+
+    private static final Operation DIV_UNSIGNED = new Operation() {
+        @Override
+        public boolean eval(boolean a, boolean b) {
+            if (!b) {
+                CompilerDirectives.transferToInterpreter();
+                throw new ArithmeticException("Division by zero!");
+            }
+            return a;
+        }
+    };
+
+    private static final Operation REM = new Operation() {
+        @Override
+        public boolean eval(boolean a, boolean b) {
+            if (!b) {
+                CompilerDirectives.transferToInterpreter();
+                throw new ArithmeticException("Division by zero!");
+            }
+            return false;
+        }
+    };
+
+    private static final Operation REM_UNSIGNED = new Operation() {
+        @Override
+        public boolean eval(boolean a, boolean b) {
+            if (!b) {
+                CompilerDirectives.transferToInterpreter();
+                throw new ArithmeticException("Division by zero!");
+            }
+            return false;
+        }
+    };
+
+    private static final Operation AND = new Operation() {
+        @Override
+        public boolean eval(boolean a, boolean b) {
+            return a & b;
+        }
+    };
+
+    private static final Operation OR = new Operation() {
+        @Override
+        public boolean eval(boolean a, boolean b) {
+            return a | b;
+        }
+    };
+
+    private static final Operation LEFT_SHIFT = new Operation() {
+        @Override
+        public boolean eval(boolean a, boolean b) {
+            return a & !b;
+        }
+    };
+
+    private static final Operation LOGICAL_RIGHT_SHIFT = new Operation() {
+        @Override
+        public boolean eval(boolean a, boolean b) {
+            return a & !b;
+        }
+    };
+
+    private static final Operation ARITHMETIC_RIGHT_SHIFT = new Operation() {
+        @Override
+        public boolean eval(boolean a, boolean b) {
+            return a;
+        }
+    };
+
+    private static final Operation XOR = new Operation() {
+        @Override
+        public boolean eval(boolean a, boolean b) {
+            return a ^ b;
+        }
+    };
+
     private static LLVMI1Vector doOperation(LLVMI1Vector lhs, LLVMI1Vector rhs, Operation op) {
         boolean[] left = lhs.vector;
         boolean[] right = rhs.vector;
@@ -81,145 +246,87 @@ public final class LLVMI1Vector {
         // this implementation however assumes it
         assert left.length == right.length;
 
-        boolean[] result = new boolean[left.length];
+        switch (left.length) {
+            case 2:
+                return create(doOperation(left, right, op, 2));
+            case 4:
+                return create(doOperation(left, right, op, 4));
+            case 8:
+                return create(doOperation(left, right, op, 8));
+            case 16:
+                return create(doOperation(left, right, op, 16));
+            default:
+                return create(doOperationLoop(left, right, op));
+        }
+    }
 
+    @ExplodeLoop
+    private static boolean[] doOperation(boolean[] left, boolean[] right, Operation op, int lanes) {
+        boolean[] result = new boolean[lanes];
+        for (int i = 0; i < lanes; i++) {
+            result[i] = op.eval(left[i], right[i]);
+        }
+        return result;
+    }
+
+    private static boolean[] doOperationLoop(boolean[] left, boolean[] right, Operation op) {
+        boolean[] result = new boolean[left.length];
         for (int i = 0; i < left.length; i++) {
             result[i] = op.eval(left[i], right[i]);
         }
-        return create(result);
+        return result;
     }
 
     public LLVMI1Vector add(LLVMI1Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public boolean eval(boolean a, boolean b) {
-                return a ^ b;
-            }
-        });
+        return doOperation(this, rightValue, ADD);
     }
 
     public LLVMI1Vector mul(LLVMI1Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public boolean eval(boolean a, boolean b) {
-                return a & b;
-            }
-        });
+        return doOperation(this, rightValue, MUL);
     }
 
     public LLVMI1Vector sub(LLVMI1Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public boolean eval(boolean a, boolean b) {
-                return a ^ b;
-            }
-        });
+        return doOperation(this, rightValue, SUB);
     }
 
     public LLVMI1Vector div(LLVMI1Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public boolean eval(boolean a, boolean b) {
-                if (!b) {
-                    CompilerDirectives.transferToInterpreter();
-                    throw new ArithmeticException("Division by zero!");
-                }
-                return a;
-            }
-        });
+        return doOperation(this, rightValue, DIV);
     }
 
     public LLVMI1Vector divUnsigned(LLVMI1Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public boolean eval(boolean a, boolean b) {
-                if (!b) {
-                    CompilerDirectives.transferToInterpreter();
-                    throw new ArithmeticException("Division by zero!");
-                }
-                return a;
-            }
-        });
+        return doOperation(this, rightValue, DIV_UNSIGNED);
     }
 
     public LLVMI1Vector rem(LLVMI1Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public boolean eval(boolean a, boolean b) {
-                if (!b) {
-                    CompilerDirectives.transferToInterpreter();
-                    throw new ArithmeticException("Division by zero!");
-                }
-                return false;
-            }
-        });
+        return doOperation(this, rightValue, REM);
     }
 
     public LLVMI1Vector remUnsigned(LLVMI1Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public boolean eval(boolean a, boolean b) {
-                if (!b) {
-                    CompilerDirectives.transferToInterpreter();
-                    throw new ArithmeticException("Division by zero!");
-                }
-                return false;
-            }
-        });
+        return doOperation(this, rightValue, REM_UNSIGNED);
     }
 
     public LLVMI1Vector and(LLVMI1Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public boolean eval(boolean a, boolean b) {
-                return a & b;
-            }
-        });
+        return doOperation(this, rightValue, AND);
     }
 
     public LLVMI1Vector or(LLVMI1Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public boolean eval(boolean a, boolean b) {
-                return a | b;
-            }
-        });
+        return doOperation(this, rightValue, OR);
     }
 
     public LLVMI1Vector leftShift(LLVMI1Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public boolean eval(boolean a, boolean b) {
-                return a & !b;
-            }
-        });
+        return doOperation(this, rightValue, LEFT_SHIFT);
     }
 
     public LLVMI1Vector logicalRightShift(LLVMI1Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public boolean eval(boolean a, boolean b) {
-                return a & !b;
-            }
-        });
+        return doOperation(this, rightValue, LOGICAL_RIGHT_SHIFT);
     }
 
     public LLVMI1Vector arithmeticRightShift(LLVMI1Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public boolean eval(boolean a, boolean b) {
-                return a;
-            }
-        });
+        return doOperation(this, rightValue, ARITHMETIC_RIGHT_SHIFT);
     }
 
     public LLVMI1Vector xor(LLVMI1Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public boolean eval(boolean a, boolean b) {
-                return a ^ b;
-            }
-        });
+        return doOperation(this, rightValue, XOR);
     }
 
     public boolean[] getValues() {
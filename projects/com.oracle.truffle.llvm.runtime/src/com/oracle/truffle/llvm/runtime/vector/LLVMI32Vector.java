@@ -30,6 +30,7 @@
 package com.oracle.truffle.llvm.runtime.vector;
 
 import com.oracle.truffle.api.CompilerDirectives.ValueType;
+import com.oracle.truffle.api.nodes.ExplodeLoop;
 import com.oracle.truffle.llvm.runtime.LLVMAddress;
 import com.oracle.truffle.llvm.runtime.memory.LLVMMemory;
 
@@ -46,19 +47,76 @@ public final class LLVMI32Vector {
     }
 
     public static LLVMI32Vector readVectorFromMemory(LLVMAddress address, int size) {
-        int[] vector = new int[size];
         long currentPtr = address.getVal();
+        switch (size) {
+            case 2:
+                return create(readVectorFromMemory(currentPtr, 2));
+            case 4:
+                return create(readVectorFromMemory(currentPtr, 4));
+            case 8:
+                return create(readVectorFromMemory(currentPtr, 8));
+            case 16:
+                return create(readVectorFromMemory(currentPtr, 16));
+            default:
+                return create(readVectorFromMemoryLoop(currentPtr, size));
+        }
+    }
+
+    @ExplodeLoop
+    private static int[] readVectorFromMemory(long address, int lanes) {
+        int[] vector = new int[lanes];
+        long currentPtr = address;
+        for (int i = 0; i < lanes; i++) {
+            vector[i] = LLVMMemory.getI32(currentPtr);
+            currentPtr += I32_SIZE;
+        }
+        return vector;
+    }
+
+    private static int[] readVectorFromMemoryLoop(long address, int size) {
+        int[] vector = new int[size];
+        long currentPtr = address;
         for (int i = 0; i < size; i++) {
             vector[i] = LLVMMemory.getI32(currentPtr);
             currentPtr += I32_SIZE;
         }
-        return create(vector);
+        return vector;
     }
 
     public static void writeVectorToMemory(LLVMAddress address, LLVMI32Vector vector) {
         long currentPtr = address.getVal();
-        for (int i = 0; i < vector.getLength(); i++) {
-            LLVMMemory.putI32(currentPtr, vector.getValue(i));
+        switch (vector.getLength()) {
+            case 2:
+                writeVectorToMemory(currentPtr, vector.vector, 2);
+                break;
+            case 4:
+                writeVectorToMemory(currentPtr, vector.vector, 4);
+                break;
+            case 8:
+                writeVectorToMemory(currentPtr, vector.vector, 8);
+                break;
+            case 16:
+                writeVectorToMemory(currentPtr, vector.vector, 16);
+                break;
+            default:
+                writeVectorToMemoryLoop(currentPtr, vector.vector);
+                break;
+        }
+    }
+
+    @ExplodeLoop
+    private static void writeVectorToMemory(long address, int[] vector, int lanes) {
+        long currentPtr = address;
+        for (int i = 0; i < lanes; i++) {
+            LLVMMemory.putI32(currentPtr, vector[i]);
+            currentPtr += I32_SIZE;
+        }
+    }
+
+    private static void writeVectorToMemoryLoop(long address, int[] vector) {
+        long currentPtr = address;
+        for (int i = 0; i < vector.length; i++) {
+            LLVMMemory.putI32(currentPtr, vector[i]);
             currentPtr += I32_SIZE;
         }
     }
@@ -72,6 +130,97 @@ public final class LLVMI32Vector {
         int eval(int a, int b);
     }
 
+    private static final Operation ADD = new Operation() {
+        @Override
+        public int eval(int a, int b) {
+            return a + b;
+        }
+    };
+
+    private static final Operation MUL = new Operation() {
+        @Override
+        public int eval(int a, int b) {
+            return a * b;
+        }
+    };
+
+    private static final Operation SUB = new Operation() {
+        @Override
+        public int eval(int a, int b) {
+            return a - b;
+        }
+    };
+
+    private static final Operation DIV = new Operation() {
+        @Override
+        public int eval(int a, int b) {
+            return a / b;
+        }
+    };
+
+    private static final Operation DIV_UNSIGNED = new Operation() {
+        @Override
+        public int eval(int a, int b) {
+            return Integer.divideUnsigned(a, b);
+        }
+    };
+
+    private static final Operation REM = new Operation() {
+        @Override
+        public int eval(int a, int b) {
+            return a % b;
+        }
+    };
+
+    private static final Operation REM_UNSIGNED = new Operation() {
+        @Override
+        public int eval(int a, int b) {
+            return Integer.remainderUnsigned(a, b);
+        }
+    };
+
+    private static final Operation AND = new Operation() {
+        @Override
+        public int eval(int a, int b) {
+            return a & b;
+        }
+    };
+
+    private static final Operation OR = new Operation() {
+        @Override
+        public int eval(int a, int b) {
+            return a | b;
+        }
+    };
+
+    private static final Operation LEFT_SHIFT = new Operation() {
+        @Override
+        public int eval(int a, int b) {
+            return a << b;
+        }
+    };
+
+    private static final Operation LOGICAL_RIGHT_SHIFT = new Operation() {
+        @Override
+        public int eval(int a, int b) {
+            return a >>> b;
+        }
+    };
+
+    private static final Operation ARITHMETIC_RIGHT_SHIFT = new Operation() {
+        @Override
+        public int eval(int a, int b) {
+            return a >> b;
+        }
+    };
+
+    private static final Operation XOR = new Operation() {
+        @Override
+        public int eval(int a, int b) {
+            return a ^ b;
+        }
+    };
+
     private static LLVMI32Vector doOperation(LLVMI32Vector lhs, LLVMI32Vector rhs, Operation op) {
         int[] left = lhs.vector;
         int[] right = rhs.vector;
@@ -80,129 +229,87 @@ public final class LLVMI32Vector {
         // this implementation however assumes it
         assert left.length == right.length;
 
-        int[] result = new int[left.length];
+        switch (left.length) {
+            case 2:
+                return create(doOperation(left, right, op, 2));
+            case 4:
+                return create(doOperation(left, right, op, 4));
+            case 8:
+                return create(doOperation(left, right, op, 8));
+            case 16:
+                return create(doOperation(left, right, op, 16));
+            default:
+                return create(doOperationLoop(left, right, op));
+        }
+    }
+
+    @ExplodeLoop
+    private static int[] doOperation(int[] left, int[] right, Operation op, int lanes) {
+        int[] result = new int[lanes];
+        for (int i = 0; i < lanes; i++) {
+            result[i] = op.eval(left[i], right[i]);
+        }
+        return result;
+    }
 
+    private static int[] doOperationLoop(int[] left, int[] right, Operation op) {
+        int[] result = new int[left.length];
         for (int i = 0; i < left.length; i++) {
             result[i] = op.eval(left[i], right[i]);
         }
-        return create(result);
+        return result;
     }
 
     public LLVMI32Vector add(LLVMI32Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public int eval(int a, int b) {
-                return a + b;
-            }
-        });
+        return doOperation(this, rightValue, ADD);
     }
 
     public LLVMI32Vector mul(LLVMI32Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public int eval(int a, int b) {
-                return a * b;
-            }
-        });
+        return doOperation(this, rightValue, MUL);
     }
 
     public LLVMI32Vector sub(LLVMI32Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public int eval(int a, int b) {
-                return a - b;
-            }
-        });
+        return doOperation(this, rightValue, SUB);
     }
 
     public LLVMI32Vector div(LLVMI32Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public int eval(int a, int b) {
-                return a / b;
-            }
-        });
+        return doOperation(this, rightValue, DIV);
     }
 
     public LLVMI32Vector divUnsigned(LLVMI32Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public int eval(int a, int b) {
-                return Integer.divideUnsigned(a, b);
-            }
-        });
+        return doOperation(this, rightValue, DIV_UNSIGNED);
     }
 
     public LLVMI32Vector rem(LLVMI32Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public int eval(int a, int b) {
-                return a % b;
-            }
-        });
+        return doOperation(this, rightValue, REM);
     }
 
     public LLVMI32Vector remUnsigned(LLVMI32Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public int eval(int a, int b) {
-                return Integer.remainderUnsigned(a, b);
-            }
-        });
+        return doOperation(this, rightValue, REM_UNSIGNED);
     }
 
     public LLVMI32Vector and(LLVMI32Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public int eval(int a, int b) {
-                return a & b;
-            }
-        });
+        return doOperation(this, rightValue, AND);
     }
 
     public LLVMI32Vector or(LLVMI32Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public int eval(int a, int b) {
-                return a | b;
-            }
-        });
+        return doOperation(this, rightValue, OR);
     }
 
     public LLVMI32Vector leftShift(LLVMI32Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public int eval(int a, int b) {
-                return a << b;
-            }
-        });
+        return doOperation(this, rightValue, LEFT_SHIFT);
     }
 
     public LLVMI32Vector logicalRightShift(LLVMI32Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public int eval(int a, int b) {
-                return a >>> b;
-            }
-        });
+        return doOperation(this, rightValue, LOGICAL_RIGHT_SHIFT);
     }
 
     public LLVMI32Vector arithmeticRightShift(LLVMI32Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public int eval(int a, int b) {
-                return a >> b;
-            }
-        });
+        return doOperation(this, rightValue, ARITHMETIC_RIGHT_SHIFT);
     }
 
     public LLVMI32Vector xor(LLVMI32Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public int eval(int a, int b) {
-                return a ^ b;
-            }
-        });
+        return doOperation(this, rightValue, XOR);
     }
 
     public int[] getValues() {
@@ -30,6 +30,7 @@
 package com.oracle.truffle.llvm.runtime.vector;
 
 import com.oracle.truffle.api.CompilerDirectives.ValueType;
+import com.oracle.truffle.api.nodes.ExplodeLoop;
 import com.oracle.truffle.llvm.runtime.LLVMAddress;
 import com.oracle.truffle.llvm.runtime.memory.LLVMMemory;
 
@@ -46,19 +47,76 @@ public final class LLVMI64Vector {
     }
 
     public static LLVMI64Vector readVectorFromMemory(LLVMAddress address, int size) {
-        long[] vector = new long[size];
         long currentPtr = address.getVal();
+        switch (size) {
+            case 2:
+                return create(readVectorFromMemory(currentPtr, 2));
+            case 4:
+                return create(readVectorFromMemory(currentPtr, 4));
+            case 8:
+                return create(readVectorFromMemory(currentPtr, 8));
+            case 16:
+                return create(readVectorFromMemory(currentPtr, 16));
+            default:
+                return create(readVectorFromMemoryLoop(currentPtr, size));
+        }
+    }
+
+    @ExplodeLoop
+    private static long[] readVectorFromMemory(long address, int lanes) {
+        long[] vector = new long[lanes];
+        long currentPtr = address;
+        for (int i = 0; i < lanes; i++) {
+            vector[i] = LLVMMemory.getI64(currentPtr);
+            currentPtr += I64_SIZE;
+        }
+        return vector;
+    }
+
+    private static long[] readVectorFromMemoryLoop(long address, int size) {
+        long[] vector = new long[size];
+        long currentPtr = address;
         for (int i = 0; i < size; i++) {
             vector[i] = LLVMMemory.getI64(currentPtr);
             currentPtr += I64_SIZE;
         }
-        return create(vector);
+        return vector;
     }
 
     public static void writeVectorToMemory(LLVMAddress address, LLVMI64Vector vector) {
         long currentPtr = address.getVal();
-        for (int i = 0; i < vector.getLength(); i++) {
-            LLVMMemory.putI64(currentPtr, vector.getValue(i));
+        switch (vector.getLength()) {
+            case 2:
+                writeVectorToMemory(currentPtr, vector.vector, 2);
+                break;
+            case 4:
+                writeVectorToMemory(currentPtr, vector.vector, 4);
+                break;
+            case 8:
+                writeVectorToMemory(currentPtr, vector.vector, 8);
+                break;
+            case 16:
+                writeVectorToMemory(currentPtr, vector.vector, 16);
+                break;
+            default:
+                writeVectorToMemoryLoop(currentPtr, vector.vector);
+                break;
+        }
+    }
+
+    @ExplodeLoop
+    private static void writeVectorToMemory(long address, long[] vector, int lanes) {
+        long currentPtr = address;
+        for (int i = 0; i < lanes; i++) {
+            LLVMMemory.putI64(currentPtr, vector[i]);
+            currentPtr += I64_SIZE;
+        }
+    }
+
+    private static void writeVectorToMemoryLoop(long address, long[] vector) {
+        long currentPtr = address;
+        for (int i = 0; i < vector.length; i++) {
+            LLVMMemory.putI64(currentPtr, vector[i]);
             currentPtr += I64_SIZE;
         }
     }
@@ -72,6 +130,97 @@ public final class LLVMI64Vector {
         long eval(long a, long b);
     }
 
+    private static final Operation ADD = new Operation() {
+        @Override
+        public long eval(long a, long b) {
+            return a + b;
+        }
+    };
+
+    private static final Operation MUL = new Operation() {
+        @Override
+        public long eval(long a, long b) {
+            return a * b;
+        }
+    };
+
+    private static final Operation SUB = new Operation() {
+        @Override
+        public long eval(long a, long b) {
+            return a - b;
+        }
+    };
+
+    private static final Operation DIV = new Operation() {
+        @Override
+        public long eval(long a, long b) {
+            return a / b;
+        }
+    };
+
+    private static final Operation DIV_UNSIGNED = new Operation() {
+        @Override
+        public long eval(long a, long b) {
+            return Long.divideUnsigned(a, b);
+        }
+    };
+
+    private static final Operation REM = new Operation() {
+        @Override
+        public long eval(long a, long b) {
+            return a % b;
+        }
+    };
+
+    private static final Operation REM_UNSIGNED = new Operation() {
+        @Override
+        public long eval(long a, long b) {
+            return Long.remainderUnsigned(a, b);
+        }
+    };
+
+    private static final Operation AND = new Operation() {
+        @Override
+        public long eval(long a, long b) {
+            return a & b;
+        }
+    };
+
+    private static final Operation OR = new Operation() {
+        @Override
+        public long eval(long a, long b) {
+            return a | b;
+        }
+    };
+
+    private static final Operation LEFT_SHIFT = new Operation() {
+        @Override
+        public long eval(long a, long b) {
+            return a << b;
+        }
+    };
+
+    private static final Operation LOGICAL_RIGHT_SHIFT = new Operation() {
+        @Override
+        public long eval(long a, long b) {
+            return a >>> b;
+        }
+    };
+
+    private static final Operation ARITHMETIC_RIGHT_SHIFT = new Operation() {
+        @Override
+        public long eval(long a, long b) {
+            return a >> b;
+        }
+    };
+
+    private static final Operation XOR = new Operation() {
+        @Override
+        public long eval(long a, long b) {
+            return a ^ b;
+        }
+    };
+
     private static LLVMI64Vector doOperation(LLVMI64Vector lhs, LLVMI64Vector rhs, Operation op) {
         long[] left = lhs.vector;
         long[] right = rhs.vector;
@@ -80,129 +229,87 @@ public final class LLVMI64Vector {
         // this implementation however assumes it
         assert left.length == right.length;
 
-        long[] result = new long[left.length];
+        switch (left.length) {
+            case 2:
+                return create(doOperation(left, right, op, 2));
+            case 4:
+                return create(doOperation(left, right, op, 4));
+            case 8:
+                return create(doOperation(left, right, op, 8));
+            case 16:
+                return create(doOperation(left, right, op, 16));
+            default:
+                return create(doOperationLoop(left, right, op));
+        }
+    }
+
+    @ExplodeLoop
+    private static long[] doOperation(long[] left, long[] right, Operation op, int lanes) {
+        long[] result = new long[lanes];
+        for (int i = 0; i < lanes; i++) {
+            result[i] = op.eval(left[i], right[i]);
+        }
+        return result;
+    }
 
+    private static long[] doOperationLoop(long[] left, long[] right, Operation op) {
+        long[] result = new long[left.length];
         for (int i = 0; i < left.length; i++) {
             result[i] = op.eval(left[i], right[i]);
         }
-        return create(result);
+        return result;
     }
 
     public LLVMI64Vector add(LLVMI64Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public long eval(long a, long b) {
-                return a + b;
-            }
-        });
+        return doOperation(this, rightValue, ADD);
     }
 
     public LLVMI64Vector mul(LLVMI64Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public long eval(long a, long b) {
-                return a * b;
-            }
-        });
+        return doOperation(this, rightValue, MUL);
     }
 
     public LLVMI64Vector sub(LLVMI64Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public long eval(long a, long b) {
-                return a - b;
-            }
-        });
+        return doOperation(this, rightValue, SUB);
     }
 
     public LLVMI64Vector div(LLVMI64Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public long eval(long a, long b) {
-                return a / b;
-            }
-        });
+        return doOperation(this, rightValue, DIV);
     }
 
     public LLVMI64Vector divUnsigned(LLVMI64Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public long eval(long a, long b) {
-                return Long.divideUnsigned(a, b);
-            }
-        });
+        return doOperation(this, rightValue, DIV_UNSIGNED);
     }
 
     public LLVMI64Vector rem(LLVMI64Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public long eval(long a, long b) {
-                return a % b;
-            }
-        });
+        return doOperation(this, rightValue, REM);
     }
 
     public LLVMI64Vector remUnsigned(LLVMI64Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public long eval(long a, long b) {
-                return Long.remainderUnsigned(a, b);
-            }
-        });
+        return doOperation(this, rightValue, REM_UNSIGNED);
     }
 
     public LLVMI64Vector and(LLVMI64Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public long eval(long a, long b) {
-                return a & b;
-            }
-        });
+        return doOperation(this, rightValue, AND);
     }
 
     public LLVMI64Vector or(LLVMI64Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public long eval(long a, long b) {
-                return a | b;
-            }
-        });
+        return doOperation(this, rightValue, OR);
     }
 
     public LLVMI64Vector leftShift(LLVMI64Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public long eval(long a, long b) {
-                return a << b;
-            }
-        });
+        return doOperation(this, rightValue, LEFT_SHIFT);
     }
 
     public LLVMI64Vector logicalRightShift(LLVMI64Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public long eval(long a, long b) {
-                return a >>> b;
-            }
-        });
+        return doOperation(this, rightValue, LOGICAL_RIGHT_SHIFT);
     }
 
     public LLVMI64Vector arithmeticRightShift(LLVMI64Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public long eval(long a, long b) {
-                return a >> b;
-            }
-        });
+        return doOperation(this, rightValue, ARITHMETIC_RIGHT_SHIFT);
     }
 
     public LLVMI64Vector xor(LLVMI64Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public long eval(long a, long b) {
-                return a ^ b;
-            }
-        });
+        return doOperation(this, rightValue, XOR);
     }
 
     public long[] getValues() {
@@ -30,6 +30,7 @@
 package com.oracle.truffle.llvm.runtime.vector;
 
 import com.oracle.truffle.api.CompilerDirectives.ValueType;
+import com.oracle.truffle.api.nodes.ExplodeLoop;
 import com.oracle.truffle.llvm.runtime.LLVMAddress;
 import com.oracle.truffle.llvm.runtime.memory.LLVMMemory;
 
@@ -50,19 +51,76 @@ public final class LLVMI8Vector {
     }
 
     public static LLVMI8Vector readVectorFromMemory(LLVMAddress address, int size) {
-        byte[] vector = new byte[size];
         long currentPtr = address.getVal();
+        switch (size) {
+            case 2:
+                return create(readVectorFromMemory(currentPtr, 2));
+            case 4:
+                return create(readVectorFromMemory(currentPtr, 4));
+            case 8:
+                return create(readVectorFromMemory(currentPtr, 8));
+            case 16:
+                return create(readVectorFromMemory(currentPtr, 16));
+            default:
+                return create(readVectorFromMemoryLoop(currentPtr, size));
+        }
+    }
+
+    @ExplodeLoop
+    private static byte[] readVectorFromMemory(long address, int lanes) {
+        byte[] vector = new byte[lanes];
+        long currentPtr = address;
+        for (int i = 0; i < lanes; i++) {
+            vector[i] = LLVMMemory.getI8(currentPtr);
+            currentPtr += I8_SIZE;
+        }
+        return vector;
+    }
+
+    private static byte[] readVectorFromMemoryLoop(long address, int size) {
+        byte[] vector = new byte[size];
+        long currentPtr = address;
         for (int i = 0; i < size; i++) {
             vector[i] = LLVMMemory.getI8(currentPtr);
             currentPtr += I8_SIZE;
         }
-        return create(vector);
+        return vector;
     }
 
     public static void writeVectorToMemory(LLVMAddress address, LLVMI8Vector vector) {
         long currentPtr = address.getVal();
-        for (int i = 0; i < vector.getLength(); i++) {
-            LLVMMemory.putI8(currentPtr, vector.getValue(i));
+        switch (vector.getLength()) {
+            case 2:
+                writeVectorToMemory(currentPtr, vector.vector, 2);
+                break;
+            case 4:
+                writeVectorToMemory(currentPtr, vector.vector, 4);
+                break;
+            case 8:
+                writeVectorToMemory(currentPtr, vector.vector, 8);
+                break;
+            case 16:
+                writeVectorToMemory(currentPtr, vector.vector, 16);
+                break;
+            default:
+                writeVectorToMemoryLoop(currentPtr, vector.vector);
+                break;
+        }
+    }
+
+    @ExplodeLoop
+    private static void writeVectorToMemory(long address, byte[] vector, int lanes) {
+        long currentPtr = address;
+        for (int i = 0; i < lanes; i++) {
+            LLVMMemory.putI8(currentPtr, vector[i]);
+            currentPtr += I8_SIZE;
+        }
+    }
+
+    private static void writeVectorToMemoryLoop(long address, byte[] vector) {
+        long currentPtr = address;
+        for (int i = 0; i < vector.length; i++) {
+            LLVMMemory.putI8(currentPtr, vector[i]);
             currentPtr += I8_SIZE;
         }
     }
@@ -72,6 +130,97 @@ public final class LLVMI8Vector {
         byte eval(byte a, byte b);
     }
 
+    private static final Operation ADD = new Operation() {
+        @Override
+        public byte eval(byte a, byte b) {
+            return (byte) (a + b);
+        }
+    };
+
+    private static final Operation MUL = new Operation() {
+        @Override
+        public byte eval(byte a, byte b) {
+            return (byte) (a * b);
+        }
+    };
+
+    private static final Operation SUB = new Operation() {
+        @Override
+        public byte eval(byte a, byte b) {
+            return (byte) (a - b);
+        }
+    };
+
+    private static final Operation DIV = new Operation() {
+        @Override
+        public byte eval(byte a, byte b) {
+            return (byte) (a / b);
+        }
+    };
+
+    private static final Operation DIV_UNSIGNED = new Operation() {
+        @Override
+        public byte eval(byte a, byte b) {
+            return (byte) (Byte.toUnsignedInt(a) / Byte.toUnsignedInt(b));
+        }
+    };
+
+    private static final Operation REM = new Operation() {
+        @Override
+        public byte eval(byte a, byte b) {
+            return (byte) (a % b);
+        }
+    };
+
+    private static final Operation REM_UNSIGNED = new Operation() {
+        @Override
+        public byte eval(byte a, byte b) {
+            return (byte) (Byte.toUnsignedInt(a) % Byte.toUnsignedInt(b));
+        }
+    };
+
+    private static final Operation AND = new Operation() {
+        @Override
+        public byte eval(byte a, byte b) {
+            return (byte) (a & b);
+        }
+    };
+
+    private static final Operation OR = new Operation() {
+        @Override
+        public byte eval(byte a, byte b) {
+            return (byte) (a | b);
+        }
+    };
+
+    private static final Operation LEFT_SHIFT = new Operation() {
+        @Override
+        public byte eval(byte a, byte b) {
+            return (byte) (a << b);
+        }
+    };
+
+    private static final Operation LOGICAL_RIGHT_SHIFT = new Operation() {
+        @Override
+        public byte eval(byte a, byte b) {
+            return (byte) (a >>> b);
+        }
+    };
+
+    private static final Operation ARITHMETIC_RIGHT_SHIFT = new Operation() {
+        @Override
+        public byte eval(byte a, byte b) {
+            return (byte) (a >> b);
+        }
+    };
+
+    private static final Operation XOR = new Operation() {
+        @Override
+        public byte eval(byte a, byte b) {
+            return (byte) (a ^ b);
+        }
+    };
+
     private static LLVMI8Vector doOperation(LLVMI8Vector lhs, LLVMI8Vector rhs, Operation op) {
         byte[] left = lhs.vector;
         byte[] right = rhs.vector;
@@ -80,129 +229,87 @@ public final class LLVMI8Vector {
         // this implementation however assumes it
         assert left.length == right.length;
 
-        byte[] result = new byte[left.length];
+        switch (left.length) {
+            case 2:
+                return create(doOperation(left, right, op, 2));
+            case 4:
+                return create(doOperation(left, right, op, 4));
+            case 8:
+                return create(doOperation(left, right, op, 8));
+            case 16:
+                return create(doOperation(left, right, op, 16));
+            default:
+                return create(doOperationLoop(left, right, op));
+        }
+    }
+
+    @ExplodeLoop
+    private static byte[] doOperation(byte[] left, byte[] right, Operation op, int lanes) {
+        byte[] result = new byte[lanes];
+        for (int i = 0; i < lanes; i++) {
+            result[i] = op.eval(left[i], right[i]);
+        }
+        return result;
+    }
 
+    private static byte[] doOperationLoop(byte[] left, byte[] right, Operation op) {
+        byte[] result = new byte[left.length];
         for (int i = 0; i < left.length; i++) {
             result[i] = op.eval(left[i], right[i]);
         }
-        return create(result);
+        return result;
     }
 
     public LLVMI8Vector add(LLVMI8Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public byte eval(byte a, byte b) {
-                return (byte) (a + b);
-            }
-        });
+        return doOperation(this, rightValue, ADD);
     }
 
     public LLVMI8Vector mul(LLVMI8Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public byte eval(byte a, byte b) {
-                return (byte) (a * b);
-            }
-        });
+        return doOperation(this, rightValue, MUL);
     }
 
     public LLVMI8Vector sub(LLVMI8Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public byte eval(byte a, byte b) {
-                return (byte) (a - b);
-            }
-        });
+        return doOperation(this, rightValue, SUB);
     }
 
     public LLVMI8Vector div(LLVMI8Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public byte eval(byte a, byte b) {
-                return (byte) (a / b);
-            }
-        });
+        return doOperation(this, rightValue, DIV);
     }
 
     public LLVMI8Vector divUnsigned(LLVMI8Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public byte eval(byte a, byte b) {
-                return (byte) (Byte.toUnsignedInt(a) / Byte.toUnsignedInt(b));
-            }
-        });
+        return doOperation(this, rightValue, DIV_UNSIGNED);
     }
 
     public LLVMI8Vector rem(LLVMI8Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public byte eval(byte a, byte b) {
-                return (byte) (a % b);
-            }
-        });
+        return doOperation(this, rightValue, REM);
     }
 
     public LLVMI8Vector remUnsigned(LLVMI8Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public byte eval(byte a, byte b) {
-                return (byte) (Byte.toUnsignedInt(a) % Byte.toUnsignedInt(b));
-            }
-        });
+        return doOperation(this, rightValue, REM_UNSIGNED);
     }
 
     public LLVMI8Vector and(LLVMI8Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public byte eval(byte a, byte b) {
-                return (byte) (a & b);
-            }
-        });
+        return doOperation(this, rightValue, AND);
     }
 
     public LLVMI8Vector or(LLVMI8Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public byte eval(byte a, byte b) {
-                return (byte) (a | b);
-            }
-        });
+        return doOperation(this, rightValue, OR);
     }
 
     public LLVMI8Vector leftShift(LLVMI8Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public byte eval(byte a, byte b) {
-                return (byte) (a << b);
-            }
-        });
+        return doOperation(this, rightValue, LEFT_SHIFT);
     }
 
     public LLVMI8Vector logicalRightShift(LLVMI8Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public byte eval(byte a, byte b) {
-                return (byte) (a >>> b);
-            }
-        });
+        return doOperation(this, rightValue, LOGICAL_RIGHT_SHIFT);
     }
 
     public LLVMI8Vector arithmeticRightShift(LLVMI8Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public byte eval(byte a, byte b) {
-                return (byte) (a >> b);
-            }
-        });
+        return doOperation(this, rightValue, ARITHMETIC_RIGHT_SHIFT);
     }
 
     public LLVMI8Vector xor(LLVMI8Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public byte eval(byte a, byte b) {
-                return (byte) (a ^ b);
-            }
-        });
+        return doOperation(this, rightValue, XOR);
     }
 
     public byte[] getValues() {
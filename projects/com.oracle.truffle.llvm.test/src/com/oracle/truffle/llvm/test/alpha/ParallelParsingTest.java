@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.test.alpha;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collection;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Source;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+
+import com.oracle.truffle.llvm.pipe.CaptureOutput;
+import com.oracle.truffle.llvm.runtime.LLVMLanguage;
+import com.oracle.truffle.llvm.runtime.options.SulongEngineOption;
+import com.oracle.truffle.llvm.test.options.TestOptions;
+
+/**
+ * Converts all functions of a module eagerly, once on a single thread and once with several parser
+ * threads, and checks that both runs behave the same.
+ */
+@RunWith(Parameterized.class)
+public final class ParallelParsingTest {
+
+    private static final String PARSER_THREADS = "4";
+
+    @Parameter(value = 0) public String testName;
+
+    @Parameters(name = "{0}")
+    public static Collection<Object[]> data() {
+        return Arrays.asList(new Object[][]{
+                        {"c/string/stringFunctions/O0.bc"},
+                        {"c/calls/indirectCalls/O1.bc"},
+                        {"c/vector/saxpyDot/O1.bc"},
+                        {"c/osrLoopRewrite/O0.bc"},
+        });
+    }
+
+    @Test
+    public void test() throws Exception {
+        Path bitcode = Paths.get(TestOptions.TEST_SUITE_PATH, "com.oracle.truffle.llvm.tests.sulong", testName);
+        String sequential = run(bitcode.toFile(), "1");
+        String parallel = run(bitcode.toFile(), PARSER_THREADS);
+        assertEquals(sequential, parallel);
+    }
+
+    private static String run(File bitcode, String parserThreads) throws Exception {
+        Source source = Source.newBuilder(LLVMLanguage.NAME, bitcode).build();
+        Context context = Context.newBuilder().option(SulongEngineOption.LAZY_PARSING_NAME, String.valueOf(false)).option(SulongEngineOption.PARSER_THREADS_NAME, parserThreads).build();
+        try (CaptureOutput out = new CaptureOutput()) {
+            int result;
+            try {
+                result = context.eval(source).asInt();
+            } finally {
+                context.close();
+            }
+            System.out.flush();
+            return "return value: " + result + "\n" + out.getResult();
+        }
+    }
+}
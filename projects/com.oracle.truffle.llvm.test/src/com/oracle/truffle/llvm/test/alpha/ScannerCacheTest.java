@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.test.alpha;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.oracle.truffle.api.source.Source;
+import com.oracle.truffle.llvm.parser.listeners.ParserListener;
+import com.oracle.truffle.llvm.parser.scanner.BitStream;
+import com.oracle.truffle.llvm.parser.scanner.Block;
+import com.oracle.truffle.llvm.parser.scanner.LazyScanner;
+import com.oracle.truffle.llvm.parser.scanner.ScannerCache;
+import com.oracle.truffle.llvm.test.options.TestOptions;
+
+public class ScannerCacheTest {
+
+    private static final Path BITCODE = Paths.get(TestOptions.TEST_SUITE_PATH, "com.oracle.truffle.llvm.tests.sulong", "c", "string", "stringFunctions", "O0.bc");
+
+    // offset of the format version in an entry, it follows the magic word
+    private static final int VERSION_OFFSET = Long.BYTES;
+
+    private Path directory;
+
+    @Before
+    public void createDirectory() throws IOException {
+        directory = Files.createTempDirectory("sulong-scanner-cache");
+    }
+
+    @After
+    public void deleteDirectory() throws IOException {
+        for (Path file : getEntries()) {
+            Files.delete(file);
+        }
+        Files.delete(directory);
+    }
+
+    @Test
+    public void testReplay() throws IOException {
+        List<String> scanned = scan();
+        assertEquals(1, getEntries().size());
+        List<String> replayed = scan();
+        assertEquals(scanned, replayed);
+    }
+
+    @Test
+    public void testCorruptEntry() throws IOException {
+        List<String> scanned = scan();
+        Path entry = getEntries().get(0);
+        byte[] stored = Files.readAllBytes(entry);
+
+        byte[] corrupt = stored.clone();
+        corrupt[corrupt.length - 1] ^= 0x55;
+        Files.write(entry, corrupt);
+        assertEquals(scanned, scan());
+        assertArrayEquals(stored, Files.readAllBytes(entry));
+
+        Files.write(entry, Arrays.copyOf(stored, stored.length / 2));
+        assertEquals(scanned, scan());
+        assertArrayEquals(stored, Files.readAllBytes(entry));
+    }
+
+    @Test
+    public void testStaleEntry() throws IOException {
+        List<String> scanned = scan();
+        Path entry = getEntries().get(0);
+        byte[] stored = Files.readAllBytes(entry);
+
+        byte[] stale = stored.clone();
+        stale[VERSION_OFFSET + Integer.BYTES - 1]--;
+        Files.write(entry, stale);
+        assertEquals(scanned, scan());
+        assertArrayEquals(stored, Files.readAllBytes(entry));
+    }
+
+    @Test
+    public void testReplayLazyFunctions() throws IOException {
+        // the first scan records the function blocks, the second one replays them from the entry
+        List<String> recorded = scanLazily();
+        assertEquals(1, getEntries().size());
+        List<String> replayed = scanLazily();
+        assertEquals(recorded, replayed);
+        assertEquals(scan(), replayed);
+    }
+
+    private List<String> scan() throws IOException {
+        List<String> events = new ArrayList<>();
+        scan(new EventRecorder(events, null), false);
+        return events;
+    }
+
+    /**
+     * Scans with deferred function blocks and materializes each of them at the position where it
+     * was skipped, so that the events are the same as for an eager scan.
+     */
+    private List<String> scanLazily() throws IOException {
+        List<String> events = new ArrayList<>();
+        List<Deferred> deferred = new ArrayList<>();
+        scan(new EventRecorder(events, deferred), true);
+        assertFalse(deferred.isEmpty());
+        for (int i = deferred.size() - 1; i >= 0; i--) {
+            List<String> body = new ArrayList<>();
+            deferred.get(i).scanner.scan(new EventRecorder(body, null));
+            events.addAll(deferred.get(i).position, body);
+        }
+        return events;
+    }
+
+    private void scan(ParserListener listener, boolean lazyFunctions) throws IOException {
+        BitStream bitstream = BitStream.create(ByteBuffer.wrap(Files.readAllBytes(BITCODE)));
+        Source source = Source.newBuilder(new File(BITCODE.toString())).build();
+        new ScannerCache(directory).scan(source, bitstream, listener, lazyFunctions);
+    }
+
+    private List<Path> getEntries() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.collect(Collectors.toList());
+        }
+    }
+
+    private static final class Deferred {
+
+        final int position;
+        final LazyScanner scanner;
+
+        Deferred(int position, LazyScanner scanner) {
+            this.position = position;
+            this.scanner = scanner;
+        }
+    }
+
+    private static final class EventRecorder implements ParserListener {
+
+        private final List<String> events;
+        private final List<Deferred> deferred;
+
+        EventRecorder(List<String> events, List<Deferred> deferred) {
+            this.events = events;
+            this.deferred = deferred;
+        }
+
+        @Override
+        public ParserListener enter(Block block) {
+            events.add("enter " + block);
+            return this;
+        }
+
+        @Override
+        public void skip(Block block, LazyScanner lazyScanner) {
+            events.add("enter " + block);
+            deferred.add(new Deferred(events.size(), lazyScanner));
+        }
+
+        @Override
+        public void exit() {
+            events.add("exit");
+        }
+
+        @Override
+        public void record(long id, long[] args) {
+            events.add(id + " " + Arrays.toString(args));
+        }
+    }
+}
@@ -31,6 +31,10 @@ package com.oracle.truffle.llvm.test.interop;
 
 import java.io.File;
 import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
 
 import org.graalvm.polyglot.Context;
 import org.graalvm.polyglot.PolyglotException;
@@ -971,6 +975,85 @@ public final class LLVMInteropTest {
         Assert.assertEquals(-1, test13.asInt());
     }
 
+    @Test
+    public void testStringIntrinsics() throws Exception {
+        Runner runner = new Runner("stringIntrinsics");
+        runner.run();
+
+        // Java arrays are foreign objects, pointers into them (offset) are managed pointers
+        Value memcmp = runner.findGlobalSymbol("memcmp_");
+        Assert.assertEquals(0, memcmp.execute(cstr("abc"), cstr("abc"), 4).asInt());
+        Assert.assertEquals(-1, Integer.signum(memcmp.execute(cstr("abc"), cstr("abd"), 3).asInt()));
+        Assert.assertEquals(1, Integer.signum(memcmp.execute(cstr("ab\u00ff"), cstr("abc"), 3).asInt()));
+        Assert.assertEquals(0, runner.findGlobalSymbol("memcmp_offset").execute(cstr("xbc"), cstr("ybc"), 1, 2).asInt());
+        Assert.assertEquals(-1, Integer.signum(runner.findGlobalSymbol("memcmp_offset").execute(cstr("xbc"), cstr("ybd"), 1, 2).asInt()));
+        Assert.assertEquals(0, runner.findGlobalSymbol("memcmp_native").execute(cstr("hello there"), 6).asInt());
+        Assert.assertEquals(-1, Integer.signum(runner.findGlobalSymbol("memcmp_native").execute(cstr("hello there"), 7).asInt()));
+
+        Value strncmp = runner.findGlobalSymbol("strncmp_");
+        Assert.assertEquals(0, strncmp.execute(cstr("abc"), cstr("abd"), 2).asInt());
+        Assert.assertEquals(-1, Integer.signum(strncmp.execute(cstr("abc"), cstr("abd"), 3).asInt()));
+        Assert.assertEquals(0, strncmp.execute(cstr("ab\0x"), cstr("ab\0y"), 4).asInt());
+        Assert.assertEquals(0, strncmp.execute(cstr("abc"), cstr("abc"), -1).asInt());
+        Assert.assertEquals(0, runner.findGlobalSymbol("strncmp_offset").execute(cstr("xbc"), cstr("ybc"), 1, 10).asInt());
+        Assert.assertEquals(1, Integer.signum(runner.findGlobalSymbol("strncmp_offset").execute(cstr("xbd"), cstr("ybc"), 1, 10).asInt()));
+        Assert.assertEquals(0, runner.findGlobalSymbol("strncmp_native").execute(cstr("help"), 3).asInt());
+        Assert.assertEquals(-1, Integer.signum(runner.findGlobalSymbol("strncmp_native").execute(cstr("help"), 4).asInt()));
+
+        Value strchr = runner.findGlobalSymbol("strchr_");
+        Assert.assertEquals('d', strchr.execute(cstr("abcdef"), (int) 'c').asInt());
+        Assert.assertEquals(-1, strchr.execute(cstr("abcdef"), (int) 'z').asInt());
+        Assert.assertEquals('f', runner.findGlobalSymbol("strchr_offset").execute(cstr("abcdef"), 2, (int) 'e').asInt());
+        Assert.assertEquals(-1, runner.findGlobalSymbol("strchr_offset").execute(cstr("abcdef"), 2, (int) 'a').asInt());
+
+        Value memchr = runner.findGlobalSymbol("memchr_");
+        Assert.assertEquals('e', memchr.execute(cstr("abcdef"), (int) 'd', 6).asInt());
+        Assert.assertEquals(-1, memchr.execute(cstr("abcdef"), (int) 'f', 5).asInt());
+        Assert.assertEquals('c', runner.findGlobalSymbol("memchr_offset").execute(cstr("abcdef"), 1, (int) 'b', 3).asInt());
+        Assert.assertEquals(-1, runner.findGlobalSymbol("memchr_offset").execute(cstr("abcdef"), 1, (int) 'a', 3).asInt());
+
+        byte[] dest = filled(8);
+        runner.findGlobalSymbol("strcpy_").execute(dest, cstr("abc"));
+        Assert.assertArrayEquals(bytes("abc\0xxxx"), dest);
+        dest = filled(8);
+        runner.findGlobalSymbol("strcpy_offset").execute(dest, cstr("abcd"), 2);
+        Assert.assertArrayEquals(bytes("xxcd\0xxx"), dest);
+        dest = filled(16);
+        runner.findGlobalSymbol("strcpy_from_native").execute(dest);
+        Assert.assertArrayEquals(bytes("hello world\0xxxx"), dest);
+        Assert.assertEquals(0, runner.findGlobalSymbol("strcpy_to_native").execute(cstr("hello world")).asInt());
+        Assert.assertNotEquals(0, runner.findGlobalSymbol("strcpy_to_native").execute(cstr("hello")).asInt());
+
+        dest = filled(8);
+        runner.findGlobalSymbol("strncpy_").execute(dest, cstr("ab"), 5);
+        Assert.assertArrayEquals(bytes("ab\0\0\0xxx"), dest);
+        dest = filled(8);
+        runner.findGlobalSymbol("strncpy_offset").execute(dest, cstr("abcd"), 2, 4);
+        Assert.assertArrayEquals(bytes("xxcd\0\0xx"), dest);
+        dest = filled(8);
+        runner.findGlobalSymbol("strncpy_from_native").execute(dest, 5);
+        Assert.assertArrayEquals(bytes("helloxxx"), dest);
+        Assert.assertEquals(0, runner.findGlobalSymbol("strncpy_to_native").execute(cstr("hello world"), 16).asInt());
+    }
+
+    private static byte[] bytes(String s) {
+        byte[] result = new byte[s.length()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = (byte) s.charAt(i);
+        }
+        return result;
+    }
+
+    private static byte[] cstr(String s) {
+        return bytes(s + "\0");
+    }
+
+    private static byte[] filled(int length) {
+        byte[] result = new byte[length];
+        Arrays.fill(result, (byte) 'x');
+        return result;
+    }
+
     @Test
     public void testHandleFromNativeCallback() throws Exception {
         Runner runner = new Runner("handleFromNativeCallback");
@@ -987,6 +1070,81 @@ public final class LLVMInteropTest {
         Assert.assertEquals(42, result);
     }
 
+    @Test
+    public void testThreadStacks() throws Exception {
+        Runner runner = new Runner("threadStacks");
+        runner.run();
+        Value stackAddress = runner.findGlobalSymbol("stackAddress");
+        long[] addresses = new long[THREADS + 1];
+        addresses[THREADS] = stackAddress.execute().asLong();
+
+        // the threads only terminate at the end, so that none of their stacks is reused
+        CountDownLatch finish = new CountDownLatch(1);
+        Thread[] threads = new Thread[THREADS];
+        for (int i = 0; i < THREADS; i++) {
+            int index = i;
+            CountDownLatch called = new CountDownLatch(1);
+            threads[i] = new Thread(() -> {
+                addresses[index] = stackAddress.execute().asLong();
+                called.countDown();
+                try {
+                    finish.await();
+                } catch (InterruptedException e) {
+                    throw new AssertionError(e);
+                }
+            });
+            threads[i].start();
+            called.await();
+        }
+        finish.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        Set<Long> distinct = new HashSet<>();
+        for (long address : addresses) {
+            Assert.assertNotEquals(0, address);
+            distinct.add(address);
+        }
+        Assert.assertEquals(THREADS + 1, distinct.size());
+    }
+
+    @Test
+    public void testIndirectBranchThreads() throws Exception {
+        Runner runner = new Runner("indirectBranchThreads");
+        runner.run();
+        Value sum = runner.findGlobalSymbol("sum");
+
+        // all threads profile the same indirectbr nodes and select their hot targets concurrently
+        CountDownLatch start = new CountDownLatch(1);
+        Throwable[] failures = new Throwable[THREADS];
+        Thread[] threads = new Thread[THREADS];
+        for (int i = 0; i < THREADS; i++) {
+            int index = i;
+            threads[i] = new Thread(() -> {
+                try {
+                    start.await();
+                    for (int n = 1; n <= 200; n++) {
+                        Assert.assertEquals(n * (n + 1) / 2, sum.execute(n).asInt());
+                    }
+                } catch (Throwable t) {
+                    failures[index] = t;
+                }
+            });
+            threads[i].start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        for (Throwable failure : failures) {
+            if (failure != null) {
+                throw new AssertionError(failure);
+            }
+        }
+    }
+
     public static final class ClassA {
         public boolean valueBool = true;
         public byte valueB = 40;
@@ -1094,6 +1252,7 @@ public final class LLVMInteropTest {
 
     private static final Path TEST_DIR = new File(TestOptions.PROJECT_ROOT + "/../cache/tests/interoptests").toPath();
     private static final String FILE_SUFFIX = "_clang_v38_O0_MEM2REG.bc";
+    private static final int THREADS = 4;
 
     private static final class Runner {
         private final String fileName;
@@ -31,12 +31,10 @@ package com.oracle.truffle.llvm.types.floating.test;
 
 import static org.junit.Assert.assertEquals;
 
-import org.junit.Ignore;
 import org.junit.Test;
 
 import com.oracle.truffle.llvm.runtime.floating.LLVM80BitFloat;
 
-@Ignore("do not support addition yet: fix other floating point bugs first")
 public class LLVM80BitAddition extends LLVM80BitTest {
 
     @Test
@@ -85,9 +83,34 @@ public class LLVM80BitAddition extends LLVM80BitTest {
         assertEquals(13, result.getIntValue());
     }
 
+    @Test
+    public void testLongIsExact() {
+        // 2^62 + 1 is not representable as a double
+        long value = (1L << 62) + 1;
+        assertEquals(value, LLVM80BitFloat.fromLong(1L << 62).add(one()).getLongValue());
+    }
+
+    @Test
+    public void testRoundToEven() {
+        // 2^64 + 1 lies between two values, the tie is rounded to the even fraction
+        LLVM80BitFloat twoTo64 = LLVM80BitFloat.fromLong(1L << 62).mul(val(4));
+        assertEquals(twoTo64, twoTo64.add(one()));
+    }
+
+    @Test
+    public void testNegativeZero() {
+        assertEquals(minusZero(), minusZero().add(minusZero()));
+        assertEquals(zero(), minusZero().add(zero()));
+    }
+
+    @Test
+    public void testInfinityMinusInfinity() {
+        assertEquals(true, positiveInfinity().add(negativeInfinity()).isQNaN());
+    }
+
     @Test
     public void testInfinity() {
-        assertEquals(positiveInfinity(), positiveInfinity().add(positiveInfinity()).getIntValue());
+        assertEquals(positiveInfinity(), positiveInfinity().add(positiveInfinity()));
     }
 
 }
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.types.floating.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.oracle.truffle.llvm.runtime.floating.LLVM80BitFloat;
+
+public class LLVM80BitArithmeticTest extends LLVM80BitTest {
+
+    @Test
+    public void testSub() {
+        assertEquals(-1, val(4).sub(val(5)).getIntValue());
+        assertEquals(zero(), val(5).sub(val(5)));
+    }
+
+    @Test
+    public void testMul() {
+        assertEquals(-42, val(-6).mul(val(7)).getIntValue());
+        assertEquals(minusZero(), minusOne().mul(zero()));
+    }
+
+    @Test
+    public void testMulIsExact() {
+        // (2^32 + 1)^2 needs 65 bits and is rounded to 2^64 + 2^33 in the extended format
+        LLVM80BitFloat value = LLVM80BitFloat.fromLong((1L << 32) + 1);
+        LLVM80BitFloat expected = LLVM80BitFloat.fromLong((1L << 62) + (1L << 31)).mul(val(4));
+        assertEquals(expected, value.mul(value));
+    }
+
+    @Test
+    public void testDiv() {
+        assertEquals(3, val(21).div(val(7)).getIntValue());
+        assertEquals(LLVM80BitFloat.fromRawValues(false, 0x3ffd, 0xaaaaaaaaaaaaaaabL), one().div(val(3)));
+    }
+
+    @Test
+    public void testDivByZero() {
+        assertEquals(positiveInfinity(), one().div(zero()));
+        assertEquals(negativeInfinity(), minusOne().div(zero()));
+        assertTrue(zero().div(zero()).isQNaN());
+    }
+
+    @Test
+    public void testRem() {
+        assertEquals(1, val(7).rem(val(3)).getIntValue());
+        assertEquals(-1, val(-7).rem(val(3)).getIntValue());
+        assertBitEquals(0.5, val(5.5).rem(val(2.5)).getDoubleValue());
+    }
+
+    @Test
+    public void testRemHugeQuotient() {
+        // the quotient 2^200 does not fit into any integer type
+        LLVM80BitFloat dividend = val(Math.scalb(3.0, 200));
+        assertEquals(zero(), dividend.rem(val(3)));
+    }
+
+    @Test
+    public void testNaNPropagation() {
+        assertTrue(nan().add(one()).isQNaN());
+        assertTrue(one().mul(nan()).isQNaN());
+        assertTrue(positiveInfinity().rem(one()).isQNaN());
+    }
+
+}
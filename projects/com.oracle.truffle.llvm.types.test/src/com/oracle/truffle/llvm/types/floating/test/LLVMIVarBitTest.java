@@ -29,6 +29,108 @@
  */
 package com.oracle.truffle.llvm.types.floating.test;
 
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigInteger;
+
+import org.junit.Test;
+
+import com.oracle.truffle.llvm.runtime.LLVMIVarBit;
+
 public class LLVMIVarBitTest {
 
+    private static final int I128 = 128;
+
+    private static LLVMIVarBit val(int bits, String hex) {
+        return LLVMIVarBit.fromBigInteger(bits, new BigInteger(hex, 16));
+    }
+
+    private static LLVMIVarBit val(long value) {
+        return LLVMIVarBit.fromBigInteger(I128, BigInteger.valueOf(value));
+    }
+
+    private static void assertValue(String expectedHex, LLVMIVarBit actual) {
+        assertEquals(expectedHex, new BigInteger(1, actual.getBytes()).toString(16));
+    }
+
+    @Test
+    public void testAddCarry() {
+        assertValue("10000000000000000", val(I128, "ffffffffffffffff").add(val(1)));
+    }
+
+    @Test
+    public void testAddOverflow() {
+        assertValue("0", val(-1).add(val(1)));
+    }
+
+    @Test
+    public void testSubBorrow() {
+        assertValue("ffffffffffffffff", val(I128, "10000000000000000").sub(val(1)));
+    }
+
+    @Test
+    public void testMul() {
+        assertValue("fffffffffffffffe0000000000000001", val(I128, "ffffffffffffffff").mul(val(I128, "ffffffffffffffff")));
+        assertEquals(-6, val(-2).mul(val(3)).getLongValue());
+    }
+
+    @Test
+    public void testSignedDivRem() {
+        assertEquals(-2, val(-7).div(val(3)).getLongValue());
+        assertEquals(-1, val(-7).rem(val(3)).getLongValue());
+        assertEquals(1, val(7).rem(val(-3)).getLongValue());
+    }
+
+    @Test
+    public void testUnsignedDivRem() {
+        LLVMIVarBit dividend = val(I128, "123456789abcdef0123456789abcdef0");
+        LLVMIVarBit divisor = val(I128, "fedcba987654321");
+        assertValue("1249249249249237f", dividend.unsignedDiv(divisor));
+        assertValue("ea0ea0ea0ea0e91", dividend.unsignedRem(divisor));
+        assertValue("1", val(-1).unsignedDiv(val(I128, "ffffffffffffffffffffffffffffffff")));
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void testDivByZero() {
+        val(1).div(val(0));
+    }
+
+    @Test
+    public void testShifts() {
+        LLVMIVarBit value = val(I128, "80000000000000000000000000000001");
+        assertValue("2", value.leftShift(val(1)));
+        assertValue("1", value.logicalRightShift(val(127)));
+        assertValue("ffffffffffffffffffffffffffffffff", value.arithmeticRightShift(val(127)));
+        assertValue("ffffffffffffffffc000000000000000", value.arithmeticRightShift(val(65)));
+    }
+
+    @Test
+    public void testCompare() {
+        assertTrue(val(-1).signedCompare(val(1)) < 0);
+        assertTrue(val(-1).unsignedCompare(val(1)) > 0);
+        assertEquals(0, val(42).compare(val(42)));
+    }
+
+    @Test
+    public void testOddWidth() {
+        LLVMIVarBit max = val(65, "1ffffffffffffffff");
+        assertValue("0", max.add(LLVMIVarBit.fromLong(65, 1)));
+        assertEquals(-1, max.getLongValue());
+        assertValue("1ffffffffffffffff", max.arithmeticRightShift(LLVMIVarBit.fromLong(65, 64)));
+    }
+
+    @Test
+    public void testBytes() {
+        byte[] bytes = {1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16};
+        assertArrayEquals(bytes, LLVMIVarBit.create(I128, bytes).getBytes());
+    }
+
+    @Test
+    public void testWide() {
+        LLVMIVarBit value = val(256, "ffffffffffffffffffffffffffffffff");
+        assertValue("100000000000000000000000000000000", value.add(LLVMIVarBit.fromLong(256, 1)));
+    }
+
 }
@@ -29,18 +29,23 @@
  */
 package com.oracle.truffle.llvm;
 
-import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
-import java.util.Base64;
+import java.util.Arrays;
 import java.util.Scanner;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 
 import com.oracle.truffle.api.source.Source;
+import com.oracle.truffle.llvm.parser.scanner.BitStream;
 
 class Library {
 
@@ -52,9 +57,12 @@ class Library {
         this.file = file;
     }
 
-    void readContents(Consumer<String> handleLibrary, Consumer<Source> handleSource) throws IOException {
-        final byte[] buffer = new byte[BUFFER_SIZE];
-
+    /**
+     * Reads the entries of the library one at a time. Each bitcode module is handed to
+     * {@code handleBitcode} as soon as it has been read, together with a {@link Source} whose URI
+     * refers to the entry, so that {@link BitStream#create(Source)} can read the module on its own.
+     */
+    void readContents(Consumer<String> handleLibrary, BiConsumer<Source, BitStream> handleBitcode) throws IOException {
         try (ZipInputStream zipStream = new ZipInputStream(new FileInputStream(file))) {
             ZipEntry zipEntry = zipStream.getNextEntry();
 
@@ -64,28 +72,18 @@ class Library {
                     continue;
                 }
 
-                final ByteArrayOutputStream byteStream = new ByteArrayOutputStream();
-
-                while (true) {
-                    final int read = zipStream.read(buffer);
-                    if (read == -1) {
-                        break;
-                    }
-                    byteStream.write(buffer, 0, read);
-                }
-
-                final byte[] bytes = byteStream.toByteArray();
-
                 if (zipEntry.getName().equals("libs")) {
-                    final String libs = byteStream.toString(StandardCharsets.UTF_8.name());
+                    final ByteBuffer bytes = readEntry(zipStream, zipEntry);
+                    final String libs = new String(bytes.array(), 0, bytes.limit(), StandardCharsets.UTF_8);
                     try (Scanner scanner = new Scanner(libs)) {
                         while (scanner.hasNextLine()) {
                             handleLibrary.accept(scanner.nextLine());
                         }
                     }
                 } else if (zipEntry.getName().endsWith("." + Sulong.LLVM_BITCODE_EXTENSION)) {
-                    final String sourceCode = Base64.getEncoder().encodeToString(bytes);
-                    handleSource.accept(Source.newBuilder(sourceCode).name(file.getPath() + "@" + zipEntry.getName()).mimeType(Sulong.LLVM_BITCODE_BASE64_MIME_TYPE).build());
+                    final BitStream bitstream = BitStream.create(readEntry(zipStream, zipEntry));
+                    final Source source = Source.newBuilder("").name(file.getPath() + "@" + zipEntry.getName()).uri(getEntryURI(zipEntry)).mimeType(Sulong.LLVM_BITCODE_MIME_TYPE).build();
+                    handleBitcode.accept(source, bitstream);
                 }
 
                 zipEntry = zipStream.getNextEntry();
@@ -93,4 +91,36 @@ class Library {
         }
     }
 
+    private URI getEntryURI(ZipEntry entry) throws IOException {
+        try {
+            return new URI("jar", file.toURI() + "!/" + entry.getName(), null);
+        } catch (URISyntaxException e) {
+            throw new IOException(e);
+        }
+    }
+
+    /**
+     * Reads the current entry into a single array, which is sized up front whenever the archive
+     * records the uncompressed size.
+     */
+    private static ByteBuffer readEntry(InputStream stream, ZipEntry entry) throws IOException {
+        final long size = entry.getSize();
+        byte[] bytes = new byte[size >= 0 && size <= Integer.MAX_VALUE ? (int) size : BUFFER_SIZE];
+        int length = 0;
+        while (true) {
+            if (length == bytes.length) {
+                if (size == length) {
+                    break;
+                }
+                bytes = Arrays.copyOf(bytes, bytes.length * 2);
+            }
+            final int read = stream.read(bytes, length, bytes.length - length);
+            if (read == -1) {
+                break;
+            }
+            length += read;
+        }
+        return ByteBuffer.wrap(bytes, 0, length);
+    }
+
 }
@@ -34,16 +34,21 @@ import java.io.IOException;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import com.oracle.truffle.api.CallTarget;
 import com.oracle.truffle.api.RootCallTarget;
 import com.oracle.truffle.api.Truffle;
 import com.oracle.truffle.api.nodes.RootNode;
 import com.oracle.truffle.api.source.Source;
+import com.oracle.truffle.llvm.parser.BitcodeParserResult;
 import com.oracle.truffle.llvm.parser.LLVMParserResult;
 import com.oracle.truffle.llvm.parser.LLVMParserRuntime;
 import com.oracle.truffle.llvm.parser.NodeFactory;
+import com.oracle.truffle.llvm.parser.scanner.BitStream;
 import com.oracle.truffle.llvm.runtime.LLVMContext;
 import com.oracle.truffle.llvm.runtime.LLVMLanguage;
 import com.oracle.truffle.llvm.runtime.options.SulongEngineOption;
@@ -57,6 +62,18 @@ public final class Runner {
     }
 
     public CallTarget parse(LLVMLanguage language, LLVMContext context, Source code) throws IOException {
+        CallTarget mainFunction = parse(language, context, code, null);
+        // the global scope is frozen once all libraries of this parse are linked, freezing it after
+        // each library would copy all symbols again for the next one
+        context.getGlobalScope().freeze();
+        return mainFunction;
+    }
+
+    /**
+     * @param scan the pending scan of {@code code} if it is a bitcode file that is already being
+     *            scanned, or {@code null}
+     */
+    private CallTarget parse(LLVMLanguage language, LLVMContext context, Source code, ForkJoinTask<BitcodeParserResult> scan) throws IOException {
         try {
             /*
              * TODO: currently, we need to load the bitcode libraries first. Otherwise, sulong is
@@ -65,27 +82,27 @@ public final class Runner {
             parseDynamicBitcodeLibraries(language, context);
 
             CallTarget mainFunction = null;
-            if (code.getMimeType().equals(Sulong.LLVM_BITCODE_MIME_TYPE) || code.getMimeType().equals(Sulong.LLVM_BITCODE_BASE64_MIME_TYPE) || code.getMimeType().equals("x-unknown")) {
-                LLVMParserResult parserResult = parseBitcodeFile(code, language, context);
+            if (isBitcodeFile(code)) {
+                BitcodeParserResult bitcode = scan != null ? scan.join() : LLVMParserRuntime.scan(code, BitStream.create(code), context);
+                LLVMParserResult parserResult = parseBitcodeFile(code, bitcode, language, context);
                 mainFunction = parserResult.getMainCallTarget();
                 handleParserResult(context, parserResult);
             } else if (code.getMimeType().equals(Sulong.SULONG_LIBRARY_MIME_TYPE)) {
                 final Library library = new Library(new File(code.getPath()));
-                List<Source> sourceFiles = new ArrayList<>();
+                // the modules are scanned in parallel while the archive is read, but converted and
+                // initialized in archive order once all dependent native libraries are known
+                List<Source> sources = new ArrayList<>();
+                List<ForkJoinTask<BitcodeParserResult>> scans = new ArrayList<>();
                 library.readContents(dependentLibrary -> {
                     context.addLibraryToNativeLookup(dependentLibrary);
-                }, source -> {
-                    sourceFiles.add(source);
+                }, (source, bitstream) -> {
+                    sources.add(source);
+                    scans.add(scanAsync(context, source, () -> bitstream));
                 });
-                for (Source source : sourceFiles) {
-                    String mimeType = source.getMimeType();
+                for (int i = 0; i < sources.size(); i++) {
+                    Source source = sources.get(i);
                     try {
-                        LLVMParserResult parserResult;
-                        if (mimeType.equals(Sulong.LLVM_BITCODE_MIME_TYPE) || mimeType.equals(Sulong.LLVM_BITCODE_BASE64_MIME_TYPE)) {
-                            parserResult = parseBitcodeFile(source, language, context);
-                        } else {
-                            throw new UnsupportedOperationException(mimeType);
-                        }
+                        LLVMParserResult parserResult = parseBitcodeFile(source, scans.get(i).join(), language, context);
                         handleParserResult(context, parserResult);
                         if (parserResult.getMainCallTarget() != null) {
                             mainFunction = parserResult.getMainCallTarget();
@@ -110,6 +127,15 @@ public final class Runner {
         }
     }
 
+    private static boolean isBitcodeFile(Source source) {
+        String mimeType = source.getMimeType();
+        return mimeType.equals(Sulong.LLVM_BITCODE_MIME_TYPE) || mimeType.equals(Sulong.LLVM_BITCODE_BASE64_MIME_TYPE) || mimeType.equals("x-unknown");
+    }
+
+    private static ForkJoinTask<BitcodeParserResult> scanAsync(LLVMContext context, Source source, Supplier<BitStream> bitstream) {
+        return ForkJoinPool.commonPool().submit(() -> LLVMParserRuntime.scan(source, bitstream.get(), context));
+    }
+
     private static void visitBitcodeLibraries(LLVMContext context, Consumer<Source> sharedLibraryConsumer) throws IOException {
         String[] dynamicLibraryPaths = SulongEngineOption.getBitcodeLibraries(context.getEnv());
         if (dynamicLibraryPaths != null && dynamicLibraryPaths.length != 0) {
@@ -128,13 +154,21 @@ public final class Runner {
     private void parseDynamicBitcodeLibraries(LLVMLanguage language, LLVMContext context) throws IOException {
         if (!context.bcLibrariesLoaded()) {
             context.setBcLibrariesLoaded();
-            visitBitcodeLibraries(context, source -> {
+            List<Source> libraries = new ArrayList<>();
+            visitBitcodeLibraries(context, libraries::add);
+            // plain bitcode libraries are all scanned up front, archives scan their own modules
+            List<ForkJoinTask<BitcodeParserResult>> scans = new ArrayList<>();
+            for (Source source : libraries) {
+                scans.add(isBitcodeFile(source) ? scanAsync(context, source, () -> BitStream.create(source)) : null);
+            }
+            for (int i = 0; i < libraries.size(); i++) {
+                Source source = libraries.get(i);
                 try {
-                    new Runner(nodeFactory).parse(language, context, source);
+                    parse(language, context, source, scans.get(i));
                 } catch (Throwable t) {
                     throw new RuntimeException("Error while trying to parse dynamic library " + source.getName(), t);
                 }
-            });
+            }
         }
     }
 
@@ -148,7 +182,6 @@ public final class Runner {
             context.registerDestructorFunction(result.getDestructorFunction());
         }
         if (!context.getEnv().getOptions().get(SulongEngineOption.PARSE_ONLY)) {
-            context.getThreadingStack().checkThread();
             long stackPointer = context.getThreadingStack().getStack().getStackPointer();
             result.getGlobalVarInit().call(stackPointer);
             context.getThreadingStack().getStack().setStackPointer(stackPointer);
@@ -161,7 +194,6 @@ public final class Runner {
     }
 
     public static void disposeContext(LLVMContext context) {
-        context.getThreadingStack().checkThread();
         for (RootCallTarget destructorFunction : context.getDestructorFunctions()) {
             long stackPointer = context.getThreadingStack().getStack().getStackPointer();
             destructorFunction.call(stackPointer);
@@ -172,11 +204,14 @@ public final class Runner {
             destructor.call(stackPointer);
             context.getThreadingStack().getStack().setStackPointer(stackPointer);
         }
+        context.shutdownParserPool();
         context.getThreadingStack().freeStacks();
+        context.freeHandles();
+        context.getMemoryAllocator().dispose();
     }
 
-    private LLVMParserResult parseBitcodeFile(Source source, LLVMLanguage language, LLVMContext context) {
+    private LLVMParserResult parseBitcodeFile(Source source, BitcodeParserResult bitcode, LLVMLanguage language, LLVMContext context) {
         context.setNativeIntrinsicsFactory(nodeFactory.getNativeIntrinsicsFactory(language, context));
-        return LLVMParserRuntime.parse(source, language, context, nodeFactory);
+        return LLVMParserRuntime.parse(source, bitcode, language, context, nodeFactory);
     }
 }
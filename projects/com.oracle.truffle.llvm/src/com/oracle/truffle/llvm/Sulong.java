@@ -70,6 +70,8 @@ public final class Sulong extends LLVMLanguage {
     @Override
     protected void disposeContext(LLVMContext context) {
         context.printNativeCallStatistic();
+        context.printNativeCallProfile();
+        context.printAllocatorStatistic();
         Runner.disposeContext(context);
     }
 
@@ -0,0 +1,69 @@
+struct counter {
+  long value;
+};
+
+__attribute__((noinline)) int add(struct counter *c, int x) {
+  c->value += x;
+  return x + 1;
+}
+
+__attribute__((noinline)) int sub(struct counter *c, int x) {
+  c->value -= x / 2;
+  return x + 3;
+}
+
+__attribute__((noinline)) int mix(struct counter *c, int x) {
+  c->value ^= x;
+  return x + 5;
+}
+
+__attribute__((noinline)) int shl(struct counter *c, int x) {
+  c->value += x << 1;
+  return x + 7;
+}
+
+__attribute__((noinline)) int shr(struct counter *c, int x) {
+  c->value -= x >> 1;
+  return x + 11;
+}
+
+__attribute__((noinline)) int inc(struct counter *c, int x) {
+  c->value++;
+  return x + 13;
+}
+
+__attribute__((noinline)) int dec(struct counter *c, int x) {
+  c->value--;
+  return x + 17;
+}
+
+__attribute__((noinline)) int neg(struct counter *c, int x) {
+  c->value = -c->value;
+  return x + 19;
+}
+
+int (*volatile functions[])(struct counter *, int) = { add, sub, mix };
+
+int (*volatile megamorphicFunctions[])(struct counter *, int) = { add, sub, mix, shl, shr, inc, dec, neg };
+
+int run(int n) {
+  struct counter c = { 0 };
+  int x = 0;
+  int i;
+  for (i = 0; i < n; i++) {
+    x = functions[i % 3](&c, x) & 0xffff;
+  }
+  return (int) (c.value & 0xff);
+}
+
+int runMegamorphic(int n) {
+  struct counter c = { 0 };
+  int x = 0;
+  int i;
+  for (i = 0; i < n; i++) {
+    x = megamorphicFunctions[i % 8](&c, x) & 0xffff;
+  }
+  return (int) (c.value & 0xff);
+}
+
+int main() { return (run(100000) + runMegamorphic(100000)) & 0xff; }
@@ -0,0 +1,40 @@
+#include <stdlib.h>
+
+struct asdf {
+  unsigned long a;
+  unsigned long b;
+};
+
+static void check(volatile __uint128_t *val, unsigned long lo, unsigned long hi) {
+  volatile struct asdf *ptr = (struct asdf *)val;
+  if (ptr->a != lo || ptr->b != hi) {
+    abort();
+  }
+}
+
+int main() {
+  volatile __uint128_t a = 0xffffffffffffffffUL;
+  volatile __uint128_t b = 0x123456789abcdef0UL;
+  volatile __uint128_t result;
+
+  result = a + 1;
+  check(&result, 0, 1);
+  result = (__uint128_t)0 - 1;
+  check(&result, -1UL, -1UL);
+  result = a * a;
+  check(&result, 1, 0xfffffffffffffffeUL);
+  result = (a * b) / b;
+  check(&result, a, 0);
+  result = ((a * b) + 7) % b;
+  check(&result, 7, 0);
+
+  volatile __int128_t s = -(__int128_t)b * 3;
+  volatile __int128_t q = s / 2;
+  if (q != -(__int128_t)b * 3 / 2 || s % 2 != 0 || (s + 1) % 2 != 1 - 2) {
+    abort();
+  }
+  if (!(s < 0) || !(result < a) || (__uint128_t)s < a) {
+    abort();
+  }
+  return 0;
+}
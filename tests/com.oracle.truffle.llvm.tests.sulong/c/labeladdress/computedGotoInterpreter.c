@@ -0,0 +1,71 @@
+enum { PUSH, ADD, SUB, DUP, SWAP, OVER, JNZ, DROP, HALT };
+
+static int run(const int *code, int *stack) {
+  static void *dispatch[] = { &&push, &&add, &&sub, &&dup, &&swap, &&over, &&jnz, &&drop, &&halt };
+  const int *pc = code;
+  int *sp = stack;
+  goto *dispatch[*pc++];
+push:
+  *sp++ = *pc++;
+  goto *dispatch[*pc++];
+add:
+  sp--;
+  sp[-1] += sp[0];
+  goto *dispatch[*pc++];
+sub:
+  sp--;
+  sp[-1] -= sp[0];
+  goto *dispatch[*pc++];
+dup:
+  sp[0] = sp[-1];
+  sp++;
+  goto *dispatch[*pc++];
+swap : {
+  int tmp = sp[-1];
+  sp[-1] = sp[-2];
+  sp[-2] = tmp;
+  goto *dispatch[*pc++];
+}
+over:
+  sp[0] = sp[-2];
+  sp++;
+  goto *dispatch[*pc++];
+jnz:
+  sp--;
+  if (sp[0] != 0) {
+    pc = code + *pc;
+  } else {
+    pc++;
+  }
+  goto *dispatch[*pc++];
+drop:
+  sp--;
+  goto *dispatch[*pc++];
+halt:
+  return sp[-1];
+}
+
+int main() {
+  // sums up the numbers from 1 to 50000
+  const int code[] = {
+    PUSH, 0,     // acc
+    PUSH, 50000, // acc n
+    SWAP,        // 4: n acc
+    OVER,        // n acc n
+    ADD,         // n acc
+    SWAP,        // acc n
+    PUSH, 1,     // acc n 1
+    SUB,         // acc n
+    DUP,         // acc n n
+    JNZ, 4,      // acc n
+    DROP,        // acc
+    HALT
+  };
+  int stack[8];
+  unsigned checksum = 0;
+  int i;
+  for (i = 0; i < 20; i++) {
+    checksum = checksum * 31 + run(code, stack) + i;
+  }
+  return checksum & 0xff;
+}
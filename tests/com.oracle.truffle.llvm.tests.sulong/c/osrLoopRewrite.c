@@ -0,0 +1,36 @@
+#include <stdio.h>
+
+static int add(int a, int b) {
+  return a + b;
+}
+
+static int sub(int a, int b) {
+  return a - b;
+}
+
+static int mul(int a, int b) {
+  return a * b;
+}
+
+static long sum(int n, int (*ops[])(int, int)) {
+  long result = 0;
+  int (*op)(int, int) = ops[0];
+  int i;
+  for (i = 0; i < n; i++) {
+    // the call site only sees a new target long after the loop went through OSR
+    if (i == n / 2) {
+      op = ops[1];
+    } else if (i == n - 1000) {
+      op = ops[2];
+    }
+    result += op(i & 0xff, 3);
+  }
+  return result;
+}
+
+int main() {
+  int (*ops[])(int, int) = { add, sub, mul };
+  printf("%ld\n", sum(2000000, ops));
+  printf("%ld\n", sum(2000000, ops));
+  return 0;
+}
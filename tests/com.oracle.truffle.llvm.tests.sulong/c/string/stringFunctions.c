@@ -0,0 +1,110 @@
+#include <stdlib.h>
+#include <string.h>
+
+#define LENGTH 100
+
+char buffer1[LENGTH + 1];
+char buffer2[LENGTH + 1];
+char target[LENGTH + 16];
+
+static void fill(int seed) {
+  int i;
+  for (i = 0; i < LENGTH; i++) {
+    buffer1[i] = 'a' + (i * 7 + seed) % 26;
+    buffer2[i] = buffer1[i];
+  }
+  buffer1[LENGTH] = '\0';
+  buffer2[LENGTH] = '\0';
+}
+
+static void check(int condition) {
+  if (!condition) {
+    abort();
+  }
+}
+
+static int sign(int value) { return value < 0 ? -1 : value > 0; }
+
+static void testCompare(void) {
+  int i;
+  for (i = 0; i < LENGTH; i++) {
+    fill(i);
+    check(memcmp(buffer1, buffer2, LENGTH) == 0);
+    check(strncmp(buffer1, buffer2, LENGTH + 5) == 0);
+    check(strncmp(buffer1, buffer2, (size_t) -1) == 0);
+    buffer2[i] = (char) 0xf0;
+    check(sign(memcmp(buffer1, buffer2, LENGTH)) == -1);
+    check(sign(memcmp(buffer2, buffer1, LENGTH)) == 1);
+    check(memcmp(buffer1, buffer2, i) == 0);
+    check(sign(strncmp(buffer1, buffer2, LENGTH)) == -1);
+    check(strncmp(buffer1, buffer2, i) == 0);
+    buffer2[i] = '\0';
+    check(sign(strncmp(buffer1, buffer2, LENGTH)) == 1);
+    check(sign(strncmp(buffer1 + i, buffer2 + i, 1)) == 1);
+  }
+}
+
+static void testSearch(void) {
+  int i;
+  fill(3);
+  for (i = 0; i < LENGTH; i++) {
+    char c = buffer1[i];
+    buffer1[i] = '#';
+    check(strchr(buffer1, '#') == buffer1 + i);
+    check(memchr(buffer1, '#', LENGTH) == buffer1 + i);
+    check(memchr(buffer1, '#', i) == NULL);
+    check(memchr(buffer1, '#', (size_t) -1) == buffer1 + i);
+    buffer1[i] = c;
+  }
+  check(strchr(buffer1, '#') == NULL);
+  check(strchr(buffer1, '\0') == buffer1 + LENGTH);
+  check(memchr(buffer1, '\0', LENGTH + 1) == buffer1 + LENGTH);
+}
+
+static void testCopy(void) {
+  int i;
+  int j;
+  for (i = 0; i < LENGTH; i++) {
+    fill(i);
+    buffer1[i] = '\0';
+    memset(target, '*', sizeof(target));
+    check(strcpy(target + 1, buffer1) == target + 1);
+    check(strcmp(target + 1, buffer1) == 0);
+    check(target[i + 2] == '*');
+
+    memset(target, '*', sizeof(target));
+    check(strncpy(target, buffer1, i + 8) == target);
+    check(strncmp(target, buffer1, i) == 0);
+    for (j = i; j < i + 8; j++) {
+      check(target[j] == '\0');
+    }
+    check(target[i + 8] == '*');
+
+    memset(target, '*', sizeof(target));
+    strncpy(target, buffer2, i);
+    check(memcmp(target, buffer2, i) == 0);
+    check(target[i] == '*');
+  }
+}
+
+int run(int n) {
+  int result = 0;
+  int i;
+  fill(n);
+  for (i = 0; i < n; i++) {
+    strcpy(target, buffer1);
+    result += strncmp(target, buffer2, LENGTH) == 0;
+    result += memcmp(target, buffer2, LENGTH) == 0;
+    result += (int) ((char *) memchr(target, 'z', LENGTH) - target);
+    result += (int) (strchr(target, 'y') - target);
+    strncpy(target, buffer2, LENGTH + 8);
+  }
+  return result & 0xff;
+}
+
+int main(void) {
+  testCompare();
+  testSearch();
+  testCopy();
+  return run(10);
+}
@@ -0,0 +1,65 @@
+typedef float float4 __attribute__((vector_size(16)));
+typedef double double2 __attribute__((vector_size(16)));
+typedef int int4 __attribute__((vector_size(16)));
+
+#define LENGTH 256
+
+float4 x[LENGTH / 4];
+float4 y[LENGTH / 4];
+double2 u[LENGTH / 2];
+double2 v[LENGTH / 2];
+int4 counters[LENGTH / 4];
+
+static void init(void) {
+  int i;
+  for (i = 0; i < LENGTH; i++) {
+    x[i / 4][i % 4] = (float) (i % 7);
+    y[i / 4][i % 4] = (float) (i % 5);
+    u[i / 2][i % 2] = (double) (i % 3);
+    v[i / 2][i % 2] = (double) (i % 11);
+    counters[i / 4][i % 4] = i;
+  }
+}
+
+float saxpy(int n) {
+  float4 a = { 0.5f, 0.5f, 0.5f, 0.5f };
+  float4 sum = { 0, 0, 0, 0 };
+  int round;
+  int i;
+  for (round = 0; round < n; round++) {
+    for (i = 0; i < LENGTH / 4; i++) {
+      float4 result = a * x[i] + y[i];
+      sum += result;
+    }
+  }
+  return sum[0] + sum[1] + sum[2] + sum[3];
+}
+
+double dot(int n) {
+  double2 sum = { 0, 0 };
+  int round;
+  int i;
+  for (round = 0; round < n; round++) {
+    for (i = 0; i < LENGTH / 2; i++) {
+      sum += u[i] * v[i];
+    }
+  }
+  return sum[0] + sum[1];
+}
+
+int increment(int n) {
+  int4 one = { 1, 1, 1, 1 };
+  int round;
+  int i;
+  for (round = 0; round < n; round++) {
+    for (i = 0; i < LENGTH / 4; i++) {
+      counters[i] = (counters[i] + one) ^ one;
+    }
+  }
+  return counters[3][1];
+}
+
+int main(void) {
+  init();
+  return ((int) saxpy(2) + (int) dot(2) + increment(3)) & 0xff;
+}
@@ -0,0 +1,123 @@
+#include <stdio.h>
+
+struct Base {
+  int value;
+  Base(int value) : value(value) {
+  }
+  virtual ~Base() {
+  }
+};
+
+template <int N> struct Derived : public Base {
+  Derived() : Base(N) {
+  }
+};
+
+struct Counted {
+  static int alive;
+  Counted() {
+    alive++;
+  }
+  Counted(const Counted &c) {
+    alive++;
+  }
+  ~Counted() {
+    alive--;
+  }
+};
+
+int Counted::alive = 0;
+
+static void throwDerived(int i) {
+  switch (i % 7) {
+  case 0:
+    throw Derived<0>();
+  case 1:
+    throw Derived<1>();
+  case 2:
+    throw Derived<2>();
+  case 3:
+    throw Derived<3>();
+  case 4:
+    throw Derived<4>();
+  case 5:
+    throw Derived<5>();
+  default:
+    throw Derived<6>();
+  }
+}
+
+static void throwMixed(int i) {
+  static int object = 42;
+  switch (i % 4) {
+  case 0:
+    throw i;
+  case 1:
+    throw &object;
+  case 2:
+    throw Counted();
+  default:
+    throw Base(i);
+  }
+}
+
+static int rethrow(int i) {
+  try {
+    throwMixed(i);
+  } catch (...) {
+    throw;
+  }
+  return -1;
+}
+
+extern "C" int throwCatch(int n) {
+  int sum = 0;
+  for (int i = 0; i < n; i++) {
+    try {
+      throw i;
+    } catch (int e) {
+      sum += e & 3;
+    }
+  }
+  return sum;
+}
+
+extern "C" int throwCatchPolymorphic(int n) {
+  int sum = 0;
+  for (int i = 0; i < n; i++) {
+    try {
+      throwDerived(i);
+    } catch (Derived<3> &e) {
+      sum += 100;
+    } catch (Base &e) {
+      sum += e.value;
+    }
+  }
+  return sum;
+}
+
+extern "C" int throwCatchMixed(int n) {
+  int sum = 0;
+  for (int i = 0; i < n; i++) {
+    try {
+      rethrow(i);
+    } catch (int e) {
+      sum += 1;
+    } catch (int *e) {
+      sum += *e;
+    } catch (Counted &e) {
+      sum += 3;
+    } catch (Base e) {
+      sum += 4;
+    }
+  }
+  return sum;
+}
+
+int main() {
+  printf("%d\n", throwCatch(100));
+  printf("%d\n", throwCatchPolymorphic(100));
+  printf("%d\n", throwCatchMixed(100));
+  printf("%d\n", Counted::alive);
+  return 0;
+}
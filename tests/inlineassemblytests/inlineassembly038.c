@@ -0,0 +1,23 @@
+static inline int add(int a, int b) {
+  __asm__("addl %2, %0;" : "=r"(a) : "0"(a), "r"(b));
+  return a;
+}
+
+static inline int swap(int a) {
+  __asm__("bswapl %0;" : "=r"(a) : "0"(a));
+  return a;
+}
+
+int f1(int x) { return add(x, 1); }
+
+int f2(int x) { return add(x, -3); }
+
+int f3(int x) { return swap(add(x, x)); }
+
+int main() {
+  int sum = 0;
+  for (int i = 0; i < 10; i++) {
+    sum += f1(i) + f2(i) + (f3(i) >> 24);
+  }
+  return sum & 0xff;
+}
@@ -0,0 +1,63 @@
+#include <string.h>
+
+static const char native[] = "hello world";
+
+int main() { return 0; }
+
+int memcmp_(const char *s1, const char *s2, long n) { return memcmp(s1, s2, n); }
+
+int memcmp_offset(const char *s1, const char *s2, int offset, long n) { return memcmp(s1 + offset, s2 + offset, n); }
+
+int memcmp_native(const char *s, long n) { return memcmp(s, native, n); }
+
+int strncmp_(const char *s1, const char *s2, long n) { return strncmp(s1, s2, n); }
+
+int strncmp_offset(const char *s1, const char *s2, int offset, long n) { return strncmp(s1 + offset, s2 + offset, n); }
+
+int strncmp_native(const char *s, long n) { return strncmp(native, s, n); }
+
+// returns the character after the one that was found, so that the returned pointer is used
+int strchr_(const char *s, int c) {
+  const char *result = strchr(s, c);
+  return result == NULL ? -1 : result[1];
+}
+
+int strchr_offset(const char *s, int offset, int c) {
+  const char *result = strchr(s + offset, c);
+  return result == NULL ? -1 : result[1];
+}
+
+int memchr_(const char *s, int c, long n) {
+  const char *result = memchr(s, c, n);
+  return result == NULL ? -1 : result[1];
+}
+
+int memchr_offset(const char *s, int offset, int c, long n) {
+  const char *result = memchr(s + offset, c, n);
+  return result == NULL ? -1 : result[1];
+}
+
+void strcpy_(char *dest, const char *src) { strcpy(dest, src); }
+
+void strcpy_offset(char *dest, const char *src, int offset) { strcpy(dest + offset, src + offset); }
+
+void strcpy_from_native(char *dest) { strcpy(dest, native); }
+
+int strcpy_to_native(const char *src) {
+  char buffer[32];
+  strcpy(buffer, src);
+  return strcmp(buffer, native);
+}
+
+void strncpy_(char *dest, const char *src, long n) { strncpy(dest, src, n); }
+
+void strncpy_offset(char *dest, const char *src, int offset, long n) { strncpy(dest + offset, src + offset, n); }
+
+void strncpy_from_native(char *dest, long n) { strncpy(dest, native, n); }
+
+int strncpy_to_native(const char *src, long n) {
+  char buffer[32];
+  memset(buffer, 'x', sizeof(buffer));
+  strncpy(buffer, src, n);
+  return memcmp(buffer, native, sizeof(native));
+}
@@ -0,0 +1,8 @@
+#include <stdint.h>
+
+int64_t stackAddress() {
+  volatile int local = 0;
+  return (int64_t) (intptr_t) &local;
+}
+
+int main() { return 0; }